@@ -1,5 +1,11 @@
 package com.spark.platform;
 
+import com.spark.platform.config.DatabaseConfig;
+import com.spark.platform.config.MigrationRunner;
+import com.spark.platform.services.MaterialUploadService;
+import com.spark.platform.services.NotificationDispatcher;
+import com.spark.platform.services.TaskEventService;
+import com.spark.platform.utils.UiMetrics;
 import javafx.application.Application;
 import javafx.fxml.FXMLLoader;
 import javafx.scene.Parent;
@@ -12,6 +18,37 @@ import javafx.stage.Stage;
  */
 public class MainApp extends Application {
 
+    private NotificationDispatcher dispatcher;
+
+    /** Runs on the launcher thread before start(), so schema changes never block the UI thread. */
+    @Override
+    public void init() {
+        try {
+            if (DatabaseConfig.getInstance().isMigrateOnStartup()) {
+                new MigrationRunner().migrate();
+            }
+        } catch (Exception e) {
+            // Keep starting: screens report their own DB errors, and the runner can be re-run by hand.
+            System.err.println("Schema migration failed: " + e.getMessage());
+        }
+        // Small deployments can deliver SMS / e-mail from the app itself instead of tools.NotificationWorker.
+        try {
+            if (DatabaseConfig.getInstance().isDispatchNotifications()) {
+                NotificationDispatcher local = NotificationDispatcher.withLocalSinks(1, 50, 8);
+                local.start();
+                dispatcher = local;
+            }
+        } catch (Exception e) {
+            // Notifications stay queued in the database for tools.NotificationWorker.
+            System.err.println("Could not start notification dispatcher: " + e.getMessage());
+        }
+        try {
+            new MaterialUploadService().resumePendingExtractions();
+        } catch (Exception e) {
+            System.err.println("Could not resume material extraction: " + e.getMessage());
+        }
+    }
+
     @Override
     public void start(Stage stage) throws Exception {
         FXMLLoader loader = new FXMLLoader(
@@ -20,6 +57,7 @@ public class MainApp extends Application {
         Parent root = loader.load();
 
         Scene scene = new Scene(root, 1280, 800);
+        UiMetrics.install(scene); // no-op unless -Dspark.uiMetrics=true
         stage.setTitle("Spark — Academic Studio");
         stage.setMinWidth(960);
         stage.setMinHeight(640);
@@ -27,6 +65,13 @@ public class MainApp extends Application {
         stage.show();
     }
 
+    /** Give queued activity-log writes and in-flight deliveries a moment to finish before the JVM exits. */
+    @Override
+    public void stop() throws Exception {
+        TaskEventService.flush(2000);
+        if (dispatcher != null) dispatcher.stop(2000);
+    }
+
     public static void main(String[] args) {
         launch(args);
     }
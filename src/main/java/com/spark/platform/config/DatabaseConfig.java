@@ -14,6 +14,15 @@ public class DatabaseConfig {
     private final String username;
     private final String password;
     private final String driver;
+    private final QueryMetrics queryMetrics;
+    private final boolean migrateOnStartup;
+    private final boolean dispatchNotifications;
+    private final String notificationSinkDir;
+    private final String searchIndexDir;
+    private final String materialStoreDir;
+    private final String materialUploadDir;
+    private final int extractionWorkers;
+    private final int derivationWorkers;
 
     private DatabaseConfig() {
         Properties props = new Properties();
@@ -39,6 +48,26 @@ public class DatabaseConfig {
         } catch (ClassNotFoundException e) {
             throw new RuntimeException("MySQL JDBC Driver not found. Add mysql-connector-j to pom.xml", e);
         }
+
+        this.migrateOnStartup = Boolean.parseBoolean(props.getProperty("db.migrate.onStartup", "true"));
+        this.dispatchNotifications = Boolean.parseBoolean(props.getProperty("notifications.dispatch.inApp", "false"));
+        this.notificationSinkDir = props.getProperty("notifications.sinkDir", "logs");
+        this.searchIndexDir = props.getProperty("search.indexDir", "data");
+        this.materialStoreDir = props.getProperty("materials.storeDir", "data/materials");
+        this.materialUploadDir = props.getProperty("materials.uploadDir", "data/uploads");
+        this.extractionWorkers = Integer.parseInt(props.getProperty("materials.extractWorkers", "2"));
+        this.derivationWorkers = Integer.parseInt(props.getProperty("materials.deriveWorkers", "2"));
+
+        // Query metrics are on by default; set db.metrics.enabled=false to hand out raw driver connections.
+        if (Boolean.parseBoolean(props.getProperty("db.metrics.enabled", "true"))) {
+            this.queryMetrics = new QueryMetrics(Long.parseLong(props.getProperty("db.metrics.slowQueryMillis", "200")));
+            queryMetrics.registerMBean();
+            queryMetrics.startPeriodicDump(
+                    Long.parseLong(props.getProperty("db.metrics.dumpIntervalSeconds", "0")),
+                    props.getProperty("db.metrics.dumpFile", ""));
+        } else {
+            this.queryMetrics = null;
+        }
     }
 
     public static DatabaseConfig getInstance() {
@@ -53,7 +82,58 @@ public class DatabaseConfig {
     }
 
     public Connection getConnection() throws SQLException {
-        return DriverManager.getConnection(url, username, password);
+        if (queryMetrics == null) {
+            return DriverManager.getConnection(url, username, password);
+        }
+        long start = System.nanoTime();
+        Connection conn = DriverManager.getConnection(url, username, password);
+        queryMetrics.recordConnectionAcquire(System.nanoTime() - start);
+        return InstrumentedJdbc.wrap(conn, queryMetrics);
+    }
+
+    /** Whether MainApp should run MigrationRunner before showing the UI (db.migrate.onStartup). */
+    public boolean isMigrateOnStartup() {
+        return migrateOnStartup;
+    }
+
+    /** Whether MainApp runs a NotificationDispatcher itself (notifications.dispatch.inApp). */
+    public boolean isDispatchNotifications() {
+        return dispatchNotifications;
+    }
+
+    /** Directory the local SMS / e-mail sinks write to (notifications.sinkDir). */
+    public String getNotificationSinkDir() {
+        return notificationSinkDir;
+    }
+
+    /** Directory the Spark AI material index is kept in (search.indexDir). */
+    public String getSearchIndexDir() {
+        return searchIndexDir;
+    }
+
+    /** Root of the file store for large material bodies (materials.storeDir). */
+    public String getMaterialStoreDir() {
+        return materialStoreDir;
+    }
+
+    /** Where uploads are received and original files kept (materials.uploadDir). */
+    public String getMaterialUploadDir() {
+        return materialUploadDir;
+    }
+
+    /** Background threads extracting text from uploaded materials (materials.extractWorkers). */
+    public int getExtractionWorkers() {
+        return extractionWorkers;
+    }
+
+    /** Threads generating quizzes, flashcards and mind maps from materials (materials.deriveWorkers). */
+    public int getDerivationWorkers() {
+        return derivationWorkers;
+    }
+
+    /** JDBC statement metrics, or null when db.metrics.enabled=false. */
+    public QueryMetrics getQueryMetrics() {
+        return queryMetrics;
     }
 
     /**
@@ -0,0 +1,169 @@
+package com.spark.platform.config;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.*;
+import java.util.Set;
+
+/**
+ * Dynamic-proxy wrappers that feed {@link QueryMetrics}.
+ * Connection → Statement/PreparedStatement → ResultSet: every execute is timed,
+ * bind parameters are counted, update counts and fetched rows are added to the
+ * statement's fingerprint. Everything else passes straight through to the driver.
+ */
+final class InstrumentedJdbc {
+
+    private static final Set<String> EXECUTE_METHODS = Set.of(
+            "execute", "executeQuery", "executeUpdate", "executeLargeUpdate", "executeBatch", "executeLargeBatch");
+
+    private InstrumentedJdbc() {}
+
+    static Connection wrap(Connection conn, QueryMetrics metrics) {
+        return (Connection) Proxy.newProxyInstance(
+                Connection.class.getClassLoader(),
+                new Class<?>[]{Connection.class},
+                new ConnectionHandler(conn, metrics));
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    // ──── Connection ────
+    private static class ConnectionHandler implements InvocationHandler {
+        private final Connection delegate;
+        private final QueryMetrics metrics;
+
+        ConnectionHandler(Connection delegate, QueryMetrics metrics) {
+            this.delegate = delegate;
+            this.metrics = metrics;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            if (name.equals("unwrap") && args[0] == Connection.class) return proxy;
+            Object result = InstrumentedJdbc.invoke(delegate, method, args);
+
+            if (result instanceof Statement) {
+                String sql = (name.equals("prepareStatement") || name.equals("prepareCall")) ? (String) args[0] : null;
+                Class<?> iface = result instanceof CallableStatement ? CallableStatement.class
+                               : result instanceof PreparedStatement ? PreparedStatement.class
+                               : Statement.class;
+                return Proxy.newProxyInstance(Statement.class.getClassLoader(), new Class<?>[]{iface},
+                        new StatementHandler((Statement) result, sql, metrics));
+            }
+            return result;
+        }
+    }
+
+    // ──── Statement / PreparedStatement ────
+    private static class StatementHandler implements InvocationHandler {
+        private final Statement delegate;
+        private final String preparedSql;
+        private final QueryMetrics metrics;
+        private int maxBindIndex;
+        private int batchedBinds;
+        private ResultSetHandler openResultSet;
+
+        StatementHandler(Statement delegate, String preparedSql, QueryMetrics metrics) {
+            this.delegate = delegate;
+            this.preparedSql = preparedSql;
+            this.metrics = metrics;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+
+            if (name.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer) {
+                maxBindIndex = Math.max(maxBindIndex, (Integer) args[0]);
+            } else if (name.equals("clearParameters")) {
+                maxBindIndex = 0;
+            } else if (name.equals("addBatch") && (args == null || args.length == 0)) {
+                batchedBinds += maxBindIndex;
+            } else if (name.equals("close")) {
+                flushResultSet();
+            } else if (EXECUTE_METHODS.contains(name)) {
+                return timedExecute(method, args);
+            }
+            return InstrumentedJdbc.invoke(delegate, method, args);
+        }
+
+        private Object timedExecute(Method method, Object[] args) throws Throwable {
+            flushResultSet();
+            String name = method.getName();
+            boolean batch = name.endsWith("Batch");
+            String sql = args != null && args.length > 0 && args[0] instanceof String ? (String) args[0] : preparedSql;
+            int binds = batch ? batchedBinds : maxBindIndex;
+
+            long start = System.nanoTime();
+            Object result;
+            try {
+                result = InstrumentedJdbc.invoke(delegate, method, args);
+            } catch (Throwable t) {
+                metrics.recordExecution(sql, System.nanoTime() - start, binds, 0, true);
+                throw t;
+            } finally {
+                if (batch) batchedBinds = 0;
+            }
+            long elapsed = System.nanoTime() - start;
+
+            long rows = 0;
+            if (result instanceof Integer) rows = (Integer) result;
+            else if (result instanceof Long) rows = (Long) result;
+            else if (result instanceof int[]) for (int n : (int[]) result) rows += Math.max(n, 0);
+            else if (result instanceof long[]) for (long n : (long[]) result) rows += Math.max(n, 0);
+            QueryMetrics.StatementStats stats = metrics.recordExecution(sql, elapsed, binds, rows, false);
+
+            if (result instanceof ResultSet) {
+                openResultSet = new ResultSetHandler((ResultSet) result, stats);
+                return Proxy.newProxyInstance(ResultSet.class.getClassLoader(), new Class<?>[]{ResultSet.class},
+                        openResultSet);
+            }
+            return result;
+        }
+
+        private void flushResultSet() {
+            if (openResultSet != null) {
+                openResultSet.flushRows();
+                openResultSet = null;
+            }
+        }
+    }
+
+    // ──── ResultSet (row counting) ────
+    private static class ResultSetHandler implements InvocationHandler {
+        private final ResultSet delegate;
+        private final QueryMetrics.StatementStats stats;
+        private long rows;
+        private boolean flushed;
+
+        ResultSetHandler(ResultSet delegate, QueryMetrics.StatementStats stats) {
+            this.delegate = delegate;
+            this.stats = stats;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            if (name.equals("close")) flushRows();
+            Object result = InstrumentedJdbc.invoke(delegate, method, args);
+            if (name.equals("next") && Boolean.TRUE.equals(result)) rows++;
+            return result;
+        }
+
+        void flushRows() {
+            if (!flushed) {
+                flushed = true;
+                stats.rows.add(rows);
+            }
+        }
+    }
+}
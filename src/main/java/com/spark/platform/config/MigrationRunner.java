@@ -0,0 +1,277 @@
+package com.spark.platform.config;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.*;
+import java.util.*;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Applies the ordered SQL migrations in src/main/resources/db/migration on top of the
+ * mysqldump schema in database/schema.sql.
+ *
+ * Migrations are listed in db/migration/migrations.txt (classpath folders can't be listed
+ * reliably from a jar), named V&lt;version&gt;__&lt;description&gt;.sql, and recorded in the
+ * schema_migrations table with a SHA-256 checksum. An applied migration whose file has
+ * since changed stops the run — add a new version instead of editing an old one.
+ * A MySQL named lock keeps two app instances from migrating at the same time.
+ *
+ * Runs at startup unless db.migrate.onStartup=false, or by hand:
+ *   mvn -q compile exec:java -Dexec.mainClass=com.spark.platform.config.MigrationRunner
+ *       [-Dexec.args="--status" | -Dexec.args="--baseline=1"]
+ */
+public class MigrationRunner {
+
+    private static final String INDEX = "db/migration/migrations.txt";
+    private static final Pattern FILE_NAME = Pattern.compile("V(\\d+)__(.+)\\.sql");
+    private static final String LOCK_NAME = "sparkplatform.schema_migrations";
+    private static final int LOCK_TIMEOUT_SECONDS = 60;
+
+    public static void main(String[] args) throws Exception {
+        MigrationRunner runner = new MigrationRunner();
+        if (args.length == 0) {
+            runner.migrate();
+        } else if (args[0].equals("--status")) {
+            runner.printStatus();
+        } else if (args[0].startsWith("--baseline=")) {
+            runner.baseline(Integer.parseInt(args[0].substring("--baseline=".length())));
+        } else {
+            System.err.println("Usage: MigrationRunner [--status | --baseline=<version>]");
+        }
+    }
+
+    /** Apply every pending migration in version order. Returns how many were applied. */
+    public int migrate() throws SQLException {
+        List<Migration> migrations = loadMigrations();
+        int applied = 0;
+        try (Connection conn = db()) {
+            ensureHistoryTable(conn);
+            acquireLock(conn);
+            try {
+                Map<Integer, String> history = loadHistory(conn);
+                for (Migration m : migrations) {
+                    String recorded = history.get(m.version);
+                    if (recorded != null) {
+                        if (!recorded.equals(m.checksum)) {
+                            throw new IllegalStateException("Migration " + m.fileName + " was modified after it was applied "
+                                    + "(recorded checksum " + recorded + ", file " + m.checksum + ")");
+                        }
+                        continue;
+                    }
+                    apply(conn, m);
+                    applied++;
+                }
+            } finally {
+                releaseLock(conn);
+            }
+        }
+        System.out.println(applied == 0 ? "Schema is up to date" : "Applied " + applied + " migration(s)");
+        return applied;
+    }
+
+    /**
+     * Mark every migration up to and including the given version as applied without running it,
+     * for databases where those changes were already made by hand.
+     */
+    public void baseline(int upToVersion) throws SQLException {
+        try (Connection conn = db()) {
+            ensureHistoryTable(conn);
+            Map<Integer, String> history = loadHistory(conn);
+            for (Migration m : loadMigrations()) {
+                if (m.version <= upToVersion && !history.containsKey(m.version)) {
+                    record(conn, m, 0);
+                    System.out.println("Baselined " + m.fileName);
+                }
+            }
+        }
+    }
+
+    public void printStatus() throws SQLException {
+        try (Connection conn = db()) {
+            ensureHistoryTable(conn);
+            Map<Integer, String> history = loadHistory(conn);
+            for (Migration m : loadMigrations()) {
+                String recorded = history.get(m.version);
+                String state = recorded == null ? "pending"
+                             : recorded.equals(m.checksum) ? "applied"
+                             : "CHECKSUM MISMATCH";
+                System.out.printf("%-45s %s%n", m.fileName, state);
+            }
+        }
+    }
+
+    // ──── Applying ────
+    private void apply(Connection conn, Migration m) throws SQLException {
+        System.out.println("Applying " + m.fileName + " ...");
+        long start = System.nanoTime();
+        // MySQL commits DDL implicitly, so a failed migration can be half-applied;
+        // keep each file to statements that are safe to fix forward.
+        try (Statement st = conn.createStatement()) {
+            for (String sql : m.statements) {
+                try {
+                    st.execute(sql);
+                } catch (SQLException e) {
+                    throw new SQLException("Migration " + m.fileName + " failed on: " + sql + " — " + e.getMessage(),
+                            e.getSQLState(), e.getErrorCode(), e);
+                }
+            }
+        }
+        record(conn, m, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    private void record(Connection conn, Migration m, long millis) throws SQLException {
+        String sql = "INSERT INTO schema_migrations (version, description, checksum, execution_ms) VALUES (?, ?, ?, ?)";
+        try (PreparedStatement ps = conn.prepareStatement(sql)) {
+            ps.setInt(1, m.version);
+            ps.setString(2, m.description);
+            ps.setString(3, m.checksum);
+            ps.setLong(4, millis);
+            ps.executeUpdate();
+        }
+    }
+
+    private void ensureHistoryTable(Connection conn) throws SQLException {
+        try (Statement st = conn.createStatement()) {
+            st.execute("CREATE TABLE IF NOT EXISTS schema_migrations (" +
+                       "  version int NOT NULL," +
+                       "  description varchar(200) NOT NULL," +
+                       "  checksum char(64) NOT NULL," +
+                       "  execution_ms bigint NOT NULL DEFAULT 0," +
+                       "  applied_at timestamp NULL DEFAULT CURRENT_TIMESTAMP," +
+                       "  PRIMARY KEY (version)" +
+                       ") ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_0900_ai_ci");
+        }
+    }
+
+    private Map<Integer, String> loadHistory(Connection conn) throws SQLException {
+        Map<Integer, String> history = new HashMap<>();
+        try (Statement st = conn.createStatement();
+             ResultSet rs = st.executeQuery("SELECT version, checksum FROM schema_migrations")) {
+            while (rs.next()) {
+                history.put(rs.getInt(1), rs.getString(2));
+            }
+        }
+        return history;
+    }
+
+    private void acquireLock(Connection conn) throws SQLException {
+        try (PreparedStatement ps = conn.prepareStatement("SELECT GET_LOCK(?, ?)")) {
+            ps.setString(1, LOCK_NAME);
+            ps.setInt(2, LOCK_TIMEOUT_SECONDS);
+            try (ResultSet rs = ps.executeQuery()) {
+                if (!rs.next() || rs.getInt(1) != 1) {
+                    throw new SQLException("Timed out waiting for the migration lock — is another instance migrating?");
+                }
+            }
+        }
+    }
+
+    private void releaseLock(Connection conn) throws SQLException {
+        try (PreparedStatement ps = conn.prepareStatement("SELECT RELEASE_LOCK(?)")) {
+            ps.setString(1, LOCK_NAME);
+            ps.executeQuery().close();
+        }
+    }
+
+    // ──── Loading ────
+    private List<Migration> loadMigrations() {
+        List<Migration> list = new ArrayList<>();
+        for (String fileName : readLines(INDEX)) {
+            Matcher matcher = FILE_NAME.matcher(fileName);
+            if (!matcher.matches()) {
+                throw new IllegalStateException("Bad migration file name in " + INDEX + ": " + fileName);
+            }
+            String body = String.join("\n", readLines("db/migration/" + fileName));
+            list.add(new Migration(Integer.parseInt(matcher.group(1)), matcher.group(2).replace('_', ' '),
+                    fileName, sha256(body), splitStatements(body)));
+        }
+        list.sort(Comparator.comparingInt(m -> m.version));
+        for (int i = 1; i < list.size(); i++) {
+            if (list.get(i).version == list.get(i - 1).version) {
+                throw new IllegalStateException("Duplicate migration version V" + list.get(i).version);
+            }
+        }
+        return list;
+    }
+
+    /** Non-blank lines of a classpath resource, with "--" comment lines dropped for the index file. */
+    private List<String> readLines(String resource) {
+        InputStream in = getClass().getClassLoader().getResourceAsStream(resource);
+        if (in == null) throw new IllegalStateException("Missing classpath resource " + resource);
+        List<String> lines = new ArrayList<>();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (resource.equals(INDEX) && (line.isBlank() || line.trim().startsWith("--"))) continue;
+                lines.add(resource.equals(INDEX) ? line.trim() : line);
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to read " + resource, e);
+        }
+        return lines;
+    }
+
+    /**
+     * Split on the delimiter (";" by default) at the end of a line; whole-line "--" comments
+     * are dropped. "DELIMITER $$" lines switch the delimiter, as in the mysql client, so
+     * trigger bodies with inner semicolons work in both.
+     */
+    private static List<String> splitStatements(String body) {
+        List<String> statements = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        String delimiter = ";";
+        for (String line : body.split("\n")) {
+            String trimmed = line.trim();
+            if (trimmed.isEmpty() || trimmed.startsWith("--")) continue;
+            if (trimmed.toUpperCase(Locale.ROOT).startsWith("DELIMITER ")) {
+                delimiter = trimmed.substring("DELIMITER ".length()).trim();
+                continue;
+            }
+            current.append(line).append('\n');
+            if (trimmed.endsWith(delimiter)) {
+                String sql = current.toString().trim();
+                statements.add(sql.substring(0, sql.length() - delimiter.length()).trim());
+                current.setLength(0);
+            }
+        }
+        if (!current.toString().isBlank()) statements.add(current.toString().trim());
+        return statements;
+    }
+
+    private static String sha256(String text) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(text.getBytes(StandardCharsets.UTF_8));
+            StringBuilder hex = new StringBuilder(64);
+            for (byte b : digest) hex.append(String.format("%02x", b));
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private Connection db() throws SQLException {
+        return DatabaseConfig.getInstance().getConnection();
+    }
+
+    private static final class Migration {
+        final int version;
+        final String description;
+        final String fileName;
+        final String checksum;
+        final List<String> statements;
+
+        Migration(int version, String description, String fileName, String checksum, List<String> statements) {
+            this.version = version;
+            this.description = description;
+            this.fileName = fileName;
+            this.checksum = checksum;
+            this.statements = statements;
+        }
+    }
+}
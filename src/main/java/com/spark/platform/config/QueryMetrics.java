@@ -0,0 +1,330 @@
+package com.spark.platform.config;
+
+import com.spark.platform.utils.LatencyHistogram;
+
+import javax.management.ObjectName;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+
+/**
+ * Per-statement JDBC metrics collected by {@link InstrumentedJdbc}.
+ *
+ * Statements are grouped by SQL fingerprint (literals replaced by '?', IN-lists and
+ * multi-row VALUES collapsed), each with a latency histogram, row and error counts.
+ * Also tracks connection acquire time and keeps a bounded slow-query log.
+ * Exposed over JMX and optionally dumped as text/JSON on a fixed interval.
+ *
+ * Configured from db.properties:
+ *   db.metrics.enabled=true
+ *   db.metrics.slowQueryMillis=200
+ *   db.metrics.dumpIntervalSeconds=0     (0 = no periodic dump)
+ *   db.metrics.dumpFile=                 (empty = stdout; *.json = JSON, anything else = text)
+ */
+public class QueryMetrics implements QueryMetricsMXBean {
+
+    private static final int MAX_FINGERPRINTS = 2000;
+    private static final int SLOW_LOG_CAPACITY = 200;
+    private static final int TOP_STATEMENTS = 25;
+    private static final String OVERFLOW_FINGERPRINT = "<other statements>";
+
+    private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^'\\\\]|\\\\.|'')*'");
+    private static final Pattern NUMBER_LITERAL = Pattern.compile("(?<![\\w.])-?\\d+(?:\\.\\d+)?\\b");
+    private static final Pattern IN_LIST = Pattern.compile("(?i)\\bIN\\s*\\(\\s*\\?(?:\\s*,\\s*\\?)*\\s*\\)");
+    private static final Pattern VALUES_LIST = Pattern.compile("(?i)\\bVALUES\\s*(\\([^()]*\\))(?:\\s*,\\s*\\([^()]*\\))+");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private final Map<String, StatementStats> statements = new ConcurrentHashMap<>();
+    private final Map<String, String> fingerprintCache = new ConcurrentHashMap<>();
+    private final LatencyHistogram connectionAcquire = new LatencyHistogram();
+    private final ConcurrentLinkedDeque<SlowQuery> slowLog = new ConcurrentLinkedDeque<>();
+    private final AtomicInteger slowLogSize = new AtomicInteger();
+    private final LongAdder slowQueryCount = new LongAdder();
+    private final long startedAtMillis = System.currentTimeMillis();
+    private volatile long slowQueryThresholdNanos;
+    private ScheduledExecutorService dumpScheduler;
+
+    public QueryMetrics(long slowQueryMillis) {
+        this.slowQueryThresholdNanos = TimeUnit.MILLISECONDS.toNanos(slowQueryMillis);
+    }
+
+    // ──── Recording (called from InstrumentedJdbc) ────
+
+    void recordConnectionAcquire(long nanos) {
+        connectionAcquire.record(nanos);
+    }
+
+    /** Records one execution and returns its stats so rows streamed later can be added. */
+    StatementStats recordExecution(String sql, long nanos, int bindCount, long rows, boolean failed) {
+        String fingerprint = fingerprint(sql);
+        StatementStats stats = statsFor(fingerprint);
+        stats.latency.record(nanos);
+        if (rows > 0) stats.rows.add(rows);
+        if (failed) stats.errors.increment();
+
+        if (nanos >= slowQueryThresholdNanos) {
+            slowQueryCount.increment();
+            SlowQuery entry = new SlowQuery(System.currentTimeMillis(), fingerprint, nanos / 1_000_000.0, bindCount, failed);
+            slowLog.addFirst(entry);
+            if (slowLogSize.incrementAndGet() > SLOW_LOG_CAPACITY && slowLog.pollLast() != null) {
+                slowLogSize.decrementAndGet();
+            }
+            System.err.println("[slow-query] " + entry);
+        }
+        return stats;
+    }
+
+    private StatementStats statsFor(String fingerprint) {
+        StatementStats stats = statements.get(fingerprint);
+        if (stats != null) return stats;
+        if (statements.size() >= MAX_FINGERPRINTS) {
+            return statements.computeIfAbsent(OVERFLOW_FINGERPRINT, k -> new StatementStats());
+        }
+        return statements.computeIfAbsent(fingerprint, k -> new StatementStats());
+    }
+
+    /** Normalizes SQL so executions differing only in literal values group together. */
+    static String fingerprintOf(String sql) {
+        if (sql == null) return "<unknown>";
+        String fp = STRING_LITERAL.matcher(sql).replaceAll("?");
+        fp = NUMBER_LITERAL.matcher(fp).replaceAll("?");
+        fp = WHITESPACE.matcher(fp).replaceAll(" ").trim();
+        fp = IN_LIST.matcher(fp).replaceAll("IN (?...)");
+        fp = VALUES_LIST.matcher(fp).replaceAll("VALUES $1...");
+        return fp;
+    }
+
+    private String fingerprint(String sql) {
+        if (sql == null) return "<unknown>";
+        if (fingerprintCache.size() > MAX_FINGERPRINTS * 4) fingerprintCache.clear();
+        return fingerprintCache.computeIfAbsent(sql, QueryMetrics::fingerprintOf);
+    }
+
+    // ──── Periodic dump ────
+
+    synchronized void startPeriodicDump(long intervalSeconds, String dumpFile) {
+        if (intervalSeconds <= 0 || dumpScheduler != null) return;
+        dumpScheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "query-metrics-dump");
+            t.setDaemon(true);
+            return t;
+        });
+        dumpScheduler.scheduleAtFixedRate(() -> writeDump(dumpFile), intervalSeconds, intervalSeconds, TimeUnit.SECONDS);
+    }
+
+    private void writeDump(String dumpFile) {
+        try {
+            if (dumpFile == null || dumpFile.isBlank()) {
+                System.out.println(dumpText());
+                return;
+            }
+            Path target = Paths.get(dumpFile);
+            String body = dumpFile.endsWith(".json") ? dumpJson() : dumpText();
+            Path parent = target.toAbsolutePath().getParent();
+            if (parent != null) Files.createDirectories(parent);
+            Path tmp = Files.createTempFile(parent, "query-metrics", ".tmp");
+            Files.writeString(tmp, body, StandardCharsets.UTF_8);
+            Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException | RuntimeException e) {
+            System.err.println("Query metrics dump failed: " + e.getMessage());
+        }
+    }
+
+    void registerMBean() {
+        try {
+            ObjectName name = new ObjectName("com.spark.platform:type=QueryMetrics");
+            var server = ManagementFactory.getPlatformMBeanServer();
+            if (!server.isRegistered(name)) {
+                server.registerMBean(this, name);
+            }
+        } catch (Exception e) {
+            System.err.println("Could not register QueryMetrics MBean: " + e.getMessage());
+        }
+    }
+
+    // ──── MXBean ────
+
+    @Override public long getStatementCount() {
+        return statements.values().stream().mapToLong(s -> s.latency.getCount()).sum();
+    }
+
+    @Override public long getErrorCount() {
+        return statements.values().stream().mapToLong(s -> s.errors.sum()).sum();
+    }
+
+    @Override public long getSlowQueryCount() { return slowQueryCount.sum(); }
+
+    @Override public long getSlowQueryThresholdMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(slowQueryThresholdNanos);
+    }
+
+    @Override public void setSlowQueryThresholdMillis(long millis) {
+        slowQueryThresholdNanos = TimeUnit.MILLISECONDS.toNanos(millis);
+    }
+
+    @Override public long getConnectionCount() { return connectionAcquire.getCount(); }
+    @Override public double getConnectionAcquireP50Millis() { return connectionAcquire.getPercentileMillis(50); }
+    @Override public double getConnectionAcquireP95Millis() { return connectionAcquire.getPercentileMillis(95); }
+    @Override public double getConnectionAcquireMaxMillis() { return connectionAcquire.getMaxMillis(); }
+
+    @Override
+    public String[] getTopStatements() {
+        return topStatements().stream()
+                .map(e -> String.format("total=%.0fms n=%d err=%d rows=%d p50=%.1f p95=%.1f p99=%.1f max=%.1f | %s",
+                        e.getValue().totalMillis(), e.getValue().latency.getCount(), e.getValue().errors.sum(),
+                        e.getValue().rows.sum(), e.getValue().latency.getPercentileMillis(50),
+                        e.getValue().latency.getPercentileMillis(95), e.getValue().latency.getPercentileMillis(99),
+                        e.getValue().latency.getMaxMillis(), e.getKey()))
+                .toArray(String[]::new);
+    }
+
+    @Override
+    public String[] getRecentSlowQueries() {
+        return slowLog.stream().map(SlowQuery::toString).toArray(String[]::new);
+    }
+
+    @Override
+    public String dumpText() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("── Query metrics @ ").append(Instant.now())
+          .append(" (uptime ").append((System.currentTimeMillis() - startedAtMillis) / 1000).append("s) ──\n");
+        sb.append("connections: ").append(connectionAcquire.summary()).append('\n');
+        sb.append("statements: ").append(getStatementCount())
+          .append("  errors: ").append(getErrorCount())
+          .append("  slow (>= ").append(getSlowQueryThresholdMillis()).append("ms): ").append(getSlowQueryCount()).append('\n');
+        for (String line : getTopStatements()) {
+            sb.append("  ").append(line).append('\n');
+        }
+        String[] slow = getRecentSlowQueries();
+        if (slow.length > 0) {
+            sb.append("recent slow queries:\n");
+            for (int i = 0; i < Math.min(10, slow.length); i++) {
+                sb.append("  ").append(slow[i]).append('\n');
+            }
+        }
+        return sb.toString();
+    }
+
+    @Override
+    public String dumpJson() {
+        StringBuilder sb = new StringBuilder("{");
+        sb.append("\"timestamp\":\"").append(Instant.now()).append("\",");
+        sb.append("\"uptimeSeconds\":").append((System.currentTimeMillis() - startedAtMillis) / 1000).append(',');
+        sb.append("\"connections\":").append(histogramJson(connectionAcquire)).append(',');
+        sb.append("\"slowQueryThresholdMillis\":").append(getSlowQueryThresholdMillis()).append(',');
+        sb.append("\"slowQueryCount\":").append(getSlowQueryCount()).append(',');
+        sb.append("\"statements\":[");
+        boolean first = true;
+        for (Map.Entry<String, StatementStats> e : topStatements()) {
+            if (!first) sb.append(',');
+            first = false;
+            StatementStats s = e.getValue();
+            sb.append("{\"sql\":").append(jsonString(e.getKey()))
+              .append(",\"errors\":").append(s.errors.sum())
+              .append(",\"rows\":").append(s.rows.sum())
+              .append(",\"totalMillis\":").append(String.format(Locale.ROOT, "%.1f", s.totalMillis()))
+              .append(",\"latency\":").append(histogramJson(s.latency)).append('}');
+        }
+        sb.append("],\"slowQueries\":[");
+        first = true;
+        for (SlowQuery q : slowLog) {
+            if (!first) sb.append(',');
+            first = false;
+            sb.append("{\"at\":\"").append(Instant.ofEpochMilli(q.atMillis)).append('"')
+              .append(",\"millis\":").append(String.format(Locale.ROOT, "%.1f", q.millis))
+              .append(",\"binds\":").append(q.bindCount)
+              .append(",\"failed\":").append(q.failed)
+              .append(",\"sql\":").append(jsonString(q.fingerprint)).append('}');
+        }
+        sb.append("]}");
+        return sb.toString();
+    }
+
+    @Override
+    public void reset() {
+        statements.clear();
+        connectionAcquire.reset();
+        slowLog.clear();
+        slowLogSize.set(0);
+        slowQueryCount.reset();
+    }
+
+    // ──── Helpers ────
+
+    private List<Map.Entry<String, StatementStats>> topStatements() {
+        List<Map.Entry<String, StatementStats>> entries = new ArrayList<>(statements.entrySet());
+        entries.sort((a, b) -> Double.compare(b.getValue().totalMillis(), a.getValue().totalMillis()));
+        return entries.subList(0, Math.min(TOP_STATEMENTS, entries.size()));
+    }
+
+    private static String histogramJson(LatencyHistogram h) {
+        return String.format(Locale.ROOT,
+                "{\"count\":%d,\"meanMillis\":%.2f,\"p50Millis\":%.2f,\"p95Millis\":%.2f,\"p99Millis\":%.2f,\"maxMillis\":%.2f}",
+                h.getCount(), h.getMeanMillis(), h.getPercentileMillis(50), h.getPercentileMillis(95),
+                h.getPercentileMillis(99), h.getMaxMillis());
+    }
+
+    private static String jsonString(String s) {
+        StringBuilder sb = new StringBuilder("\"");
+        for (char c : s.toCharArray()) {
+            switch (c) {
+                case '"':  sb.append("\\\""); break;
+                case '\\': sb.append("\\\\"); break;
+                case '\n': sb.append("\\n"); break;
+                case '\r': sb.append("\\r"); break;
+                case '\t': sb.append("\\t"); break;
+                default:
+                    if (c < 0x20) sb.append(String.format("\\u%04x", (int) c));
+                    else sb.append(c);
+            }
+        }
+        return sb.append('"').toString();
+    }
+
+    /** Aggregates for one SQL fingerprint. */
+    static class StatementStats {
+        final LatencyHistogram latency = new LatencyHistogram();
+        final LongAdder rows = new LongAdder();
+        final LongAdder errors = new LongAdder();
+
+        double totalMillis() {
+            return latency.getMeanMillis() * latency.getCount();
+        }
+    }
+
+    private static class SlowQuery {
+        final long atMillis;
+        final String fingerprint;
+        final double millis;
+        final int bindCount;
+        final boolean failed;
+
+        SlowQuery(long atMillis, String fingerprint, double millis, int bindCount, boolean failed) {
+            this.atMillis = atMillis;
+            this.fingerprint = fingerprint;
+            this.millis = millis;
+            this.bindCount = bindCount;
+            this.failed = failed;
+        }
+
+        @Override
+        public String toString() {
+            return String.format(Locale.ROOT, "%s %.1fms binds=%d%s | %s",
+                    Instant.ofEpochMilli(atMillis), millis, bindCount, failed ? " FAILED" : "", fingerprint);
+        }
+    }
+}
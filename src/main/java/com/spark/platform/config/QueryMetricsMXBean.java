@@ -0,0 +1,38 @@
+package com.spark.platform.config;
+
+/**
+ * JMX view of {@link QueryMetrics}, registered as
+ * {@code com.spark.platform:type=QueryMetrics} (browse it with JConsole / VisualVM).
+ */
+public interface QueryMetricsMXBean {
+
+    long getStatementCount();
+
+    long getErrorCount();
+
+    long getSlowQueryCount();
+
+    long getSlowQueryThresholdMillis();
+
+    void setSlowQueryThresholdMillis(long millis);
+
+    long getConnectionCount();
+
+    double getConnectionAcquireP50Millis();
+
+    double getConnectionAcquireP95Millis();
+
+    double getConnectionAcquireMaxMillis();
+
+    /** One line per SQL fingerprint, slowest total time first. */
+    String[] getTopStatements();
+
+    /** Most recent slow queries, newest first. */
+    String[] getRecentSlowQueries();
+
+    String dumpText();
+
+    String dumpJson();
+
+    void reset();
+}
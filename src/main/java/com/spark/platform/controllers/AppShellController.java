@@ -1,16 +1,31 @@
 package com.spark.platform.controllers;
 
+import com.spark.platform.models.Notification;
+import com.spark.platform.services.NotificationService;
+import com.spark.platform.utils.SessionManager;
+import com.spark.platform.utils.UiMetrics;
+
+import javafx.animation.KeyFrame;
+import javafx.animation.Timeline;
+import javafx.application.Platform;
 import javafx.event.ActionEvent;
 import javafx.fxml.FXML;
 import javafx.fxml.FXMLLoader;
+import javafx.geometry.Side;
 import javafx.scene.Node;
 import javafx.scene.control.Button;
+import javafx.scene.control.ContextMenu;
 import javafx.scene.control.Label;
+import javafx.scene.control.MenuItem;
+import javafx.scene.control.SeparatorMenuItem;
 import javafx.scene.layout.StackPane;
 import javafx.scene.layout.VBox;
+import javafx.util.Duration;
 
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.function.BiConsumer;
 
 /**
  * Controller for the shared app-shell layout.
@@ -23,6 +38,8 @@ public class AppShellController {
     @FXML private Label     pageTitle;
     @FXML private Label     avatarInitials;
     @FXML private VBox      navGroup;
+    @FXML private Button    notificationsButton;
+    @FXML private Label     unreadBadge;
 
     // ──── Page registry ────
     private static final Map<String, String[]> PAGE_META = new HashMap<>();
@@ -34,11 +51,22 @@ public class AppShellController {
         PAGE_META.put("navProjectBoard",  new String[]{"/fxml/student-projects-view.fxml", "Project Board"});
         PAGE_META.put("navOpportunities", new String[]{"/fxml/opportunities-view.fxml", "Opportunities"});
         PAGE_META.put("navTeacherProjects", new String[]{"/fxml/teacher-projects-view.fxml", "Teacher Projects"});
+        PAGE_META.put("navTeacherDashboard", new String[]{"/fxml/teacher-dashboard-view.fxml", "Dashboard"});
         PAGE_META.put("navSettings",      new String[]{"/fxml/settings-view.fxml",      "Settings"});
     }
 
     private Button activeNavButton;
 
+    // ──── Notifications ────
+    private final NotificationService notificationService = new NotificationService();
+    private final ContextMenu notificationsMenu = new ContextMenu();
+    /** Badge updates pushed by NotificationService whenever the cached count changes. */
+    private final BiConsumer<Integer, Integer> unreadListener = (userId, count) -> {
+        if (userId == SessionManager.getInstance().getUserId()) Platform.runLater(() -> showUnread(count));
+    };
+    /** Re-reads the badge: notifications sent by other users never pass through this JVM's cache. */
+    private Timeline unreadPoll;
+
     // ──── Initialization ────
     @FXML
     private void initialize() {
@@ -51,6 +79,8 @@ public class AppShellController {
                 }
             }
         }
+        initNotifications();
+
         // Load the default page (Classroom)
         String[] defaultMeta = PAGE_META.get("navClassroom");
         if (defaultMeta != null) {
@@ -86,6 +116,95 @@ public class AppShellController {
         loadIntoOutlet(meta[0]);
     }
 
+    // ──── Notifications ────
+    private void initNotifications() {
+        int userId = SessionManager.getInstance().getUserId();
+        notificationsButton.setVisible(userId > 0);
+        notificationsButton.setManaged(userId > 0);
+        if (userId <= 0) return;
+
+        NotificationService.addUnreadListener(unreadListener);
+        runInBackground(() -> showUnreadLater(notificationService.getUnreadCount(userId)));
+        unreadPoll = new Timeline(new KeyFrame(Duration.millis(NotificationService.COUNT_TTL_MILLIS), e -> {
+            if (SessionManager.getInstance().getUserId() != userId) {
+                disposeNotifications(); // logged out (or in as someone else) without this shell closing
+                return;
+            }
+            runInBackground(() -> notificationService.refreshUnreadCount(userId));
+        }));
+        unreadPoll.setCycleCount(Timeline.INDEFINITE);
+        unreadPoll.play();
+        // The listener is static: once this shell leaves its scene (reload, re-login) let it go.
+        notificationsButton.sceneProperty().addListener((obs, old, scene) -> {
+            if (old != null && scene == null) disposeNotifications();
+        });
+    }
+
+    /** Stop polling and unregister from NotificationService, so a discarded shell can be collected. */
+    private void disposeNotifications() {
+        if (unreadPoll != null) unreadPoll.stop();
+        NotificationService.removeUnreadListener(unreadListener);
+    }
+
+    @FXML
+    private void onNotificationsClick(ActionEvent event) {
+        int userId = SessionManager.getInstance().getUserId();
+        if (userId <= 0) return;
+        runInBackground(() -> {
+            notificationService.refreshUnreadCount(userId);
+            List<Notification> recent = notificationService.findRecent(userId, 10);
+            Platform.runLater(() -> showNotificationsMenu(userId, recent));
+        });
+    }
+
+    private void showNotificationsMenu(int userId, List<Notification> recent) {
+        notificationsMenu.getItems().clear();
+        if (recent.isEmpty()) {
+            MenuItem empty = new MenuItem("No notifications");
+            empty.setDisable(true);
+            notificationsMenu.getItems().add(empty);
+        }
+        for (Notification n : recent) {
+            MenuItem item = new MenuItem(n.getMessage() != null ? n.getTitle() + " — " + n.getMessage() : n.getTitle());
+            if (!n.isRead()) {
+                item.getStyleClass().add("notification-item-unread");
+                item.setOnAction(e -> runInBackground(() -> notificationService.markRead(n.getNotificationId(), userId)));
+            }
+            notificationsMenu.getItems().add(item);
+        }
+        notificationsMenu.getItems().add(new SeparatorMenuItem());
+        MenuItem markAll = new MenuItem("Mark all as read");
+        markAll.setOnAction(e -> runInBackground(() -> notificationService.markAllRead(userId)));
+        notificationsMenu.getItems().add(markAll);
+        notificationsMenu.show(notificationsButton, Side.BOTTOM, 0, 4);
+    }
+
+    private void showUnreadLater(int count) {
+        Platform.runLater(() -> showUnread(count));
+    }
+
+    private void showUnread(int count) {
+        unreadBadge.setText(count > 99 ? "99+" : String.valueOf(count));
+        unreadBadge.setVisible(count > 0);
+    }
+
+    /** Notification calls touch the database, so keep them off the UI thread; failures just leave the badge as is. */
+    private void runInBackground(SqlWork work) {
+        Thread t = new Thread(() -> {
+            try {
+                work.run();
+            } catch (Exception e) {
+                System.err.println("Notifications: " + e.getMessage());
+            }
+        }, "notifications");
+        t.setDaemon(true);
+        t.start();
+    }
+
+    private interface SqlWork {
+        void run() throws Exception;
+    }
+
     // ──── Profile dropdown handler ────
     @FXML
     private void onProfileClick(ActionEvent event) {
@@ -97,6 +216,10 @@ public class AppShellController {
      * Pass null to clear.
      */
     public void loadIntoOutlet(String fxmlPath) {
+        UiMetrics.time("loadIntoOutlet", () -> doLoadIntoOutlet(fxmlPath));
+    }
+
+    private void doLoadIntoOutlet(String fxmlPath) {
         contentOutlet.getChildren().clear();
 
         if (fxmlPath == null) return;
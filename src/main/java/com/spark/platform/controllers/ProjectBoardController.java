@@ -4,11 +4,21 @@ import com.spark.platform.config.DatabaseConfig;
 import com.spark.platform.models.Project;
 import com.spark.platform.models.Sprint;
 import com.spark.platform.models.Task;
+import com.spark.platform.models.TaskEvent;
 import com.spark.platform.models.User;
+import com.spark.platform.services.BurndownService;
+import com.spark.platform.services.BurndownService.Burndown;
+import com.spark.platform.services.NotificationService;
 import com.spark.platform.services.SprintService;
 import com.spark.platform.services.StudentProjectService;
+import com.spark.platform.services.TaskEventService;
 import com.spark.platform.services.TaskService;
+import com.spark.platform.utils.SessionManager;
+import com.spark.platform.utils.UiMetrics;
+import com.spark.platform.views.BurndownChart;
+import com.spark.platform.views.GanttChart;
 
+import javafx.application.Platform;
 import javafx.collections.FXCollections;
 import javafx.event.ActionEvent;
 import javafx.fxml.FXML;
@@ -45,6 +55,7 @@ public class ProjectBoardController {
     @FXML private ComboBox<Sprint> sprintSelector;
     @FXML private Label sprintDates;
     @FXML private Label sprintStatus;
+    @FXML private Button completeSprintBtn;
     @FXML private HBox teamAvatars;
     @FXML private Label statsLabel;
 
@@ -65,10 +76,18 @@ public class ProjectBoardController {
     @FXML private ScrollPane backlogScroll;
     @FXML private VBox backlogContent;
 
+    @FXML private ScrollPane timelineScroll;
+    @FXML private VBox timelineContent;
+
+    @FXML private ListView<TaskEvent> activityList;
+
     // ──── Services ────
     private final TaskService taskService = new TaskService();
     private final SprintService sprintService = new SprintService();
     private final StudentProjectService projectService = new StudentProjectService();
+    private final BurndownService burndownService = new BurndownService();
+    private final TaskEventService taskEventService = new TaskEventService();
+    private final NotificationService notificationService = new NotificationService();
 
     // ──── State ────
     // Project ID can now be set dynamically from StudentProjectsController
@@ -86,6 +105,15 @@ public class ProjectBoardController {
     private List<Task> backlogTasks = new ArrayList<>();
     private final Set<Integer> expandedBacklogTasks = new HashSet<>();
 
+    // Timeline state: one chart instance, reused across renders (it owns a redraw timer)
+    private GanttChart ganttChart;
+
+    // Activity state (keyset paging: the next page starts below the last loaded event_id)
+    private static final int ACTIVITY_PAGE_SIZE = 100;
+    private boolean activityLoading = false;
+    private boolean activityExhausted = false;
+    private int activityGeneration = 0;
+
     // Drag-and-drop data format
     private static final DataFormat TASK_ID_FORMAT = new DataFormat("application/x-spark-task-id");
 
@@ -184,6 +212,8 @@ public class ProjectBoardController {
                 sprintSelector.setValue(null);
                 sprintDates.setText("No sprints found");
                 sprintStatus.setText("");
+                completeSprintBtn.setVisible(false);
+                completeSprintBtn.setManaged(false);
                 renderBoard(); // Clear the board
                 return;
             }
@@ -283,6 +313,7 @@ public class ProjectBoardController {
         if (selected == null) return;
         updateSprintInfo(selected);
         loadTasks(selected.getSprintId());
+        if (activeTab == tabTimeline) renderTimeline();
     }
 
     private void updateSprintInfo(Sprint sprint) {
@@ -293,6 +324,39 @@ public class ProjectBoardController {
         }
         sprintDates.setText(dates);
         sprintStatus.setText(sprint.getStatus() != null ? sprint.getStatus() : "");
+        boolean active = "ACTIVE".equals(sprint.getStatus());
+        completeSprintBtn.setVisible(active);
+        completeSprintBtn.setManaged(active);
+    }
+
+    // ──── Sprint rollover ────
+    @FXML
+    private void onCompleteSprint(ActionEvent event) {
+        Sprint sprint = sprintSelector.getSelectionModel().getSelectedItem();
+        if (sprint == null || !"ACTIVE".equals(sprint.getStatus())) return;
+
+        long open = allTasks.stream().filter(t -> !"DONE".equals(t.getStatus())).count();
+        Alert confirm = new Alert(Alert.AlertType.CONFIRMATION,
+                "Close Sprint " + sprint.getSprintNumber() + " and move its " + open +
+                " unfinished task(s) to the next sprint?", ButtonType.OK, ButtonType.CANCEL);
+        confirm.setHeaderText("Complete sprint");
+        if (confirm.showAndWait().orElse(ButtonType.CANCEL) != ButtonType.OK) return;
+
+        try {
+            int userId = SessionManager.getInstance().getUserId();
+            SprintService.RolloverResult result = sprintService.rollover(projectId, userId > 0 ? userId : null);
+            loadSprints(); // selects the new ACTIVE sprint
+            notifyRollover(result, userId);
+            Alert done = new Alert(Alert.AlertType.INFORMATION,
+                    result.getDoneTasks() + " task(s) done in Sprint " + result.getFrom().getSprintNumber() + ". " +
+                    result.getMovedTasks() + " task(s) (" + String.format("%.1f", result.getMovedHours()) + "h) moved to " +
+                    (result.isCreatedNext() ? "new " : "") + "Sprint " + result.getTo().getSprintNumber() + ".",
+                    ButtonType.OK);
+            done.setHeaderText("Sprint completed");
+            done.showAndWait();
+        } catch (SQLException e) {
+            showError("Failed to complete sprint: " + e.getMessage());
+        }
     }
 
     // ──── Tab switching ────
@@ -307,6 +371,8 @@ public class ProjectBoardController {
 
         boolean isBoard = clicked == tabBoard;
         boolean isBacklog = clicked == tabBacklog;
+        boolean isTimeline = clicked == tabTimeline;
+        boolean isActivity = clicked == tabActivity;
 
         // Show/hide filter bar for board and backlog
         filterBar.setVisible(isBoard);
@@ -320,32 +386,281 @@ public class ProjectBoardController {
         backlogScroll.setVisible(isBacklog);
         backlogScroll.setManaged(isBacklog);
 
+        // Show/hide timeline scroll
+        timelineScroll.setVisible(isTimeline);
+        timelineScroll.setManaged(isTimeline);
+
+        // Show/hide activity feed
+        activityList.setVisible(isActivity);
+        activityList.setManaged(isActivity);
+
         if (isBoard) {
             renderBoard();
         } else if (isBacklog) {
             renderBacklog();
-        } else {
-            showTabPlaceholder(clicked.getText());
+        } else if (isTimeline) {
+            renderTimeline();
+        } else if (isActivity) {
+            reloadActivity();
         }
     }
 
-    private void showTabPlaceholder(String tabName) {
-        // Hide board and backlog, show placeholder in a visible panel
-        boardScroll.setVisible(true);
-        boardScroll.setManaged(true);
-        kanbanColumns.getChildren().clear();
+    // ══════════════════════════════════════════════════════
+    //   TIMELINE VIEW
+    // ══════════════════════════════════════════════════════
+
+    private void renderTimeline() {
+        UiMetrics.time("renderTimeline", this::doRenderTimeline);
+    }
+
+    /** Gantt of every sprint and task, burndown of the selected sprint, completed hours per sprint. */
+    private void doRenderTimeline() {
+        timelineContent.getChildren().clear();
+        Sprint sprint = sprintSelector.getSelectionModel().getSelectedItem();
+        if (sprint == null) {
+            timelineContent.getChildren().add(buildTimelineEmpty("No sprint selected",
+                    "Create or select a sprint to see its burndown."));
+            return;
+        }
+
+        Burndown burndown;
+        Map<Sprint, Double> velocity;
+        List<Task> projectTasks;
+        try {
+            burndown = burndownService.getBurndown(sprint);
+            velocity = burndownService.getVelocity(sprintSelector.getItems());
+            projectTasks = taskService.findByProjectAndSprint(projectId, null);
+        } catch (SQLException e) {
+            showError("Failed to load timeline: " + e.getMessage());
+            return;
+        }
+        timelineContent.getChildren().add(buildGanttCard(sprintSelector.getItems(), projectTasks));
+
+        VBox card = new VBox(12);
+        card.getStyleClass().add("timeline-card");
+
+        HBox header = new HBox(12);
+        header.setAlignment(Pos.CENTER_LEFT);
+        Label title = new Label("Sprint " + sprint.getSprintNumber() + " burndown");
+        title.getStyleClass().add("timeline-card-title");
+        Region spacer = new Region();
+        HBox.setHgrow(spacer, Priority.ALWAYS);
+        int today = (int) Math.min(burndown.getDays() - 1,
+                Math.max(0, LocalDate.now().toEpochDay() - burndown.start.toEpochDay()));
+        Label remaining = new Label(String.format("%.1fh remaining · %.1fh done · %.1fh scope",
+                burndown.remaining[today], burndown.completed[today], burndown.scope[today]));
+        remaining.getStyleClass().add("timeline-card-meta");
+        header.getChildren().addAll(title, spacer, remaining);
+
+        BurndownChart chart = new BurndownChart();
+        chart.setData(burndown);
+
+        HBox legend = new HBox(16,
+                legendItem("Remaining", "#3B82F6"), legendItem("Every change", "#93C5FD"),
+                legendItem("Scope", "#F59E0B"), legendItem("Ideal", "#9CA3AF"));
+        legend.setAlignment(Pos.CENTER_LEFT);
+
+        card.getChildren().addAll(header, chart, legend);
+        timelineContent.getChildren().addAll(card, buildVelocityCard(velocity));
+    }
+
+    private VBox buildGanttCard(List<Sprint> sprints, List<Task> tasks) {
+        if (ganttChart == null) {
+            ganttChart = new GanttChart();
+            ganttChart.setOnTaskClicked(this::openDetailPanel);
+        }
+        ganttChart.setData(sprints, tasks);
+
+        VBox card = new VBox(12);
+        card.getStyleClass().add("timeline-card");
+
+        HBox header = new HBox(8);
+        header.setAlignment(Pos.CENTER_LEFT);
+        Label title = new Label("Sprints & tasks");
+        title.getStyleClass().add("timeline-card-title");
+        Region spacer = new Region();
+        HBox.setHgrow(spacer, Priority.ALWAYS);
+        header.getChildren().addAll(title, spacer);
+
+        ToggleGroup zoomGroup = new ToggleGroup();
+        for (GanttChart.Zoom zoom : GanttChart.Zoom.values()) {
+            ToggleButton btn = new ToggleButton(zoom.name().charAt(0) + zoom.name().substring(1).toLowerCase());
+            btn.getStyleClass().add("timeline-zoom-btn");
+            btn.setToggleGroup(zoomGroup);
+            btn.setSelected(zoom == ganttChart.getZoom());
+            btn.setOnAction(e -> {
+                ganttChart.setZoom(zoom);
+                btn.setSelected(true); // a toggle group would otherwise allow "none"
+            });
+            header.getChildren().add(btn);
+        }
+        Button today = new Button("Today");
+        today.getStyleClass().add("timeline-zoom-btn");
+        today.setOnAction(e -> ganttChart.scrollToToday());
+        header.getChildren().add(today);
+
+        Label hint = new Label("Drag to pan · Shift+scroll to move sideways · Ctrl+scroll to zoom · click a bar for details");
+        hint.getStyleClass().add("timeline-card-meta");
+
+        card.getChildren().addAll(header, ganttChart, hint);
+        return card;
+    }
+
+    private VBox buildVelocityCard(Map<Sprint, Double> velocity) {
+        VBox card = new VBox(8);
+        card.getStyleClass().add("timeline-card");
+        Label title = new Label("Velocity (completed hours per sprint)");
+        title.getStyleClass().add("timeline-card-title");
+        card.getChildren().add(title);
+
+        double max = velocity.values().stream().mapToDouble(Double::doubleValue).max().orElse(0);
+        for (Map.Entry<Sprint, Double> e : velocity.entrySet()) {
+            HBox row = new HBox(12);
+            row.setAlignment(Pos.CENTER_LEFT);
+            Label name = new Label("Sprint " + e.getKey().getSprintNumber());
+            name.getStyleClass().add("timeline-velocity-name");
+            name.setMinWidth(80);
+            ProgressBar bar = new ProgressBar(max == 0 ? 0 : e.getValue() / max);
+            bar.getStyleClass().add("timeline-velocity-bar");
+            bar.setPrefWidth(240);
+            Label value = new Label(String.format("%.1fh", e.getValue()));
+            value.getStyleClass().add("timeline-card-meta");
+            row.getChildren().addAll(name, bar, value);
+            card.getChildren().add(row);
+        }
+        return card;
+    }
+
+    private HBox legendItem(String text, String color) {
+        Region swatch = new Region();
+        swatch.setPrefSize(10, 10);
+        swatch.setMaxSize(10, 10);
+        swatch.setStyle("-fx-background-color: " + color + "; -fx-background-radius: 2;");
+        Label label = new Label(text);
+        label.getStyleClass().add("timeline-card-meta");
+        HBox item = new HBox(6, swatch, label);
+        item.setAlignment(Pos.CENTER_LEFT);
+        return item;
+    }
+
+    private VBox buildTimelineEmpty(String titleText, String bodyText) {
         VBox placeholder = new VBox(8);
         placeholder.getStyleClass().add("board-placeholder");
         placeholder.setAlignment(Pos.CENTER);
-        placeholder.setPrefWidth(600);
-
-        Label title = new Label(tabName);
+        Label title = new Label(titleText);
         title.getStyleClass().add("board-placeholder-title");
-        Label body = new Label("This tab is coming soon.");
+        Label body = new Label(bodyText);
         body.getStyleClass().add("board-placeholder-text");
-
         placeholder.getChildren().addAll(title, body);
-        kanbanColumns.getChildren().add(placeholder);
+        return placeholder;
+    }
+
+    // ══════════════════════════════════════════════════════
+    //   ACTIVITY VIEW
+    // ══════════════════════════════════════════════════════
+
+    /** Start the feed over from the newest event. */
+    private void reloadActivity() {
+        activityGeneration++;
+        activityLoading = false;
+        activityExhausted = false;
+        if (activityList.getCellFactory() == null) {
+            activityList.setCellFactory(list -> new ActivityCell());
+            activityList.setPlaceholder(buildTimelineEmpty("No activity yet",
+                    "Creating, moving and editing tasks shows up here."));
+        }
+        activityList.getItems().clear();
+        loadMoreActivity();
+    }
+
+    /**
+     * Fetch the next page off the UI thread and append it. Triggered by reloadActivity()
+     * and by cells near the end of the list becoming visible, so only pages the user
+     * scrolls to are ever loaded.
+     */
+    private void loadMoreActivity() {
+        if (activityLoading || activityExhausted) return;
+        activityLoading = true;
+
+        int generation = activityGeneration;
+        int project = projectId;
+        List<TaskEvent> items = activityList.getItems();
+        Long before = items.isEmpty() ? null : items.get(items.size() - 1).getEventId();
+
+        Thread loader = new Thread(() -> {
+            try {
+                // Our own moves may still be queued for the batched writer.
+                if (before == null) TaskEventService.flush(500);
+                List<TaskEvent> page = taskEventService.findPage(project, before, ACTIVITY_PAGE_SIZE);
+                Platform.runLater(() -> {
+                    if (generation != activityGeneration) return; // reloaded meanwhile
+                    activityLoading = false;
+                    activityExhausted = page.size() < ACTIVITY_PAGE_SIZE;
+                    activityList.getItems().addAll(page);
+                });
+            } catch (SQLException e) {
+                Platform.runLater(() -> {
+                    if (generation != activityGeneration) return;
+                    activityLoading = false;
+                    activityExhausted = true;
+                    showError("Failed to load activity: " + e.getMessage());
+                });
+            }
+        }, "activity-loader");
+        loader.setDaemon(true);
+        loader.start();
+    }
+
+    /** One reusable row: avatar, "who did what to which task", detail and time. */
+    private class ActivityCell extends ListCell<TaskEvent> {
+        private final HBox row = new HBox(12);
+        private final StackPane avatarSlot = new StackPane();
+        private final Label summary = new Label();
+        private final Label detail = new Label();
+        private final Label time = new Label();
+        private final SimpleDateFormat timeFormat = new SimpleDateFormat("MMM d, HH:mm");
+
+        ActivityCell() {
+            summary.getStyleClass().add("activity-summary");
+            detail.getStyleClass().add("activity-detail");
+            time.getStyleClass().add("activity-time");
+            VBox text = new VBox(2, summary, detail);
+            HBox.setHgrow(text, Priority.ALWAYS);
+            row.getChildren().addAll(avatarSlot, text, time);
+            row.setAlignment(Pos.CENTER_LEFT);
+            row.getStyleClass().add("activity-row");
+        }
+
+        @Override
+        protected void updateItem(TaskEvent e, boolean empty) {
+            super.updateItem(e, empty);
+            if (empty || e == null) {
+                setGraphic(null);
+                return;
+            }
+            String actor = e.getActorName() != null ? e.getActorName() : "Someone";
+            avatarSlot.getChildren().setAll(buildAvatar(actor, 28,
+                    AVATAR_COLORS[Math.floorMod(actor.hashCode(), AVATAR_COLORS.length)]));
+            summary.setText(actor + " " + verb(e.getEventType()) + " \"" +
+                    (e.getTaskTitle() != null ? e.getTaskTitle() : "#" + e.getTaskId()) + "\"");
+            detail.setText(e.getDetail() != null ? e.getDetail() : "");
+            detail.setVisible(e.getDetail() != null);
+            detail.setManaged(e.getDetail() != null);
+            time.setText(e.getCreatedAt() != null ? timeFormat.format(e.getCreatedAt()) : "");
+            setGraphic(row);
+
+            if (getIndex() >= getListView().getItems().size() - 20) loadMoreActivity();
+        }
+
+        private String verb(String type) {
+            switch (type) {
+                case TaskEventService.CREATED:        return "created";
+                case TaskEventService.STATUS_CHANGED: return "moved";
+                case TaskEventService.MOVED:          return "rescheduled";
+                case TaskEventService.DELETED:        return "deleted";
+                default:                              return "edited";
+            }
+        }
     }
 
     // ══════════════════════════════════════════════════════
@@ -373,6 +688,10 @@ public class ProjectBoardController {
     }
 
     private void refreshBacklogList() {
+        UiMetrics.time("refreshBacklogList", this::doRefreshBacklogList);
+    }
+
+    private void doRefreshBacklogList() {
         // Remove everything except the toolbar (first child)
         if (backlogContent.getChildren().size() > 1) {
             backlogContent.getChildren().remove(1, backlogContent.getChildren().size());
@@ -983,16 +1302,32 @@ public class ProjectBoardController {
         Optional<Sprint> result = dialog.showAndWait();
         result.ifPresent(newSprint -> {
             try {
+                // The number shown in the dialog is a preview; create() assigns the real one.
                 sprintService.create(newSprint);
                 // Reload sprints and select the new one
                 loadSprints();
-                sprintSelector.getSelectionModel().select(newSprint);
+                sprintSelector.getItems().stream()
+                        .filter(s -> s.getSprintId() == newSprint.getSprintId())
+                        .findFirst()
+                        .ifPresent(s -> sprintSelector.getSelectionModel().select(s));
             } catch (SQLException e) {
                 showError("Failed to create sprint: " + e.getMessage());
             }
         });
     }
 
+    /** Tell the rest of the team; a failed notification must not look like a failed rollover. */
+    private void notifyRollover(SprintService.RolloverResult result, int userId) {
+        try {
+            notificationService.notifyProjectMembers(projectId, userId > 0 ? userId : null,
+                    "Sprint " + result.getFrom().getSprintNumber() + " completed",
+                    result.getMovedTasks() + " unfinished task(s) moved to Sprint " + result.getTo().getSprintNumber(),
+                    "SPRINT", result.getTo().getSprintId());
+        } catch (SQLException e) {
+            System.err.println("Failed to notify project members: " + e.getMessage());
+        }
+    }
+
     // ──── Filtering ────
     @FXML
     private void onFilterChanged(ActionEvent event) {
@@ -1003,6 +1338,8 @@ public class ProjectBoardController {
     private void renderActiveTab() {
         if (activeTab == tabBoard) renderBoard();
         else if (activeTab == tabBacklog) refreshBacklogList();
+        else if (activeTab == tabTimeline) renderTimeline();
+        else if (activeTab == tabActivity) reloadActivity();
     }
 
     private List<Task> getFilteredTasks() {
@@ -1043,6 +1380,10 @@ public class ProjectBoardController {
     // ══════════════════════════════════════════════════════
 
     private void renderBoard() {
+        UiMetrics.time("renderBoard", this::doRenderBoard);
+    }
+
+    private void doRenderBoard() {
         kanbanColumns.getChildren().clear();
         List<Task> filtered = getFilteredTasks();
 
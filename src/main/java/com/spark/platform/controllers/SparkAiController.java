@@ -0,0 +1,456 @@
+package com.spark.platform.controllers;
+
+import com.spark.platform.models.ChatMessage;
+import com.spark.platform.models.ChatSession;
+import com.spark.platform.services.ChatModel;
+import com.spark.platform.services.ChatService;
+import com.spark.platform.services.LocalChatModel;
+import com.spark.platform.services.MaterialSearchIndex;
+import com.spark.platform.services.ReplyStream;
+import com.spark.platform.utils.SessionManager;
+
+import javafx.animation.AnimationTimer;
+import javafx.application.Platform;
+import javafx.beans.property.SimpleStringProperty;
+import javafx.beans.property.StringProperty;
+import javafx.fxml.FXML;
+import javafx.geometry.Pos;
+import javafx.scene.control.*;
+import javafx.scene.input.KeyCode;
+import javafx.scene.layout.HBox;
+import javafx.scene.layout.VBox;
+
+import java.io.IOException;
+import java.sql.SQLException;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Controller for the Spark AI view: the user's chat sessions on the left, the selected
+ * conversation on the right.
+ *
+ * Both lists are keyset-paged through ChatService. Opening a session loads only its
+ * latest page; older pages are prepended when the top of the conversation scrolls into
+ * view, so a session with thousands of messages opens as fast as a new one.
+ *
+ * Replies stream in through a ReplyStream. An AnimationTimer reads the stream once per
+ * pulse and pushes the text into the one cell showing the reply, so the view redraws at
+ * most once a frame however fast tokens arrive. Each reply cites the best-matching page of
+ * the user's course materials, found in the local MaterialSearchIndex.
+ */
+public class SparkAiController {
+
+    // ──── FXML bindings ────
+    @FXML private ListView<ChatSession> sessionList;
+    @FXML private ListView<ChatMessage> messageList;
+    @FXML private Label sessionTitle;
+    @FXML private Label sessionSubtitle;
+    @FXML private TextArea messageInput;
+    @FXML private Button sendBtn;
+
+    // ──── Service ────
+    private final ChatService chatService = new ChatService();
+    private final ChatModel model = new LocalChatModel();
+
+    // ──── State ────
+    // TODO: HARDCODED — fallback user until the login screen is wired; the session user wins when present
+    private static final int CURRENT_USER_ID = 5;
+    private static final int SESSION_PAGE_SIZE = 30;
+    private static final int HISTORY_PAGE_SIZE = 40;
+    /** Messages handed to the model as context. */
+    private static final int CONTEXT_MESSAGES = 20;
+
+    private int userId;
+    private ChatSession currentSession;
+
+    private boolean sessionsLoading = false;
+    private boolean sessionsExhausted = false;
+
+    // History paging (the next page ends just before the first loaded message_id)
+    private boolean historyLoading = false;
+    private boolean historyExhausted = true;
+    /** Set once the latest page is on screen and scrolled to the bottom; until then top cells don't page. */
+    private boolean historyReady = false;
+    private int historyGeneration = 0;
+
+    // Streaming reply: the cell showing activeStream's message binds to streamingText
+    /** True from Send until chat-sender hands over a stream (or fails); Enter is ignored meanwhile. */
+    private boolean sending = false;
+    private ReplyStream activeStream;
+    private long shownVersion = -1;
+    private boolean followStream;
+    private final StringProperty streamingText = new SimpleStringProperty("");
+    private final AnimationTimer streamPump = new AnimationTimer() {
+        @Override
+        public void handle(long now) {
+            pumpStream();
+        }
+    };
+
+    // ──── Init ────
+    @FXML
+    private void initialize() {
+        int sessionUser = SessionManager.getInstance().getUserId();
+        userId = sessionUser > 0 ? sessionUser : CURRENT_USER_ID;
+
+        sessionList.setCellFactory(list -> new SessionCell());
+        sessionList.setPlaceholder(emptyLabel("No conversations yet"));
+        sessionList.getSelectionModel().selectedItemProperty().addListener((obs, old, selected) -> {
+            if (selected != null && selected != currentSession) openSession(selected);
+        });
+
+        messageList.setCellFactory(list -> new MessageCell());
+        messageList.setPlaceholder(emptyLabel("Start the conversation below."));
+        messageList.setFocusTraversable(false);
+        // Scrolling up while a reply streams stops it from pulling the view down.
+        messageList.setOnScroll(e -> {
+            if (e.getDeltaY() > 0) followStream = false;
+        });
+
+        messageInput.setOnKeyPressed(e -> {
+            if (e.getCode() == KeyCode.ENTER && !e.isShiftDown()) {
+                e.consume();
+                onSend();
+            }
+        });
+
+        loadMoreSessions();
+        warmUpIndex();
+    }
+
+    /** Load and sync the material index now, so the first question doesn't wait for it. */
+    private void warmUpIndex() {
+        Thread t = new Thread(() -> {
+            try {
+                MaterialSearchIndex.shared();
+            } catch (SQLException | IOException e) {
+                System.err.println("Material index unavailable: " + e.getMessage());
+            }
+        }, "material-index-warmup");
+        t.setDaemon(true);
+        t.start();
+    }
+
+    // ──── Sessions ────
+
+    /** Next page of sessions, appended; triggered on open and by the last cells becoming visible. */
+    private void loadMoreSessions() {
+        if (sessionsLoading || sessionsExhausted) return;
+        sessionsLoading = true;
+        List<ChatSession> items = sessionList.getItems();
+        Integer before = items.isEmpty() ? null : items.get(items.size() - 1).getSessionId();
+
+        runInBackground("chat-sessions-loader", () -> {
+            List<ChatSession> page = chatService.findSessions(userId, before, SESSION_PAGE_SIZE);
+            Platform.runLater(() -> {
+                sessionsLoading = false;
+                sessionsExhausted = page.size() < SESSION_PAGE_SIZE;
+                sessionList.getItems().addAll(page);
+            });
+        }, () -> {
+            sessionsLoading = false;
+            sessionsExhausted = true;
+        });
+    }
+
+    @FXML
+    private void onNewChat() {
+        currentSession = null;
+        sessionList.getSelectionModel().clearSelection();
+        historyGeneration++;
+        historyExhausted = true;
+        messageList.getItems().clear();
+        sessionTitle.setText("New chat");
+        sessionSubtitle.setText("Ask anything about your courses");
+        messageInput.requestFocus();
+    }
+
+    // ──── History ────
+
+    /** Show a session: load its latest page and scroll to the bottom. */
+    private void openSession(ChatSession session) {
+        currentSession = session;
+        historyGeneration++;
+        historyLoading = false;
+        historyExhausted = false;
+        historyReady = false;
+        messageList.getItems().clear();
+        sessionTitle.setText(titleOf(session));
+        sessionSubtitle.setText(session.getCreatedAt() != null
+                ? "Started " + new SimpleDateFormat("MMM d, yyyy").format(session.getCreatedAt()) : "");
+        loadOlderMessages();
+    }
+
+    /**
+     * Fetch the page before the oldest loaded message off the UI thread and prepend it,
+     * keeping the message that was at the top where it was.
+     */
+    private void loadOlderMessages() {
+        if (currentSession == null || historyLoading || historyExhausted) return;
+        historyLoading = true;
+
+        int generation = historyGeneration;
+        int sessionId = currentSession.getSessionId();
+        List<ChatMessage> items = messageList.getItems();
+        Integer before = items.isEmpty() ? null : items.get(0).getMessageId();
+
+        runInBackground("chat-history-loader", () -> {
+            List<ChatMessage> page = chatService.findPage(sessionId, before, HISTORY_PAGE_SIZE);
+            Platform.runLater(() -> {
+                if (generation != historyGeneration) return; // switched session meanwhile
+                historyLoading = false;
+                historyExhausted = page.size() < HISTORY_PAGE_SIZE;
+                messageList.getItems().addAll(0, page);
+                if (before == null) {
+                    messageList.scrollTo(messageList.getItems().size() - 1);
+                    // Let the scroll land before top cells may ask for more.
+                    Platform.runLater(() -> historyReady = generation == historyGeneration);
+                } else {
+                    messageList.scrollTo(page.size());
+                }
+            });
+        }, () -> {
+            if (generation != historyGeneration) return;
+            historyLoading = false;
+            historyExhausted = true;
+        });
+    }
+
+    // ──── Sending ────
+
+    /** Send the typed message and stream the reply; while a reply streams the button stops it. */
+    @FXML
+    private void onSend() {
+        if (sending) return;
+        if (activeStream != null) {
+            activeStream.cancel();
+            return;
+        }
+        String text = messageInput.getText().trim();
+        if (text.isEmpty()) return;
+        messageInput.clear();
+        sending = true;
+        sendBtn.setDisable(true);
+
+        ChatSession session = currentSession;
+        int generation = historyGeneration;
+        List<ChatMessage> items = messageList.getItems();
+        List<ChatMessage> context = session == null ? new ArrayList<>()
+                : new ArrayList<>(items.subList(Math.max(0, items.size() - (CONTEXT_MESSAGES - 1)), items.size()));
+        runInBackground("chat-sender", () -> {
+            ChatSession target = session != null ? session : chatService.createSession(userId, titleFor(text));
+            ChatMessage message = new ChatMessage();
+            message.setSessionId(target.getSessionId());
+            message.setRole(ChatService.USER);
+            message.setContent(text);
+            chatService.append(message);
+            MaterialSearchIndex.Hit source = findSource(text);
+            ChatMessage reply = source != null
+                    ? chatService.startReply(target.getSessionId(), source.getTitle(), source.getPage())
+                    : chatService.startReply(target.getSessionId());
+            context.add(message);
+            ReplyStream stream = new ReplyStream(chatService, model, context, reply);
+            Platform.runLater(() -> {
+                sending = false;
+                sendBtn.setDisable(false);
+                if (session == null) {
+                    // First message of a new chat: the session goes to the top of the list.
+                    currentSession = target;
+                    historyGeneration++;
+                    historyExhausted = true;
+                    historyReady = true;
+                    sessionList.getItems().add(0, target);
+                    sessionList.getSelectionModel().select(0);
+                    sessionTitle.setText(titleOf(target));
+                }
+                startStream(stream);
+                if (session != null && generation != historyGeneration) return; // switched away meanwhile
+                messageList.getItems().addAll(message, reply);
+                messageList.scrollTo(messageList.getItems().size() - 1);
+            });
+        }, () -> {
+            sending = false;
+            sendBtn.setDisable(false);
+            messageInput.setText(text);
+        });
+    }
+
+    private void startStream(ReplyStream stream) {
+        activeStream = stream;
+        shownVersion = -1;
+        followStream = true;
+        streamingText.set("");
+        sendBtn.setText("Stop");
+        stream.start();
+        streamPump.start();
+    }
+
+    /** Once per pulse: copy new text into the bound cell, and wrap up when the stream ends. */
+    private void pumpStream() {
+        ReplyStream stream = activeStream;
+        if (stream == null) return;
+        long version = stream.getVersion();
+        if (version == shownVersion) return;
+        shownVersion = version;
+        String text = stream.getText();
+        stream.getReply().setContent(text);
+        streamingText.set(text);
+        List<ChatMessage> items = messageList.getItems();
+        if (followStream && !items.isEmpty() && items.get(items.size() - 1) == stream.getReply()) {
+            messageList.scrollTo(items.size() - 1);
+        }
+
+        if (stream.isFinished()) {
+            streamPump.stop();
+            activeStream = null;
+            sendBtn.setText("Send");
+            messageList.refresh(); // drop the binding and show the final status
+        }
+    }
+
+    /** Best page of the user's course materials for a question, or null (no match, or no index). */
+    private MaterialSearchIndex.Hit findSource(String question) {
+        try {
+            Collection<Integer> courses = SessionManager.getInstance().getCourseIds();
+            List<MaterialSearchIndex.Hit> hits = MaterialSearchIndex.shared().search(question, courses, 1);
+            return hits.isEmpty() ? null : hits.get(0);
+        } catch (SQLException | IOException e) {
+            System.err.println("Material search failed: " + e.getMessage());
+            return null;
+        }
+    }
+
+    // ──── Cells ────
+
+    private class SessionCell extends ListCell<ChatSession> {
+        private final Label title = new Label();
+        private final Label time = new Label();
+        private final VBox box = new VBox(2, title, time);
+        private final SimpleDateFormat timeFormat = new SimpleDateFormat("MMM d, HH:mm");
+
+        SessionCell() {
+            title.getStyleClass().add("ai-session-title");
+            time.getStyleClass().add("ai-session-time");
+        }
+
+        @Override
+        protected void updateItem(ChatSession s, boolean empty) {
+            super.updateItem(s, empty);
+            if (empty || s == null) {
+                setGraphic(null);
+                return;
+            }
+            title.setText(titleOf(s));
+            time.setText(s.getCreatedAt() != null ? timeFormat.format(s.getCreatedAt()) : "");
+            setGraphic(box);
+
+            if (getIndex() >= getListView().getItems().size() - 5) loadMoreSessions();
+        }
+    }
+
+    /** One reusable row: a bubble on the right for the user, on the left for Spark AI. */
+    private class MessageCell extends ListCell<ChatMessage> {
+        private final Label bubble = new Label();
+        private final Label time = new Label();
+        private final Label source = new Label();
+        private final VBox stack = new VBox(4, bubble, source, time);
+        private final HBox row = new HBox(stack);
+        private final SimpleDateFormat timeFormat = new SimpleDateFormat("HH:mm");
+
+        MessageCell() {
+            bubble.setWrapText(true);
+            bubble.getStyleClass().add("ai-bubble");
+            bubble.maxWidthProperty().bind(messageList.widthProperty().multiply(0.7));
+            time.getStyleClass().add("ai-message-time");
+            source.getStyleClass().add("ai-message-source");
+            setPrefWidth(0); // wrap to the list width instead of widening it
+        }
+
+        @Override
+        protected void updateItem(ChatMessage m, boolean empty) {
+            super.updateItem(m, empty);
+            if (empty || m == null) {
+                bubble.textProperty().unbind();
+                setGraphic(null);
+                return;
+            }
+            boolean mine = ChatService.USER.equals(m.getRole());
+            bubble.textProperty().unbind();
+            boolean live = activeStream != null && activeStream.getReply().getMessageId() == m.getMessageId();
+            if (live) {
+                bubble.textProperty().bind(streamingText);
+            } else {
+                bubble.setText(m.getContent().isEmpty() ? "…" : m.getContent());
+            }
+            bubble.getStyleClass().setAll("label", "ai-bubble", mine ? "ai-bubble-user" : "ai-bubble-ai");
+            time.setText(timeLabel(m, live));
+            boolean cited = m.getSourceRef() != null;
+            source.setText(cited ? "Source: " + m.getSourceRef()
+                    + (m.getSourcePage() != null ? ", p. " + m.getSourcePage() : "") : "");
+            source.setVisible(cited);
+            source.setManaged(cited);
+            row.setAlignment(mine ? Pos.CENTER_RIGHT : Pos.CENTER_LEFT);
+            stack.setAlignment(mine ? Pos.CENTER_RIGHT : Pos.CENTER_LEFT);
+            setGraphic(row);
+
+            if (historyReady && getIndex() < 5) loadOlderMessages();
+        }
+
+        /** A STREAMING row nobody is writing any more (the app quit mid-reply) shows as stopped. */
+        private String timeLabel(ChatMessage m, boolean live) {
+            String at = m.getCreatedAt() != null ? timeFormat.format(m.getCreatedAt()) : "";
+            if (live) return "typing…";
+            if (ChatService.STREAMING.equals(m.getStatus()) || ChatService.INTERRUPTED.equals(m.getStatus())) {
+                return at.isEmpty() ? "stopped" : at + " · stopped";
+            }
+            return at;
+        }
+    }
+
+    // ──── Helpers ────
+
+    private static String titleOf(ChatSession s) {
+        return s.getTitle() != null && !s.getTitle().isBlank() ? s.getTitle() : "Untitled chat";
+    }
+
+    /** A new session is named after the start of its first message. */
+    private static String titleFor(String firstMessage) {
+        String line = firstMessage.lines().findFirst().orElse("").trim();
+        return line.length() <= 60 ? line : line.substring(0, 57) + "...";
+    }
+
+    private Label emptyLabel(String text) {
+        Label label = new Label(text);
+        label.getStyleClass().add("ai-empty");
+        return label;
+    }
+
+    private interface DbWork {
+        void run() throws SQLException;
+    }
+
+    /** Run DB work off the UI thread; on failure run onError and report it, both on the UI thread. */
+    private void runInBackground(String name, DbWork work, Runnable onError) {
+        Thread t = new Thread(() -> {
+            try {
+                work.run();
+            } catch (SQLException | RuntimeException e) {
+                Platform.runLater(() -> {
+                    onError.run();
+                    showError("Spark AI: " + e.getMessage());
+                });
+            }
+        }, name);
+        t.setDaemon(true);
+        t.start();
+    }
+
+    private void showError(String message) {
+        Alert alert = new Alert(Alert.AlertType.ERROR, message, ButtonType.OK);
+        alert.setTitle("Error");
+        alert.setHeaderText(null);
+        alert.showAndWait();
+    }
+}
@@ -2,6 +2,7 @@ package com.spark.platform.controllers;
 
 import com.spark.platform.models.Project;
 import com.spark.platform.services.StudentProjectService;
+import com.spark.platform.utils.SessionManager;
 
 import javafx.fxml.FXML;
 import javafx.fxml.FXMLLoader;
@@ -29,7 +30,7 @@ public class StudentProjectsController {
     private final StudentProjectService service = new StudentProjectService();
 
     // ──── State ────
-    // TODO: HARDCODED — replace with actual student ID from session/RBAC
+    // TODO: HARDCODED — fallback student until the login screen is wired; the session user wins when present
     private static final int CURRENT_STUDENT_ID = 5;
 
     // ──── Init ────
@@ -45,7 +46,9 @@ public class StudentProjectsController {
         contentArea.getChildren().clear();
 
         try {
-            List<Project> projects = service.findProjectsByStudent(CURRENT_STUDENT_ID);
+            SessionManager session = SessionManager.getInstance();
+            int studentId = session.isStudent() ? session.getUserId() : CURRENT_STUDENT_ID;
+            List<Project> projects = service.findProjectsByStudent(studentId);
 
             VBox container = new VBox(24);
             container.getStyleClass().add("sp-container");
@@ -139,6 +142,11 @@ public class StudentProjectsController {
     }
 
     private void openProjectBoard(Project project) {
+        SessionManager session = SessionManager.getInstance();
+        if (session.isLoggedIn() && !session.canAccessProject(project.getProjectId())) {
+            showError("You are not a member of this project.");
+            return;
+        }
         try {
             // Load the Project Board controller and set the project
             FXMLLoader loader = new FXMLLoader(getClass().getResource("/fxml/project-board-view.fxml"));
@@ -0,0 +1,208 @@
+package com.spark.platform.controllers;
+
+import com.spark.platform.services.TeacherDashboardService;
+import com.spark.platform.services.TeacherDashboardService.ClassroomSummary;
+import com.spark.platform.services.TeacherDashboardService.ProjectSummary;
+import com.spark.platform.utils.SessionManager;
+import com.spark.platform.utils.UiMetrics;
+
+import javafx.application.Platform;
+import javafx.fxml.FXML;
+import javafx.geometry.Pos;
+import javafx.scene.control.*;
+import javafx.scene.layout.*;
+
+import java.time.LocalTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+
+/**
+ * Controller for the Teacher Dashboard view.
+ * One card row of totals, then a section per classroom listing its projects with
+ * completion and velocity. Data comes from TeacherDashboardService in one background
+ * load; the UI thread only builds nodes.
+ */
+public class TeacherDashboardController {
+
+    // ──── FXML bindings ────
+    @FXML private Label viewSubtitle;
+    @FXML private Label updatedLabel;
+    @FXML private Button refreshBtn;
+    @FXML private StackPane contentArea;
+
+    // ──── Service ────
+    private final TeacherDashboardService service = new TeacherDashboardService();
+
+    private static final DateTimeFormatter TIME = DateTimeFormatter.ofPattern("HH:mm:ss");
+    private static final DateTimeFormatter DUE = DateTimeFormatter.ofPattern("dd MMM");
+
+    // ──── Init ────
+    @FXML
+    private void initialize() {
+        load();
+    }
+
+    @FXML
+    private void onRefresh() {
+        TeacherDashboardService.invalidate();
+        load();
+    }
+
+    private void load() {
+        SessionManager session = SessionManager.getInstance();
+        Integer teacherId = session.isTeacher() ? session.getUserId() : null;
+
+        refreshBtn.setDisable(true);
+        contentArea.getChildren().setAll(styled(new Label("Loading dashboard…"), "td-loading"));
+
+        Thread loader = new Thread(() -> {
+            try {
+                List<ClassroomSummary> data = service.loadDashboard(teacherId);
+                Platform.runLater(() -> UiMetrics.time("renderDashboard", () -> render(data)));
+            } catch (Exception e) {
+                Platform.runLater(() -> {
+                    refreshBtn.setDisable(false);
+                    contentArea.getChildren().setAll(
+                            styled(new Label("Failed to load dashboard: " + e.getMessage()), "td-empty-state"));
+                });
+            }
+        }, "teacher-dashboard-loader");
+        loader.setDaemon(true);
+        loader.start();
+    }
+
+    // ──── Rendering ────
+    private void render(List<ClassroomSummary> classrooms) {
+        refreshBtn.setDisable(false);
+        updatedLabel.setText("Updated " + LocalTime.now().format(TIME));
+
+        if (classrooms.isEmpty()) {
+            contentArea.getChildren().setAll(styled(new Label("No classes with projects yet."), "td-empty-state"));
+            return;
+        }
+
+        int projects = 0, total = 0, done = 0;
+        double velocity = 0;
+        for (ClassroomSummary c : classrooms) {
+            projects += c.getProjects().size();
+            total += c.getTotalTasks();
+            done += c.getDoneTasks();
+            for (ProjectSummary p : c.getProjects()) velocity += p.getVelocityPerWeek();
+        }
+        viewSubtitle.setText(classrooms.size() + " classes · " + projects + " projects");
+
+        VBox container = new VBox(20);
+        StackPane.setAlignment(container, Pos.TOP_LEFT);
+
+        HBox summaryRow = new HBox(16);
+        summaryRow.getChildren().addAll(
+                buildSummaryCard("Classes", String.valueOf(classrooms.size()), "#3B82F6"),
+                buildSummaryCard("Projects", String.valueOf(projects), "#8B5CF6"),
+                buildSummaryCard("Completion", percent(total == 0 ? 0 : (double) done / total), "#10B981"),
+                buildSummaryCard("Done / week", String.format("%.1f", velocity), "#F59E0B")
+        );
+        container.getChildren().add(summaryRow);
+
+        for (ClassroomSummary c : classrooms) {
+            container.getChildren().add(buildClassroomSection(c));
+        }
+
+        ScrollPane scroll = new ScrollPane(container);
+        scroll.setFitToWidth(true);
+        scroll.getStyleClass().add("td-scroll");
+        contentArea.getChildren().setAll(scroll);
+    }
+
+    private VBox buildClassroomSection(ClassroomSummary c) {
+        VBox section = new VBox();
+        section.getStyleClass().add("td-classroom");
+
+        HBox header = new HBox(12);
+        header.getStyleClass().add("td-classroom-header");
+        header.setAlignment(Pos.CENTER_LEFT);
+        Label name = styled(new Label(c.getName()), "td-classroom-name");
+        Region spacer = new Region();
+        HBox.setHgrow(spacer, Priority.ALWAYS);
+        Label meta = styled(new Label(c.getStudents() + " students · " + c.getProjects().size() + " projects · "
+                + percent(c.getCompletion()) + " done"), "td-classroom-meta");
+        header.getChildren().addAll(name, spacer, meta);
+        section.getChildren().add(header);
+
+        section.getChildren().add(buildRow(true, null));
+        for (ProjectSummary p : c.getProjects()) {
+            section.getChildren().add(buildRow(false, p));
+        }
+        return section;
+    }
+
+    /** Header row when header=true, otherwise one project row. Fixed column widths keep rows aligned. */
+    private HBox buildRow(boolean header, ProjectSummary p) {
+        HBox row = new HBox(12);
+        row.getStyleClass().add(header ? "td-header-row" : "td-row");
+        row.setAlignment(Pos.CENTER_LEFT);
+        row.setPrefHeight(header ? 34 : 44);
+
+        Label title = header ? headerCell("Project") : styled(new Label(p.getTitle()), "td-cell-name");
+        title.setMaxWidth(Double.MAX_VALUE);
+        HBox.setHgrow(title, Priority.ALWAYS);
+        row.getChildren().add(title);
+
+        if (header) {
+            row.getChildren().addAll(fixed(headerCell("Members"), 80), fixed(headerCell("Tasks"), 110),
+                    fixed(headerCell("Completion"), 200), fixed(headerCell("Done / wk"), 90), fixed(headerCell("Due"), 80));
+            return row;
+        }
+
+        ProgressBar bar = new ProgressBar(p.getCompletion());
+        bar.getStyleClass().add("td-progress");
+        if (p.getCompletion() < 0.3) bar.getStyleClass().add("td-progress-low");
+        bar.setPrefWidth(140);
+        HBox completion = new HBox(8, bar, styled(new Label(percent(p.getCompletion())), "td-cell-stat"));
+        completion.setAlignment(Pos.CENTER_LEFT);
+
+        row.getChildren().addAll(
+                fixed(stat(String.valueOf(p.getMembers())), 80),
+                fixed(stat(p.getDoneTasks() + " / " + p.getTotalTasks()), 110),
+                fixed(completion, 200),
+                fixed(stat(String.format("%.1f", p.getVelocityPerWeek())), 90),
+                fixed(stat(p.getEndDate() != null ? p.getEndDate().format(DUE) : "—"), 80));
+        return row;
+    }
+
+    private VBox buildSummaryCard(String label, String value, String color) {
+        VBox card = new VBox(4);
+        card.getStyleClass().add("td-summary-card");
+        card.setPrefWidth(160);
+        card.setMinWidth(140);
+        HBox.setHgrow(card, Priority.ALWAYS);
+
+        Label valueLabel = styled(new Label(value), "td-summary-value");
+        valueLabel.setStyle("-fx-text-fill: " + color + ";");
+        card.getChildren().addAll(valueLabel, styled(new Label(label), "td-summary-label"));
+        return card;
+    }
+
+    // ──── Helpers ────
+    private Label headerCell(String text) {
+        return styled(new Label(text), "td-header-cell");
+    }
+
+    private Label stat(String text) {
+        return styled(new Label(text), "td-cell-stat");
+    }
+
+    private <T extends Region> T fixed(T node, double width) {
+        node.setPrefWidth(width);
+        node.setMinWidth(width);
+        return node;
+    }
+
+    private <T extends Control> T styled(T control, String styleClass) {
+        control.getStyleClass().add(styleClass);
+        return control;
+    }
+
+    private String percent(double ratio) {
+        return Math.round(ratio * 100) + "%";
+    }
+}
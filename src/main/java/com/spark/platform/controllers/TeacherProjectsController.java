@@ -4,6 +4,8 @@ import com.spark.platform.models.Classroom;
 import com.spark.platform.models.Project;
 import com.spark.platform.models.User;
 import com.spark.platform.services.TeacherProjectService;
+import com.spark.platform.utils.SessionManager;
+import com.spark.platform.utils.UiMetrics;
 
 import javafx.collections.FXCollections;
 import javafx.fxml.FXML;
@@ -69,7 +71,10 @@ public class TeacherProjectsController {
         contentArea.getChildren().clear();
 
         try {
-            List<Classroom> classrooms = service.findAllClassrooms();
+            Integer teacherId = scopedTeacherId();
+            List<Classroom> classrooms = teacherId != null
+                    ? service.findClassroomsForTeacher(teacherId)
+                    : service.findAllClassrooms();
 
             VBox table = new VBox();
             table.getStyleClass().add("tp-table");
@@ -83,7 +88,9 @@ public class TeacherProjectsController {
             // ── Data rows ──
             for (Classroom c : classrooms) {
                 int studentCount = service.countStudents(c.getClassroomId());
-                int projectCount = service.countProjectsInClassroom(c.getClassroomId());
+                int projectCount = teacherId != null
+                        ? service.countProjectsInClassroom(c.getClassroomId(), teacherId)
+                        : service.countProjectsInClassroom(c.getClassroomId());
                 HBox row = buildClassroomRow(c, studentCount, projectCount);
                 table.getChildren().add(row);
             }
@@ -102,6 +109,12 @@ public class TeacherProjectsController {
         }
     }
 
+    /** Logged-in teachers only see their own courses; admins (and the dev shell without login) see everything. */
+    private Integer scopedTeacherId() {
+        SessionManager session = SessionManager.getInstance();
+        return session.isTeacher() ? session.getUserId() : null;
+    }
+
     private HBox buildClassroomRow(Classroom c, int students, int projects) {
         HBox row = new HBox();
         row.getStyleClass().add("tp-row");
@@ -156,7 +169,10 @@ public class TeacherProjectsController {
         contentArea.getChildren().clear();
 
         try {
-            List<Project> projects = service.findProjectsByClassroom(classroom.getClassroomId());
+            Integer teacherId = scopedTeacherId();
+            List<Project> projects = teacherId != null
+                    ? service.findProjectsByClassroom(classroom.getClassroomId(), teacherId)
+                    : service.findProjectsByClassroom(classroom.getClassroomId());
 
             VBox container = new VBox(16);
             container.getStyleClass().add("tp-container");
@@ -272,6 +288,10 @@ public class TeacherProjectsController {
     // ═══════════════════════════════════════════════════════
 
     private void showProjectDetail(Project project) {
+        UiMetrics.time("showProjectDetail", () -> doShowProjectDetail(project));
+    }
+
+    private void doShowProjectDetail(Project project) {
         selectedProject = project;
 
         viewTitle.setText(project.getTitle());
@@ -0,0 +1,58 @@
+package com.spark.platform.models;
+
+import java.sql.Timestamp;
+
+public class TaskEvent {
+    private long eventId;
+    private int projectId;
+    private int taskId;
+    private String taskTitle;
+    private Integer actorId;
+    private String actorName;
+    private String eventType; // CREATED, UPDATED, STATUS_CHANGED, MOVED, DELETED
+    private String detail;
+    private Timestamp createdAt;
+
+    public TaskEvent() {}
+
+    public TaskEvent(int projectId, int taskId, String taskTitle, Integer actorId, String eventType, String detail) {
+        this.projectId = projectId;
+        this.taskId = taskId;
+        this.taskTitle = taskTitle;
+        this.actorId = actorId;
+        this.eventType = eventType;
+        this.detail = detail;
+    }
+
+    public long getEventId() { return eventId; }
+    public void setEventId(long eventId) { this.eventId = eventId; }
+
+    public int getProjectId() { return projectId; }
+    public void setProjectId(int projectId) { this.projectId = projectId; }
+
+    public int getTaskId() { return taskId; }
+    public void setTaskId(int taskId) { this.taskId = taskId; }
+
+    public String getTaskTitle() { return taskTitle; }
+    public void setTaskTitle(String taskTitle) { this.taskTitle = taskTitle; }
+
+    public Integer getActorId() { return actorId; }
+    public void setActorId(Integer actorId) { this.actorId = actorId; }
+
+    public String getActorName() { return actorName; }
+    public void setActorName(String actorName) { this.actorName = actorName; }
+
+    public String getEventType() { return eventType; }
+    public void setEventType(String eventType) { this.eventType = eventType; }
+
+    public String getDetail() { return detail; }
+    public void setDetail(String detail) { this.detail = detail; }
+
+    public Timestamp getCreatedAt() { return createdAt; }
+    public void setCreatedAt(Timestamp createdAt) { this.createdAt = createdAt; }
+
+    @Override
+    public String toString() {
+        return "TaskEvent{" + eventId + ", " + eventType + ", task=" + taskId + "}";
+    }
+}
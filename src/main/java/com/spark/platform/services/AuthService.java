@@ -0,0 +1,154 @@
+package com.spark.platform.services;
+
+import com.spark.platform.config.DatabaseConfig;
+import com.spark.platform.models.User;
+import com.spark.platform.utils.PasswordUtils;
+import com.spark.platform.utils.SessionManager;
+
+import java.sql.*;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Service layer for credential checks.
+ * BCrypt work runs on the PasswordUtils pool; stored hashes below the configured
+ * cost are transparently upgraded after a successful login.
+ */
+public class AuthService {
+
+    /**
+     * Authenticate and open the session: role flags and project / classroom / course
+     * memberships are loaded once here and cached in SessionManager.
+     * Returns the user, or null if the credentials are rejected.
+     */
+    public User login(String email, String plainPassword) throws SQLException {
+        User user = authenticate(email, plainPassword);
+        if (user != null) {
+            startSession(user);
+        }
+        return user;
+    }
+
+    /** Load the user's memberships and publish them to SessionManager. */
+    public void startSession(User user) throws SQLException {
+        int userId = user.getUserId();
+        Set<Integer> projects = new HashSet<>();
+        Set<Integer> classrooms = new HashSet<>();
+        Set<Integer> courses = new HashSet<>();
+
+        try (Connection conn = db()) {
+            switch (user.getUserType()) {
+                case "STUDENT":
+                    if (user.getClassroomId() != null) classrooms.add(user.getClassroomId());
+                    collectIds(conn, "SELECT project_id FROM project_members WHERE user_id = ?", userId, projects);
+                    collectIds(conn, "SELECT course_id FROM student_courses WHERE student_id = ?", userId, courses);
+                    break;
+                case "TEACHER":
+                    collectIds(conn, "SELECT course_id FROM teacher_courses WHERE teacher_id = ?", userId, courses);
+                    collectIds(conn, "SELECT p.project_id FROM projects p " +
+                                     "JOIN teacher_courses tc ON tc.course_id = p.course_id " +
+                                     "WHERE tc.teacher_id = ?", userId, projects);
+                    collectIds(conn, "SELECT project_id FROM project_members WHERE user_id = ?", userId, projects);
+                    collectIds(conn, "SELECT DISTINCT u.classroom_id FROM users u " +
+                                     "JOIN student_courses sc ON sc.student_id = u.user_id " +
+                                     "JOIN teacher_courses tc ON tc.course_id = sc.course_id " +
+                                     "WHERE tc.teacher_id = ? AND u.classroom_id IS NOT NULL",
+                               userId, classrooms);
+                    break;
+                default:
+                    // Administrators are authorized for everything; nothing to cache.
+                    break;
+            }
+        }
+        SessionManager.getInstance().login(user, projects, classrooms, courses);
+    }
+
+    private void collectIds(Connection conn, String sql, int userId, Set<Integer> into) throws SQLException {
+        try (PreparedStatement ps = conn.prepareStatement(sql)) {
+            ps.setInt(1, userId);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    into.add(rs.getInt(1));
+                }
+            }
+        }
+    }
+
+    /**
+     * Check an email/password pair. Returns the user (without the password hash),
+     * or null when the email is unknown, the account is inactive or the password is wrong.
+     * Blocking — from the UI use {@link #authenticateAsync(String, String)}.
+     */
+    public User authenticate(String email, String plainPassword) throws SQLException {
+        User user = findByEmail(email);
+        if (user == null || !"ACTIVE".equals(user.getStatus())) {
+            return null;
+        }
+        String stored = user.getPassword();
+        if (!PasswordUtils.verify(plainPassword, stored)) {
+            return null;
+        }
+        if (PasswordUtils.needsRehash(stored)) {
+            updatePasswordHash(user.getUserId(), stored, PasswordUtils.hash(plainPassword));
+        }
+        user.setPassword(null);
+        return user;
+    }
+
+    /**
+     * Same as {@link #authenticate(String, String)} but on the bcrypt pool.
+     * Complete UI work with Platform.runLater in the callback. Every failure, including
+     * a full bcrypt queue (RejectedExecutionException), arrives through the future.
+     */
+    public CompletableFuture<User> authenticateAsync(String email, String plainPassword) {
+        return PasswordUtils.submit(() -> authenticate(email, plainPassword));
+    }
+
+    /**
+     * Replace a hash only if it is still the one we verified against,
+     * so a concurrent password change is never overwritten.
+     */
+    private void updatePasswordHash(int userId, String oldHash, String newHash) throws SQLException {
+        String sql = "UPDATE users SET password = ? WHERE user_id = ? AND password = ?";
+        try (Connection conn = db(); PreparedStatement ps = conn.prepareStatement(sql)) {
+            ps.setString(1, newHash);
+            ps.setInt(2, userId);
+            ps.setString(3, oldHash);
+            ps.executeUpdate();
+        }
+    }
+
+    public User findByEmail(String email) throws SQLException {
+        String sql = "SELECT * FROM users WHERE email = ?";
+        try (Connection conn = db(); PreparedStatement ps = conn.prepareStatement(sql)) {
+            ps.setString(1, email);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next() ? mapRow(rs) : null;
+            }
+        }
+    }
+
+    // ──── Helpers ────
+    private Connection db() throws SQLException {
+        return DatabaseConfig.getInstance().getConnection();
+    }
+
+    private User mapRow(ResultSet rs) throws SQLException {
+        User u = new User();
+        u.setUserId(rs.getInt("user_id"));
+        u.setName(rs.getString("name"));
+        u.setEmail(rs.getString("email"));
+        u.setPassword(rs.getString("password"));
+        u.setUserType(rs.getString("user_type"));
+        int classroomId = rs.getInt("classroom_id");
+        u.setClassroomId(rs.wasNull() ? null : classroomId);
+        u.setPhone(rs.getString("phone"));
+        u.setSkillsJson(rs.getString("skills_json"));
+        u.setProfileImage(rs.getString("profile_image"));
+        u.setStatus(rs.getString("status"));
+        u.setCreatedAt(rs.getTimestamp("created_at"));
+        u.setUpdatedAt(rs.getTimestamp("updated_at"));
+        return u;
+    }
+}
@@ -0,0 +1,269 @@
+package com.spark.platform.services;
+
+import com.spark.platform.config.DatabaseConfig;
+import com.spark.platform.models.Sprint;
+
+import java.sql.*;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Burndown and velocity derived from task_status_history.
+ *
+ * Each sprint keeps a cached state (the last history_id applied, every relevant task's
+ * latest state, a per-day remaining/completed series and a per-event step series).
+ * A refresh only reads history rows newer than what was applied, turns each into a
+ * delta for its task and adds it to the days from the event onwards — so reopening a
+ * sprint after a few card moves costs a few rows, not a rescan.
+ *
+ * history_id is allocated at insert but becomes visible at commit, so a slow transaction
+ * can commit an id below one already applied. Each refresh therefore re-reads the last
+ * LATE_WINDOW ids and skips the ones it has seen; an unseen one means a row arrived out of
+ * order, and since deltas depend on order the sprint is replayed from scratch. Anything
+ * later than that (or written behind the app's back) is picked up when the state expires
+ * after CACHE_TTL_MILLIS.
+ *
+ * "Remaining" is the estimated_hours of tasks that are in the sprint and not DONE
+ * (unestimated tasks count as 0h).
+ */
+public class BurndownService {
+
+    private static final ZoneId ZONE = ZoneId.systemDefault();
+    private static final long CACHE_TTL_MILLIS = 10 * 60_000;
+    private static final long LATE_WINDOW = 500;
+    private static final Map<Integer, SprintState> CACHE = new ConcurrentHashMap<>();
+
+    /** Burndown for one sprint, refreshed incrementally from the cache. */
+    public Burndown getBurndown(Sprint sprint) throws SQLException {
+        SprintState state = CACHE.computeIfAbsent(sprint.getSprintId(), id -> new SprintState(sprint));
+        synchronized (state) {
+            state.ensureWindow(sprint);
+            if (System.currentTimeMillis() - state.builtAt > CACHE_TTL_MILLIS) state.reset();
+            try (Connection conn = db()) {
+                state.applyNewHistory(conn);
+            }
+            return state.snapshot();
+        }
+    }
+
+    /**
+     * Completed hours per sprint (velocity), in sprint-number order.
+     * Each sprint reuses its cached burndown, so this is cheap after the first call.
+     */
+    public LinkedHashMap<Sprint, Double> getVelocity(List<Sprint> sprints) throws SQLException {
+        List<Sprint> ordered = new ArrayList<>(sprints);
+        ordered.sort(Comparator.comparingInt(Sprint::getSprintNumber));
+        LinkedHashMap<Sprint, Double> velocity = new LinkedHashMap<>();
+        for (Sprint s : ordered) {
+            Burndown b = getBurndown(s);
+            velocity.put(s, b.completed.length == 0 ? 0 : b.completed[b.completed.length - 1]);
+        }
+        return velocity;
+    }
+
+    /** Drop the cached state of one sprint, so the next getBurndown replays its whole history. */
+    public static void invalidate(int sprintId) {
+        CACHE.remove(sprintId);
+    }
+
+    private Connection db() throws SQLException {
+        return DatabaseConfig.getInstance().getConnection();
+    }
+
+    // ──── Cached per-sprint state ────
+    private static final class SprintState {
+        final int sprintId;
+        LocalDate start;
+        LocalDate end;
+        long lastHistoryId;
+        long builtAt = System.currentTimeMillis();
+        /** Applied history_ids within LATE_WINDOW of lastHistoryId, to skip on re-read. */
+        final TreeSet<Long> recentIds = new TreeSet<>();
+
+        /** Latest known state of every task that has ever been in this sprint. */
+        final Map<Integer, double[]> taskContribution = new HashMap<>(); // {remaining, completed, scope}
+
+        double[] remaining = new double[0];
+        double[] completed = new double[0];
+        double[] scope = new double[0];
+
+        // Step series, one remaining-hours delta per applied event (grows append-only).
+        // history_id order is almost always time order; backfilled rows are the exception.
+        long[] eventTimes = new long[64];
+        double[] eventDeltas = new double[64];
+        int eventCount;
+        boolean eventsInTimeOrder = true;
+
+        SprintState(Sprint sprint) {
+            this.sprintId = sprint.getSprintId();
+        }
+
+        /** (Re)build when the sprint's dates change — the daily arrays are indexed by them. */
+        void ensureWindow(Sprint sprint) {
+            LocalDate s = sprint.getStartDate() != null ? sprint.getStartDate().toLocalDate() : null;
+            LocalDate e = sprint.getEndDate() != null ? sprint.getEndDate().toLocalDate() : null;
+            if (s == null) s = e != null ? e.minusDays(13) : LocalDate.now().minusDays(13);
+            if (e == null || e.isBefore(s)) e = s.plusDays(13);
+            if (s.equals(start) && e.equals(end)) return;
+
+            start = s;
+            end = e;
+            reset();
+        }
+
+        /** Forget everything applied; the next applyNewHistory replays the sprint from the start. */
+        void reset() {
+            int days = (int) (end.toEpochDay() - start.toEpochDay()) + 1;
+            remaining = new double[days];
+            completed = new double[days];
+            scope = new double[days];
+            taskContribution.clear();
+            lastHistoryId = 0;
+            recentIds.clear();
+            eventCount = 0;
+            eventsInTimeOrder = true;
+            builtAt = System.currentTimeMillis();
+        }
+
+        void applyNewHistory(Connection conn) throws SQLException {
+            if (!readHistory(conn)) {
+                reset();
+                readHistory(conn);
+            }
+        }
+
+        /** Apply unseen rows in id order; false (stopping early) if one is older than what was applied. */
+        private boolean readHistory(Connection conn) throws SQLException {
+            // Every change of any task that has ever been in this sprint — including the
+            // row that moves it out again, whose sprint_id is no longer this sprint.
+            String sql = "SELECT h.history_id, h.task_id, h.sprint_id, h.status, h.estimated_hours, h.changed_at " +
+                         "FROM task_status_history h " +
+                         "WHERE h.history_id > ? AND h.task_id IN " +
+                         "  (SELECT task_id FROM task_status_history WHERE sprint_id = ?) " +
+                         "ORDER BY h.history_id";
+            try (PreparedStatement ps = conn.prepareStatement(sql)) {
+                ps.setLong(1, Math.max(0, lastHistoryId - LATE_WINDOW));
+                ps.setInt(2, sprintId);
+                try (ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) {
+                        long historyId = rs.getLong(1);
+                        if (recentIds.contains(historyId)) continue;
+                        if (historyId < lastHistoryId) return false;
+                        int sprint = rs.getInt(3);
+                        boolean inSprint = !rs.wasNull() && sprint == sprintId;
+                        String status = rs.getString(4);
+                        double hours = rs.getFloat(5); // NULL estimate reads as 0
+                        apply(rs.getInt(2), inSprint, status, hours, rs.getTimestamp(6));
+                        lastHistoryId = historyId;
+                        recentIds.add(historyId);
+                    }
+                }
+            }
+            recentIds.headSet(lastHistoryId - LATE_WINDOW, true).clear();
+            return true;
+        }
+
+        private void apply(int taskId, boolean inSprint, String status, double hours, Timestamp at) {
+            boolean live = inSprint && !TaskService.STATUS_DELETED.equals(status);
+            boolean done = "DONE".equals(status);
+            double[] next = {live && !done ? hours : 0, live && done ? hours : 0, live ? hours : 0};
+            double[] prev = taskContribution.getOrDefault(taskId, new double[3]);
+            taskContribution.put(taskId, next);
+
+            double dRemaining = next[0] - prev[0];
+            double dCompleted = next[1] - prev[1];
+            double dScope = next[2] - prev[2];
+            if (dRemaining == 0 && dCompleted == 0 && dScope == 0) return;
+
+            // Events before the sprint count from day 0; events after its end are ignored for
+            // the daily series (the sprint is over) but still kept in the step series.
+            LocalDate day = at.toLocalDateTime().toLocalDate();
+            int from = (int) Math.max(0, day.toEpochDay() - start.toEpochDay());
+            for (int d = from; d < remaining.length; d++) {
+                remaining[d] += dRemaining;
+                completed[d] += dCompleted;
+                scope[d] += dScope;
+            }
+
+            if (eventCount == eventTimes.length) {
+                eventTimes = Arrays.copyOf(eventTimes, eventCount * 2);
+                eventDeltas = Arrays.copyOf(eventDeltas, eventCount * 2);
+            }
+            long time = at.getTime();
+            if (eventCount > 0 && time < eventTimes[eventCount - 1]) eventsInTimeOrder = false;
+            eventTimes[eventCount] = time;
+            eventDeltas[eventCount] = dRemaining;
+            eventCount++;
+        }
+
+        Burndown snapshot() {
+            long[] times = new long[eventCount];
+            double[] values = new double[eventCount];
+            Integer[] order = null;
+            if (!eventsInTimeOrder) {
+                order = new Integer[eventCount];
+                for (int i = 0; i < eventCount; i++) order[i] = i;
+                Arrays.sort(order, Comparator.comparingLong(i -> eventTimes[i]));
+            }
+            double running = 0;
+            for (int i = 0; i < eventCount; i++) {
+                int src = order == null ? i : order[i];
+                running += eventDeltas[src];
+                times[i] = eventTimes[src];
+                values[i] = running;
+            }
+            return new Burndown(sprintId, start, remaining.clone(), completed.clone(), scope.clone(), times, values);
+        }
+    }
+
+    // ──── Result ────
+
+    /** Immutable snapshot handed to the UI; arrays are copies. */
+    public static final class Burndown {
+        public final int sprintId;
+        /** Day 0 of the daily arrays. */
+        public final LocalDate start;
+        /** Remaining hours at the end of each sprint day. */
+        public final double[] remaining;
+        /** Completed hours at the end of each sprint day. */
+        public final double[] completed;
+        /** Total hours in the sprint at the end of each day (scope changes show here). */
+        public final double[] scope;
+        /** Step series: epoch millis of each change and the remaining hours right after it. */
+        public final long[] eventTimes;
+        public final double[] eventRemaining;
+
+        Burndown(int sprintId, LocalDate start, double[] remaining, double[] completed, double[] scope,
+                 long[] eventTimes, double[] eventRemaining) {
+            this.sprintId = sprintId;
+            this.start = start;
+            this.remaining = remaining;
+            this.completed = completed;
+            this.scope = scope;
+            this.eventTimes = eventTimes;
+            this.eventRemaining = eventRemaining;
+        }
+
+        public int getDays() {
+            return remaining.length;
+        }
+
+        public LocalDate getEnd() {
+            return start.plusDays(remaining.length - 1);
+        }
+
+        /** Epoch millis of the start of day 0, for plotting the step series on the same axis. */
+        public long getStartMillis() {
+            return start.atStartOfDay(ZONE).toInstant().toEpochMilli();
+        }
+
+        /** Ideal line: the first day's scope burned linearly to zero on the last day. */
+        public double idealAt(int day) {
+            if (remaining.length <= 1) return 0;
+            double initial = scope[0];
+            return initial * (1 - (double) day / (remaining.length - 1));
+        }
+    }
+}
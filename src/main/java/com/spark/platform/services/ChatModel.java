@@ -0,0 +1,24 @@
+package com.spark.platform.services;
+
+import com.spark.platform.models.ChatMessage;
+
+import java.util.List;
+
+/**
+ * Something that writes Spark AI's replies, one token at a time.
+ * LocalChatModel stands in until a real model is wired in.
+ */
+public interface ChatModel {
+
+    /**
+     * Generate a reply to the conversation (oldest first, ending with the user's question),
+     * handing each token to sink as soon as it exists. Stops early when sink returns false.
+     */
+    void generate(List<ChatMessage> conversation, TokenSink sink) throws Exception;
+
+    @FunctionalInterface
+    interface TokenSink {
+        /** Returns false when the reply is no longer wanted. */
+        boolean accept(String token);
+    }
+}
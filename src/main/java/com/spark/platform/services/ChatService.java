@@ -0,0 +1,240 @@
+package com.spark.platform.services;
+
+import com.spark.platform.config.DatabaseConfig;
+import com.spark.platform.models.ChatMessage;
+import com.spark.platform.models.ChatSession;
+
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Service layer for Spark AI conversations (chat_sessions, chat_messages).
+ *
+ * Appends are batched: a question and its answer, or an imported transcript, go in as one
+ * multi-row INSERT (APPEND_CHUNK rows per statement) and the generated ids are written back
+ * to the messages.
+ *
+ * History is keyset-paged newest-first on (session_id, message_id). idx_chat_msg_session_id
+ * (migration V12) is that key, so a page is an index range scan of `limit` rows however
+ * long the session is; opening a session loads only its last page and older pages are read
+ * as the user scrolls back. Sessions are paged the same way on (user_id, session_id).
+ *
+ * AI replies are written while they are generated: startReply() inserts an empty STREAMING
+ * row, ReplyStream saves the text so far with saveReply() every so often, and the last save
+ * sets DONE (or INTERRUPTED if generation failed).
+ */
+public class ChatService {
+
+    public static final String USER = "USER";
+    public static final String AI = "AI";
+
+    public static final String ACTIVE = "ACTIVE";
+    public static final String STREAMING = "STREAMING";
+    public static final String DONE = "DONE";
+    public static final String INTERRUPTED = "INTERRUPTED";
+
+    /** Rows per INSERT; keeps long transcripts well under max_allowed_packet. */
+    private static final int APPEND_CHUNK = 500;
+
+    // ──── Sessions ────
+
+    public ChatSession createSession(int userId, String title) throws SQLException {
+        String sql = "INSERT INTO chat_sessions (user_id, title) VALUES (?, ?)";
+        try (Connection conn = db(); PreparedStatement ps = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+            ps.setInt(1, userId);
+            ps.setString(2, title);
+            ps.executeUpdate();
+            try (ResultSet keys = ps.getGeneratedKeys()) {
+                if (keys.next()) return findSession(keys.getInt(1));
+            }
+        }
+        return null;
+    }
+
+    public ChatSession findSession(int sessionId) throws SQLException {
+        String sql = "SELECT * FROM chat_sessions WHERE session_id = ?";
+        try (Connection conn = db(); PreparedStatement ps = conn.prepareStatement(sql)) {
+            ps.setInt(1, sessionId);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next() ? mapSession(rs) : null;
+            }
+        }
+    }
+
+    /**
+     * One page of a user's active sessions, newest first. Pass the last session id of the
+     * previous page as beforeSessionId (null for the first page).
+     */
+    public List<ChatSession> findSessions(int userId, Integer beforeSessionId, int limit) throws SQLException {
+        String sql = "SELECT * FROM chat_sessions WHERE user_id = ? AND session_id < ? AND status = 'ACTIVE' " +
+                     "ORDER BY session_id DESC LIMIT ?";
+        List<ChatSession> sessions = new ArrayList<>();
+        try (Connection conn = db(); PreparedStatement ps = conn.prepareStatement(sql)) {
+            ps.setInt(1, userId);
+            ps.setInt(2, beforeSessionId != null ? beforeSessionId : Integer.MAX_VALUE);
+            ps.setInt(3, limit);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    sessions.add(mapSession(rs));
+                }
+            }
+        }
+        return sessions;
+    }
+
+    public void renameSession(int sessionId, String title) throws SQLException {
+        String sql = "UPDATE chat_sessions SET title = ? WHERE session_id = ?";
+        try (Connection conn = db(); PreparedStatement ps = conn.prepareStatement(sql)) {
+            ps.setString(1, title);
+            ps.setInt(2, sessionId);
+            ps.executeUpdate();
+        }
+    }
+
+    /** Soft delete: the session disappears from the list, its messages stay. */
+    public void archiveSession(int sessionId) throws SQLException {
+        String sql = "UPDATE chat_sessions SET status = 'ARCHIVED' WHERE session_id = ?";
+        try (Connection conn = db(); PreparedStatement ps = conn.prepareStatement(sql)) {
+            ps.setInt(1, sessionId);
+            ps.executeUpdate();
+        }
+    }
+
+    // ──── Messages ────
+
+    /** Insert the (empty) AI message a streamed reply is written into. */
+    public ChatMessage startReply(int sessionId) throws SQLException {
+        return startReply(sessionId, null, null);
+    }
+
+    /** Same, citing a material page (see MaterialSearchIndex); sourceRef is the material title. */
+    public ChatMessage startReply(int sessionId, String sourceRef, Integer sourcePage) throws SQLException {
+        ChatMessage m = new ChatMessage();
+        m.setSessionId(sessionId);
+        m.setRole(AI);
+        m.setContent("");
+        m.setSourceRef(sourceRef != null && sourceRef.length() > 500 ? sourceRef.substring(0, 500) : sourceRef);
+        m.setSourcePage(sourcePage);
+        m.setStatus(STREAMING);
+        return append(m);
+    }
+
+    /** Overwrite a streamed reply with the text so far; status stays STREAMING until the last save. */
+    public void saveReply(int messageId, String content, String status) throws SQLException {
+        String sql = "UPDATE chat_messages SET content = ?, status = ? WHERE message_id = ?";
+        try (Connection conn = db(); PreparedStatement ps = conn.prepareStatement(sql)) {
+            ps.setString(1, content);
+            ps.setString(2, status);
+            ps.setInt(3, messageId);
+            ps.executeUpdate();
+        }
+    }
+
+    public ChatMessage append(ChatMessage message) throws SQLException {
+        appendAll(Collections.singletonList(message));
+        return message;
+    }
+
+    /**
+     * Insert messages in order with one multi-row INSERT per APPEND_CHUNK, all in one
+     * transaction. Each message gets its generated message_id; ids follow list order.
+     */
+    public void appendAll(List<ChatMessage> messages) throws SQLException {
+        if (messages.isEmpty()) return;
+        try (Connection conn = db()) {
+            conn.setAutoCommit(false);
+            try {
+                for (int from = 0; from < messages.size(); from += APPEND_CHUNK) {
+                    insertChunk(conn, messages.subList(from, Math.min(messages.size(), from + APPEND_CHUNK)));
+                }
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * One page of a session's history ending just before beforeMessageId (null for the
+     * latest page). Rows are read newest-first but returned oldest-first, ready to be
+     * prepended to what is already on screen; the first element's id is the next cursor.
+     */
+    public List<ChatMessage> findPage(int sessionId, Integer beforeMessageId, int limit) throws SQLException {
+        String sql = "SELECT * FROM chat_messages WHERE session_id = ? AND message_id < ? AND status <> 'DELETED' " +
+                     "ORDER BY message_id DESC LIMIT ?";
+        List<ChatMessage> page = new ArrayList<>();
+        try (Connection conn = db(); PreparedStatement ps = conn.prepareStatement(sql)) {
+            ps.setInt(1, sessionId);
+            ps.setInt(2, beforeMessageId != null ? beforeMessageId : Integer.MAX_VALUE);
+            ps.setInt(3, limit);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    page.add(mapMessage(rs));
+                }
+            }
+        }
+        Collections.reverse(page);
+        return page;
+    }
+
+    private void insertChunk(Connection conn, List<ChatMessage> chunk) throws SQLException {
+        StringBuilder sql = new StringBuilder(
+                "INSERT INTO chat_messages (session_id, role, content, source_ref, source_page, status) VALUES ");
+        for (int i = 0; i < chunk.size(); i++) {
+            sql.append(i == 0 ? "(?, ?, ?, ?, ?, ?)" : ", (?, ?, ?, ?, ?, ?)");
+        }
+        try (PreparedStatement ps = conn.prepareStatement(sql.toString(), Statement.RETURN_GENERATED_KEYS)) {
+            int p = 1;
+            for (ChatMessage m : chunk) {
+                ps.setInt(p++, m.getSessionId());
+                ps.setString(p++, m.getRole());
+                ps.setString(p++, m.getContent());
+                ps.setString(p++, m.getSourceRef());
+                if (m.getSourcePage() == null) ps.setNull(p++, Types.INTEGER);
+                else ps.setInt(p++, m.getSourcePage());
+                if (m.getStatus() == null) m.setStatus(ACTIVE);
+                ps.setString(p++, m.getStatus());
+            }
+            ps.executeUpdate();
+            // One statement gets consecutive ids, returned in row order.
+            try (ResultSet keys = ps.getGeneratedKeys()) {
+                for (ChatMessage m : chunk) {
+                    if (!keys.next()) break;
+                    m.setMessageId(keys.getInt(1));
+                }
+            }
+        }
+    }
+
+    // ──── Helpers ────
+    private Connection db() throws SQLException {
+        return DatabaseConfig.getInstance().getConnection();
+    }
+
+    private ChatSession mapSession(ResultSet rs) throws SQLException {
+        ChatSession s = new ChatSession();
+        s.setSessionId(rs.getInt("session_id"));
+        s.setUserId(rs.getInt("user_id"));
+        s.setTitle(rs.getString("title"));
+        s.setStatus(rs.getString("status"));
+        s.setCreatedAt(rs.getTimestamp("created_at"));
+        return s;
+    }
+
+    private ChatMessage mapMessage(ResultSet rs) throws SQLException {
+        ChatMessage m = new ChatMessage();
+        m.setMessageId(rs.getInt("message_id"));
+        m.setSessionId(rs.getInt("session_id"));
+        m.setRole(rs.getString("role"));
+        m.setContent(rs.getString("content"));
+        m.setSourceRef(rs.getString("source_ref"));
+        int page = rs.getInt("source_page");
+        m.setSourcePage(rs.wasNull() ? null : page);
+        m.setStatus(rs.getString("status"));
+        m.setCreatedAt(rs.getTimestamp("created_at"));
+        return m;
+    }
+}
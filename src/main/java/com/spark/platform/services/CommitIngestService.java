@@ -0,0 +1,316 @@
+package com.spark.platform.services;
+
+import com.spark.platform.config.DatabaseConfig;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.*;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Imports a project's git history from a local clone into commits (no network: it runs
+ * the local git binary against the clone).
+ *
+ * One `git log --topo-order --reverse --numstat` pass streams the commits parents first
+ * (commit timestamps alone can put a child before its parent under clock skew); each is parsed
+ * into author, message, additions/deletions and the first TASK-<id> reference to one of
+ * the project's tasks. Authors are matched to users by e-mail. Rows go in with multi-row
+ * INSERT IGNORE, INSERT_CHUNK per statement. After every transaction
+ * project_repo_sync.last_hash is moved to the newest commit written (same transaction),
+ * so an interrupted import resumes where it stopped and later runs read only
+ * last_hash..HEAD. If last_hash is no longer in HEAD's history (rebase, force push) the
+ * whole history is read again; the unique (project_id, commit_hash) key skips what exists.
+ */
+public class CommitIngestService {
+
+    /** Rows per INSERT: 10 columns each, well under MySQL's placeholder limit. */
+    private static final int INSERT_CHUNK = 1000;
+    /** Rows per transaction; also how often the resume point moves. */
+    private static final int TX_ROWS = 10_000;
+    /** commits.message is a TEXT column; longer messages would fail the whole INSERT. */
+    private static final int MESSAGE_BYTES = 65_535;
+
+    private static final Pattern TASK_REF = Pattern.compile("\\bTASK-(\\d+)\\b", Pattern.CASE_INSENSITIVE);
+    private static final char RECORD = '\u001e';
+    private static final char FIELD = '\u001f';
+    private static final String FORMAT = "--format=" + RECORD + "%H" + FIELD + "%an" + FIELD + "%ae" + FIELD + "%ct"
+            + FIELD + "%B" + FIELD;
+
+    // ──── Import ────
+
+    /**
+     * Import new commits of `repo` (a local clone) into project `projectId`. full = ignore the
+     * saved resume point and read the whole history (existing rows are still skipped).
+     */
+    public Result ingest(int projectId, Path repo, boolean full) throws SQLException, IOException, InterruptedException {
+        if (!Files.isDirectory(repo)) throw new IllegalArgumentException("Not a directory: " + repo);
+        long start = System.nanoTime();
+        String since = full ? null : lastHash(projectId);
+        if (since != null && !isAncestorOfHead(repo, since)) since = null; // history was rewritten
+
+        Set<Integer> taskIds = findTaskIds(projectId);
+        Map<String, Integer> usersByEmail = new HashMap<>();
+        Result result = new Result();
+
+        List<String> command = new ArrayList<>(List.of("git", "-C", repo.toString(), "-c", "core.quotepath=off",
+                "log", "--topo-order", "--reverse", "--numstat", "--no-color", "--no-renames", "--encoding=UTF-8", FORMAT));
+        command.add(since != null ? since + "..HEAD" : "HEAD");
+        Process git = new ProcessBuilder(command).redirectError(ProcessBuilder.Redirect.DISCARD).start();
+
+        try (Connection conn = db();
+             BufferedReader in = new BufferedReader(new InputStreamReader(git.getInputStream(), StandardCharsets.UTF_8), 1 << 16)) {
+            conn.setAutoCommit(false);
+            try {
+                List<Object[]> rows = new ArrayList<>(INSERT_CHUNK);
+                int inTransaction = 0, insertedInTransaction = 0;
+                String lastWritten = null; // newest commit already sent to MySQL: the resume point
+                StringBuilder record = new StringBuilder();
+                String line;
+                while (true) {
+                    line = in.readLine();
+                    if (line == null || line.indexOf(RECORD) == 0) {
+                        if (record.length() > 0) {
+                            Object[] row = parse(projectId, record, taskIds, usersByEmail, conn, result);
+                            if (row != null) rows.add(row);
+                            record.setLength(0);
+                        }
+                        if (rows.size() == INSERT_CHUNK || (line == null && !rows.isEmpty())) {
+                            int inserted = insertChunk(conn, rows);
+                            result.inserted += inserted;
+                            insertedInTransaction += inserted;
+                            inTransaction += rows.size();
+                            lastWritten = (String) rows.get(rows.size() - 1)[3];
+                            rows.clear();
+                        }
+                        if (inTransaction >= TX_ROWS || (line == null && inTransaction > 0)) {
+                            saveResumePoint(conn, projectId, repo, lastWritten, insertedInTransaction);
+                            conn.commit();
+                            inTransaction = 0;
+                            insertedInTransaction = 0;
+                        }
+                        if (line == null) break;
+                        record.append(line, 1, line.length());
+                    } else {
+                        record.append('\n').append(line);
+                    }
+                }
+                if (lastWritten == null) { // nothing new: still record the path and the sync time
+                    saveResumePoint(conn, projectId, repo, since, 0);
+                    conn.commit();
+                }
+            } catch (SQLException | IOException | RuntimeException e) {
+                conn.rollback();
+                git.destroy();
+                throw e;
+            }
+        }
+        if (!git.waitFor(1, TimeUnit.MINUTES) || git.exitValue() != 0) {
+            throw new IOException("git log failed in " + repo + " (exit " + (git.isAlive() ? "timeout" : git.exitValue()) + ")");
+        }
+        result.millis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        return result;
+    }
+
+    /**
+     * Where a project's clone is: the path saved by the last import, else projects.repo_url
+     * when that is a local directory (a remote URL has to be cloned first). Null if neither.
+     */
+    public Path findRepoPath(int projectId) throws SQLException {
+        try (Connection conn = db(); PreparedStatement ps = conn.prepareStatement(
+                "SELECT s.repo_path, p.repo_url FROM projects p " +
+                "LEFT JOIN project_repo_sync s ON s.project_id = p.project_id WHERE p.project_id = ?")) {
+            ps.setInt(1, projectId);
+            try (ResultSet rs = ps.executeQuery()) {
+                if (!rs.next()) return null;
+                if (rs.getString(1) != null) return Path.of(rs.getString(1));
+                String url = rs.getString(2);
+                if (url == null || url.isBlank() || url.contains("://") || url.contains("@")) return null;
+                Path local = Path.of(url.startsWith("file:") ? url.substring(5) : url);
+                return Files.isDirectory(local) ? local : null;
+            }
+        }
+    }
+
+    /** Projects with a saved clone path, for importing everything in one run. */
+    public Map<Integer, Path> findSyncedRepos() throws SQLException {
+        Map<Integer, Path> repos = new LinkedHashMap<>();
+        try (Connection conn = db(); PreparedStatement ps = conn.prepareStatement(
+                "SELECT project_id, repo_path FROM project_repo_sync ORDER BY project_id");
+             ResultSet rs = ps.executeQuery()) {
+            while (rs.next()) repos.put(rs.getInt(1), Path.of(rs.getString(2)));
+        }
+        return repos;
+    }
+
+    // ──── Parsing ────
+
+    /**
+     * One `git log` record: hash, author name, e-mail, unix time and message separated by
+     * FIELD, then the numstat lines ("added<TAB>deleted<TAB>path", "-" for binary files).
+     */
+    private Object[] parse(int projectId, CharSequence record, Set<Integer> taskIds, Map<String, Integer> usersByEmail,
+                           Connection conn, Result result) throws SQLException {
+        String[] f = record.toString().split(String.valueOf(FIELD), 6);
+        if (f.length < 6) return null;
+        result.scanned++;
+        String hash = f[0].trim();
+        String message = f[4].strip();
+
+        int additions = 0, deletions = 0;
+        for (String stat : f[5].split("\n")) {
+            int tab1 = stat.indexOf('\t');
+            int tab2 = tab1 < 0 ? -1 : stat.indexOf('\t', tab1 + 1);
+            if (tab2 < 0 || stat.charAt(0) == '-') continue;
+            try {
+                additions += Integer.parseInt(stat.substring(0, tab1));
+                deletions += Integer.parseInt(stat.substring(tab1 + 1, tab2));
+            } catch (NumberFormatException ignored) {
+                // not a numstat line
+            }
+        }
+
+        Integer taskId = null;
+        Matcher m = TASK_REF.matcher(message);
+        while (taskId == null && m.find()) {
+            try {
+                int id = Integer.parseInt(m.group(1));
+                if (taskIds.contains(id)) taskId = id; // references to other projects' tasks are ignored
+            } catch (NumberFormatException ignored) {
+                // too many digits to be a task id
+            }
+        }
+        if (taskId != null) result.linked++;
+
+        String email = f[2].trim().toLowerCase();
+        Integer userId = usersByEmail.containsKey(email) ? usersByEmail.get(email) : findUserId(conn, email);
+        usersByEmail.put(email, userId);
+
+        Timestamp committedAt;
+        try {
+            committedAt = Timestamp.from(Instant.ofEpochSecond(Long.parseLong(f[3].trim())));
+        } catch (NumberFormatException e) {
+            committedAt = null; // unknown, rather than 1970
+        }
+        return new Object[]{projectId, taskId, userId, hash, truncate(f[1].trim(), 100),
+                truncateUtf8(message, MESSAGE_BYTES), additions, deletions, committedAt, "ACTIVE"};
+    }
+
+    // ──── Writes ────
+
+    private int insertChunk(Connection conn, List<Object[]> rows) throws SQLException {
+        StringBuilder sql = new StringBuilder(
+                "INSERT IGNORE INTO commits (project_id, task_id, user_id, commit_hash, author, message, " +
+                "additions, deletions, committed_at, status) VALUES ");
+        for (int i = 0; i < rows.size(); i++) {
+            sql.append(i == 0 ? "" : ", ").append("(?, ?, ?, ?, ?, ?, ?, ?, ?, ?)");
+        }
+        try (PreparedStatement ps = conn.prepareStatement(sql.toString())) {
+            int p = 1;
+            for (Object[] row : rows) {
+                for (Object value : row) ps.setObject(p++, value);
+            }
+            return ps.executeUpdate(); // ignored duplicates don't count
+        }
+    }
+
+    private void saveResumePoint(Connection conn, int projectId, Path repo, String lastHash, int imported)
+            throws SQLException {
+        try (PreparedStatement ps = conn.prepareStatement(
+                "INSERT INTO project_repo_sync (project_id, repo_path, last_hash, commits_imported, last_synced_at) " +
+                "VALUES (?, ?, ?, ?, CURRENT_TIMESTAMP(3)) ON DUPLICATE KEY UPDATE repo_path = VALUES(repo_path), " +
+                "last_hash = VALUES(last_hash), commits_imported = commits_imported + ?, last_synced_at = VALUES(last_synced_at)")) {
+            ps.setInt(1, projectId);
+            ps.setString(2, repo.toAbsolutePath().toString());
+            ps.setString(3, lastHash);
+            ps.setInt(4, imported);
+            ps.setInt(5, imported);
+            ps.executeUpdate();
+        }
+    }
+
+    // ──── Lookups ────
+
+    private String lastHash(int projectId) throws SQLException {
+        try (Connection conn = db(); PreparedStatement ps = conn.prepareStatement(
+                "SELECT last_hash FROM project_repo_sync WHERE project_id = ?")) {
+            ps.setInt(1, projectId);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next() ? rs.getString(1) : null;
+            }
+        }
+    }
+
+    private Set<Integer> findTaskIds(int projectId) throws SQLException {
+        Set<Integer> ids = new HashSet<>();
+        try (Connection conn = db(); PreparedStatement ps = conn.prepareStatement(
+                "SELECT task_id FROM tasks WHERE project_id = ?")) {
+            ps.setInt(1, projectId);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) ids.add(rs.getInt(1));
+            }
+        }
+        return ids;
+    }
+
+    private Integer findUserId(Connection conn, String email) throws SQLException {
+        if (email.isEmpty()) return null;
+        try (PreparedStatement ps = conn.prepareStatement("SELECT user_id FROM users WHERE email = ?")) {
+            ps.setString(1, email);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next() ? rs.getInt(1) : null;
+            }
+        }
+    }
+
+    private static boolean isAncestorOfHead(Path repo, String hash) throws IOException, InterruptedException {
+        Process p = new ProcessBuilder("git", "-C", repo.toString(), "merge-base", "--is-ancestor", hash, "HEAD")
+                .redirectErrorStream(true).redirectOutput(ProcessBuilder.Redirect.DISCARD).start();
+        return p.waitFor(30, TimeUnit.SECONDS) && p.exitValue() == 0;
+    }
+
+    private static String truncate(String s, int max) {
+        return s.length() > max ? s.substring(0, max) : s;
+    }
+
+    /** s cut to at most maxBytes of UTF-8, never inside a character. */
+    private static String truncateUtf8(String s, int maxBytes) {
+        if (s.length() <= maxBytes / 3) return s; // no char takes more than 3 bytes (a pair takes 4)
+        int bytes = 0;
+        for (int i = 0; i < s.length(); ) {
+            int cp = s.codePointAt(i);
+            int width = cp < 0x80 ? 1 : cp < 0x800 ? 2 : cp < 0x10000 ? 3 : 4;
+            if (bytes + width > maxBytes) return s.substring(0, i);
+            bytes += width;
+            i += Character.charCount(cp);
+        }
+        return s;
+    }
+
+    private Connection db() throws SQLException {
+        return DatabaseConfig.getInstance().getConnection();
+    }
+
+    /** Counts from one import. */
+    public static final class Result {
+        private int scanned;
+        private int inserted;
+        private int linked;
+        private long millis;
+
+        /** Commits read from git. */
+        public int getScanned() { return scanned; }
+        /** New rows; commits already imported are skipped. */
+        public int getInserted() { return inserted; }
+        /** Commits whose message references one of the project's tasks. */
+        public int getLinked() { return linked; }
+        public long getMillis() { return millis; }
+    }
+}
@@ -0,0 +1,445 @@
+package com.spark.platform.services;
+
+import com.spark.platform.config.DatabaseConfig;
+import com.spark.platform.models.Material;
+import com.spark.platform.utils.LatencyHistogram;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.*;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Runs derived-material jobs (quiz, flashcards, mind map from a source material; table
+ * material_derivations, migration V9) on a fixed number of worker threads, highest
+ * priority first and first come, first served within a priority.
+ *
+ * A request is keyed by (source, kind, generator version, SHA-256 of the source text):
+ *   - a DONE row with that key is a cache hit: the existing child material is returned
+ *   - a job with that key already queued or running is shared: the caller gets the same
+ *     future, and a higher priority moves the queued job up
+ *   - anything else (new key, or a FAILED row) is queued
+ * The result is a new material with parent_id = source and question_count / card_count set.
+ *
+ * Jobs live in this process's queue. A worker claims a job by switching its row from QUEUED
+ * to RUNNING (migration V11 stamps claimed_at); if another worker or process got there
+ * first the job is skipped, so no job is generated twice. resumeUnfinished() picks up QUEUED
+ * rows, and RUNNING rows whose claim is older than CLAIM_LEASE_SECONDS (their process is
+ * assumed gone). There is no heartbeat, so the lease must outlast the slowest generator.
+ */
+public class DerivationScheduler {
+
+    public static final int DEFAULT_PRIORITY = 5;
+    private static final int CLAIM_LEASE_SECONDS = 15 * 60;
+
+    private static DerivationScheduler shared;
+
+    private final Map<String, MaterialGenerator> generators = new LinkedHashMap<>();
+    private final MaterialService materialService;
+    private final int workers;
+    private final PriorityBlockingQueue<Job> queue = new PriorityBlockingQueue<>(16,
+            Comparator.comparingInt((Job j) -> -j.priority).thenComparingLong(j -> j.sequence));
+    /** Jobs queued or running in this process, by Job.key; guards their queue membership too. */
+    private final Map<String, Job> inFlight = new HashMap<>();
+    private final AtomicLong sequence = new AtomicLong();
+    private final List<Thread> threads = new ArrayList<>();
+    private volatile boolean running;
+
+    private final LongAdder cacheHits = new LongAdder();
+    private final LongAdder merged = new LongAdder();
+    private final LongAdder generated = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LatencyHistogram jobLatency = new LatencyHistogram();
+
+    public DerivationScheduler(int workers, MaterialService materialService) {
+        this.workers = Math.max(1, workers);
+        this.materialService = materialService;
+    }
+
+    /** The app-wide scheduler: materials.deriveWorkers threads and the local generators, started. */
+    public static synchronized DerivationScheduler shared() {
+        if (shared == null) {
+            shared = new DerivationScheduler(DatabaseConfig.getInstance().getDerivationWorkers(), new MaterialService())
+                    .register(new LocalMaterialGenerator("QUIZ"))
+                    .register(new LocalMaterialGenerator("FLASHCARD"))
+                    .register(new LocalMaterialGenerator("MIND_MAP"));
+            shared.start();
+        }
+        return shared;
+    }
+
+    /** Add or replace the generator for generator.kind(). */
+    public DerivationScheduler register(MaterialGenerator generator) {
+        generators.put(generator.kind(), generator);
+        return this;
+    }
+
+    // ──── Requests ────
+
+    /**
+     * Ask for a derived material of `kind` from material `sourceId`; completes with the id of
+     * the generated (or cached) material. priority 0–9, higher runs first.
+     */
+    public CompletableFuture<Integer> request(int sourceId, String kind, int priority, Integer requestedBy)
+            throws SQLException, IOException {
+        MaterialGenerator generator = generators.get(kind);
+        if (generator == null) throw new IllegalArgumentException("No generator for " + kind);
+        Material source = materialService.findById(sourceId);
+        if (source == null) throw new IllegalArgumentException("Unknown material: " + sourceId);
+        String text = materialService.getContent(source);
+        if (text == null || text.isBlank()) {
+            throw new IllegalStateException("Material " + sourceId + " has no text to generate from yet");
+        }
+        String hash = sha256(text);
+        int p = Math.max(0, Math.min(9, priority));
+
+        // The cache lookup and the upsert talk to the database, so neither holds the inFlight lock:
+        // workers finishing jobs take it too.
+        try (Connection conn = db(); PreparedStatement ps = conn.prepareStatement(
+                "SELECT status, result_id FROM material_derivations " +
+                "WHERE parent_id = ? AND kind = ? AND generator_version = ? AND content_hash = ?")) {
+            ps.setInt(1, sourceId);
+            ps.setString(2, kind);
+            ps.setInt(3, generator.version());
+            ps.setString(4, hash);
+            try (ResultSet rs = ps.executeQuery()) {
+                if (rs.next()) {
+                    int resultId = rs.getInt(2);
+                    boolean hasResult = !rs.wasNull(); // NULL once the generated material is deleted
+                    if ("DONE".equals(rs.getString(1)) && hasResult) {
+                        cacheHits.increment();
+                        return CompletableFuture.completedFuture(resultId);
+                    }
+                }
+            }
+        }
+
+        Job job = new Job(0, sourceId, generator, hash, p, sequence.incrementAndGet());
+        synchronized (inFlight) {
+            Job pending = inFlight.get(job.key);
+            if (pending != null) {
+                merged.increment();
+                if (p > pending.priority) {
+                    if (!pending.queued) {
+                        pending.priority = p; // still being upserted; published with this priority
+                    } else if (queue.remove(pending)) {
+                        pending.priority = p;
+                        queue.add(pending);
+                    }
+                }
+                return pending.future;
+            }
+            inFlight.put(job.key, job); // placeholder: later requests for the key share this job
+        }
+
+        try {
+            job.derivationId = upsertQueued(sourceId, kind, generator.version(), hash, p, requestedBy);
+        } catch (SQLException e) {
+            finish(job).completeExceptionally(e); // requests merged meanwhile fail with it
+            throw e;
+        }
+        synchronized (inFlight) {
+            job.queued = true;
+            queue.add(job);
+        }
+        return job.future;
+    }
+
+    /**
+     * Queue every QUEUED job, after returning RUNNING jobs whose claim has expired (left by a
+     * stopped process) to QUEUED. Returns the number queued here.
+     */
+    public int resumeUnfinished() throws SQLException {
+        List<Job> jobs = new ArrayList<>();
+        try (Connection conn = db()) {
+            try (PreparedStatement ps = conn.prepareStatement(
+                    "UPDATE material_derivations SET status = 'QUEUED' WHERE status = 'RUNNING' " +
+                    "AND (claimed_at IS NULL OR claimed_at < CURRENT_TIMESTAMP(3) - INTERVAL ? SECOND)")) {
+                ps.setInt(1, CLAIM_LEASE_SECONDS);
+                ps.executeUpdate();
+            }
+            try (PreparedStatement ps = conn.prepareStatement(
+                    "SELECT derivation_id, parent_id, kind, generator_version, content_hash, priority " +
+                    "FROM material_derivations WHERE status = 'QUEUED' ORDER BY derivation_id");
+                 ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    MaterialGenerator generator = generators.get(rs.getString(3));
+                    if (generator == null || generator.version() != rs.getInt(4)) continue; // superseded generator
+                    jobs.add(new Job(rs.getLong(1), rs.getInt(2), generator, rs.getString(5), rs.getInt(6),
+                            sequence.incrementAndGet()));
+                }
+            }
+        }
+        int queued = 0;
+        synchronized (inFlight) {
+            for (Job job : jobs) {
+                if (inFlight.putIfAbsent(job.key, job) == null) {
+                    job.queued = true;
+                    queue.add(job);
+                    queued++;
+                }
+            }
+        }
+        return queued;
+    }
+
+    private long upsertQueued(int sourceId, String kind, int version, String hash, int priority, Integer requestedBy)
+            throws SQLException {
+        // LAST_INSERT_ID(expr) makes getGeneratedKeys() return the existing row's id on a duplicate.
+        // A row another process holds a live claim on stays RUNNING, and one that turned DONE since
+        // request() looked stays DONE; our copy of the job then skips. Assignments run left to
+        // right, so error and finished_at see the new status.
+        String sql = "INSERT INTO material_derivations (parent_id, kind, generator_version, content_hash, priority, requested_by) " +
+                     "VALUES (?, ?, ?, ?, ?, ?) ON DUPLICATE KEY UPDATE derivation_id = LAST_INSERT_ID(derivation_id), " +
+                     "status = CASE WHEN status = 'DONE' AND result_id IS NOT NULL THEN 'DONE' " +
+                     "WHEN status = 'RUNNING' AND claimed_at >= CURRENT_TIMESTAMP(3) - INTERVAL " +
+                     CLAIM_LEASE_SECONDS + " SECOND THEN 'RUNNING' ELSE 'QUEUED' END, " +
+                     "priority = VALUES(priority), error = IF(status = 'QUEUED', NULL, error), " +
+                     "finished_at = IF(status = 'DONE', finished_at, NULL)";
+        try (Connection conn = db(); PreparedStatement ps = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+            ps.setInt(1, sourceId);
+            ps.setString(2, kind);
+            ps.setInt(3, version);
+            ps.setString(4, hash);
+            ps.setInt(5, priority);
+            if (requestedBy != null) ps.setInt(6, requestedBy);
+            else ps.setNull(6, Types.INTEGER);
+            ps.executeUpdate();
+            try (ResultSet keys = ps.getGeneratedKeys()) {
+                keys.next();
+                return keys.getLong(1);
+            }
+        }
+    }
+
+    // ──── Lifecycle ────
+
+    public synchronized void start() {
+        if (running) return;
+        running = true;
+        AtomicInteger n = new AtomicInteger();
+        for (int i = 0; i < workers; i++) {
+            Thread t = new Thread(this::workLoop, "material-derive-" + n.incrementAndGet());
+            t.setDaemon(true);
+            t.start();
+            threads.add(t);
+        }
+    }
+
+    /** Stop taking jobs and wait (up to timeoutMillis) for the running ones. Queued jobs stay QUEUED. */
+    public synchronized void stop(long timeoutMillis) throws InterruptedException {
+        running = false;
+        long deadline = System.currentTimeMillis() + timeoutMillis;
+        for (Thread t : threads) t.join(Math.max(1, deadline - System.currentTimeMillis()));
+        threads.clear();
+    }
+
+    private void workLoop() {
+        while (running) {
+            Job job;
+            try {
+                job = queue.poll(500, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                return;
+            }
+            if (job != null) run(job);
+        }
+    }
+
+    private void run(Job job) {
+        long start = System.nanoTime();
+        boolean claimed = false;
+        try {
+            claimed = claim(job.derivationId);
+            if (!claimed) {
+                skip(job);
+                return;
+            }
+            Material source = materialService.findById(job.sourceId);
+            String text = source != null ? materialService.getContent(source) : null;
+            if (text == null || !sha256(text).equals(job.contentHash)) {
+                throw new IllegalStateException("Source material changed or was removed; request it again");
+            }
+            MaterialGenerator.Result result = job.generator.generate(source,
+                    MaterialSearchIndex.splitPages(text, source.getPageCount()));
+            int resultId = saveResult(job, source, result);
+            generated.increment();
+            jobLatency.record(System.nanoTime() - start);
+            finish(job).complete(resultId);
+        } catch (Exception e) {
+            failed.increment();
+            if (claimed) { // never overwrite the status of a job someone else holds
+                try {
+                    setStatus(job.derivationId, "FAILED", e.getMessage());
+                } catch (SQLException se) {
+                    System.err.println("Could not record failed derivation " + job.derivationId + ": " + se.getMessage());
+                }
+            }
+            finish(job).completeExceptionally(e);
+        }
+    }
+
+    /** QUEUED → RUNNING for this worker; false if another worker or process holds the job. */
+    private boolean claim(long derivationId) throws SQLException {
+        try (Connection conn = db(); PreparedStatement ps = conn.prepareStatement(
+                "UPDATE material_derivations SET status = 'RUNNING', claimed_at = CURRENT_TIMESTAMP(3) " +
+                "WHERE derivation_id = ? AND status = 'QUEUED'")) {
+            ps.setLong(1, derivationId);
+            return ps.executeUpdate() == 1;
+        }
+    }
+
+    /** Someone else claimed the job: hand its callers the result if it is already there. */
+    private void skip(Job job) throws SQLException {
+        try (Connection conn = db(); PreparedStatement ps = conn.prepareStatement(
+                "SELECT status, result_id, error FROM material_derivations WHERE derivation_id = ?")) {
+            ps.setLong(1, job.derivationId);
+            try (ResultSet rs = ps.executeQuery()) {
+                String status = rs.next() ? rs.getString(1) : null;
+                int resultId = status != null ? rs.getInt(2) : 0;
+                boolean hasResult = status != null && !rs.wasNull();
+                if ("DONE".equals(status) && hasResult) {
+                    finish(job).complete(resultId);
+                } else if ("FAILED".equals(status)) {
+                    String error = rs.getString(3);
+                    finish(job).completeExceptionally(new IllegalStateException(
+                            error != null ? error : "Derivation " + job.derivationId + " failed"));
+                } else {
+                    finish(job).completeExceptionally(new IllegalStateException(
+                            "Derivation " + job.derivationId + " is being generated by another worker; request it again later"));
+                }
+            }
+        }
+    }
+
+    private CompletableFuture<Integer> finish(Job job) {
+        synchronized (inFlight) {
+            inFlight.remove(job.key, job);
+        }
+        return job.future;
+    }
+
+    /** Insert the generated material and mark the job DONE in one transaction. */
+    private int saveResult(Job job, Material source, MaterialGenerator.Result result) throws SQLException {
+        String kind = job.generator.kind();
+        try (Connection conn = db()) {
+            conn.setAutoCommit(false);
+            try {
+                int resultId;
+                try (PreparedStatement ps = conn.prepareStatement(
+                        "INSERT INTO materials (course_id, uploaded_by, parent_id, type, title, content, " +
+                        "question_count, card_count, topic, visibility, status) " +
+                        "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, 'ACTIVE')", Statement.RETURN_GENERATED_KEYS)) {
+                    setNullableInt(ps, 1, source.getCourseId());
+                    setNullableInt(ps, 2, source.getUploadedBy());
+                    ps.setInt(3, source.getMaterialId());
+                    ps.setString(4, kind);
+                    ps.setString(5, titleFor(source.getTitle(), kind));
+                    ps.setString(6, result.getContent());
+                    setNullableInt(ps, 7, kind.equals("QUIZ") ? result.getItemCount() : null);
+                    setNullableInt(ps, 8, kind.equals("FLASHCARD") ? result.getItemCount() : null);
+                    ps.setString(9, source.getTopic());
+                    ps.setString(10, source.getVisibility() != null ? source.getVisibility() : "PUBLIC");
+                    ps.executeUpdate();
+                    try (ResultSet keys = ps.getGeneratedKeys()) {
+                        keys.next();
+                        resultId = keys.getInt(1);
+                    }
+                }
+                try (PreparedStatement ps = conn.prepareStatement(
+                        "UPDATE material_derivations SET status = 'DONE', result_id = ?, error = NULL, " +
+                        "finished_at = CURRENT_TIMESTAMP(3) WHERE derivation_id = ?")) {
+                    ps.setInt(1, resultId);
+                    ps.setLong(2, job.derivationId);
+                    ps.executeUpdate();
+                }
+                conn.commit();
+                MaterialTreeService.invalidate(source.getCourseId());
+                return resultId;
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
+        }
+    }
+
+    private void setStatus(long derivationId, String status, String error) throws SQLException {
+        try (Connection conn = db(); PreparedStatement ps = conn.prepareStatement(
+                "UPDATE material_derivations SET status = ?, error = ?, " +
+                "finished_at = IF(? = 'FAILED', CURRENT_TIMESTAMP(3), NULL) WHERE derivation_id = ?")) {
+            ps.setString(1, status);
+            ps.setString(2, error != null && error.length() > 500 ? error.substring(0, 500) : error);
+            ps.setString(3, status);
+            ps.setLong(4, derivationId);
+            ps.executeUpdate();
+        }
+    }
+
+    // ──── Metrics ────
+
+    public int getQueuedCount() { return queue.size(); }
+
+    /** e.g. "generated=12 cacheHits=30 shared=4 failed=0 queued=2; job n=12 mean=..." */
+    public String summary() {
+        return String.format("generated=%d cacheHits=%d shared=%d failed=%d queued=%d; job %s",
+                generated.sum(), cacheHits.sum(), merged.sum(), failed.sum(), queue.size(), jobLatency.summary());
+    }
+
+    // ──── Helpers ────
+
+    private static String titleFor(String sourceTitle, String kind) {
+        String suffix = kind.equals("QUIZ") ? "Quiz" : kind.equals("FLASHCARD") ? "Flashcards" : "Mind map";
+        String title = (sourceTitle != null ? sourceTitle : "Material") + " — " + suffix;
+        return title.length() > 255 ? title.substring(0, 255) : title;
+    }
+
+    private static void setNullableInt(PreparedStatement ps, int index, Integer value) throws SQLException {
+        if (value != null) ps.setInt(index, value);
+        else ps.setNull(index, Types.INTEGER);
+    }
+
+    private static String sha256(String text) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(text.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e); // every JRE ships SHA-256
+        }
+    }
+
+    private Connection db() throws SQLException {
+        return DatabaseConfig.getInstance().getConnection();
+    }
+
+    private static final class Job {
+        /** Set once upsertQueued returns, before the job is published to the queue. */
+        volatile long derivationId;
+        /** The request key: source, kind, generator version and content hash. */
+        final String key;
+        final int sourceId;
+        final MaterialGenerator generator;
+        final String contentHash;
+        final long sequence;
+        final CompletableFuture<Integer> future = new CompletableFuture<>();
+        volatile int priority;
+        /** In the queue (or taken from it); guarded by inFlight. */
+        boolean queued;
+
+        Job(long derivationId, int sourceId, MaterialGenerator generator, String contentHash, int priority, long sequence) {
+            this.derivationId = derivationId;
+            this.key = sourceId + ":" + generator.kind() + ":" + generator.version() + ":" + contentHash;
+            this.sourceId = sourceId;
+            this.generator = generator;
+            this.contentHash = contentHash;
+            this.priority = priority;
+            this.sequence = sequence;
+        }
+    }
+}
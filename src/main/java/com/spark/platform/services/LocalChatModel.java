@@ -0,0 +1,62 @@
+package com.spark.platform.services;
+
+import com.spark.platform.models.ChatMessage;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Offline stand-in for a language model: builds a canned study-help answer around the
+ * question and emits it word by word with model-like pacing, so streaming, persistence
+ * and rendering behave as they will with a real model.
+ */
+public class LocalChatModel implements ChatModel {
+
+    /** A word with its trailing whitespace, or a lone run of whitespace. */
+    private static final Pattern TOKEN = Pattern.compile("\\S+\\s*|\\s+");
+
+    private final long minDelayMillis;
+    private final long maxDelayMillis;
+
+    public LocalChatModel() {
+        this(15, 60);
+    }
+
+    public LocalChatModel(long minDelayMillis, long maxDelayMillis) {
+        this.minDelayMillis = minDelayMillis;
+        this.maxDelayMillis = Math.max(minDelayMillis, maxDelayMillis);
+    }
+
+    @Override
+    public void generate(List<ChatMessage> conversation, TokenSink sink) throws InterruptedException {
+        Matcher m = TOKEN.matcher(compose(conversation));
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        while (m.find()) {
+            Thread.sleep(random.nextLong(minDelayMillis, maxDelayMillis + 1));
+            if (!sink.accept(m.group())) return;
+        }
+    }
+
+    private String compose(List<ChatMessage> conversation) {
+        String question = "";
+        for (int i = conversation.size() - 1; i >= 0; i--) {
+            if (ChatService.USER.equals(conversation.get(i).getRole())) {
+                question = conversation.get(i).getContent().trim();
+                break;
+            }
+        }
+        String topic = question.length() <= 80 ? question : question.substring(0, 77) + "...";
+        int turns = conversation.size() / 2;
+        return "Good question! Let's work through \"" + topic + "\" step by step.\n\n"
+                + "1. Start by restating the problem in your own words and listing what you already know.\n"
+                + "2. Look for the key definitions in your course materials — they usually point to the method.\n"
+                + "3. Try a small example by hand before tackling the general case.\n"
+                + "4. Check your answer against the original question: does it answer what was asked?\n\n"
+                + (turns > 1
+                    ? "We've covered " + turns + " questions in this session, so feel free to build on the earlier answers. "
+                    : "")
+                + "If you get stuck on a step, tell me which one and I'll go into more detail.";
+    }
+}
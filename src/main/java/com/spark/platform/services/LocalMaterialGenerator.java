@@ -0,0 +1,192 @@
+package com.spark.platform.services;
+
+import com.spark.platform.models.Material;
+
+import java.text.BreakIterator;
+import java.util.*;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Offline stand-in for a model-backed generator: builds quizzes, flashcards and mind maps
+ * from the source text with simple heuristics (frequent terms, defining sentences), so
+ * scheduling, caching and the derived materials behave as they will with a real model.
+ * Output is deterministic for a given text.
+ */
+public class LocalMaterialGenerator implements MaterialGenerator {
+
+    /** Bump when the output changes, so cached results are regenerated. */
+    private static final int VERSION = 1;
+    private static final int MAX_QUESTIONS = 20;
+    private static final int MAX_CARDS = 30;
+    private static final int MAP_BRANCHES = 6;
+
+    private static final int MIN_SENTENCE = 30;
+    private static final int MAX_SENTENCE = 240;
+    private static final Pattern WORD = Pattern.compile("[\\p{L}][\\p{L}\\-]{4,}");
+    private static final Pattern DEFINITION = Pattern.compile(
+            "^\\s*(?:An?|The)?\\s*([\\p{L}][\\p{L} \\-]{2,40}?)\\s+(?:is|are|means|refers to)\\s+(.+)$");
+    private static final Set<String> PRONOUNS = new HashSet<>(Arrays.asList(
+            "it", "they", "this", "these", "that", "those", "there", "he", "she", "we", "you"));
+    private static final Set<String> COMMON = new HashSet<>(Arrays.asList(
+            "about", "after", "again", "allow", "along", "also", "although", "always", "another", "because",
+            "before", "being", "between", "called", "could", "different", "during", "each", "every", "example",
+            "first", "following", "given", "however", "important", "large", "later", "least", "might", "more",
+            "most", "never", "often", "other", "others", "should", "shown", "since", "small", "something",
+            "their", "there", "these", "thing", "things", "those", "three", "through", "under", "until",
+            "using", "usually", "where", "which", "while", "would"));
+
+    private final String kind;
+
+    public LocalMaterialGenerator(String kind) {
+        if (!kind.equals("QUIZ") && !kind.equals("FLASHCARD") && !kind.equals("MIND_MAP")) {
+            throw new IllegalArgumentException("Unknown derived material kind: " + kind);
+        }
+        this.kind = kind;
+    }
+
+    @Override
+    public String kind() {
+        return kind;
+    }
+
+    @Override
+    public int version() {
+        return VERSION;
+    }
+
+    @Override
+    public Result generate(Material source, List<String> pages) {
+        List<String> sentences = new ArrayList<>();
+        BreakIterator breaks = BreakIterator.getSentenceInstance(Locale.ENGLISH);
+        for (String page : pages) {
+            String text = page.replaceAll("\\s+", " "); // extracted lines break mid-sentence
+            breaks.setText(text);
+            for (int start = breaks.first(), end = breaks.next(); end != BreakIterator.DONE; start = end, end = breaks.next()) {
+                String sentence = text.substring(start, end).trim();
+                if (sentence.length() >= MIN_SENTENCE && sentence.length() <= MAX_SENTENCE
+                        && Character.isUpperCase(sentence.charAt(0)) && sentence.matches(".*[.!?]$")) {
+                    sentences.add(sentence);
+                }
+            }
+        }
+        List<String> terms = keyTerms(sentences, 40);
+        switch (kind) {
+            case "QUIZ": return quiz(sentences, terms);
+            case "FLASHCARD": return flashcards(sentences, terms);
+            default: return mindMap(source.getTitle(), sentences, terms);
+        }
+    }
+
+    /** Cloze questions: a sentence with a key term blanked, the term plus three others as options. */
+    private Result quiz(List<String> sentences, List<String> terms) {
+        StringBuilder out = new StringBuilder();
+        int count = 0;
+        Set<String> asked = new HashSet<>();
+        for (String sentence : sentences) {
+            if (count == MAX_QUESTIONS) break;
+            String term = firstTermIn(sentence, terms, asked);
+            if (term == null) continue;
+            asked.add(term);
+
+            List<String> options = new ArrayList<>();
+            options.add(term);
+            for (int i = 0; options.size() < 4 && i < terms.size(); i++) {
+                String t = terms.get((terms.indexOf(term) + 1 + i * 7) % terms.size()); // spread, but deterministic
+                if (!options.contains(t)) options.add(t);
+            }
+            if (options.size() < 2) continue;
+            Collections.sort(options);
+
+            count++;
+            out.append("Q").append(count).append(". ")
+               .append(sentence.replaceAll("(?i)\\b" + Pattern.quote(term) + "\\b", "_____")).append('\n');
+            for (int i = 0; i < options.size(); i++) {
+                out.append("  ").append((char) ('a' + i)).append(") ").append(options.get(i)).append('\n');
+            }
+            out.append("Answer: ").append((char) ('a' + options.indexOf(term))).append("\n\n");
+        }
+        return new Result(out.toString().trim(), count);
+    }
+
+    /** Cards from defining sentences ("X is ..."), then from key terms and a sentence using them. */
+    private Result flashcards(List<String> sentences, List<String> terms) {
+        Map<String, String> cards = new LinkedHashMap<>();
+        for (String sentence : sentences) {
+            if (cards.size() == MAX_CARDS) break;
+            Matcher m = DEFINITION.matcher(sentence);
+            if (!m.matches()) continue;
+            String subject = m.group(1).trim();
+            if (PRONOUNS.contains(subject.split(" ")[0].toLowerCase()) || subject.matches("(?i).*\\b(which|that|who)\\b.*")) continue;
+            cards.putIfAbsent(subject, sentence);
+        }
+        for (String term : terms) {
+            if (cards.size() == MAX_CARDS) break;
+            if (cards.keySet().stream().anyMatch(k -> k.equalsIgnoreCase(term))) continue;
+            for (String sentence : sentences) {
+                if (containsWord(sentence, term)) {
+                    cards.put(term, sentence);
+                    break;
+                }
+            }
+        }
+        StringBuilder out = new StringBuilder();
+        for (Map.Entry<String, String> card : cards.entrySet()) {
+            out.append("Front: ").append(card.getKey()).append('\n')
+               .append("Back: ").append(card.getValue()).append("\n\n");
+        }
+        return new Result(out.toString().trim(), cards.size());
+    }
+
+    /** Title as the root, the most frequent terms as branches, sentences using them as leaves. */
+    private Result mindMap(String title, List<String> sentences, List<String> terms) {
+        StringBuilder out = new StringBuilder(title != null ? title : "Material").append('\n');
+        for (String term : terms.subList(0, Math.min(MAP_BRANCHES, terms.size()))) {
+            out.append("- ").append(term).append('\n');
+            int leaves = 0;
+            for (String sentence : sentences) {
+                if (leaves == 3) break;
+                if (containsWord(sentence, term)) {
+                    out.append("  - ").append(sentence.length() > 100 ? sentence.substring(0, 97) + "..." : sentence).append('\n');
+                    leaves++;
+                }
+            }
+        }
+        return new Result(out.toString().trim(), null);
+    }
+
+    /** The most frequent longer words, most frequent first, in their most common spelling. */
+    private static List<String> keyTerms(List<String> sentences, int limit) {
+        Map<String, Integer> counts = new HashMap<>();
+        Map<String, Map<String, Integer>> spellings = new HashMap<>();
+        for (String sentence : sentences) {
+            Matcher m = WORD.matcher(sentence);
+            while (m.find()) {
+                String key = m.group().toLowerCase();
+                if (COMMON.contains(key)) continue;
+                if (key.endsWith("s") && !key.endsWith("ss")) key = key.substring(0, key.length() - 1); // "types" → "type"
+                counts.merge(key, 1, Integer::sum);
+                spellings.computeIfAbsent(key, k -> new HashMap<>()).merge(m.group(), 1, Integer::sum);
+            }
+        }
+        List<String> keys = new ArrayList<>(counts.keySet());
+        keys.removeIf(k -> counts.get(k) < 2);
+        keys.sort(Comparator.comparing((String k) -> -counts.get(k)).thenComparing(k -> k));
+        List<String> terms = new ArrayList<>();
+        for (String key : keys.subList(0, Math.min(limit, keys.size()))) {
+            terms.add(Collections.max(spellings.get(key).entrySet(), Map.Entry.comparingByValue()).getKey());
+        }
+        return terms;
+    }
+
+    private static String firstTermIn(String sentence, List<String> terms, Set<String> exclude) {
+        for (String term : terms) {
+            if (!exclude.contains(term) && containsWord(sentence, term)) return term;
+        }
+        return null;
+    }
+
+    private static boolean containsWord(String sentence, String word) {
+        return Pattern.compile("\\b" + Pattern.quote(word) + "\\b", Pattern.CASE_INSENSITIVE).matcher(sentence).find();
+    }
+}
@@ -0,0 +1,59 @@
+package com.spark.platform.services;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Stand-in for the SMS and e-mail gateways: appends each delivery as one line to
+ * <dir>/notifications-<channel>.log, one file write per batch. Recipients without an
+ * address for the channel are rejected (they would never succeed on retry either).
+ */
+public class LogFileChannel implements NotificationChannel {
+
+    private final String name;
+    private final Path file;
+    private final boolean sms;
+
+    public LogFileChannel(String name, Path dir) {
+        this.name = name;
+        this.file = dir.resolve("notifications-" + name.toLowerCase() + ".log");
+        this.sms = "SMS".equals(name);
+    }
+
+    @Override
+    public String name() {
+        return name;
+    }
+
+    @Override
+    public synchronized Result send(List<Delivery> batch) throws IOException {
+        Result result = new Result();
+        StringBuilder lines = new StringBuilder();
+        String now = LocalDateTime.now().toString();
+        for (Delivery d : batch) {
+            String address = sms ? d.phone : d.email;
+            if (address == null || address.isBlank()) {
+                result.reject(d, "no " + (sms ? "phone number" : "e-mail address") + " for user " + d.userId);
+                continue;
+            }
+            lines.append(now).append('\t').append(address).append('\t')
+                 .append(oneLine(d.title)).append('\t').append(oneLine(d.message)).append('\n');
+        }
+        Files.createDirectories(file.getParent());
+        try (Writer w = Files.newBufferedWriter(file, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+            w.write(lines.toString());
+        }
+        return result;
+    }
+
+    private static String oneLine(String s) {
+        return s == null ? "" : s.replace('\n', ' ').replace('\t', ' ');
+    }
+}
@@ -0,0 +1,249 @@
+package com.spark.platform.services;
+
+import com.spark.platform.config.DatabaseConfig;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.zip.CRC32;
+
+/**
+ * File store for large material bodies, so materials.content can stay NULL and material
+ * queries only move metadata. A stored body is referenced from materials.file_path as
+ * "store:<shard>/<materialId>-<crc>-<nonce>.spc".
+ *
+ * File layout (little endian): magic, version, page count, a start and end byte offset per
+ * page, then the UTF-8 body exactly as given. Pages are ranges of that body, so readAll()
+ * returns the input unchanged whether it was split on form feeds, by page count or into
+ * chunks. Files are memory-mapped on first read and kept in a small LRU, so reading page
+ * N is a slice of the mapping: no read() calls and no copy until the caller decodes it.
+ * Version 1 files (page count + 1 offsets, pages back to back) are still read.
+ *
+ * A body is never rewritten in place, and every write gets a name of its own (the random
+ * nonce), even for identical content. That keeps existing mappings valid, lets the row
+ * switch to the new file atomically, and means a writer whose UPDATE lost the race can
+ * delete what it wrote without touching the winner's file.
+ */
+public class MaterialContentStore {
+
+    public static final String REF_PREFIX = "store:";
+
+    private static final int MAGIC = 0x53504B43; // "SPKC"
+    private static final int FORMAT_VERSION = 2;
+    private static final int HEADER_INTS = 3;
+    private static final int MAX_MAPPED = 64;
+
+    private static MaterialContentStore shared;
+
+    private final Path root;
+    private final Map<String, MappedByteBuffer> mapped = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, MappedByteBuffer> eldest) {
+            return size() > MAX_MAPPED;
+        }
+    };
+
+    public MaterialContentStore(Path root) {
+        this.root = root;
+    }
+
+    /** The store under materials.storeDir. */
+    public static synchronized MaterialContentStore shared() {
+        if (shared == null) {
+            shared = new MaterialContentStore(Path.of(DatabaseConfig.getInstance().getMaterialStoreDir()));
+        }
+        return shared;
+    }
+
+    public static boolean isStoreRef(String filePath) {
+        return filePath != null && filePath.startsWith(REF_PREFIX);
+    }
+
+    // ──── Writing ────
+
+    /**
+     * Write a material body split into pages (see MaterialSearchIndex.splitPages) and
+     * return the reference to put in materials.file_path.
+     */
+    public String write(int materialId, String content, Integer pageCount) throws IOException {
+        List<String> pages = MaterialSearchIndex.splitPages(content, pageCount);
+        int[] offsets = byteOffsets(content, pages);
+        byte[] body = content.getBytes(StandardCharsets.UTF_8);
+        CRC32 crc = new CRC32();
+        crc.update(pages.size()); // same text split differently is a different file
+        crc.update(body);
+        long headerBytes = (HEADER_INTS + 2L * pages.size()) * Integer.BYTES;
+        if (headerBytes + body.length > Integer.MAX_VALUE) {
+            throw new IOException("Material " + materialId + " is too large to store (" + body.length + " bytes)");
+        }
+
+        String name = String.format("%02x/%d-%08x-%016x.spc", materialId & 0xFF, materialId, crc.getValue(),
+                ThreadLocalRandom.current().nextLong());
+        Path file = root.resolve(name);
+
+        ByteBuffer header = ByteBuffer.allocate((int) headerBytes).order(ByteOrder.LITTLE_ENDIAN);
+        header.putInt(MAGIC).putInt(FORMAT_VERSION).putInt(pages.size());
+        for (int offset : offsets) header.putInt(offset);
+        header.flip();
+
+        Files.createDirectories(file.getParent());
+        Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (FileChannel ch = FileChannel.open(tmp, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+            ByteBuffer[] buffers = {header, ByteBuffer.wrap(body)};
+            long remaining = headerBytes + body.length;
+            while (remaining > 0) remaining -= ch.write(buffers);
+            ch.force(false);
+        } catch (IOException e) {
+            Files.deleteIfExists(tmp);
+            throw e;
+        }
+        Files.move(tmp, file, StandardCopyOption.ATOMIC_MOVE);
+        return REF_PREFIX + name;
+    }
+
+    /**
+     * Start and end UTF-8 byte offset of every page within content. splitPages either cuts
+     * the text into consecutive pieces or splits it on form feeds, so each page starts where
+     * the previous one ended, one form feed later in the second case.
+     */
+    private static int[] byteOffsets(String content, List<String> pages) {
+        int[] offsets = new int[2 * pages.size()];
+        int chars = 0;
+        int bytes = 0;
+        for (int i = 0; i < pages.size(); i++) {
+            if (i > 0 && chars < content.length() && content.charAt(chars) == '\f') {
+                bytes += 1;
+                chars++;
+            }
+            offsets[2 * i] = bytes;
+            int end = chars + pages.get(i).length();
+            for (; chars < end; chars++) bytes += utf8Width(content, chars);
+            offsets[2 * i + 1] = bytes;
+        }
+        return offsets;
+    }
+
+    /** Bytes String.getBytes(UTF_8) spends on content.charAt(i): a lone surrogate becomes '?'. */
+    private static int utf8Width(String content, int i) {
+        char c = content.charAt(i);
+        if (c < 0x80) return 1;
+        if (c < 0x800) return 2;
+        if (Character.isHighSurrogate(c)) {
+            return i + 1 < content.length() && Character.isLowSurrogate(content.charAt(i + 1)) ? 2 : 1;
+        }
+        if (Character.isLowSurrogate(c)) {
+            return i > 0 && Character.isHighSurrogate(content.charAt(i - 1)) ? 2 : 1;
+        }
+        return 3;
+    }
+
+    /**
+     * Delete a stored body no row points at any more, typically one this caller just wrote
+     * and failed to link. Mapped files that can't be deleted yet are left.
+     */
+    public void delete(String ref) {
+        String name = nameOf(ref);
+        synchronized (mapped) {
+            mapped.remove(name);
+        }
+        try {
+            Files.deleteIfExists(root.resolve(name));
+        } catch (IOException e) {
+            System.err.println("Could not delete " + name + ": " + e.getMessage());
+        }
+    }
+
+    // ──── Reading ────
+
+    public int pageCount(String ref) throws IOException {
+        return map(ref).getInt(2 * Integer.BYTES);
+    }
+
+    /**
+     * Page `page` (1-based) as a read-only slice of the mapped file: no copy is made.
+     * Decode with StandardCharsets.UTF_8 when a String is needed.
+     */
+    public ByteBuffer pageBytes(String ref, int page) throws IOException {
+        MappedByteBuffer buf = map(ref);
+        int pages = buf.getInt(2 * Integer.BYTES);
+        if (page < 1 || page > pages) {
+            throw new IndexOutOfBoundsException("Page " + page + " of " + pages + " in " + ref);
+        }
+        int from;
+        int to;
+        if (buf.getInt(Integer.BYTES) == 1) {
+            from = buf.getInt((HEADER_INTS + page - 1) * Integer.BYTES);
+            to = buf.getInt((HEADER_INTS + page) * Integer.BYTES);
+        } else {
+            from = buf.getInt((HEADER_INTS + 2 * (page - 1)) * Integer.BYTES);
+            to = buf.getInt((HEADER_INTS + 2 * (page - 1) + 1) * Integer.BYTES);
+        }
+        int dataStart = dataStart(buf);
+        return buf.slice(dataStart + from, to - from).asReadOnlyBuffer();
+    }
+
+    public String readPage(String ref, int page) throws IOException {
+        return StandardCharsets.UTF_8.decode(pageBytes(ref, page)).toString();
+    }
+
+    /** The whole body, exactly as written (version 1 files: pages joined with form feeds). */
+    public String readAll(String ref) throws IOException {
+        MappedByteBuffer buf = map(ref);
+        if (buf.getInt(Integer.BYTES) == 1) {
+            int pages = buf.getInt(2 * Integer.BYTES);
+            StringBuilder sb = new StringBuilder();
+            for (int p = 1; p <= pages; p++) {
+                if (p > 1) sb.append('\f');
+                sb.append(readPage(ref, p));
+            }
+            return sb.toString();
+        }
+        int dataStart = dataStart(buf);
+        return StandardCharsets.UTF_8.decode(buf.slice(dataStart, buf.capacity() - dataStart)).toString();
+    }
+
+    private static int dataStart(ByteBuffer buf) {
+        int pages = buf.getInt(2 * Integer.BYTES);
+        int offsetInts = buf.getInt(Integer.BYTES) == 1 ? pages + 1 : 2 * pages;
+        return (HEADER_INTS + offsetInts) * Integer.BYTES;
+    }
+
+    private MappedByteBuffer map(String ref) throws IOException {
+        String name = nameOf(ref);
+        synchronized (mapped) {
+            MappedByteBuffer buf = mapped.get(name);
+            if (buf != null) return buf;
+        }
+        MappedByteBuffer buf;
+        try (FileChannel ch = FileChannel.open(root.resolve(name), StandardOpenOption.READ)) {
+            buf = ch.map(FileChannel.MapMode.READ_ONLY, 0, ch.size()); // the mapping outlives the channel
+        }
+        buf.order(ByteOrder.LITTLE_ENDIAN);
+        if (buf.capacity() < HEADER_INTS * Integer.BYTES || buf.getInt(0) != MAGIC
+                || buf.getInt(Integer.BYTES) < 1 || buf.getInt(Integer.BYTES) > FORMAT_VERSION) {
+            throw new IOException("Not a material body: " + name);
+        }
+        synchronized (mapped) {
+            mapped.put(name, buf);
+        }
+        return buf;
+    }
+
+    private static String nameOf(String ref) {
+        if (!isStoreRef(ref)) throw new IllegalArgumentException("Not a content store reference: " + ref);
+        String name = ref.substring(REF_PREFIX.length());
+        if (name.contains("..")) throw new IllegalArgumentException("Bad content store reference: " + ref);
+        return name;
+    }
+}
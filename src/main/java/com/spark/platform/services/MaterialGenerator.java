@@ -0,0 +1,34 @@
+package com.spark.platform.services;
+
+import com.spark.platform.models.Material;
+
+import java.util.List;
+
+/**
+ * Generates one kind of derived material (a quiz, a flashcard deck, a mind map) from the
+ * text of a source material, for DerivationScheduler. version() is part of the result
+ * cache key: bump it whenever the output would change, so cached results are regenerated.
+ */
+public interface MaterialGenerator {
+
+    /** The materials.type of what this generator produces: QUIZ, FLASHCARD or MIND_MAP. */
+    String kind();
+
+    int version();
+
+    Result generate(Material source, List<String> pages) throws Exception;
+
+    final class Result {
+        private final String content;
+        private final Integer itemCount;
+
+        /** itemCount is the number of questions (QUIZ) or cards (FLASHCARD); null otherwise. */
+        public Result(String content, Integer itemCount) {
+            this.content = content;
+            this.itemCount = itemCount;
+        }
+
+        public String getContent() { return content; }
+        public Integer getItemCount() { return itemCount; }
+    }
+}
@@ -0,0 +1,575 @@
+package com.spark.platform.services;
+
+import com.spark.platform.config.DatabaseConfig;
+import com.spark.platform.models.Material;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.sql.SQLException;
+import java.util.*;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-process BM25 index over material text, used by Spark AI to cite a material and page.
+ *
+ * Each material is split into page-sized chunks (form feeds from the text extractor, else
+ * page_count equal parts, else CHUNK_CHARS) and every chunk is a document. Postings are
+ * parallel int arrays per term, so a query touches only the postings of its own terms and
+ * answers in a few milliseconds even for thousands of materials.
+ *
+ * Updates are incremental: update()/remove() tombstone a material's old chunks and append
+ * new ones; tombstones are compacted away once they reach a quarter of the index, and
+ * always before saving. sync() compares per-material fingerprints computed by MySQL with
+ * the indexed ones and re-reads only materials that changed.
+ *
+ * The index is saved to <search.indexDir>/materials.idx: varint-encoded, delta-coded
+ * postings, written to a temp file and moved into place so a crash never leaves half a
+ * file. A missing or unreadable file just means a full rebuild on the next sync().
+ */
+public class MaterialSearchIndex {
+
+    private static final float K1 = 1.2f;
+    private static final float B = 0.75f;
+    /** Chunk size for text without page breaks or a page count. */
+    private static final int CHUNK_CHARS = 3000;
+    private static final int MAGIC = 0x53504B49; // "SPKI"
+    private static final int FORMAT_VERSION = 1;
+    private static final int SYNC_BATCH = 200;
+
+    private static final Set<String> STOPWORDS = new HashSet<>(Arrays.asList(
+            "a", "an", "and", "are", "as", "at", "be", "but", "by", "can", "do", "does", "for", "from",
+            "how", "i", "if", "in", "into", "is", "it", "its", "me", "my", "no", "not", "of", "on", "or",
+            "so", "that", "the", "their", "then", "there", "these", "this", "to", "was", "we", "what",
+            "when", "where", "which", "who", "why", "will", "with", "you", "your"));
+
+    private static MaterialSearchIndex shared;
+
+    private final Path file;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // Chunks, by dense chunk id
+    private int chunkCount;
+    private int[] chunkMaterial = new int[64];
+    private int[] chunkCourse = new int[64];   // -1 when the material has no course
+    private int[] chunkPage = new int[64];
+    private int[] chunkLength = new int[64];
+    private final BitSet dead = new BitSet();
+    private int deadCount;
+    private long liveLength;
+
+    private final Map<Integer, Entry> materials = new HashMap<>();
+    private final Map<String, Postings> postings = new HashMap<>();
+    private boolean dirty;
+
+    public MaterialSearchIndex(Path file) {
+        this.file = file;
+    }
+
+    /**
+     * The app-wide index: loaded from disk and synced with the database on first use (off
+     * the UI thread, please), then kept in memory.
+     */
+    public static synchronized MaterialSearchIndex shared() throws SQLException, IOException {
+        if (shared == null) {
+            MaterialSearchIndex index = new MaterialSearchIndex(
+                    Path.of(DatabaseConfig.getInstance().getSearchIndexDir(), "materials.idx"));
+            index.load();
+            index.sync(new MaterialService());
+            shared = index;
+        }
+        return shared;
+    }
+
+    /** The app-wide index if something already loaded it, else null (callers then rely on the next sync). */
+    public static synchronized MaterialSearchIndex peekShared() {
+        return shared;
+    }
+
+    // ──── Querying ────
+
+    /**
+     * The best-matching pages for a free-text query, best first. courseIds limits the
+     * search to those courses' materials (null or empty: everything).
+     */
+    public List<Hit> search(String query, Collection<Integer> courseIds, int limit) {
+        List<String> terms = new ArrayList<>(new LinkedHashSet<>(tokenize(query)));
+        if (terms.isEmpty() || limit <= 0) return Collections.emptyList();
+        BitSet allowed = null;
+        if (courseIds != null && !courseIds.isEmpty()) {
+            allowed = new BitSet();
+            for (int c : courseIds) allowed.set(c);
+        }
+
+        lock.readLock().lock();
+        try {
+            int live = chunkCount - deadCount;
+            if (live == 0) return Collections.emptyList();
+            double avgLength = (double) liveLength / live;
+            float[] scores = new float[chunkCount];
+            int[] touched = new int[16];
+            int touchedCount = 0;
+
+            for (String term : terms) {
+                Postings p = postings.get(term);
+                if (p == null) continue;
+                int df = 0;
+                for (int i = 0; i < p.size; i++) {
+                    if (!dead.get(p.chunks[i])) df++;
+                }
+                if (df == 0) continue;
+                double idf = Math.log(1 + (live - df + 0.5) / (df + 0.5));
+                for (int i = 0; i < p.size; i++) {
+                    int chunk = p.chunks[i];
+                    if (dead.get(chunk)) continue;
+                    if (allowed != null && (chunkCourse[chunk] < 0 || !allowed.get(chunkCourse[chunk]))) continue;
+                    int tf = p.freqs[i];
+                    double norm = K1 * (1 - B + B * chunkLength[chunk] / avgLength);
+                    if (scores[chunk] == 0) {
+                        if (touchedCount == touched.length) touched = Arrays.copyOf(touched, touchedCount * 2);
+                        touched[touchedCount++] = chunk;
+                    }
+                    scores[chunk] += (float) (idf * tf * (K1 + 1) / (tf + norm));
+                }
+            }
+
+            // Top `limit` by score with a small min-heap
+            PriorityQueue<Integer> top = new PriorityQueue<>(limit + 1,
+                    (a, b) -> a.equals(b) ? 0 : scores[a] != scores[b] ? Float.compare(scores[a], scores[b]) : b - a);
+            for (int i = 0; i < touchedCount; i++) {
+                top.add(touched[i]);
+                if (top.size() > limit) top.poll();
+            }
+            List<Hit> hits = new ArrayList<>(top.size());
+            while (!top.isEmpty()) {
+                int chunk = top.poll();
+                Entry e = materials.get(chunkMaterial[chunk]);
+                hits.add(new Hit(chunkMaterial[chunk], e.title, chunkPage[chunk], scores[chunk]));
+            }
+            Collections.reverse(hits);
+            return hits;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int getMaterialCount() {
+        lock.readLock().lock();
+        try {
+            return materials.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // ──── Updating ────
+
+    /** (Re)index one material, e.g. after an upload or edit. Inactive or empty materials are removed. */
+    public void update(Material m) {
+        update(m, MaterialService.fingerprint(m));
+    }
+
+    private void update(Material m, long fingerprint) {
+        List<String> pages = "ACTIVE".equals(m.getStatus()) && m.getContent() != null
+                ? splitPages(m.getContent(), m.getPageCount()) : Collections.emptyList();
+        String heading = (m.getTitle() != null ? m.getTitle() : "") + " " + (m.getTopic() != null ? m.getTopic() : "");
+        List<String> headingTerms = tokenize(heading);
+
+        lock.writeLock().lock();
+        try {
+            removeLocked(m.getMaterialId());
+            if (pages.isEmpty()) return;
+            Entry e = new Entry(fingerprint, m.getCourseId(), m.getTitle(), chunkCount, pages.size());
+            for (int page = 0; page < pages.size(); page++) {
+                List<String> terms = tokenize(pages.get(page));
+                terms.addAll(headingTerms);
+                addChunk(m.getMaterialId(), m.getCourseId(), page + 1, terms);
+            }
+            materials.put(m.getMaterialId(), e);
+            compactIfNeeded();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(int materialId) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(materialId);
+            compactIfNeeded();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Bring the index in line with the database: drop materials that are gone or inactive,
+     * re-read those whose fingerprint changed, and save if anything did. Returns the number
+     * of materials re-indexed or removed.
+     */
+    public int sync(MaterialService materialService) throws SQLException, IOException {
+        Map<Integer, Long> current = materialService.findContentFingerprints();
+        List<Integer> removed = new ArrayList<>();
+        List<Integer> changed = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            for (int id : materials.keySet()) {
+                if (!current.containsKey(id)) removed.add(id);
+            }
+            for (Map.Entry<Integer, Long> fp : current.entrySet()) {
+                Entry e = materials.get(fp.getKey());
+                if (e == null || e.fingerprint != fp.getValue()) changed.add(fp.getKey());
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        for (int id : removed) remove(id);
+        for (int from = 0; from < changed.size(); from += SYNC_BATCH) {
+            List<Integer> batch = changed.subList(from, Math.min(changed.size(), from + SYNC_BATCH));
+            for (Material m : materialService.findByIdsWithContent(batch)) {
+                Long fp = current.get(m.getMaterialId());
+                update(m, fp != null ? fp : MaterialService.fingerprint(m));
+            }
+        }
+        if (dirty) save();
+        return removed.size() + changed.size();
+    }
+
+    private void removeLocked(int materialId) {
+        Entry e = materials.remove(materialId);
+        if (e == null) return;
+        for (int c = e.firstChunk; c < e.firstChunk + e.chunkCount; c++) {
+            if (dead.get(c)) continue;
+            dead.set(c);
+            deadCount++;
+            liveLength -= chunkLength[c];
+        }
+        dirty = true;
+    }
+
+    private void addChunk(int materialId, Integer courseId, int page, List<String> terms) {
+        if (chunkCount == chunkMaterial.length) {
+            int n = chunkCount * 2;
+            chunkMaterial = Arrays.copyOf(chunkMaterial, n);
+            chunkCourse = Arrays.copyOf(chunkCourse, n);
+            chunkPage = Arrays.copyOf(chunkPage, n);
+            chunkLength = Arrays.copyOf(chunkLength, n);
+        }
+        int chunk = chunkCount++;
+        chunkMaterial[chunk] = materialId;
+        chunkCourse[chunk] = courseId != null ? courseId : -1;
+        chunkPage[chunk] = page;
+        chunkLength[chunk] = terms.size();
+        liveLength += terms.size();
+
+        Map<String, Integer> tf = new HashMap<>();
+        for (String t : terms) tf.merge(t, 1, Integer::sum);
+        for (Map.Entry<String, Integer> t : tf.entrySet()) {
+            postings.computeIfAbsent(t.getKey(), k -> new Postings()).add(chunk, t.getValue());
+        }
+        dirty = true;
+    }
+
+    private void compactIfNeeded() {
+        if (deadCount > 0 && deadCount * 4 >= chunkCount) compact();
+    }
+
+    /** Drop tombstoned chunks and renumber the rest; chunks of a material stay contiguous. */
+    private void compact() {
+        if (deadCount == 0) return;
+        int[] remap = new int[chunkCount];
+        int next = 0;
+        for (int c = 0; c < chunkCount; c++) {
+            if (dead.get(c)) {
+                remap[c] = -1;
+                continue;
+            }
+            remap[c] = next;
+            chunkMaterial[next] = chunkMaterial[c];
+            chunkCourse[next] = chunkCourse[c];
+            chunkPage[next] = chunkPage[c];
+            chunkLength[next] = chunkLength[c];
+            next++;
+        }
+        Iterator<Postings> it = postings.values().iterator();
+        while (it.hasNext()) {
+            Postings p = it.next();
+            int size = 0;
+            for (int i = 0; i < p.size; i++) {
+                int c = remap[p.chunks[i]];
+                if (c < 0) continue;
+                p.chunks[size] = c;
+                p.freqs[size] = p.freqs[i];
+                size++;
+            }
+            p.size = size;
+            if (size == 0) it.remove();
+        }
+        for (Entry e : materials.values()) e.firstChunk = remap[e.firstChunk];
+        chunkCount = next;
+        dead.clear();
+        deadCount = 0;
+        dirty = true;
+    }
+
+    // ──── Persistence ────
+
+    /** Write the index (compacted) to its file. */
+    public void save() throws IOException {
+        lock.writeLock().lock();
+        try {
+            compact();
+            Files.createDirectories(file.toAbsolutePath().getParent());
+            Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp)))) {
+                out.writeInt(MAGIC);
+                out.writeInt(FORMAT_VERSION);
+                writeVarInt(out, materials.size());
+                for (Map.Entry<Integer, Entry> m : materials.entrySet()) {
+                    Entry e = m.getValue();
+                    writeVarInt(out, m.getKey());
+                    out.writeLong(e.fingerprint);
+                    writeVarInt(out, e.courseId != null ? e.courseId + 1 : 0);
+                    out.writeUTF(e.title != null ? e.title : "");
+                    writeVarInt(out, e.firstChunk);
+                    writeVarInt(out, e.chunkCount);
+                }
+                writeVarInt(out, chunkCount);
+                for (int c = 0; c < chunkCount; c++) {
+                    writeVarInt(out, chunkPage[c]);
+                    writeVarInt(out, chunkLength[c]);
+                }
+                writeVarInt(out, postings.size());
+                for (Map.Entry<String, Postings> t : postings.entrySet()) {
+                    Postings p = t.getValue();
+                    out.writeUTF(t.getKey());
+                    writeVarInt(out, p.size);
+                    int prev = 0;
+                    for (int i = 0; i < p.size; i++) {
+                        writeVarInt(out, p.chunks[i] - prev); // chunk ids only grow within a list
+                        prev = p.chunks[i];
+                    }
+                    for (int i = 0; i < p.size; i++) writeVarInt(out, p.freqs[i]);
+                }
+            }
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            dirty = false;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /** Replace the in-memory index with the file's contents; a missing or bad file leaves it empty. */
+    public void load() {
+        lock.writeLock().lock();
+        try {
+            clear();
+            if (!Files.exists(file)) return;
+            try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+                if (in.readInt() != MAGIC || in.readInt() != FORMAT_VERSION) {
+                    throw new IOException("unknown index format");
+                }
+                int materialCount = readVarInt(in);
+                for (int i = 0; i < materialCount; i++) {
+                    int id = readVarInt(in);
+                    long fingerprint = in.readLong();
+                    int course = readVarInt(in);
+                    String title = in.readUTF();
+                    materials.put(id, new Entry(fingerprint, course == 0 ? null : course - 1, title,
+                            readVarInt(in), readVarInt(in)));
+                }
+                int chunks = readVarInt(in);
+                chunkMaterial = new int[Math.max(64, chunks)];
+                chunkCourse = new int[chunkMaterial.length];
+                chunkPage = new int[chunkMaterial.length];
+                chunkLength = new int[chunkMaterial.length];
+                for (int c = 0; c < chunks; c++) {
+                    chunkPage[c] = readVarInt(in);
+                    chunkLength[c] = readVarInt(in);
+                    liveLength += chunkLength[c];
+                }
+                chunkCount = chunks;
+                for (Map.Entry<Integer, Entry> m : materials.entrySet()) {
+                    Entry e = m.getValue();
+                    for (int c = e.firstChunk; c < e.firstChunk + e.chunkCount; c++) {
+                        chunkMaterial[c] = m.getKey();
+                        chunkCourse[c] = e.courseId != null ? e.courseId : -1;
+                    }
+                }
+                int terms = readVarInt(in);
+                for (int t = 0; t < terms; t++) {
+                    String term = in.readUTF();
+                    Postings p = new Postings(readVarInt(in));
+                    int prev = 0;
+                    for (int i = 0; i < p.chunks.length; i++) {
+                        prev += readVarInt(in);
+                        p.chunks[i] = prev;
+                    }
+                    for (int i = 0; i < p.chunks.length; i++) p.freqs[i] = readVarInt(in);
+                    p.size = p.chunks.length;
+                    postings.put(term, p);
+                }
+            }
+            dirty = false;
+        } catch (IOException | RuntimeException e) {
+            System.err.println("Material index " + file + " unreadable, rebuilding: " + e.getMessage());
+            clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void clear() {
+        materials.clear();
+        postings.clear();
+        chunkCount = 0;
+        dead.clear();
+        deadCount = 0;
+        liveLength = 0;
+        dirty = true;
+    }
+
+    // ──── Text ────
+
+    /**
+     * Page texts of a material: split at form feeds when the extractor kept them, else
+     * into pageCount parts (or CHUNK_CHARS pieces) at whitespace.
+     */
+    static List<String> splitPages(String text, Integer pageCount) {
+        List<String> pages = new ArrayList<>();
+        if (text.indexOf('\f') >= 0) {
+            for (String page : text.split("\f", -1)) pages.add(page);
+            return pages;
+        }
+        boolean byCount = pageCount != null && pageCount > 0;
+        int size = byCount ? Math.max(1, (text.length() + pageCount - 1) / pageCount) : CHUNK_CHARS;
+        int start = 0;
+        while (start < text.length()) {
+            boolean last = byCount && pages.size() == pageCount - 1;
+            int end = last ? text.length() : Math.min(text.length(), start + size);
+            if (end < text.length()) {
+                int space = text.lastIndexOf(' ', end);
+                if (space > start + size / 2) end = space;
+                // Never between the two halves of a surrogate pair (the store keeps byte offsets).
+                if (Character.isHighSurrogate(text.charAt(end - 1)) && Character.isLowSurrogate(text.charAt(end))) {
+                    end = end - 1 > start ? end - 1 : end + 1;
+                }
+            }
+            pages.add(text.substring(start, end));
+            start = end;
+        }
+        return pages;
+    }
+
+    /** Lower-cased letter/digit runs, stop words dropped, plurals folded ("queues" → "queue"). */
+    static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null) return tokens;
+        StringBuilder word = new StringBuilder();
+        for (int i = 0, n = text.length(); i <= n; i++) {
+            char ch = i < n ? text.charAt(i) : ' ';
+            if (Character.isLetterOrDigit(ch)) {
+                word.append(Character.toLowerCase(ch));
+                continue;
+            }
+            if (word.length() >= 2 && word.length() <= 40) {
+                String t = stem(word.toString());
+                if (!STOPWORDS.contains(t)) tokens.add(t);
+            }
+            word.setLength(0);
+        }
+        return tokens;
+    }
+
+    private static String stem(String w) {
+        if (w.length() > 4 && w.endsWith("ies")) return w.substring(0, w.length() - 3) + "y";
+        if (w.length() > 3 && w.endsWith("s") && !w.endsWith("ss") && !w.endsWith("us") && !w.endsWith("is")) {
+            return w.substring(0, w.length() - 1);
+        }
+        return w;
+    }
+
+    private static void writeVarInt(DataOutput out, int v) throws IOException {
+        while ((v & ~0x7F) != 0) {
+            out.writeByte((v & 0x7F) | 0x80);
+            v >>>= 7;
+        }
+        out.writeByte(v);
+    }
+
+    private static int readVarInt(DataInput in) throws IOException {
+        int v = 0;
+        for (int shift = 0; shift < 35; shift += 7) {
+            int b = in.readUnsignedByte();
+            v |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) return v;
+        }
+        throw new IOException("malformed varint");
+    }
+
+    // ──── Types ────
+
+    /** One matching page. */
+    public static final class Hit {
+        private final int materialId;
+        private final String title;
+        private final int page;
+        private final float score;
+
+        Hit(int materialId, String title, int page, float score) {
+            this.materialId = materialId;
+            this.title = title;
+            this.page = page;
+            this.score = score;
+        }
+
+        public int getMaterialId() { return materialId; }
+        public String getTitle() { return title; }
+        public int getPage() { return page; }
+        public float getScore() { return score; }
+    }
+
+    private static final class Entry {
+        final long fingerprint;
+        final Integer courseId;
+        final String title;
+        int firstChunk;
+        final int chunkCount;
+
+        Entry(long fingerprint, Integer courseId, String title, int firstChunk, int chunkCount) {
+            this.fingerprint = fingerprint;
+            this.courseId = courseId;
+            this.title = title;
+            this.firstChunk = firstChunk;
+            this.chunkCount = chunkCount;
+        }
+    }
+
+    /** Chunk ids (ascending) and term frequencies of one term. */
+    private static final class Postings {
+        int[] chunks;
+        int[] freqs;
+        int size;
+
+        Postings() {
+            this(4);
+        }
+
+        Postings(int capacity) {
+            chunks = new int[capacity];
+            freqs = new int[capacity];
+        }
+
+        void add(int chunk, int freq) {
+            if (size == chunks.length) {
+                chunks = Arrays.copyOf(chunks, Math.max(4, size * 2));
+                freqs = Arrays.copyOf(freqs, chunks.length);
+            }
+            chunks[size] = chunk;
+            freqs[size] = freq;
+            size++;
+        }
+    }
+}
@@ -0,0 +1,262 @@
+package com.spark.platform.services;
+
+import com.spark.platform.config.DatabaseConfig;
+import com.spark.platform.models.Material;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.*;
+import java.util.*;
+import java.util.zip.CRC32;
+
+/**
+ * Service layer for course materials (table materials).
+ *
+ * Reads select METADATA_COLUMNS only: material bodies can be megabytes, and lists never
+ * need them. Bodies come from getContent()/getPage(), which read the MaterialContentStore
+ * file for materials whose file_path is a "store:" reference and materials.content for
+ * the rest. moveContentToStore() moves a body out of the table.
+ */
+public class MaterialService {
+
+    /** Materials per SELECT when loading by id, so the IN list stays short. */
+    private static final int ID_CHUNK = 200;
+
+    /** Guards findCourseTree against a parent_id cycle; real trees are a few levels deep. */
+    private static final int MAX_TREE_DEPTH = 32;
+
+    private static final String METADATA_COLUMNS =
+            "material_id, course_id, uploaded_by, parent_id, type, title, file_path, page_count, " +
+            "question_count, card_count, topic, visibility, status, created_at";
+
+    private final MaterialContentStore store;
+
+    public MaterialService() {
+        this(MaterialContentStore.shared());
+    }
+
+    public MaterialService(MaterialContentStore store) {
+        this.store = store;
+    }
+
+    // ──── Metadata ────
+
+    public Material findById(int materialId) throws SQLException {
+        List<Material> found = findByIds(Collections.singletonList(materialId));
+        return found.isEmpty() ? null : found.get(0);
+    }
+
+    /** Load materials (metadata only) by id, ID_CHUNK per query; order is by id. */
+    public List<Material> findByIds(Collection<Integer> materialIds) throws SQLException {
+        return findByIds(materialIds, false);
+    }
+
+    private List<Material> findByIds(Collection<Integer> materialIds, boolean withContent) throws SQLException {
+        String columns = withContent ? METADATA_COLUMNS + ", content" : METADATA_COLUMNS;
+        List<Integer> ids = new ArrayList<>(new TreeSet<>(materialIds));
+        List<Material> list = new ArrayList<>(ids.size());
+        try (Connection conn = db()) {
+            for (int from = 0; from < ids.size(); from += ID_CHUNK) {
+                List<Integer> chunk = ids.subList(from, Math.min(ids.size(), from + ID_CHUNK));
+                String sql = "SELECT " + columns + " FROM materials WHERE material_id IN (" +
+                             String.join(", ", Collections.nCopies(chunk.size(), "?")) + ") ORDER BY material_id";
+                try (PreparedStatement ps = conn.prepareStatement(sql)) {
+                    for (int i = 0; i < chunk.size(); i++) ps.setInt(i + 1, chunk.get(i));
+                    try (ResultSet rs = ps.executeQuery()) {
+                        while (rs.next()) {
+                            list.add(mapRow(rs, withContent));
+                        }
+                    }
+                }
+            }
+        }
+        return list;
+    }
+
+    /**
+     * A course's whole material tree in one recursive query: the course's top-level materials
+     * (no parent, or a parent outside the course) and every descendant in the same course
+     * through parent_id, ordered by depth, then creation. Deleted materials are left out with
+     * everything under them. Metadata only; MaterialTreeService assembles and caches it.
+     */
+    public List<Material> findCourseTree(int courseId) throws SQLException {
+        String sql =
+                "WITH RECURSIVE tree (material_id, depth) AS (" +
+                "  SELECT m.material_id, 0 FROM materials m " +
+                "  LEFT JOIN materials p ON p.material_id = m.parent_id AND p.course_id = m.course_id " +
+                "  WHERE m.course_id = ? AND p.material_id IS NULL AND m.status <> 'DELETED' " +
+                "  UNION ALL " +
+                "  SELECT c.material_id, t.depth + 1 FROM tree t JOIN materials c ON c.parent_id = t.material_id " +
+                "  WHERE c.course_id = ? AND c.status <> 'DELETED' AND t.depth < ?" +
+                ") " +
+                "SELECT m." + METADATA_COLUMNS.replace(", ", ", m.") + " FROM tree t " +
+                "JOIN materials m ON m.material_id = t.material_id " +
+                "ORDER BY t.depth, m.created_at, m.material_id";
+        List<Material> list = new ArrayList<>();
+        try (Connection conn = db(); PreparedStatement ps = conn.prepareStatement(sql)) {
+            ps.setInt(1, courseId);
+            ps.setInt(2, courseId);
+            ps.setInt(3, MAX_TREE_DEPTH);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) list.add(mapRow(rs, false));
+            }
+        }
+        return list;
+    }
+
+    // ──── Content ────
+
+    /**
+     * Materials with their bodies filled in (from the table or the file store), for
+     * indexing. Use sparingly: this is the one query that ships material text.
+     */
+    public List<Material> findByIdsWithContent(Collection<Integer> materialIds) throws SQLException, IOException {
+        List<Material> list = findByIds(materialIds, true);
+        for (Material m : list) {
+            if (MaterialContentStore.isStoreRef(m.getFilePath())) m.setContent(store.readAll(m.getFilePath()));
+        }
+        return list;
+    }
+
+    /** A material's full text, or null if it has none. */
+    public String getContent(Material m) throws SQLException, IOException {
+        if (MaterialContentStore.isStoreRef(m.getFilePath())) return store.readAll(m.getFilePath());
+        if (m.getContent() != null) return m.getContent();
+        try (Connection conn = db();
+             PreparedStatement ps = conn.prepareStatement("SELECT content FROM materials WHERE material_id = ?")) {
+            ps.setInt(1, m.getMaterialId());
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next() ? rs.getString(1) : null;
+            }
+        }
+    }
+
+    /** One page (1-based) of a material's text; a stored body is read straight from its mapping. */
+    public String getPage(Material m, int page) throws SQLException, IOException {
+        if (MaterialContentStore.isStoreRef(m.getFilePath())) return store.readPage(m.getFilePath(), page);
+        String content = getContent(m);
+        if (content == null) return null;
+        List<String> pages = MaterialSearchIndex.splitPages(content, m.getPageCount());
+        return page >= 1 && page <= pages.size() ? pages.get(page - 1) : null;
+    }
+
+    /**
+     * Move a material's body from materials.content into the file store and point file_path
+     * at it. The row is only switched if its content is unchanged since it was read; returns
+     * false when there was nothing to move or the row changed meanwhile.
+     */
+    public boolean moveContentToStore(int materialId) throws SQLException, IOException {
+        String content;
+        Integer pageCount;
+        long crc;
+        try (Connection conn = db(); PreparedStatement ps = conn.prepareStatement(
+                "SELECT content, page_count, CRC32(content) FROM materials WHERE material_id = ? AND content IS NOT NULL")) {
+            ps.setInt(1, materialId);
+            try (ResultSet rs = ps.executeQuery()) {
+                if (!rs.next()) return false;
+                content = rs.getString(1);
+                int pc = rs.getInt(2);
+                pageCount = rs.wasNull() ? null : pc;
+                crc = rs.getLong(3);
+            }
+        }
+
+        String ref = store.write(materialId, content, pageCount);
+        int stored = store.pageCount(ref);
+        int updated;
+        try (Connection conn = db(); PreparedStatement ps = conn.prepareStatement(
+                "UPDATE materials SET file_path = ?, content = NULL, page_count = COALESCE(page_count, ?) " +
+                "WHERE material_id = ? AND content IS NOT NULL AND CRC32(content) = ?")) {
+            ps.setString(1, ref);
+            ps.setInt(2, stored);
+            ps.setInt(3, materialId);
+            ps.setLong(4, crc);
+            updated = ps.executeUpdate();
+        }
+        if (updated == 0) store.delete(ref);
+        else MaterialTreeService.invalidateMaterial(materialId);
+        return updated > 0;
+    }
+
+    /** Ids of materials whose inline body is at least minBytes long, largest first. */
+    public List<Integer> findInlineContentLargerThan(long minBytes, int limit) throws SQLException {
+        String sql = "SELECT material_id FROM materials WHERE content IS NOT NULL AND LENGTH(content) >= ? " +
+                     "ORDER BY LENGTH(content) DESC LIMIT ?";
+        List<Integer> ids = new ArrayList<>();
+        try (Connection conn = db(); PreparedStatement ps = conn.prepareStatement(sql)) {
+            ps.setLong(1, minBytes);
+            ps.setInt(2, limit);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) ids.add(rs.getInt(1));
+            }
+        }
+        return ids;
+    }
+
+    // ──── Fingerprints ────
+
+    /**
+     * Fingerprint of every active material with text: content length in the high 32 bits,
+     * CRC32 of the indexed fields in the low 32. Computed by MySQL, so finding what changed
+     * never ships the content itself; see MaterialSearchIndex.sync(). For a stored body the
+     * (content-versioned) store reference stands in for the text.
+     */
+    public Map<Integer, Long> findContentFingerprints() throws SQLException {
+        String sql = "SELECT material_id, IF(file_path LIKE 'store:%', 0, CHAR_LENGTH(content)), " +
+                     "CRC32(CONCAT_WS(CHAR(0), title, topic, course_id, page_count, " +
+                     "IF(file_path LIKE 'store:%', file_path, content))) " +
+                     "FROM materials WHERE status = 'ACTIVE' AND (content IS NOT NULL OR file_path LIKE 'store:%')";
+        Map<Integer, Long> fingerprints = new HashMap<>();
+        try (Connection conn = db(); PreparedStatement ps = conn.prepareStatement(sql);
+             ResultSet rs = ps.executeQuery()) {
+            while (rs.next()) {
+                fingerprints.put(rs.getInt(1), (rs.getLong(2) << 32) | (rs.getLong(3) & 0xFFFFFFFFL));
+            }
+        }
+        return fingerprints;
+    }
+
+    /** The same fingerprint computed in Java, for a material already in memory (e.g. just saved). */
+    public static long fingerprint(Material m) {
+        boolean stored = MaterialContentStore.isStoreRef(m.getFilePath());
+        String body = stored ? m.getFilePath() : m.getContent();
+        StringJoiner fields = new StringJoiner("\0"); // CONCAT_WS skips NULLs
+        for (Object field : new Object[]{m.getTitle(), m.getTopic(), m.getCourseId(), m.getPageCount(), body}) {
+            if (field != null) fields.add(field.toString());
+        }
+        CRC32 crc = new CRC32();
+        crc.update(fields.toString().getBytes(StandardCharsets.UTF_8));
+        long length = !stored && m.getContent() != null ? m.getContent().codePointCount(0, m.getContent().length()) : 0;
+        return (length << 32) | crc.getValue();
+    }
+
+    // ──── Helpers ────
+    private Connection db() throws SQLException {
+        return DatabaseConfig.getInstance().getConnection();
+    }
+
+    private Material mapRow(ResultSet rs, boolean withContent) throws SQLException {
+        Material m = new Material();
+        m.setMaterialId(rs.getInt("material_id"));
+        m.setCourseId(nullableInt(rs, "course_id"));
+        m.setUploadedBy(nullableInt(rs, "uploaded_by"));
+        m.setParentId(nullableInt(rs, "parent_id"));
+        m.setType(rs.getString("type"));
+        m.setTitle(rs.getString("title"));
+        m.setFilePath(rs.getString("file_path"));
+        if (withContent) m.setContent(rs.getString("content"));
+        m.setPageCount(nullableInt(rs, "page_count"));
+        m.setQuestionCount(nullableInt(rs, "question_count"));
+        m.setCardCount(nullableInt(rs, "card_count"));
+        m.setTopic(rs.getString("topic"));
+        m.setVisibility(rs.getString("visibility"));
+        m.setStatus(rs.getString("status"));
+        m.setCreatedAt(rs.getTimestamp("created_at"));
+        return m;
+    }
+
+    private static Integer nullableInt(ResultSet rs, String column) throws SQLException {
+        int v = rs.getInt(column);
+        return rs.wasNull() ? null : v;
+    }
+}
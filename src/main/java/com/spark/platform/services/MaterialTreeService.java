@@ -0,0 +1,136 @@
+package com.spark.platform.services;
+
+import com.spark.platform.models.Material;
+
+import java.sql.SQLException;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A course's material library as a tree (parent_id: a PDF with its quizzes, flashcards
+ * and mind maps under it), loaded with one recursive query (MaterialService.findCourseTree)
+ * and assembled in memory, instead of a lookup per node.
+ *
+ * Trees are cached per course. Code that adds, moves or changes materials calls
+ * invalidate(courseId) or invalidateMaterial(materialId); the TTL only catches changes
+ * made by other processes.
+ */
+public class MaterialTreeService {
+
+    /** Upper bound on staleness for changes made outside this process. */
+    private static final long CACHE_TTL_MILLIS = 5 * 60_000;
+
+    private static final Map<Integer, CachedTree> CACHE = new ConcurrentHashMap<>();
+    /** Bumped by every invalidation, so a load that raced one isn't cached. */
+    private static final AtomicLong invalidations = new AtomicLong();
+
+    private final MaterialService materialService;
+
+    public MaterialTreeService() {
+        this(new MaterialService());
+    }
+
+    public MaterialTreeService(MaterialService materialService) {
+        this.materialService = materialService;
+    }
+
+    /** The course's tree, from cache when younger than CACHE_TTL_MILLIS. */
+    public MaterialTree getTree(int courseId) throws SQLException {
+        CachedTree cached = CACHE.get(courseId);
+        if (cached != null && System.currentTimeMillis() - cached.loadedAt < CACHE_TTL_MILLIS) {
+            return cached.tree;
+        }
+        long seen = invalidations.get();
+        MaterialTree fresh = new MaterialTree(materialService.findCourseTree(courseId));
+        if (invalidations.get() == seen) CACHE.put(courseId, new CachedTree(fresh, System.currentTimeMillis()));
+        return fresh;
+    }
+
+    /** Drop one course's cached tree (null: the course is unknown, so drop every tree). */
+    public static void invalidate(Integer courseId) {
+        invalidations.incrementAndGet();
+        if (courseId != null) CACHE.remove(courseId);
+        else CACHE.clear();
+    }
+
+    /** Drop the cached trees that contain a material, for callers that only know its id. */
+    public static void invalidateMaterial(int materialId) {
+        invalidations.incrementAndGet();
+        CACHE.values().removeIf(c -> c.tree.find(materialId) != null);
+    }
+
+    public static void invalidateAll() {
+        invalidate(null);
+    }
+
+    // ──── Tree ────
+
+    /** An immutable material tree; children are in creation order. */
+    public static final class MaterialTree {
+        private final List<Node> roots = new ArrayList<>();
+        private final Map<Integer, Node> byId = new HashMap<>();
+
+        /** rows ordered parents first (by depth), as findCourseTree returns them. */
+        MaterialTree(List<Material> rows) {
+            for (Material m : rows) byId.put(m.getMaterialId(), new Node(m));
+            for (Material m : rows) {
+                Node node = byId.get(m.getMaterialId());
+                Node parent = m.getParentId() != null ? byId.get(m.getParentId()) : null;
+                // A parent in another course isn't in this tree, so the child is one of its roots.
+                if (parent != null) {
+                    node.depth = parent.depth + 1;
+                    parent.children.add(node);
+                } else {
+                    roots.add(node);
+                }
+            }
+        }
+
+        public List<Node> getRoots() { return Collections.unmodifiableList(roots); }
+        public int size() { return byId.size(); }
+
+        /** The node for a material, or null if it isn't in this tree. */
+        public Node find(int materialId) {
+            return byId.get(materialId);
+        }
+
+        /** Every node depth-first, parents before children: the order a tree view shows them in. */
+        public List<Node> flatten() {
+            List<Node> out = new ArrayList<>(byId.size());
+            Deque<Node> stack = new ArrayDeque<>();
+            for (int i = roots.size() - 1; i >= 0; i--) stack.push(roots.get(i));
+            while (!stack.isEmpty()) {
+                Node node = stack.pop();
+                out.add(node);
+                for (int i = node.children.size() - 1; i >= 0; i--) stack.push(node.children.get(i));
+            }
+            return out;
+        }
+    }
+
+    public static final class Node {
+        private final Material material;
+        private final List<Node> children = new ArrayList<>();
+        private int depth;
+
+        Node(Material material) {
+            this.material = material;
+        }
+
+        public Material getMaterial() { return material; }
+        /** 0 for a top-level material; use it to indent flatten() output. */
+        public int getDepth() { return depth; }
+        public List<Node> getChildren() { return Collections.unmodifiableList(children); }
+    }
+
+    private static final class CachedTree {
+        final MaterialTree tree;
+        final long loadedAt;
+
+        CachedTree(MaterialTree tree, long loadedAt) {
+            this.tree = tree;
+            this.loadedAt = loadedAt;
+        }
+    }
+}
@@ -0,0 +1,421 @@
+package com.spark.platform.services;
+
+import com.spark.platform.config.DatabaseConfig;
+import com.spark.platform.utils.LatencyHistogram;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongConsumer;
+import java.util.zip.CRC32C;
+
+/**
+ * Resumable, chunked material uploads (table material_uploads, migration V8).
+ *
+ *   begin()        creates the material (status UPLOADING) and an upload row
+ *   appendChunk()  checks the chunk's CRC32C, writes it to <uploadDir>/<uploadId>.part,
+ *                  forces it to disk and only then advances received_bytes
+ *   complete()     checks size and SHA-256, moves the file under <uploadDir>/originals,
+ *                  sets the material to PROCESSING and queues MaterialExtractionPool
+ *
+ * received_bytes is the resume point: a client that lost its connection asks for it
+ * (find()) and continues from there. Chunks it re-sends below that point are ignored, so
+ * retrying a chunk whose acknowledgement got lost is harmless.
+ */
+public class MaterialUploadService {
+
+    public static final int CHUNK_SIZE = 1024 * 1024;
+
+    public static final String UPLOADING = "UPLOADING";
+    public static final String COMPLETE = "COMPLETE";
+    public static final String FAILED = "FAILED";
+
+    private static final LongAdder uploadedBytes = new LongAdder();
+    private static final LongAdder uploadNanos = new LongAdder();
+    private static final LatencyHistogram chunkLatency = new LatencyHistogram();
+
+    private final Path root;
+    private final MaterialExtractionPool extractionPool;
+    private final Map<String, Object> locks = new ConcurrentHashMap<>();
+
+    public MaterialUploadService() {
+        this(Path.of(DatabaseConfig.getInstance().getMaterialUploadDir()), MaterialExtractionPool.shared());
+    }
+
+    public MaterialUploadService(Path root, MaterialExtractionPool extractionPool) {
+        this.root = root;
+        this.extractionPool = extractionPool;
+    }
+
+    // ──── Upload protocol ────
+
+    /** Create the material and its upload; sha256 (hex) is optional and checked on complete(). */
+    public Upload begin(Integer courseId, int uploadedBy, String title, String type, String fileName,
+                        long totalBytes, String sha256) throws SQLException, IOException {
+        if (totalBytes < 0) throw new IllegalArgumentException("Negative upload size: " + totalBytes);
+        String uploadId = UUID.randomUUID().toString();
+        String safeName = safeFileName(fileName);
+        Files.createDirectories(root);
+        Files.deleteIfExists(partFile(uploadId));
+        Files.createFile(partFile(uploadId));
+
+        int materialId;
+        try (Connection conn = db()) {
+            conn.setAutoCommit(false);
+            try {
+                try (PreparedStatement ps = conn.prepareStatement(
+                        "INSERT INTO materials (course_id, uploaded_by, type, title, status) VALUES (?, ?, ?, ?, 'UPLOADING')",
+                        Statement.RETURN_GENERATED_KEYS)) {
+                    if (courseId != null) ps.setInt(1, courseId);
+                    else ps.setNull(1, Types.INTEGER);
+                    ps.setInt(2, uploadedBy);
+                    ps.setString(3, type);
+                    ps.setString(4, title);
+                    ps.executeUpdate();
+                    try (ResultSet keys = ps.getGeneratedKeys()) {
+                        keys.next();
+                        materialId = keys.getInt(1);
+                    }
+                }
+                try (PreparedStatement ps = conn.prepareStatement(
+                        "INSERT INTO material_uploads (upload_id, material_id, uploaded_by, file_name, total_bytes, sha256) " +
+                        "VALUES (?, ?, ?, ?, ?, ?)")) {
+                    ps.setString(1, uploadId);
+                    ps.setInt(2, materialId);
+                    ps.setInt(3, uploadedBy);
+                    ps.setString(4, safeName);
+                    ps.setLong(5, totalBytes);
+                    ps.setString(6, sha256 != null ? sha256.toLowerCase() : null);
+                    ps.executeUpdate();
+                }
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                Files.deleteIfExists(partFile(uploadId));
+                throw e;
+            }
+        }
+        MaterialTreeService.invalidate(courseId);
+        return new Upload(uploadId, materialId, safeName, totalBytes, 0, UPLOADING);
+    }
+
+    /** The upload's current state (received bytes = where to resume), or null if unknown. */
+    public Upload find(String uploadId) throws SQLException {
+        try (Connection conn = db(); PreparedStatement ps = conn.prepareStatement(
+                "SELECT upload_id, material_id, file_name, total_bytes, received_bytes, status " +
+                "FROM material_uploads WHERE upload_id = ?")) {
+            ps.setString(1, uploadId);
+            try (ResultSet rs = ps.executeQuery()) {
+                if (!rs.next()) return null;
+                return new Upload(rs.getString(1), rs.getInt(2), rs.getString(3), rs.getLong(4), rs.getLong(5), rs.getString(6));
+            }
+        }
+    }
+
+    /**
+     * Append data[0, length) at byte `offset` of the upload and return the new received
+     * count. crc32c is the client's CRC32C of exactly those bytes; a mismatch rejects the
+     * chunk and leaves the upload where it was. Bytes the server already has are skipped.
+     */
+    public long appendChunk(String uploadId, long offset, byte[] data, int length, long crc32c)
+            throws SQLException, IOException {
+        CRC32C crc = new CRC32C();
+        crc.update(data, 0, length);
+        if (crc.getValue() != crc32c) {
+            throw new IOException("Chunk at " + offset + " of upload " + uploadId + " failed its checksum");
+        }
+
+        long start = System.nanoTime();
+        synchronized (locks.computeIfAbsent(uploadId, id -> new Object())) {
+            Upload upload = find(uploadId);
+            if (upload == null) throw new IllegalArgumentException("Unknown upload: " + uploadId);
+            if (!UPLOADING.equals(upload.getStatus())) {
+                throw new IllegalStateException("Upload " + uploadId + " is " + upload.getStatus());
+            }
+            long received = upload.getReceivedBytes();
+            if (offset > received) {
+                throw new IllegalArgumentException("Chunk at " + offset + " leaves a gap; resume from " + received);
+            }
+            int skip = (int) Math.min(length, received - offset);
+            int fresh = length - skip;
+            if (fresh == 0) return received; // a retry of something we already have
+            if (received + fresh > upload.getTotalBytes()) {
+                throw new IllegalArgumentException("Chunk runs past the declared size of " + upload.getTotalBytes());
+            }
+
+            try (FileChannel ch = FileChannel.open(partFile(uploadId), StandardOpenOption.WRITE)) {
+                ByteBuffer buf = ByteBuffer.wrap(data, skip, fresh);
+                long pos = received;
+                while (buf.hasRemaining()) pos += ch.write(buf, pos);
+                ch.truncate(pos); // drop bytes a crashed earlier attempt wrote but never acknowledged
+                ch.force(false);
+            }
+
+            long now = received + fresh;
+            try (Connection conn = db(); PreparedStatement ps = conn.prepareStatement(
+                    "UPDATE material_uploads SET received_bytes = ? " +
+                    "WHERE upload_id = ? AND received_bytes = ? AND status = 'UPLOADING'")) {
+                ps.setLong(1, now);
+                ps.setString(2, uploadId);
+                ps.setLong(3, received);
+                if (ps.executeUpdate() == 0) {
+                    throw new IllegalStateException("Upload " + uploadId + " was changed by another writer");
+                }
+            }
+
+            long elapsed = System.nanoTime() - start;
+            uploadedBytes.add(fresh);
+            uploadNanos.add(elapsed);
+            chunkLatency.record(elapsed);
+            return now;
+        }
+    }
+
+    /**
+     * Finish an upload: verify it, keep the original and queue text extraction. The future
+     * completes with the extracted page count once the material is ACTIVE.
+     */
+    public CompletableFuture<Integer> complete(String uploadId) throws SQLException, IOException {
+        Upload upload;
+        Path original;
+        synchronized (locks.computeIfAbsent(uploadId, id -> new Object())) {
+            upload = find(uploadId);
+            if (upload == null) throw new IllegalArgumentException("Unknown upload: " + uploadId);
+            if (!UPLOADING.equals(upload.getStatus())) {
+                throw new IllegalStateException("Upload " + uploadId + " is " + upload.getStatus());
+            }
+            if (upload.getReceivedBytes() != upload.getTotalBytes()) {
+                throw new IllegalStateException("Upload " + uploadId + " has " + upload.getReceivedBytes()
+                        + " of " + upload.getTotalBytes() + " bytes");
+            }
+
+            Path part = partFile(uploadId);
+            original = originalFile(upload.getMaterialId(), upload.getFileName());
+            // A crash after the move but before the UPDATE below leaves the file already in place.
+            Path received = Files.exists(part) || !Files.exists(original) ? part : original;
+            String actual = sha256(received);
+            String expected = expectedSha256(uploadId);
+            if (expected != null && !expected.equals(actual)) {
+                fail(upload, "SHA-256 mismatch: expected " + expected + ", got " + actual);
+                Files.deleteIfExists(received);
+                throw new IOException("Upload " + uploadId + " is corrupt (SHA-256 mismatch)");
+            }
+
+            if (received == part) {
+                Files.createDirectories(original.getParent());
+                Files.move(part, original, StandardCopyOption.ATOMIC_MOVE);
+            }
+
+            try (Connection conn = db()) {
+                conn.setAutoCommit(false);
+                try {
+                    try (PreparedStatement ps = conn.prepareStatement(
+                            "UPDATE material_uploads SET status = 'COMPLETE', sha256 = ? WHERE upload_id = ?")) {
+                        ps.setString(1, actual);
+                        ps.setString(2, uploadId);
+                        ps.executeUpdate();
+                    }
+                    try (PreparedStatement ps = conn.prepareStatement(
+                            "UPDATE materials SET status = 'PROCESSING', file_path = ? WHERE material_id = ?")) {
+                        ps.setString(1, original.toString());
+                        ps.setInt(2, upload.getMaterialId());
+                        ps.executeUpdate();
+                    }
+                    conn.commit();
+                } catch (SQLException e) {
+                    conn.rollback();
+                    throw e;
+                }
+            }
+        }
+        locks.remove(uploadId);
+        MaterialTreeService.invalidateMaterial(upload.getMaterialId());
+        return extractionPool.submit(upload.getMaterialId(), original);
+    }
+
+    /** Give up on an upload: the part file is deleted and the material marked FAILED. */
+    public void abort(String uploadId, String reason) throws SQLException, IOException {
+        Upload upload = find(uploadId);
+        if (upload == null || !UPLOADING.equals(upload.getStatus())) return;
+        fail(upload, reason);
+        Files.deleteIfExists(partFile(uploadId));
+        locks.remove(uploadId);
+    }
+
+    /**
+     * Re-queue extraction for materials left PROCESSING (e.g. the app stopped mid-job).
+     * Returns the number of jobs queued.
+     */
+    public int resumePendingExtractions() throws SQLException {
+        List<Integer> ids = new ArrayList<>();
+        List<Path> files = new ArrayList<>();
+        try (Connection conn = db(); PreparedStatement ps = conn.prepareStatement(
+                "SELECT m.material_id, u.file_name FROM materials m " +
+                "JOIN material_uploads u ON u.material_id = m.material_id AND u.status = 'COMPLETE' " +
+                "WHERE m.status = 'PROCESSING'");
+             ResultSet rs = ps.executeQuery()) {
+            while (rs.next()) {
+                ids.add(rs.getInt(1));
+                files.add(originalFile(rs.getInt(1), rs.getString(2)));
+            }
+        }
+        for (int i = 0; i < ids.size(); i++) {
+            if (Files.exists(files.get(i))) extractionPool.submit(ids.get(i), files.get(i));
+        }
+        return ids.size();
+    }
+
+    // ──── Client side ────
+
+    /**
+     * Upload a local file in CHUNK_SIZE chunks, continuing `resumeId` if given (null starts
+     * a new upload), and queue extraction. progress receives the received byte count after
+     * every chunk.
+     */
+    public CompletableFuture<Integer> uploadFile(Path file, Integer courseId, int uploadedBy, String title,
+                                                 String type, String resumeId, LongConsumer progress)
+            throws SQLException, IOException {
+        Upload upload = resumeId != null ? find(resumeId) : null;
+        if (resumeId != null && upload == null) throw new IllegalArgumentException("Unknown upload: " + resumeId);
+        if (upload == null) {
+            upload = begin(courseId, uploadedBy, title, type, file.getFileName().toString(), Files.size(file), sha256(file));
+        }
+        long offset = upload.getReceivedBytes();
+        byte[] chunk = new byte[CHUNK_SIZE];
+        try (InputStream in = Files.newInputStream(file)) {
+            in.skipNBytes(offset);
+            int n;
+            while ((n = in.readNBytes(chunk, 0, chunk.length)) > 0) {
+                CRC32C crc = new CRC32C();
+                crc.update(chunk, 0, n);
+                offset = appendChunk(upload.getUploadId(), offset, chunk, n, crc.getValue());
+                if (progress != null) progress.accept(offset);
+            }
+        }
+        return complete(upload.getUploadId());
+    }
+
+    // ──── Metrics ────
+
+    /** e.g. "412.0 MB at 96.3 MB/s; chunk n=412 mean=10.4ms p50=9.8ms ..." */
+    public static String summary() {
+        double mb = uploadedBytes.sum() / (1024.0 * 1024.0);
+        double seconds = uploadNanos.sum() / 1e9;
+        return String.format("%.1f MB at %.1f MB/s; chunk %s", mb, seconds > 0 ? mb / seconds : 0, chunkLatency.summary());
+    }
+
+    // ──── Helpers ────
+
+    private void fail(Upload upload, String reason) throws SQLException {
+        String error = reason != null && reason.length() > 500 ? reason.substring(0, 500) : reason;
+        try (Connection conn = db()) {
+            conn.setAutoCommit(false);
+            try {
+                try (PreparedStatement ps = conn.prepareStatement(
+                        "UPDATE material_uploads SET status = 'FAILED', error = ? WHERE upload_id = ?")) {
+                    ps.setString(1, error);
+                    ps.setString(2, upload.getUploadId());
+                    ps.executeUpdate();
+                }
+                try (PreparedStatement ps = conn.prepareStatement(
+                        "UPDATE materials SET status = 'FAILED' WHERE material_id = ?")) {
+                    ps.setInt(1, upload.getMaterialId());
+                    ps.executeUpdate();
+                }
+                conn.commit();
+                MaterialTreeService.invalidateMaterial(upload.getMaterialId());
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
+        }
+    }
+
+    private String expectedSha256(String uploadId) throws SQLException {
+        try (Connection conn = db(); PreparedStatement ps = conn.prepareStatement(
+                "SELECT sha256 FROM material_uploads WHERE upload_id = ?")) {
+            ps.setString(1, uploadId);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next() ? rs.getString(1) : null;
+            }
+        }
+    }
+
+    /** Hex SHA-256 of a file, as begin() expects it. */
+    public static String sha256(Path file) throws IOException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e); // every JRE ships SHA-256
+        }
+        byte[] buf = new byte[CHUNK_SIZE];
+        try (InputStream in = Files.newInputStream(file)) {
+            int n;
+            while ((n = in.read(buf)) > 0) digest.update(buf, 0, n);
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    private Path partFile(String uploadId) {
+        return root.resolve(uploadId + ".part");
+    }
+
+    private Path originalFile(int materialId, String fileName) {
+        return root.resolve("originals").resolve(String.format("%02x", materialId & 0xFF))
+                .resolve(materialId + "-" + fileName);
+    }
+
+    /** The last path segment with anything but letters, digits, '.', '-' and '_' replaced. */
+    private static String safeFileName(String fileName) {
+        String name = fileName.replace('\\', '/');
+        name = name.substring(name.lastIndexOf('/') + 1).replaceAll("[^A-Za-z0-9._-]", "_");
+        if (name.isEmpty() || name.chars().allMatch(c -> c == '.')) name = "upload";
+        return name.length() > 200 ? name.substring(name.length() - 200) : name;
+    }
+
+    private Connection db() throws SQLException {
+        return DatabaseConfig.getInstance().getConnection();
+    }
+
+    public static final class Upload {
+        private final String uploadId;
+        private final int materialId;
+        private final String fileName;
+        private final long totalBytes;
+        private final long receivedBytes;
+        private final String status;
+
+        Upload(String uploadId, int materialId, String fileName, long totalBytes, long receivedBytes, String status) {
+            this.uploadId = uploadId;
+            this.materialId = materialId;
+            this.fileName = fileName;
+            this.totalBytes = totalBytes;
+            this.receivedBytes = receivedBytes;
+            this.status = status;
+        }
+
+        public String getUploadId() { return uploadId; }
+        public int getMaterialId() { return materialId; }
+        public String getFileName() { return fileName; }
+        public long getTotalBytes() { return totalBytes; }
+        public long getReceivedBytes() { return receivedBytes; }
+        public String getStatus() { return status; }
+    }
+}
@@ -0,0 +1,64 @@
+package com.spark.platform.services;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A way of delivering notifications (SMS, e-mail, ...), plugged into NotificationDispatcher
+ * by channel name. send() gets a whole batch claimed from notification_outbox.
+ *
+ * Throwing means the whole batch failed and will be retried with backoff. Per-item
+ * outcomes go in the returned result: fail() is retried, reject() goes straight to DEAD
+ * (e.g. no phone number on file); anything not mentioned counts as sent.
+ */
+public interface NotificationChannel {
+
+    /** Channel name as stored in notifications.type / notification_outbox.channel. */
+    String name();
+
+    Result send(List<Delivery> batch) throws Exception;
+
+    /** One claimed outbox row with what a channel needs to deliver it. */
+    final class Delivery {
+        public final long outboxId;
+        public final int notificationId;
+        public final int userId;
+        public final String name;
+        public final String email;
+        public final String phone;
+        public final String title;
+        public final String message;
+        /** Including this one. */
+        public final int attempt;
+
+        Delivery(long outboxId, int notificationId, int userId, String name, String email, String phone,
+                 String title, String message, int attempt) {
+            this.outboxId = outboxId;
+            this.notificationId = notificationId;
+            this.userId = userId;
+            this.name = name;
+            this.email = email;
+            this.phone = phone;
+            this.title = title;
+            this.message = message;
+            this.attempt = attempt;
+        }
+    }
+
+    /** Per-item failures of a batch; empty means everything was sent. */
+    final class Result {
+        final Map<Long, String> retry = new HashMap<>();
+        final Map<Long, String> rejected = new HashMap<>();
+
+        public Result fail(Delivery d, String error) {
+            retry.put(d.outboxId, error);
+            return this;
+        }
+
+        public Result reject(Delivery d, String error) {
+            rejected.put(d.outboxId, error);
+            return this;
+        }
+    }
+}
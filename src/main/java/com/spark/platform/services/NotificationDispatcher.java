@@ -0,0 +1,274 @@
+package com.spark.platform.services;
+
+import com.spark.platform.config.DatabaseConfig;
+import com.spark.platform.services.NotificationChannel.Delivery;
+import com.spark.platform.services.NotificationChannel.Result;
+
+import java.lang.management.ManagementFactory;
+import java.nio.file.Path;
+import java.sql.*;
+import java.util.*;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Delivers the SMS / e-mail rows of notification_outbox (migration V7).
+ *
+ * A pool of worker threads loops over the registered channels; each pass claims up to
+ * batchSize due PENDING rows of one channel (SELECT ... FOR UPDATE SKIP LOCKED, so any
+ * number of workers and processes can run side by side without handing out a row twice),
+ * sends them as one batch and records the outcome with a few batched UPDATEs:
+ *   sent      → SENT
+ *   failed    → PENDING again after an exponential backoff with jitter, or DEAD after maxAttempts
+ *   rejected  → DEAD straight away
+ * Rows left in SENDING by a crashed worker become PENDING again after STALE_MINUTES.
+ */
+public class NotificationDispatcher {
+
+    private static final long BASE_BACKOFF_SECONDS = 30;
+    private static final long MAX_BACKOFF_SECONDS = 3600;
+    private static final int STALE_MINUTES = 5;
+    private static final long IDLE_SLEEP_MILLIS = 1000;
+
+    private final Map<String, NotificationChannel> channels = new LinkedHashMap<>();
+    private final int workers;
+    private final int batchSize;
+    private final int maxAttempts;
+    private final String workerId;
+    private final List<Thread> threads = new ArrayList<>();
+    private volatile boolean running;
+
+    private final AtomicLong sent = new AtomicLong();
+    private final AtomicLong retried = new AtomicLong();
+    private final AtomicLong dead = new AtomicLong();
+
+    public NotificationDispatcher(int workers, int batchSize, int maxAttempts) {
+        this.workers = workers;
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+        this.workerId = ManagementFactory.getRuntimeMXBean().getName(); // pid@host
+    }
+
+    /** Dispatcher with the local file sinks standing in for SMS and e-mail. */
+    public static NotificationDispatcher withLocalSinks(int workers, int batchSize, int maxAttempts) {
+        Path dir = Path.of(DatabaseConfig.getInstance().getNotificationSinkDir());
+        return new NotificationDispatcher(workers, batchSize, maxAttempts)
+                .register(new LogFileChannel("SMS", dir))
+                .register(new LogFileChannel("EMAIL", dir));
+    }
+
+    /** Add or replace the channel for channel.name(). Call before start(). */
+    public NotificationDispatcher register(NotificationChannel channel) {
+        channels.put(channel.name(), channel);
+        return this;
+    }
+
+    // ──── Lifecycle ────
+
+    public synchronized void start() {
+        if (running) return;
+        running = true;
+        AtomicInteger n = new AtomicInteger();
+        for (int i = 0; i < workers; i++) {
+            Thread t = new Thread(this::workLoop, "notification-dispatcher-" + n.incrementAndGet());
+            t.setDaemon(true);
+            t.start();
+            threads.add(t);
+        }
+    }
+
+    /** Stop claiming new batches and wait (up to timeoutMillis) for batches in flight. */
+    public synchronized void stop(long timeoutMillis) throws InterruptedException {
+        running = false;
+        long deadline = System.currentTimeMillis() + timeoutMillis;
+        for (Thread t : threads) {
+            t.interrupt();
+            t.join(Math.max(1, deadline - System.currentTimeMillis()));
+        }
+        threads.clear();
+    }
+
+    public long getSentCount() { return sent.get(); }
+    public long getRetriedCount() { return retried.get(); }
+    public long getDeadCount() { return dead.get(); }
+
+    private void workLoop() {
+        List<String> names = new ArrayList<>(channels.keySet());
+        int start = ThreadLocalRandom.current().nextInt(Math.max(1, names.size())); // spread workers over channels
+        long lastReclaim = 0;
+        while (running) {
+            try {
+                if (System.currentTimeMillis() - lastReclaim > TimeUnit.MINUTES.toMillis(1)) {
+                    reclaimStale();
+                    lastReclaim = System.currentTimeMillis();
+                }
+                boolean didWork = false;
+                for (int i = 0; i < names.size(); i++) {
+                    didWork |= runOnce(channels.get(names.get((start + i) % names.size())));
+                }
+                if (!didWork) Thread.sleep(IDLE_SLEEP_MILLIS);
+            } catch (InterruptedException e) {
+                return;
+            } catch (SQLException e) {
+                System.err.println("Notification dispatcher: " + e.getMessage());
+                try {
+                    Thread.sleep(IDLE_SLEEP_MILLIS * 5);
+                } catch (InterruptedException ie) {
+                    return;
+                }
+            }
+        }
+    }
+
+    /** Claim, send and settle one batch of a channel. Returns false when nothing was due. */
+    boolean runOnce(NotificationChannel channel) throws SQLException {
+        List<Delivery> batch = claim(channel.name());
+        if (batch.isEmpty()) return false;
+
+        Result result;
+        try {
+            result = channel.send(batch);
+        } catch (Exception e) {
+            result = new Result();
+            for (Delivery d : batch) result.fail(d, e.toString());
+        }
+        settle(batch, result);
+        return true;
+    }
+
+    // ──── Outbox ────
+
+    private List<Delivery> claim(String channel) throws SQLException {
+        List<Long> ids = new ArrayList<>();
+        try (Connection conn = db()) {
+            conn.setAutoCommit(false);
+            try {
+                try (PreparedStatement ps = conn.prepareStatement(
+                        "SELECT outbox_id FROM notification_outbox " +
+                        "WHERE status = 'PENDING' AND channel = ? AND next_attempt_at <= NOW(3) " +
+                        "ORDER BY next_attempt_at, outbox_id LIMIT ? FOR UPDATE SKIP LOCKED")) {
+                    ps.setString(1, channel);
+                    ps.setInt(2, batchSize);
+                    try (ResultSet rs = ps.executeQuery()) {
+                        while (rs.next()) ids.add(rs.getLong(1));
+                    }
+                }
+                if (!ids.isEmpty()) {
+                    try (PreparedStatement ps = conn.prepareStatement(
+                            "UPDATE notification_outbox SET status = 'SENDING', locked_by = ?, locked_at = NOW(3), " +
+                            "attempts = attempts + 1 WHERE outbox_id IN (" + placeholders(ids.size()) + ")")) {
+                        ps.setString(1, workerId);
+                        for (int i = 0; i < ids.size(); i++) ps.setLong(i + 2, ids.get(i));
+                        ps.executeUpdate();
+                    }
+                }
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
+            if (ids.isEmpty()) return Collections.emptyList();
+
+            List<Delivery> batch = new ArrayList<>(ids.size());
+            try (PreparedStatement ps = conn.prepareStatement(
+                    "SELECT o.outbox_id, o.attempts, n.notification_id, n.user_id, n.title, n.message, " +
+                    "u.name, u.email, u.phone " +
+                    "FROM notification_outbox o " +
+                    "JOIN notifications n ON n.notification_id = o.notification_id " +
+                    "JOIN users u ON u.user_id = n.user_id " +
+                    "WHERE o.outbox_id IN (" + placeholders(ids.size()) + ") ORDER BY o.outbox_id")) {
+                for (int i = 0; i < ids.size(); i++) ps.setLong(i + 1, ids.get(i));
+                try (ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) {
+                        batch.add(new Delivery(rs.getLong(1), rs.getInt(3), rs.getInt(4), rs.getString(7),
+                                rs.getString(8), rs.getString(9), rs.getString(5), rs.getString(6), rs.getInt(2)));
+                    }
+                }
+            }
+            return batch;
+        }
+    }
+
+    private void settle(List<Delivery> batch, Result result) throws SQLException {
+        List<Long> ok = new ArrayList<>();
+        for (Delivery d : batch) {
+            if (!result.retry.containsKey(d.outboxId) && !result.rejected.containsKey(d.outboxId)) ok.add(d.outboxId);
+        }
+
+        try (Connection conn = db()) {
+            conn.setAutoCommit(false);
+            try {
+                if (!ok.isEmpty()) {
+                    try (PreparedStatement ps = conn.prepareStatement(
+                            "UPDATE notification_outbox SET status = 'SENT', sent_at = NOW(3), locked_by = NULL, " +
+                            "last_error = NULL WHERE outbox_id IN (" + placeholders(ok.size()) + ")")) {
+                        for (int i = 0; i < ok.size(); i++) ps.setLong(i + 1, ok.get(i));
+                        ps.executeUpdate();
+                    }
+                }
+                if (!result.retry.isEmpty() || !result.rejected.isEmpty()) {
+                    try (PreparedStatement ps = conn.prepareStatement(
+                            "UPDATE notification_outbox SET status = ?, next_attempt_at = NOW(3) + INTERVAL ? SECOND, " +
+                            "locked_by = NULL, last_error = ? WHERE outbox_id = ?")) {
+                        for (Delivery d : batch) {
+                            String rejected = result.rejected.get(d.outboxId);
+                            String error = rejected != null ? rejected : result.retry.get(d.outboxId);
+                            if (error == null) continue;
+                            boolean giveUp = rejected != null || d.attempt >= maxAttempts;
+                            ps.setString(1, giveUp ? "DEAD" : "PENDING");
+                            ps.setLong(2, giveUp ? 0 : backoffSeconds(d.attempt));
+                            ps.setString(3, error.length() > 500 ? error.substring(0, 500) : error);
+                            ps.setLong(4, d.outboxId);
+                            ps.addBatch();
+                            (giveUp ? dead : retried).incrementAndGet();
+                        }
+                        ps.executeBatch();
+                    }
+                }
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
+        }
+        sent.addAndGet(ok.size());
+    }
+
+    /** SENDING rows whose worker has been silent for STALE_MINUTES go back to PENDING. */
+    private void reclaimStale() throws SQLException {
+        try (Connection conn = db(); PreparedStatement ps = conn.prepareStatement(
+                "UPDATE notification_outbox SET status = 'PENDING', locked_by = NULL " +
+                "WHERE status = 'SENDING' AND locked_at < NOW(3) - INTERVAL ? MINUTE")) {
+            ps.setInt(1, STALE_MINUTES);
+            ps.executeUpdate();
+        }
+    }
+
+    /** Put DEAD rows of a channel back in the queue (e.g. after fixing a gateway). Returns rows requeued. */
+    public int requeueDead(String channel) throws SQLException {
+        try (Connection conn = db(); PreparedStatement ps = conn.prepareStatement(
+                "UPDATE notification_outbox SET status = 'PENDING', attempts = 0, next_attempt_at = NOW(3), " +
+                "last_error = NULL WHERE status = 'DEAD' AND channel = ?")) {
+            ps.setString(1, channel);
+            return ps.executeUpdate();
+        }
+    }
+
+    // ──── Helpers ────
+
+    /** 30s, 60s, 120s ... capped at an hour, plus up to 20% jitter so retries don't arrive in lockstep. */
+    static long backoffSeconds(int attempt) {
+        long base = Math.min(MAX_BACKOFF_SECONDS, BASE_BACKOFF_SECONDS << Math.min(20, Math.max(0, attempt - 1)));
+        return base + ThreadLocalRandom.current().nextLong(base / 5 + 1);
+    }
+
+    private static String placeholders(int n) {
+        return String.join(", ", Collections.nCopies(n, "?"));
+    }
+
+    private Connection db() throws SQLException {
+        return DatabaseConfig.getInstance().getConnection();
+    }
+}
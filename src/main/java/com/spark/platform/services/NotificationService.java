@@ -0,0 +1,285 @@
+package com.spark.platform.services;
+
+import com.spark.platform.config.DatabaseConfig;
+import com.spark.platform.models.Notification;
+
+import java.sql.*;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.BiConsumer;
+
+/**
+ * Service layer for in-app notifications.
+ *
+ * Fan-out: one notification to many users is one multi-row INSERT per FANOUT_CHUNK
+ * recipients, not one statement per user. SMS and e-mail notifications also get a
+ * notification_outbox row each in the same transaction; NotificationDispatcher delivers
+ * them later, so the caller never waits on a gateway.
+ *
+ * Unread counts: kept per user in an in-memory cache that every write and read through
+ * this service adjusts, so the navbar badge is a map lookup. A count is loaded with one
+ * COUNT(*) (idx_notifications_user_read_created finds the user's unread rows; status is
+ * checked on each) on first use, and again by getUnreadCount once it is COUNT_TTL_MILLIS
+ * old. Other users send from their own app instances, which this cache never sees, so the
+ * shell also calls refreshUnreadCount every COUNT_TTL_MILLIS and before opening the list.
+ */
+public class NotificationService {
+
+    /** Recipients per INSERT; keeps the statement well under max_allowed_packet. */
+    private static final int FANOUT_CHUNK = 1000;
+    /** How long a cached unread count is trusted; also how often the shell polls the badge. */
+    public static final long COUNT_TTL_MILLIS = 60_000;
+
+    private static final Map<Integer, UnreadCount> UNREAD = new ConcurrentHashMap<>();
+    private static final List<BiConsumer<Integer, Integer>> LISTENERS = new CopyOnWriteArrayList<>();
+
+    // ──── Fan-out ────
+
+    public static final String IN_APP = "IN_APP";
+    public static final String SMS = "SMS";
+    public static final String EMAIL = "EMAIL";
+
+    /** Send the same in-app notification to every user in userIds (duplicates are ignored). Returns rows written. */
+    public int notifyUsers(Collection<Integer> userIds, String title, String message,
+                           String relatedType, Integer relatedId) throws SQLException {
+        return send(userIds, IN_APP, title, message, relatedType, relatedId);
+    }
+
+    /**
+     * Send the same notification over one channel (IN_APP, SMS or EMAIL) to every user in
+     * userIds. SMS / EMAIL are queued in notification_outbox and delivered asynchronously.
+     * Returns the number of notifications written.
+     */
+    public int send(Collection<Integer> userIds, String channel, String title, String message,
+                    String relatedType, Integer relatedId) throws SQLException {
+        List<Integer> recipients = new ArrayList<>(new LinkedHashSet<>(userIds));
+        if (recipients.isEmpty()) return 0;
+
+        int written = 0;
+        try (Connection conn = db()) {
+            conn.setAutoCommit(false);
+            try {
+                for (int from = 0; from < recipients.size(); from += FANOUT_CHUNK) {
+                    List<Integer> chunk = recipients.subList(from, Math.min(recipients.size(), from + FANOUT_CHUNK));
+                    List<Integer> ids = insertChunk(conn, chunk, channel, title, message, relatedType, relatedId);
+                    if (!IN_APP.equals(channel)) enqueueDelivery(conn, ids, channel);
+                    written += ids.size();
+                }
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
+        }
+        for (int userId : recipients) adjustUnread(userId, 1);
+        return written;
+    }
+
+    /** Notify every active student of a classroom. */
+    public int notifyClassroom(int classroomId, String title, String message,
+                               String relatedType, Integer relatedId) throws SQLException {
+        return notifyUsers(findIds(
+                "SELECT user_id FROM users WHERE classroom_id = ? AND user_type = 'STUDENT' AND status = 'ACTIVE'",
+                classroomId), title, message, relatedType, relatedId);
+    }
+
+    /** Notify every member of a project, except excludeUserId (usually whoever caused it; may be null). */
+    public int notifyProjectMembers(int projectId, Integer excludeUserId, String title, String message,
+                                    String relatedType, Integer relatedId) throws SQLException {
+        List<Integer> members = findIds("SELECT user_id FROM project_members WHERE project_id = ?", projectId);
+        if (excludeUserId != null) members.remove(excludeUserId);
+        return notifyUsers(members, title, message, relatedType, relatedId);
+    }
+
+    /** One multi-row INSERT; returns the new notification ids. */
+    private List<Integer> insertChunk(Connection conn, List<Integer> userIds, String channel, String title,
+                                      String message, String relatedType, Integer relatedId) throws SQLException {
+        StringBuilder sql = new StringBuilder(
+                "INSERT INTO notifications (user_id, title, message, type, related_type, related_id) VALUES ");
+        for (int i = 0; i < userIds.size(); i++) {
+            sql.append(i == 0 ? "(?, ?, ?, ?, ?, ?)" : ", (?, ?, ?, ?, ?, ?)");
+        }
+        List<Integer> ids = new ArrayList<>(userIds.size());
+        try (PreparedStatement ps = conn.prepareStatement(sql.toString(), Statement.RETURN_GENERATED_KEYS)) {
+            int p = 1;
+            for (int userId : userIds) {
+                ps.setInt(p++, userId);
+                ps.setString(p++, title);
+                ps.setString(p++, message);
+                ps.setString(p++, channel);
+                ps.setString(p++, relatedType);
+                if (relatedId == null) ps.setNull(p++, Types.INTEGER);
+                else ps.setInt(p++, relatedId);
+            }
+            ps.executeUpdate();
+            try (ResultSet keys = ps.getGeneratedKeys()) {
+                while (keys.next()) ids.add(keys.getInt(1));
+            }
+        }
+        return ids;
+    }
+
+    /** One outbox row per notification, due now; see NotificationDispatcher. */
+    private void enqueueDelivery(Connection conn, List<Integer> notificationIds, String channel) throws SQLException {
+        if (notificationIds.isEmpty()) return;
+        StringBuilder sql = new StringBuilder("INSERT INTO notification_outbox (notification_id, channel) VALUES ");
+        for (int i = 0; i < notificationIds.size(); i++) {
+            sql.append(i == 0 ? "(?, ?)" : ", (?, ?)");
+        }
+        try (PreparedStatement ps = conn.prepareStatement(sql.toString())) {
+            int p = 1;
+            for (int id : notificationIds) {
+                ps.setInt(p++, id);
+                ps.setString(p++, channel);
+            }
+            ps.executeUpdate();
+        }
+    }
+
+    // ──── Reading ────
+
+    /** Unread notifications for the badge; served from the cache after the first call. */
+    public int getUnreadCount(int userId) throws SQLException {
+        UnreadCount cached = UNREAD.get(userId);
+        if (cached != null && System.currentTimeMillis() - cached.loadedAt < COUNT_TTL_MILLIS) {
+            return cached.value();
+        }
+        return refreshUnreadCount(userId);
+    }
+
+    /** Re-read the unread count from the database, whatever the cache holds, and notify listeners. */
+    public int refreshUnreadCount(int userId) throws SQLException {
+        String sql = "SELECT COUNT(*) FROM notifications WHERE user_id = ? AND is_read = 0 AND status = 'ACTIVE'";
+        int count;
+        try (Connection conn = db(); PreparedStatement ps = conn.prepareStatement(sql)) {
+            ps.setInt(1, userId);
+            try (ResultSet rs = ps.executeQuery()) {
+                count = rs.next() ? rs.getInt(1) : 0;
+            }
+        }
+        UNREAD.put(userId, new UnreadCount(count));
+        fire(userId, count);
+        return count;
+    }
+
+    /** Newest notifications for a user, read and unread. */
+    public List<Notification> findRecent(int userId, int limit) throws SQLException {
+        String sql = "SELECT * FROM notifications WHERE user_id = ? AND status = 'ACTIVE' " +
+                     "ORDER BY created_at DESC, notification_id DESC LIMIT ?";
+        List<Notification> list = new ArrayList<>();
+        try (Connection conn = db(); PreparedStatement ps = conn.prepareStatement(sql)) {
+            ps.setInt(1, userId);
+            ps.setInt(2, limit);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    list.add(mapRow(rs));
+                }
+            }
+        }
+        return list;
+    }
+
+    // ──── Marking read ────
+
+    /** Mark one notification read. Only a row that actually flips from unread lowers the count. */
+    public void markRead(int notificationId, int userId) throws SQLException {
+        String sql = "UPDATE notifications SET is_read = 1 WHERE notification_id = ? AND user_id = ? AND is_read = 0 " +
+                     "AND status = 'ACTIVE'";
+        int changed;
+        try (Connection conn = db(); PreparedStatement ps = conn.prepareStatement(sql)) {
+            ps.setInt(1, notificationId);
+            ps.setInt(2, userId);
+            changed = ps.executeUpdate();
+        }
+        if (changed > 0) adjustUnread(userId, -changed);
+    }
+
+    /**
+     * Mark everything read for a user with one UPDATE. Returns the number of rows changed.
+     * Like the count, only ACTIVE notifications are touched.
+     */
+    public int markAllRead(int userId) throws SQLException {
+        String sql = "UPDATE notifications SET is_read = 1 WHERE user_id = ? AND is_read = 0 AND status = 'ACTIVE'";
+        int changed;
+        try (Connection conn = db(); PreparedStatement ps = conn.prepareStatement(sql)) {
+            ps.setInt(1, userId);
+            changed = ps.executeUpdate();
+        }
+        UNREAD.put(userId, new UnreadCount(0));
+        fire(userId, 0);
+        return changed;
+    }
+
+    // ──── Badge listeners ────
+
+    /** Called with (userId, unreadCount) whenever a cached count changes, on the writer's thread. */
+    public static void addUnreadListener(BiConsumer<Integer, Integer> listener) {
+        LISTENERS.add(listener);
+    }
+
+    public static void removeUnreadListener(BiConsumer<Integer, Integer> listener) {
+        LISTENERS.remove(listener);
+    }
+
+    /** Users without a cached count are left alone; their first getUnreadCount loads it. */
+    private static void adjustUnread(int userId, int delta) {
+        UnreadCount c = UNREAD.get(userId);
+        if (c == null) return;
+        fire(userId, c.add(delta));
+    }
+
+    private static void fire(int userId, int count) {
+        for (BiConsumer<Integer, Integer> l : LISTENERS) l.accept(userId, count);
+    }
+
+    // ──── Helpers ────
+    private Connection db() throws SQLException {
+        return DatabaseConfig.getInstance().getConnection();
+    }
+
+    private List<Integer> findIds(String sql, int param) throws SQLException {
+        List<Integer> ids = new ArrayList<>();
+        try (Connection conn = db(); PreparedStatement ps = conn.prepareStatement(sql)) {
+            ps.setInt(1, param);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) ids.add(rs.getInt(1));
+            }
+        }
+        return ids;
+    }
+
+    private Notification mapRow(ResultSet rs) throws SQLException {
+        Notification n = new Notification();
+        n.setNotificationId(rs.getInt("notification_id"));
+        n.setUserId(rs.getInt("user_id"));
+        n.setTitle(rs.getString("title"));
+        n.setMessage(rs.getString("message"));
+        n.setType(rs.getString("type"));
+        n.setRelatedType(rs.getString("related_type"));
+        int relatedId = rs.getInt("related_id");
+        n.setRelatedId(rs.wasNull() ? null : relatedId);
+        n.setRead(rs.getBoolean("is_read"));
+        n.setStatus(rs.getString("status"));
+        n.setCreatedAt(rs.getTimestamp("created_at"));
+        return n;
+    }
+
+    private static final class UnreadCount {
+        private int value;
+        final long loadedAt = System.currentTimeMillis();
+
+        UnreadCount(int value) {
+            this.value = value;
+        }
+
+        synchronized int value() {
+            return value;
+        }
+
+        synchronized int add(int delta) {
+            value = Math.max(0, value + delta);
+            return value;
+        }
+    }
+}
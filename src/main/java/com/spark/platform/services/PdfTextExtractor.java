@@ -0,0 +1,316 @@
+package com.spark.platform.services;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+/**
+ * Dependency-free PDF text extraction, good enough for search and page counts.
+ *
+ * Reads every object (including those packed in object streams), walks the page tree
+ * from the catalog for page order, inflates each page's content streams and collects
+ * the strings shown by Tj / TJ / ' / ". Page counts are exact. Text is reliable for
+ * PDFs with simple (single-byte) fonts, which covers most exported slides and notes;
+ * CID-keyed fonts without a usable encoding come out empty. A full PDF library can
+ * replace this class without touching the pipeline.
+ */
+public class PdfTextExtractor implements TextExtractor {
+
+    private static final Pattern OBJ = Pattern.compile("(\\d+)\\s+\\d+\\s+obj\\b");
+    private static final Pattern REF = Pattern.compile("(\\d+)\\s+\\d+\\s+R");
+    private static final Pattern TYPE_PAGE = Pattern.compile("/Type\\s*/Page(?![a-zA-Z])");
+    private static final Pattern TYPE_CATALOG = Pattern.compile("/Type\\s*/Catalog\\b");
+    private static final Pattern TYPE_OBJSTM = Pattern.compile("/Type\\s*/ObjStm\\b");
+
+    @Override
+    public boolean supports(String fileName) {
+        return TextExtractor.hasExtension(fileName, "pdf");
+    }
+
+    @Override
+    public List<String> extractPages(Path file) throws IOException {
+        byte[] bytes = Files.readAllBytes(file);
+        String raw = new String(bytes, StandardCharsets.ISO_8859_1); // one char per byte
+        if (!raw.startsWith("%PDF")) throw new IOException("Not a PDF file");
+
+        Map<Integer, PdfObject> objects = readObjects(raw);
+        List<PdfObject> pages = pagesInOrder(objects);
+        List<String> texts = new ArrayList<>(pages.size());
+        for (PdfObject page : pages) {
+            StringBuilder text = new StringBuilder();
+            for (int ref : contentRefs(page.dict)) {
+                PdfObject content = objects.get(ref);
+                if (content == null || content.stream == null) continue;
+                byte[] data = decode(content);
+                if (data != null) showText(new String(data, StandardCharsets.ISO_8859_1), text);
+            }
+            texts.add(text.toString().replace('\f', ' ').trim());
+        }
+        return texts;
+    }
+
+    // ──── Objects ────
+
+    private static final class PdfObject {
+        final String dict;      // everything before "stream", or the whole body
+        final String stream;    // raw stream bytes as ISO-8859-1, or null
+
+        PdfObject(String dict, String stream) {
+            this.dict = dict;
+            this.stream = stream;
+        }
+    }
+
+    private Map<Integer, PdfObject> readObjects(String raw) {
+        Map<Integer, PdfObject> objects = new HashMap<>();
+        Matcher m = OBJ.matcher(raw);
+        int searchFrom = 0;
+        while (m.find(searchFrom)) {
+            int number = Integer.parseInt(m.group(1));
+            int bodyStart = m.end();
+            int end = raw.indexOf("endobj", bodyStart);
+            if (end < 0) break;
+            String body = raw.substring(bodyStart, end);
+            int streamAt = body.indexOf("stream");
+            PdfObject obj;
+            if (streamAt >= 0 && body.lastIndexOf("endstream") > streamAt) {
+                int dataStart = streamAt + 6;
+                if (body.startsWith("\r\n", dataStart)) dataStart += 2;
+                else if (body.charAt(dataStart) == '\n' || body.charAt(dataStart) == '\r') dataStart++;
+                int dataEnd = body.lastIndexOf("endstream");
+                Integer length = directInt(body.substring(0, streamAt), "/Length");
+                if (length != null && dataStart + length <= dataEnd) dataEnd = dataStart + length;
+                obj = new PdfObject(body.substring(0, streamAt), body.substring(dataStart, dataEnd));
+            } else {
+                obj = new PdfObject(body, null);
+            }
+            objects.put(number, obj); // later revisions (incremental updates) win
+            searchFrom = end + 6;
+        }
+
+        // Objects packed in object streams (PDF 1.5+): "num offset" pairs, then the objects.
+        for (PdfObject obj : new ArrayList<>(objects.values())) {
+            if (obj.stream == null || !TYPE_OBJSTM.matcher(obj.dict).find()) continue;
+            byte[] data = decode(obj);
+            Integer count = directInt(obj.dict, "/N");
+            Integer first = directInt(obj.dict, "/First");
+            if (data == null || count == null || first == null) continue;
+            String s = new String(data, StandardCharsets.ISO_8859_1);
+            String[] header = s.substring(0, Math.min(first, s.length())).trim().split("\\s+");
+            for (int i = 0; i + 1 < header.length && i / 2 < count; i += 2) {
+                int number = Integer.parseInt(header[i]);
+                int from = first + Integer.parseInt(header[i + 1]);
+                int to = i + 3 < header.length ? first + Integer.parseInt(header[i + 3]) : s.length();
+                if (from <= to && to <= s.length()) objects.putIfAbsent(number, new PdfObject(s.substring(from, to), null));
+            }
+        }
+        return objects;
+    }
+
+    /** Pages in reading order via Catalog → /Pages → /Kids; file order if the tree can't be followed. */
+    private List<PdfObject> pagesInOrder(Map<Integer, PdfObject> objects) {
+        List<PdfObject> pages = new ArrayList<>();
+        for (PdfObject obj : objects.values()) {
+            if (!TYPE_CATALOG.matcher(obj.dict).find()) continue;
+            Integer root = refAfter(obj.dict, "/Pages");
+            if (root != null) collectPages(objects, root, pages, new HashSet<>());
+            if (!pages.isEmpty()) return pages;
+        }
+        List<Integer> numbers = new ArrayList<>(objects.keySet());
+        Collections.sort(numbers);
+        for (int n : numbers) {
+            if (TYPE_PAGE.matcher(objects.get(n).dict).find()) pages.add(objects.get(n));
+        }
+        return pages;
+    }
+
+    private void collectPages(Map<Integer, PdfObject> objects, int number, List<PdfObject> out, Set<Integer> seen) {
+        PdfObject node = objects.get(number);
+        if (node == null || !seen.add(number)) return;
+        if (TYPE_PAGE.matcher(node.dict).find()) {
+            out.add(node);
+            return;
+        }
+        int kids = node.dict.indexOf("/Kids");
+        if (kids < 0) return;
+        int open = node.dict.indexOf('[', kids);
+        int close = node.dict.indexOf(']', open);
+        if (open < 0 || close < 0) return;
+        Matcher m = REF.matcher(node.dict.substring(open + 1, close));
+        while (m.find()) collectPages(objects, Integer.parseInt(m.group(1)), out, seen);
+    }
+
+    private List<Integer> contentRefs(String pageDict) {
+        List<Integer> refs = new ArrayList<>();
+        int at = pageDict.indexOf("/Contents");
+        if (at < 0) return refs;
+        String rest = pageDict.substring(at + 9).trim();
+        if (rest.startsWith("[")) {
+            Matcher m = REF.matcher(rest.substring(1, Math.max(1, rest.indexOf(']'))));
+            while (m.find()) refs.add(Integer.parseInt(m.group(1)));
+        } else {
+            Matcher m = REF.matcher(rest);
+            if (m.lookingAt()) refs.add(Integer.parseInt(m.group(1)));
+        }
+        return refs;
+    }
+
+    /** Stream data with FlateDecode undone; null for filters we don't handle (images etc.). */
+    private byte[] decode(PdfObject obj) {
+        byte[] data = obj.stream.getBytes(StandardCharsets.ISO_8859_1);
+        if (!obj.dict.contains("/Filter")) return data;
+        if (!obj.dict.contains("/FlateDecode") || obj.dict.contains("/DCTDecode")) return null;
+        Inflater inflater = new Inflater();
+        inflater.setInput(data);
+        ByteArrayOutputStream out = new ByteArrayOutputStream(data.length * 4);
+        byte[] buf = new byte[16 * 1024];
+        try {
+            while (!inflater.finished()) {
+                int n = inflater.inflate(buf);
+                if (n == 0 && (inflater.needsInput() || inflater.needsDictionary())) break;
+                out.write(buf, 0, n);
+            }
+        } catch (DataFormatException e) {
+            // Keep whatever inflated before the damage.
+        } finally {
+            inflater.end();
+        }
+        return out.toByteArray();
+    }
+
+    // ──── Content streams ────
+
+    /** Append the text shown by a content stream; line moves become newlines, wide TJ gaps spaces. */
+    private void showText(String ops, StringBuilder out) {
+        List<String> pending = new ArrayList<>();   // strings since the last operator
+        int i = 0, n = ops.length();
+        while (i < n) {
+            char c = ops.charAt(i);
+            if (c == '(') {
+                StringBuilder s = new StringBuilder();
+                i = literalString(ops, i + 1, s);
+                pending.add(s.toString());
+            } else if (c == '<' && i + 1 < n && ops.charAt(i + 1) != '<') {
+                int end = ops.indexOf('>', i);
+                if (end < 0) break;
+                pending.add(hexString(ops.substring(i + 1, end)));
+                i = end + 1;
+            } else if (c == '%') {
+                while (i < n && ops.charAt(i) != '\n' && ops.charAt(i) != '\r') i++;
+            } else if (c == '[' || c == ']') {
+                i++;
+            } else if (c == '-' || c == '.' || Character.isDigit(c)) {
+                int start = i++;
+                while (i < n && (Character.isDigit(ops.charAt(i)) || ops.charAt(i) == '.')) i++;
+                // Inside a TJ array a large negative adjustment is a word gap.
+                if (c == '-' && !pending.isEmpty()) {
+                    try {
+                        if (Double.parseDouble(ops.substring(start, i)) < -200) pending.add(" ");
+                    } catch (NumberFormatException ignored) {
+                        // not a number after all
+                    }
+                }
+            } else if (Character.isLetter(c) || c == '\'' || c == '"' || c == '*') {
+                int start = i++;
+                while (i < n && (Character.isLetter(ops.charAt(i)) || ops.charAt(i) == '*')) i++;
+                String op = ops.substring(start, i);
+                switch (op) {
+                    case "Tj": case "TJ":
+                        for (String s : pending) out.append(s);
+                        break;
+                    case "'": case "\"":
+                        newline(out);
+                        for (String s : pending) out.append(s);
+                        break;
+                    case "Td": case "TD": case "T*": case "ET":
+                        newline(out);
+                        break;
+                    default:
+                        break;
+                }
+                pending.clear();
+            } else {
+                i++;
+            }
+        }
+    }
+
+    private static void newline(StringBuilder out) {
+        if (out.length() > 0 && out.charAt(out.length() - 1) != '\n') out.append('\n');
+    }
+
+    /** Read a (...) string starting after the paren; returns the index after the closing paren. */
+    private static int literalString(String ops, int i, StringBuilder s) {
+        int depth = 1;
+        while (i < ops.length()) {
+            char c = ops.charAt(i++);
+            if (c == '\\' && i < ops.length()) {
+                char e = ops.charAt(i++);
+                switch (e) {
+                    case 'n': s.append('\n'); break;
+                    case 'r': s.append('\r'); break;
+                    case 't': s.append('\t'); break;
+                    case 'b': case 'f': break;
+                    case '\r': case '\n': break; // line continuation
+                    default:
+                        if (e >= '0' && e <= '7') {
+                            int v = e - '0';
+                            for (int k = 0; k < 2 && i < ops.length() && ops.charAt(i) >= '0' && ops.charAt(i) <= '7'; k++) {
+                                v = v * 8 + (ops.charAt(i++) - '0');
+                            }
+                            appendPrintable(s, (char) (v & 0xFF));
+                        } else {
+                            s.append(e);
+                        }
+                }
+            } else if (c == '(') {
+                depth++;
+                s.append(c);
+            } else if (c == ')') {
+                if (--depth == 0) break;
+                s.append(c);
+            } else {
+                appendPrintable(s, c);
+            }
+        }
+        return i;
+    }
+
+    private static String hexString(String hex) {
+        StringBuilder s = new StringBuilder();
+        String digits = hex.replaceAll("\\s", "");
+        for (int i = 0; i + 1 < digits.length(); i += 2) {
+            try {
+                appendPrintable(s, (char) Integer.parseInt(digits.substring(i, i + 2), 16));
+            } catch (NumberFormatException e) {
+                return "";
+            }
+        }
+        return s.toString();
+    }
+
+    private static void appendPrintable(StringBuilder s, char c) {
+        if (c >= 0x20 && c != 0x7F || c == '\n' || c == '\t') s.append(c);
+    }
+
+    // ──── Dictionary helpers ────
+
+    /** A direct integer value, or null when the value is an indirect reference ("/Length 12 0 R"). */
+    private static Integer directInt(String dict, String key) {
+        // Possessive: a plain \d+ would back off to "1" in "/Length 12 0 R" and pass the lookahead.
+        Matcher m = Pattern.compile(Pattern.quote(key) + "\\s+(\\d++)(?!\\s+\\d+\\s+R)").matcher(dict);
+        return m.find() ? Integer.valueOf(m.group(1)) : null;
+    }
+
+    private static Integer refAfter(String dict, String key) {
+        Matcher m = Pattern.compile(Pattern.quote(key) + "\\s+(\\d+)\\s+\\d+\\s+R").matcher(dict);
+        return m.find() ? Integer.valueOf(m.group(1)) : null;
+    }
+}
@@ -0,0 +1,25 @@
+package com.spark.platform.services;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * Plain text, Markdown and CSV: pages are separated by form feeds, as written by
+ * pdftotext and most exporters; text without any becomes CHUNK_CHARS-sized pages.
+ */
+public class PlainTextExtractor implements TextExtractor {
+
+    @Override
+    public boolean supports(String fileName) {
+        return TextExtractor.hasExtension(fileName, "txt", "text", "md", "markdown", "csv");
+    }
+
+    @Override
+    public List<String> extractPages(Path file) throws IOException {
+        // Lenient decoding: a stray Latin-1 byte becomes U+FFFD instead of failing the upload.
+        return MaterialSearchIndex.splitPages(new String(Files.readAllBytes(file), StandardCharsets.UTF_8), null);
+    }
+}
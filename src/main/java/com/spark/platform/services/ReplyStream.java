@@ -0,0 +1,122 @@
+package com.spark.platform.services;
+
+import com.spark.platform.models.ChatMessage;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * One AI reply being generated into a STREAMING chat message (see ChatService.startReply).
+ *
+ * Tokens are appended in memory on the generator thread. The row is saved every
+ * SAVE_EVERY_MILLIS or SAVE_EVERY_CHARS, whichever comes first, so a reply of a few
+ * hundred tokens costs a handful of UPDATEs instead of one per token, and a crash loses at
+ * most a second of text. The final save sets DONE, or INTERRUPTED when generation failed or
+ * was cancelled.
+ *
+ * Readers poll getVersion()/getText() at their own pace — the chat view once per frame —
+ * so the UI never sees more updates than it can draw, however fast tokens arrive.
+ */
+public class ReplyStream {
+
+    private static final long SAVE_EVERY_MILLIS = 1000;
+    private static final int SAVE_EVERY_CHARS = 512;
+
+    private final ChatService chatService;
+    private final ChatModel model;
+    private final List<ChatMessage> conversation;
+    private final ChatMessage reply;
+
+    private final StringBuilder text = new StringBuilder();
+    private volatile long version;
+    private volatile String status = ChatService.STREAMING;
+    private volatile boolean cancelled;
+    private volatile int saves;
+
+    // Generator thread only
+    private long lastSaveAt;
+    private int savedLength;
+
+    public ReplyStream(ChatService chatService, ChatModel model, List<ChatMessage> conversation, ChatMessage reply) {
+        this.chatService = chatService;
+        this.model = model;
+        this.conversation = new ArrayList<>(conversation);
+        this.reply = reply;
+    }
+
+    public void start() {
+        Thread t = new Thread(this::run, "chat-reply-" + reply.getMessageId());
+        t.setDaemon(true);
+        t.start();
+    }
+
+    /** Stop generating; what has been written so far is kept as INTERRUPTED. */
+    public void cancel() {
+        cancelled = true;
+    }
+
+    public ChatMessage getReply() { return reply; }
+    /** Bumped on every token and once more when the stream finishes. */
+    public long getVersion() { return version; }
+    public String getStatus() { return status; }
+    public boolean isFinished() { return !ChatService.STREAMING.equals(status); }
+    /** Number of database writes so far, partial and final. */
+    public int getSaveCount() { return saves; }
+
+    public String getText() {
+        synchronized (text) {
+            return text.toString();
+        }
+    }
+
+    private void run() {
+        lastSaveAt = System.currentTimeMillis();
+        String finalStatus;
+        try {
+            model.generate(conversation, this::onToken);
+            finalStatus = cancelled ? ChatService.INTERRUPTED : ChatService.DONE;
+        } catch (Exception e) {
+            System.err.println("Reply " + reply.getMessageId() + " failed: " + e.getMessage());
+            finalStatus = ChatService.INTERRUPTED;
+        }
+        String finalText = getText();
+        try {
+            save(finalText, finalStatus);
+        } catch (SQLException e) {
+            System.err.println("Could not save reply " + reply.getMessageId() + ": " + e.getMessage());
+        }
+        reply.setContent(finalText);
+        reply.setStatus(finalStatus);
+        status = finalStatus;
+        version++;
+    }
+
+    private boolean onToken(String token) {
+        if (cancelled) return false;
+        int length;
+        synchronized (text) {
+            text.append(token);
+            length = text.length();
+        }
+        version++;
+
+        long now = System.currentTimeMillis();
+        if (now - lastSaveAt >= SAVE_EVERY_MILLIS || length - savedLength >= SAVE_EVERY_CHARS) {
+            try {
+                save(getText(), ChatService.STREAMING);
+            } catch (SQLException e) {
+                // Keep generating; the next partial or the final save catches up.
+                System.err.println("Partial save of reply " + reply.getMessageId() + " failed: " + e.getMessage());
+            }
+            lastSaveAt = now;
+            savedLength = length;
+        }
+        return !cancelled;
+    }
+
+    private void save(String content, String status) throws SQLException {
+        chatService.saveReply(reply.getMessageId(), content, status);
+        saves++;
+    }
+}
@@ -4,14 +4,23 @@ import com.spark.platform.config.DatabaseConfig;
 import com.spark.platform.models.Sprint;
 
 import java.sql.*;
+import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
 
 /**
- * Read-only service for Sprints (used by the Project Board sprint selector).
+ * Service for Sprints (Project Board sprint selector, sprint creation, semester set-up,
+ * end-of-sprint rollover).
+ * Sprint numbers are allocated atomically per project; see allocateNumbers.
  */
 public class SprintService {
 
+    private static final int MAX_ATTEMPTS = 3;
+
     private final DatabaseConfig db = DatabaseConfig.getInstance();
 
     public List<Sprint> findByProject(int projectId) throws SQLException {
@@ -43,31 +52,69 @@ public class SprintService {
     }
 
     // ──── CREATE ────
+
+    /**
+     * Insert a sprint with the project's next sprint number, allocated in the same
+     * transaction (see allocateNumbers). The number on the passed sprint is ignored and
+     * overwritten with the one actually assigned.
+     */
     public Sprint create(Sprint sprint) throws SQLException {
-        String sql = "INSERT INTO sprints (project_id, sprint_number, title, start_date, end_date, goal, status) " +
-                     "VALUES (?, ?, ?, ?, ?, ?, ?)";
+        inTransaction(conn -> {
+            int number = allocateNumbers(conn, sprint.getProjectId());
+            sprint.setSprintNumber(number);
+            insertAll(conn, List.of(sprint));
+            return null;
+        });
+        return sprint;
+    }
 
-        try (Connection conn = db.getConnection();
-             PreparedStatement ps = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
-            ps.setInt(1, sprint.getProjectId());
-            ps.setInt(2, sprint.getSprintNumber());
-            ps.setString(3, sprint.getTitle());
-            ps.setDate(4, sprint.getStartDate());
-            ps.setDate(5, sprint.getEndDate());
-            ps.setString(6, sprint.getGoal());
-            ps.setString(7, sprint.getStatus() != null ? sprint.getStatus() : "PLANNED");
-            ps.executeUpdate();
+    /**
+     * Create `count` back-to-back sprints for a project in one transaction, e.g. a whole
+     * semester: each lasts lengthDays, the next starts gapDays after the previous one ends,
+     * and they are titled "<titlePrefix> <number>". Returns them in order.
+     */
+    public List<Sprint> createCadence(int projectId, LocalDate firstStart, int count, int lengthDays,
+                                      int gapDays, String titlePrefix) throws SQLException {
+        return createCadence(List.of(projectId), firstStart, count, lengthDays, gapDays, titlePrefix).get(projectId);
+    }
 
-            try (ResultSet keys = ps.getGeneratedKeys()) {
-                if (keys.next()) {
-                    sprint.setSprintId(keys.getInt(1));
+    /**
+     * The same cadence for several projects (a teacher setting up a whole class) in a single
+     * transaction: either every project gets its sprints or none does. Projects are locked in
+     * id order so two overlapping bulk runs cannot deadlock.
+     */
+    public Map<Integer, List<Sprint>> createCadence(Collection<Integer> projectIds, LocalDate firstStart, int count,
+                                                    int lengthDays, int gapDays, String titlePrefix)
+            throws SQLException {
+        if (count < 1 || lengthDays < 1 || gapDays < 0) {
+            throw new IllegalArgumentException("count and lengthDays must be positive, gapDays non-negative");
+        }
+        List<Integer> ordered = new ArrayList<>(new TreeSet<>(projectIds));
+        return inTransaction(conn -> {
+            Map<Integer, List<Sprint>> created = new LinkedHashMap<>();
+            for (int projectId : ordered) {
+                int first = allocateNumbers(conn, projectId);
+                List<Sprint> sprints = new ArrayList<>(count);
+                LocalDate start = firstStart;
+                for (int i = 0; i < count; i++) {
+                    Sprint s = new Sprint();
+                    s.setProjectId(projectId);
+                    s.setSprintNumber(first + i);
+                    s.setTitle(titlePrefix + " " + (first + i));
+                    s.setStartDate(Date.valueOf(start));
+                    s.setEndDate(Date.valueOf(start.plusDays(lengthDays - 1)));
+                    s.setStatus("PLANNED");
+                    sprints.add(s);
+                    start = start.plusDays(lengthDays + gapDays);
                 }
+                insertAll(conn, sprints);
+                created.put(projectId, sprints);
             }
-        }
-        return sprint;
+            return created;
+        });
     }
 
-    /** Returns the next sprint number for a project. */
+    /** Returns the next sprint number for a project (a preview — create() allocates the real one). */
     public int getNextSprintNumber(int projectId) throws SQLException {
         String sql = "SELECT COALESCE(MAX(sprint_number), 0) + 1 FROM sprints WHERE project_id = ?";
         try (Connection conn = db.getConnection();
@@ -80,6 +127,265 @@ public class SprintService {
         return 1;
     }
 
+    // ──── ROLLOVER ────
+
+    /**
+     * End the project's ACTIVE sprint and carry its unfinished work forward, all in one
+     * transaction:
+     *   1. the active sprint becomes COMPLETED;
+     *   2. the next one is the lowest-numbered PLANNED sprint after it, or a new sprint of the
+     *      same length starting the day after it ends;
+     *   3. that sprint becomes ACTIVE and every non-DONE task moves to it with one UPDATE.
+     * The moves are logged set-wise too (task_status_history for the burndown, task_events for
+     * the Activity tab), so the cost is a handful of statements whatever the sprint size.
+     * actorId is recorded on the events and may be null.
+     */
+    public RolloverResult rollover(int projectId, Integer actorId) throws SQLException {
+        RolloverResult rolled = inTransaction(conn -> {
+            allocateNumbers(conn, projectId); // takes the project lock; the number is used only if we create
+            Sprint from = findActiveForUpdate(conn, projectId);
+            if (from == null) throw new SQLException("Project " + projectId + " has no active sprint");
+
+            Sprint to = findNextPlanned(conn, projectId, from.getSprintNumber());
+            boolean created = false;
+            if (to == null) {
+                to = nextSprintAfter(conn, from);
+                insertAll(conn, List.of(to));
+                created = true;
+            }
+
+            // Lock the tasks that move and total them up for the summary.
+            RolloverResult result = new RolloverResult(from, to, created);
+            try (PreparedStatement ps = conn.prepareStatement(
+                    "SELECT status = 'DONE', COUNT(*), COALESCE(SUM(estimated_hours), 0) FROM tasks " +
+                    "WHERE sprint_id = ? GROUP BY status = 'DONE' FOR UPDATE")) {
+                ps.setInt(1, from.getSprintId());
+                try (ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) {
+                        if (rs.getBoolean(1)) {
+                            result.doneTasks = rs.getInt(2);
+                            result.doneHours = rs.getDouble(3);
+                        } else {
+                            result.movedTasks = rs.getInt(2);
+                            result.movedHours = rs.getDouble(3);
+                        }
+                    }
+                }
+            }
+
+            if (result.movedTasks > 0) {
+                String detail = "rolled over: sprint " + from.getSprintNumber() + " → " + to.getSprintNumber();
+                executeUpdate(conn,
+                        "INSERT INTO task_status_history (task_id, project_id, sprint_id, old_status, status, estimated_hours) " +
+                        "SELECT task_id, project_id, ?, status, status, estimated_hours FROM tasks " +
+                        "WHERE sprint_id = ? AND status <> 'DONE'",
+                        to.getSprintId(), from.getSprintId());
+                try (PreparedStatement ps = conn.prepareStatement(
+                        "INSERT INTO task_events (project_id, task_id, task_title, actor_id, event_type, detail) " +
+                        "SELECT project_id, task_id, title, ?, '" + TaskEventService.MOVED + "', ? FROM tasks " +
+                        "WHERE sprint_id = ? AND status <> 'DONE'")) {
+                    if (actorId == null) ps.setNull(1, Types.INTEGER); else ps.setInt(1, actorId);
+                    ps.setString(2, detail);
+                    ps.setInt(3, from.getSprintId());
+                    ps.executeUpdate();
+                }
+                executeUpdate(conn, "UPDATE tasks SET sprint_id = ? WHERE sprint_id = ? AND status <> 'DONE'",
+                        to.getSprintId(), from.getSprintId());
+            }
+
+            executeUpdate(conn, "UPDATE sprints SET status = 'COMPLETED' WHERE sprint_id = ?", from.getSprintId());
+            executeUpdate(conn, "UPDATE sprints SET status = 'ACTIVE' WHERE sprint_id = ?", to.getSprintId());
+            from.setStatus("COMPLETED");
+            to.setStatus("ACTIVE");
+            return result;
+        });
+        // A whole sprint's worth of moves: replaying both burndowns is as cheap as catching up.
+        BurndownService.invalidate(rolled.getFrom().getSprintId());
+        BurndownService.invalidate(rolled.getTo().getSprintId());
+        return rolled;
+    }
+
+    /**
+     * Roll over many projects (e.g. every team in a class at the end of a sprint). Each project
+     * is its own short transaction, so one team's locks never hold up another's; projects
+     * without an active sprint are skipped. Results are in the order given.
+     */
+    public List<RolloverResult> rolloverAll(Collection<Integer> projectIds, Integer actorId) throws SQLException {
+        List<RolloverResult> results = new ArrayList<>();
+        for (int projectId : projectIds) {
+            if (!hasActiveSprint(projectId)) continue;
+            results.add(rollover(projectId, actorId));
+        }
+        return results;
+    }
+
+    private boolean hasActiveSprint(int projectId) throws SQLException {
+        String sql = "SELECT 1 FROM sprints WHERE project_id = ? AND status = 'ACTIVE' LIMIT 1";
+        try (Connection conn = db.getConnection(); PreparedStatement ps = conn.prepareStatement(sql)) {
+            ps.setInt(1, projectId);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next();
+            }
+        }
+    }
+
+    private Sprint findActiveForUpdate(Connection conn, int projectId) throws SQLException {
+        String sql = "SELECT * FROM sprints WHERE project_id = ? AND status = 'ACTIVE' " +
+                     "ORDER BY sprint_number LIMIT 1 FOR UPDATE";
+        try (PreparedStatement ps = conn.prepareStatement(sql)) {
+            ps.setInt(1, projectId);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next() ? mapRow(rs) : null;
+            }
+        }
+    }
+
+    private Sprint findNextPlanned(Connection conn, int projectId, int afterNumber) throws SQLException {
+        String sql = "SELECT * FROM sprints WHERE project_id = ? AND status = 'PLANNED' AND sprint_number > ? " +
+                     "ORDER BY sprint_number LIMIT 1 FOR UPDATE";
+        try (PreparedStatement ps = conn.prepareStatement(sql)) {
+            ps.setInt(1, projectId);
+            ps.setInt(2, afterNumber);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next() ? mapRow(rs) : null;
+            }
+        }
+    }
+
+    /** A new sprint with the next number and the same length as `previous`, starting the day after it. */
+    private Sprint nextSprintAfter(Connection conn, Sprint previous) throws SQLException {
+        LocalDate prevStart = previous.getStartDate() != null ? previous.getStartDate().toLocalDate() : LocalDate.now();
+        LocalDate prevEnd = previous.getEndDate() != null ? previous.getEndDate().toLocalDate() : prevStart.plusDays(13);
+        long length = Math.max(1, prevEnd.toEpochDay() - prevStart.toEpochDay() + 1);
+        LocalDate start = prevEnd.plusDays(1);
+
+        Sprint next = new Sprint();
+        next.setProjectId(previous.getProjectId());
+        next.setSprintNumber(allocateNumbers(conn, previous.getProjectId()));
+        next.setTitle("Sprint " + next.getSprintNumber());
+        next.setStartDate(Date.valueOf(start));
+        next.setEndDate(Date.valueOf(start.plusDays(length - 1)));
+        next.setStatus("PLANNED");
+        return next;
+    }
+
+    private int executeUpdate(Connection conn, String sql, int... params) throws SQLException {
+        try (PreparedStatement ps = conn.prepareStatement(sql)) {
+            for (int i = 0; i < params.length; i++) ps.setInt(i + 1, params[i]);
+            return ps.executeUpdate();
+        }
+    }
+
+    /** Summary of one rollover. */
+    public static class RolloverResult {
+        private final Sprint from;
+        private final Sprint to;
+        private final boolean createdNext;
+        private int movedTasks;
+        private double movedHours;
+        private int doneTasks;
+        private double doneHours;
+
+        RolloverResult(Sprint from, Sprint to, boolean createdNext) {
+            this.from = from;
+            this.to = to;
+            this.createdNext = createdNext;
+        }
+
+        public Sprint getFrom() { return from; }
+        public Sprint getTo() { return to; }
+        /** True if no PLANNED sprint existed and a new one was created. */
+        public boolean isCreatedNext() { return createdNext; }
+        public int getMovedTasks() { return movedTasks; }
+        public double getMovedHours() { return movedHours; }
+        public int getDoneTasks() { return doneTasks; }
+        public double getDoneHours() { return doneHours; }
+
+        @Override
+        public String toString() {
+            return "Sprint " + from.getSprintNumber() + " → " + to.getSprintNumber() + (createdNext ? " (new)" : "") +
+                    ": " + doneTasks + " done, " + movedTasks + " moved (" + movedHours + "h)";
+        }
+    }
+
+    // ──── Number allocation ────
+
+    /**
+     * Lock the project row and return its next free sprint number. Every creator takes the
+     * same lock first, so concurrent creates for one project queue up here and each sees the
+     * previous one's sprints; creates for different projects don't block each other. The lock
+     * is held until the caller's transaction ends, so the insert must happen in it too.
+     */
+    private int allocateNumbers(Connection conn, int projectId) throws SQLException {
+        try (PreparedStatement ps = conn.prepareStatement(
+                "SELECT project_id FROM projects WHERE project_id = ? FOR UPDATE")) {
+            ps.setInt(1, projectId);
+            try (ResultSet rs = ps.executeQuery()) {
+                if (!rs.next()) throw new SQLException("Project " + projectId + " does not exist");
+            }
+        }
+        try (PreparedStatement ps = conn.prepareStatement(
+                "SELECT COALESCE(MAX(sprint_number), 0) + 1 FROM sprints WHERE project_id = ?")) {
+            ps.setInt(1, projectId);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next() ? rs.getInt(1) : 1;
+            }
+        }
+    }
+
+    /** One multi-row INSERT; generated ids come back in row order. */
+    private void insertAll(Connection conn, List<Sprint> sprints) throws SQLException {
+        StringBuilder sql = new StringBuilder(
+                "INSERT INTO sprints (project_id, sprint_number, title, start_date, end_date, goal, status) VALUES ");
+        for (int i = 0; i < sprints.size(); i++) {
+            sql.append(i == 0 ? "(?, ?, ?, ?, ?, ?, ?)" : ", (?, ?, ?, ?, ?, ?, ?)");
+        }
+        try (PreparedStatement ps = conn.prepareStatement(sql.toString(), Statement.RETURN_GENERATED_KEYS)) {
+            int p = 1;
+            for (Sprint sprint : sprints) {
+                ps.setInt(p++, sprint.getProjectId());
+                ps.setInt(p++, sprint.getSprintNumber());
+                ps.setString(p++, sprint.getTitle());
+                ps.setDate(p++, sprint.getStartDate());
+                ps.setDate(p++, sprint.getEndDate());
+                ps.setString(p++, sprint.getGoal());
+                ps.setString(p++, sprint.getStatus() != null ? sprint.getStatus() : "PLANNED");
+            }
+            ps.executeUpdate();
+
+            try (ResultSet keys = ps.getGeneratedKeys()) {
+                for (Sprint sprint : sprints) {
+                    if (keys.next()) sprint.setSprintId(keys.getInt(1));
+                }
+            }
+        }
+    }
+
+    /**
+     * Run work in one transaction. A duplicate-key error (a writer that bypassed the project
+     * lock took the number, caught by uq_sprints_project_number) is retried a few times
+     * with a fresh allocation.
+     */
+    private <T> T inTransaction(TxWork<T> work) throws SQLException {
+        for (int attempt = 1; ; attempt++) {
+            try (Connection conn = db.getConnection()) {
+                conn.setAutoCommit(false);
+                try {
+                    T result = work.run(conn);
+                    conn.commit();
+                    return result;
+                } catch (SQLException | RuntimeException e) {
+                    conn.rollback();
+                    if (!(e instanceof SQLIntegrityConstraintViolationException) || attempt >= MAX_ATTEMPTS) throw e;
+                }
+            }
+        }
+    }
+
+    private interface TxWork<T> {
+        T run(Connection conn) throws SQLException;
+    }
+
     private Sprint mapRow(ResultSet rs) throws SQLException {
         Sprint s = new Sprint();
         s.setSprintId(rs.getInt("sprint_id"));
@@ -0,0 +1,300 @@
+package com.spark.platform.services;
+
+import com.spark.platform.config.DatabaseConfig;
+import com.spark.platform.models.TaskEvent;
+
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Service layer for the task activity log (table task_events, migration V5).
+ *
+ * Writes are asynchronous: record() only enqueues, and one background writer drains
+ * the queue into multi-row INSERTs (up to BATCH_SIZE rows, waiting at most
+ * LINGER_MILLIS for a batch to fill), so a burst of card moves costs one round trip
+ * instead of one per move and never adds latency to the task write itself.
+ *
+ * Reads are keyset-paged newest-first on (project_id, event_id): every page is an index
+ * range scan of `limit` rows, however deep the user scrolls.
+ */
+public class TaskEventService {
+
+    public static final String CREATED = "CREATED";
+    public static final String UPDATED = "UPDATED";
+    public static final String STATUS_CHANGED = "STATUS_CHANGED";
+    public static final String MOVED = "MOVED";
+    public static final String DELETED = "DELETED";
+
+    private static final int BATCH_SIZE = 200;
+    private static final long LINGER_MILLIS = 250;
+    private static final int QUEUE_CAPACITY = 10_000;
+    private static final int MAX_ATTEMPTS = 3;
+    /** Rows per DELETE during retention, so a big cleanup never holds long locks. */
+    private static final int DELETE_CHUNK = 5_000;
+
+    private static final BlockingQueue<TaskEvent> QUEUE = new LinkedBlockingQueue<>(QUEUE_CAPACITY);
+    private static final AtomicLong ENQUEUED = new AtomicLong();
+    private static final AtomicLong PROCESSED = new AtomicLong();
+    private static final Object WRITER_LOCK = new Object();
+    private static Thread writer;
+
+    // ──── Writing ────
+
+    /**
+     * Queue an event for the background writer. If the queue is full (the database is
+     * down or far behind) the caller writes it directly, so events are slowed, not lost.
+     */
+    public static void record(TaskEvent event) {
+        startWriter();
+        ENQUEUED.incrementAndGet();
+        if (!QUEUE.offer(event)) {
+            List<TaskEvent> single = new ArrayList<>(1);
+            single.add(event);
+            writeWithRetry(single);
+        }
+    }
+
+    /**
+     * Block until everything recorded before this call has been written (or given up on),
+     * or the timeout passes. Returns true when the log is caught up.
+     */
+    public static boolean flush(long timeoutMillis) {
+        long target = ENQUEUED.get();
+        long deadline = System.currentTimeMillis() + timeoutMillis;
+        while (PROCESSED.get() < target) {
+            if (System.currentTimeMillis() >= deadline) return false;
+            try {
+                Thread.sleep(10);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static void startWriter() {
+        synchronized (WRITER_LOCK) {
+            if (writer != null) return;
+            writer = new Thread(TaskEventService::drainLoop, "task-events-writer");
+            writer.setDaemon(true);
+            writer.start();
+        }
+    }
+
+    private static void drainLoop() {
+        List<TaskEvent> batch = new ArrayList<>(BATCH_SIZE);
+        while (true) {
+            try {
+                batch.add(QUEUE.take());
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(LINGER_MILLIS);
+                while (batch.size() < BATCH_SIZE) {
+                    QUEUE.drainTo(batch, BATCH_SIZE - batch.size());
+                    long wait = deadline - System.nanoTime();
+                    if (batch.size() >= BATCH_SIZE || wait <= 0) break;
+                    TaskEvent next = QUEUE.poll(wait, TimeUnit.NANOSECONDS);
+                    if (next == null) break;
+                    batch.add(next);
+                }
+                writeWithRetry(batch);
+            } catch (InterruptedException e) {
+                return;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private static void writeWithRetry(List<TaskEvent> batch) {
+        try {
+            for (int attempt = 1; ; attempt++) {
+                try {
+                    insertBatch(batch);
+                    return;
+                } catch (SQLException e) {
+                    if (attempt >= MAX_ATTEMPTS) {
+                        System.err.println("Dropping " + batch.size() + " task event(s) after "
+                                + attempt + " attempts: " + e.getMessage());
+                        return;
+                    }
+                    try {
+                        Thread.sleep(200L << attempt);
+                    } catch (InterruptedException ie) {
+                        Thread.currentThread().interrupt();
+                        return;
+                    }
+                }
+            }
+        } catch (RuntimeException e) {
+            // A bad event (e.g. a null field) won't get better on retry; drop the batch, keep the writer alive.
+            System.err.println("Dropping " + batch.size() + " task event(s): " + e);
+        } finally {
+            PROCESSED.addAndGet(batch.size());
+        }
+    }
+
+    /** One multi-row INSERT for the whole batch. */
+    private static void insertBatch(List<TaskEvent> batch) throws SQLException {
+        StringBuilder sql = new StringBuilder(
+                "INSERT INTO task_events (project_id, task_id, task_title, actor_id, event_type, detail) VALUES ");
+        for (int i = 0; i < batch.size(); i++) {
+            sql.append(i == 0 ? "(?, ?, ?, ?, ?, ?)" : ", (?, ?, ?, ?, ?, ?)");
+        }
+        try (Connection conn = DatabaseConfig.getInstance().getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql.toString())) {
+            int p = 1;
+            for (TaskEvent e : batch) {
+                ps.setInt(p++, e.getProjectId());
+                ps.setInt(p++, e.getTaskId());
+                ps.setString(p++, truncate(e.getTaskTitle(), 200));
+                if (e.getActorId() == null) ps.setNull(p++, Types.INTEGER);
+                else ps.setInt(p++, e.getActorId());
+                ps.setString(p++, e.getEventType());
+                ps.setString(p++, truncate(e.getDetail(), 500));
+            }
+            ps.executeUpdate();
+        }
+    }
+
+    // ──── Reading ────
+
+    /**
+     * One page of a project's activity, newest first. Pass the last event id of the previous
+     * page as beforeEventId (null for the first page).
+     */
+    public List<TaskEvent> findPage(int projectId, Long beforeEventId, int limit) throws SQLException {
+        String sql = "SELECT e.*, u.name AS actor_name FROM task_events e " +
+                     "LEFT JOIN users u ON u.user_id = e.actor_id " +
+                     "WHERE e.project_id = ? AND e.event_id < ? " +
+                     "ORDER BY e.event_id DESC LIMIT ?";
+        List<TaskEvent> events = new ArrayList<>();
+        try (Connection conn = db(); PreparedStatement ps = conn.prepareStatement(sql)) {
+            ps.setInt(1, projectId);
+            ps.setLong(2, beforeEventId != null ? beforeEventId : Long.MAX_VALUE);
+            ps.setInt(3, limit);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    events.add(mapRow(rs));
+                }
+            }
+        }
+        return events;
+    }
+
+    // ──── Retention ────
+
+    /**
+     * Trim one project's log.
+     * Compaction: status changes older than compactAfterDays are reduced to the latest one
+     * per task (the step-by-step trail is still in task_status_history for the burndown).
+     * Retention: events older than retentionDays are deleted, except the newest keepLatest,
+     * so a quiet project never ends up with an empty feed.
+     * Returns the number of rows removed.
+     */
+    public int applyRetention(int projectId, int compactAfterDays, int retentionDays, int keepLatest)
+            throws SQLException {
+        int removed = 0;
+        try (Connection conn = db()) {
+            // Never touch the newest keepLatest events.
+            long protectedFrom = Long.MAX_VALUE;
+            try (PreparedStatement ps = conn.prepareStatement(
+                    "SELECT event_id FROM task_events WHERE project_id = ? ORDER BY event_id DESC LIMIT 1 OFFSET ?")) {
+                ps.setInt(1, projectId);
+                ps.setInt(2, Math.max(0, keepLatest - 1));
+                try (ResultSet rs = ps.executeQuery()) {
+                    if (!rs.next()) return 0; // fewer than keepLatest events in total
+                    protectedFrom = rs.getLong(1);
+                }
+            }
+
+            long compactBelow = Math.min(protectedFrom, lastEventBefore(conn, projectId, compactAfterDays) + 1);
+            String compact =
+                    "DELETE FROM task_events WHERE event_id IN (SELECT event_id FROM (" +
+                    "  SELECT event_id, ROW_NUMBER() OVER (PARTITION BY task_id ORDER BY event_id DESC) AS rn " +
+                    "  FROM task_events WHERE project_id = ? AND event_type = '" + STATUS_CHANGED + "' " +
+                    "  AND event_id < ?) superseded WHERE rn > 1) LIMIT " + DELETE_CHUNK;
+            removed += deleteInChunks(conn, compact, projectId, compactBelow);
+
+            long expireBelow = Math.min(protectedFrom, lastEventBefore(conn, projectId, retentionDays) + 1);
+            String expire = "DELETE FROM task_events WHERE project_id = ? AND event_id < ? " +
+                            "ORDER BY event_id LIMIT " + DELETE_CHUNK;
+            removed += deleteInChunks(conn, expire, projectId, expireBelow);
+        }
+        return removed;
+    }
+
+    /** applyRetention for every project. Returns the total number of rows removed. */
+    public int applyRetentionAll(int compactAfterDays, int retentionDays, int keepLatest) throws SQLException {
+        List<Integer> projectIds = new ArrayList<>();
+        try (Connection conn = db(); PreparedStatement ps = conn.prepareStatement("SELECT project_id FROM projects");
+             ResultSet rs = ps.executeQuery()) {
+            while (rs.next()) {
+                projectIds.add(rs.getInt(1));
+            }
+        }
+        int removed = 0;
+        for (int projectId : projectIds) {
+            removed += applyRetention(projectId, compactAfterDays, retentionDays, keepLatest);
+        }
+        return removed;
+    }
+
+    /**
+     * Highest event id of the project created more than `days` ago (0 if none).
+     * event_id grows with created_at, so "event_id below this + 1" is "older than the cutoff".
+     */
+    private long lastEventBefore(Connection conn, int projectId, int days) throws SQLException {
+        String sql = "SELECT MAX(event_id) FROM task_events WHERE project_id = ? " +
+                     "AND created_at < NOW(3) - INTERVAL ? DAY";
+        try (PreparedStatement ps = conn.prepareStatement(sql)) {
+            ps.setInt(1, projectId);
+            ps.setInt(2, days);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next() ? rs.getLong(1) : 0;
+            }
+        }
+    }
+
+    private int deleteInChunks(Connection conn, String sql, int projectId, long belowEventId) throws SQLException {
+        int total = 0;
+        try (PreparedStatement ps = conn.prepareStatement(sql)) {
+            ps.setInt(1, projectId);
+            ps.setLong(2, belowEventId);
+            int n;
+            do {
+                n = ps.executeUpdate();
+                total += n;
+            } while (n == DELETE_CHUNK);
+        }
+        return total;
+    }
+
+    // ──── Helpers ────
+    private Connection db() throws SQLException {
+        return DatabaseConfig.getInstance().getConnection();
+    }
+
+    private static String truncate(String s, int max) {
+        return s == null || s.length() <= max ? s : s.substring(0, max);
+    }
+
+    private TaskEvent mapRow(ResultSet rs) throws SQLException {
+        TaskEvent e = new TaskEvent();
+        e.setEventId(rs.getLong("event_id"));
+        e.setProjectId(rs.getInt("project_id"));
+        e.setTaskId(rs.getInt("task_id"));
+        e.setTaskTitle(rs.getString("task_title"));
+        int actorId = rs.getInt("actor_id");
+        e.setActorId(rs.wasNull() ? null : actorId);
+        e.setActorName(rs.getString("actor_name"));
+        e.setEventType(rs.getString("event_type"));
+        e.setDetail(rs.getString("detail"));
+        e.setCreatedAt(rs.getTimestamp("created_at"));
+        return e;
+    }
+}
@@ -2,17 +2,27 @@ package com.spark.platform.services;
 
 import com.spark.platform.config.DatabaseConfig;
 import com.spark.platform.models.Task;
+import com.spark.platform.models.TaskEvent;
+import com.spark.platform.utils.SessionManager;
 
 import java.sql.*;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Objects;
 
 /**
  * CRUD service for Tasks.
  * Uses the DAO pattern with the shared DatabaseConfig singleton.
+ * Writes that change a task's sprint, status or estimate also append to
+ * task_status_history in the same transaction (see BurndownService).
+ * Every successful write is also recorded in the activity log once it commits
+ * (see TaskEventService — queued, written in batches).
  */
 public class TaskService {
 
+    /** Status recorded in task_status_history when a task is deleted, so it leaves the burndown. */
+    public static final String STATUS_DELETED = "DELETED";
+
     private final DatabaseConfig db = DatabaseConfig.getInstance();
 
     // ──── CREATE ────
@@ -21,27 +31,34 @@ public class TaskService {
                      "column_name, priority, estimated_hours, status) " +
                      "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
 
-        try (Connection conn = db.getConnection();
-             PreparedStatement ps = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
-
-            ps.setInt(1, task.getProjectId());
-            setNullableInt(ps, 2, task.getSprintId());
-            ps.setString(3, task.getTitle());
-            ps.setString(4, task.getDescription());
-            setNullableInt(ps, 5, task.getAssignedTo());
-            ps.setString(6, task.getColumnName());
-            ps.setString(7, task.getPriority());
-            setNullableFloat(ps, 8, task.getEstimatedHours());
-            ps.setString(9, task.getStatus());
+        inTransaction(conn -> {
+            try (PreparedStatement ps = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+                ps.setInt(1, task.getProjectId());
+                setNullableInt(ps, 2, task.getSprintId());
+                ps.setString(3, task.getTitle());
+                ps.setString(4, task.getDescription());
+                setNullableInt(ps, 5, task.getAssignedTo());
+                ps.setString(6, task.getColumnName());
+                ps.setString(7, task.getPriority());
+                setNullableFloat(ps, 8, task.getEstimatedHours());
+                ps.setString(9, task.getStatus());
 
-            ps.executeUpdate();
+                ps.executeUpdate();
 
-            try (ResultSet keys = ps.getGeneratedKeys()) {
-                if (keys.next()) {
-                    task.setTaskId(keys.getInt(1));
+                try (ResultSet keys = ps.getGeneratedKeys()) {
+                    if (keys.next()) {
+                        task.setTaskId(keys.getInt(1));
+                    }
                 }
             }
-        }
+            String status = task.getStatus() != null ? task.getStatus() : "TODO";
+            appendHistory(conn, task.getTaskId(), null,
+                    new TaskState(task.getProjectId(), task.getSprintId(), status, task.getEstimatedHours(),
+                            task.getTitle(), task.getAssignedTo(), task.getPriority()));
+            return task;
+        });
+        recordEvent(task.getProjectId(), task.getTaskId(), task.getTitle(), TaskEventService.CREATED,
+                task.getStatus() != null ? "in " + task.getStatus() : null);
         return task;
     }
 
@@ -91,42 +108,72 @@ public class TaskService {
                      "column_name = ?, priority = ?, estimated_hours = ?, status = ? " +
                      "WHERE task_id = ?";
 
-        try (Connection conn = db.getConnection();
-             PreparedStatement ps = conn.prepareStatement(sql)) {
+        TaskState before = inTransaction(conn -> {
+            TaskState locked = lockState(conn, task.getTaskId());
+            try (PreparedStatement ps = conn.prepareStatement(sql)) {
+                setNullableInt(ps, 1, task.getSprintId());
+                ps.setString(2, task.getTitle());
+                ps.setString(3, task.getDescription());
+                setNullableInt(ps, 4, task.getAssignedTo());
+                ps.setString(5, task.getColumnName());
+                ps.setString(6, task.getPriority());
+                setNullableFloat(ps, 7, task.getEstimatedHours());
+                ps.setString(8, task.getStatus());
+                ps.setInt(9, task.getTaskId());
 
-            setNullableInt(ps, 1, task.getSprintId());
-            ps.setString(2, task.getTitle());
-            ps.setString(3, task.getDescription());
-            setNullableInt(ps, 4, task.getAssignedTo());
-            ps.setString(5, task.getColumnName());
-            ps.setString(6, task.getPriority());
-            setNullableFloat(ps, 7, task.getEstimatedHours());
-            ps.setString(8, task.getStatus());
-            ps.setInt(9, task.getTaskId());
-
-            ps.executeUpdate();
+                ps.executeUpdate();
+            }
+            if (locked != null) {
+                appendHistory(conn, task.getTaskId(), locked,
+                        new TaskState(locked.projectId, task.getSprintId(), task.getStatus(), task.getEstimatedHours(),
+                                task.getTitle(), task.getAssignedTo(), task.getPriority()));
+            }
+            return locked;
+        });
+        if (before != null) {
+            recordEvent(before.projectId, task.getTaskId(), task.getTitle(), TaskEventService.UPDATED,
+                    describeChanges(before, task));
         }
     }
 
     // ──── UPDATE STATUS / COLUMN (for drag-and-drop style moves) ────
     public void updateStatus(int taskId, String status, String columnName) throws SQLException {
         String sql = "UPDATE tasks SET status = ?, column_name = ? WHERE task_id = ?";
-        try (Connection conn = db.getConnection();
-             PreparedStatement ps = conn.prepareStatement(sql)) {
-            ps.setString(1, status);
-            ps.setString(2, columnName);
-            ps.setInt(3, taskId);
-            ps.executeUpdate();
+        TaskState before = inTransaction(conn -> {
+            TaskState locked = lockState(conn, taskId);
+            try (PreparedStatement ps = conn.prepareStatement(sql)) {
+                ps.setString(1, status);
+                ps.setString(2, columnName);
+                ps.setInt(3, taskId);
+                ps.executeUpdate();
+            }
+            if (locked != null) {
+                appendHistory(conn, taskId, locked, locked.withStatus(status));
+            }
+            return locked;
+        });
+        if (before != null && !Objects.equals(before.status, status)) {
+            recordEvent(before.projectId, taskId, before.title, TaskEventService.STATUS_CHANGED,
+                    before.status + " → " + status);
         }
     }
 
     // ──── DELETE ────
     public void delete(int taskId) throws SQLException {
         String sql = "DELETE FROM tasks WHERE task_id = ?";
-        try (Connection conn = db.getConnection();
-             PreparedStatement ps = conn.prepareStatement(sql)) {
-            ps.setInt(1, taskId);
-            ps.executeUpdate();
+        TaskState before = inTransaction(conn -> {
+            TaskState locked = lockState(conn, taskId);
+            try (PreparedStatement ps = conn.prepareStatement(sql)) {
+                ps.setInt(1, taskId);
+                ps.executeUpdate();
+            }
+            if (locked != null) {
+                appendHistory(conn, taskId, locked, locked.withStatus(STATUS_DELETED));
+            }
+            return locked;
+        });
+        if (before != null) {
+            recordEvent(before.projectId, taskId, before.title, TaskEventService.DELETED, null);
         }
     }
 
@@ -149,14 +196,152 @@ public class TaskService {
     // ──── MOVE TO SPRINT ────
     public void moveToSprint(int taskId, int sprintId) throws SQLException {
         String sql = "UPDATE tasks SET sprint_id = ? WHERE task_id = ?";
-        try (Connection conn = db.getConnection();
-             PreparedStatement ps = conn.prepareStatement(sql)) {
-            ps.setInt(1, sprintId);
-            ps.setInt(2, taskId);
+        TaskState before = inTransaction(conn -> {
+            TaskState locked = lockState(conn, taskId);
+            try (PreparedStatement ps = conn.prepareStatement(sql)) {
+                ps.setInt(1, sprintId);
+                ps.setInt(2, taskId);
+                ps.executeUpdate();
+            }
+            if (locked != null) {
+                appendHistory(conn, taskId, locked, locked.withSprint(sprintId));
+            }
+            return locked;
+        });
+        if (before != null && !Objects.equals(before.sprintId, sprintId)) {
+            recordEvent(before.projectId, taskId, before.title, TaskEventService.MOVED,
+                    before.sprintId == null ? "backlog → sprint" : "between sprints");
+        }
+    }
+
+    // ──── STATUS HISTORY (task_status_history, read by BurndownService) ────
+
+    /** Lock the task row for the rest of the transaction and return the fields history and events track. */
+    private TaskState lockState(Connection conn, int taskId) throws SQLException {
+        String sql = "SELECT project_id, sprint_id, status, estimated_hours, title, assigned_to, priority " +
+                     "FROM tasks WHERE task_id = ? FOR UPDATE";
+        try (PreparedStatement ps = conn.prepareStatement(sql)) {
+            ps.setInt(1, taskId);
+            try (ResultSet rs = ps.executeQuery()) {
+                if (!rs.next()) return null;
+                int sprintId = rs.getInt(2);
+                Integer sprint = rs.wasNull() ? null : sprintId;
+                float hours = rs.getFloat(4);
+                Float estimate = rs.wasNull() ? null : hours;
+                int assignee = rs.getInt(6);
+                Integer assignedTo = rs.wasNull() ? null : assignee;
+                return new TaskState(rs.getInt(1), sprint, rs.getString(3), estimate,
+                        rs.getString(5), assignedTo, rs.getString(7));
+            }
+        }
+    }
+
+    /** Append the post-change state, but only if something the burndown cares about changed. */
+    private void appendHistory(Connection conn, int taskId, TaskState before, TaskState after) throws SQLException {
+        if (after.sameAs(before)) return;
+        String sql = "INSERT INTO task_status_history " +
+                     "(task_id, project_id, sprint_id, old_status, status, estimated_hours) VALUES (?, ?, ?, ?, ?, ?)";
+        try (PreparedStatement ps = conn.prepareStatement(sql)) {
+            ps.setInt(1, taskId);
+            ps.setInt(2, after.projectId);
+            setNullableInt(ps, 3, after.sprintId);
+            ps.setString(4, before != null ? before.status : null);
+            ps.setString(5, after.status);
+            setNullableFloat(ps, 6, after.hours);
             ps.executeUpdate();
         }
     }
 
+    // ──── ACTIVITY LOG (task_events, via TaskEventService) ────
+
+    /** Called after commit only, so a rolled-back write never shows up in the feed. */
+    private void recordEvent(int projectId, int taskId, String title, String type, String detail) {
+        int userId = SessionManager.getInstance().getUserId();
+        TaskEventService.record(new TaskEvent(projectId, taskId, title, userId > 0 ? userId : null, type, detail));
+    }
+
+    /** Short "field: old → new" summary of an edit, e.g. "priority: LOW → HIGH; estimate: 3h → 5h". */
+    private String describeChanges(TaskState before, Task after) {
+        List<String> changes = new ArrayList<>();
+        if (!Objects.equals(before.title, after.getTitle())) changes.add("renamed");
+        if (!Objects.equals(before.status, after.getStatus())) {
+            changes.add("status: " + before.status + " → " + after.getStatus());
+        }
+        if (!Objects.equals(before.priority, after.getPriority())) {
+            changes.add("priority: " + before.priority + " → " + after.getPriority());
+        }
+        if (!Objects.equals(before.hours, after.getEstimatedHours())) {
+            changes.add("estimate: " + hours(before.hours) + " → " + hours(after.getEstimatedHours()));
+        }
+        if (!Objects.equals(before.assignedTo, after.getAssignedTo())) {
+            changes.add(after.getAssignedTo() == null ? "unassigned" : "reassigned");
+        }
+        if (!Objects.equals(before.sprintId, after.getSprintId())) {
+            changes.add(after.getSprintId() == null ? "moved to backlog" : "moved to another sprint");
+        }
+        return changes.isEmpty() ? "details edited" : String.join("; ", changes);
+    }
+
+    private String hours(Float h) {
+        return h == null ? "—" : (h == Math.floor(h) ? String.valueOf(h.intValue()) : String.valueOf(h)) + "h";
+    }
+
+    private <T> T inTransaction(TxWork<T> work) throws SQLException {
+        try (Connection conn = db.getConnection()) {
+            conn.setAutoCommit(false);
+            try {
+                T result = work.run(conn);
+                conn.commit();
+                return result;
+            } catch (SQLException | RuntimeException e) {
+                conn.rollback();
+                throw e;
+            }
+        }
+    }
+
+    private interface TxWork<T> {
+        T run(Connection conn) throws SQLException;
+    }
+
+    /**
+     * The task fields the history tracks (project, sprint, status, estimate), plus the few
+     * the activity log describes (title, assignee, priority), which sameAs ignores.
+     */
+    private static final class TaskState {
+        final int projectId;
+        final Integer sprintId;
+        final String status;
+        final Float hours;
+        final String title;
+        final Integer assignedTo;
+        final String priority;
+
+        TaskState(int projectId, Integer sprintId, String status, Float hours,
+                  String title, Integer assignedTo, String priority) {
+            this.projectId = projectId;
+            this.sprintId = sprintId;
+            this.status = status;
+            this.hours = hours;
+            this.title = title;
+            this.assignedTo = assignedTo;
+            this.priority = priority;
+        }
+
+        TaskState withStatus(String newStatus) {
+            return new TaskState(projectId, sprintId, newStatus, hours, title, assignedTo, priority);
+        }
+
+        TaskState withSprint(Integer newSprintId) {
+            return new TaskState(projectId, newSprintId, status, hours, title, assignedTo, priority);
+        }
+
+        boolean sameAs(TaskState other) {
+            return other != null && projectId == other.projectId && Objects.equals(sprintId, other.sprintId)
+                    && Objects.equals(status, other.status) && Objects.equals(hours, other.hours);
+        }
+    }
+
     // ──── ROW MAPPER ────
     private Task mapRow(ResultSet rs) throws SQLException {
         Task t = new Task();
@@ -0,0 +1,124 @@
+package com.spark.platform.services;
+
+import com.spark.platform.config.DatabaseConfig;
+
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Service layer for the materialized per-project task counts (table project_task_stats,
+ * maintained by the triggers in migration V3).
+ * Reads are a single primary-key lookup; reconcile() recomputes from tasks and repairs drift.
+ */
+public class TaskStatsService {
+
+    /**
+     * Task counts for a project: keys total, done, inProgress, todo, review.
+     * A project without tasks has no row yet and reports zeros.
+     */
+    public Map<String, Integer> getStats(int projectId) throws SQLException {
+        String sql = "SELECT total, done, in_progress, todo, review FROM project_task_stats WHERE project_id = ?";
+        try (Connection conn = db(); PreparedStatement ps = conn.prepareStatement(sql)) {
+            ps.setInt(1, projectId);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next()
+                        ? toMap(rs.getInt(1), rs.getInt(2), rs.getInt(3), rs.getInt(4), rs.getInt(5))
+                        : toMap(0, 0, 0, 0, 0);
+            }
+        }
+    }
+
+    // ──── Reconciliation ────
+
+    /**
+     * Recompute one project's counts from tasks and fix the summary row if it drifted.
+     * The stats row is locked first, so a concurrent task write either is already
+     * committed (and counted) or blocks in its trigger until we commit, then applies its delta.
+     * Returns true if the row had to be corrected.
+     */
+    public boolean reconcile(int projectId) throws SQLException {
+        try (Connection conn = db()) {
+            conn.setAutoCommit(false);
+            try {
+                int[] stored = null;
+                try (PreparedStatement ps = conn.prepareStatement(
+                        "SELECT total, done, in_progress, todo, review FROM project_task_stats " +
+                        "WHERE project_id = ? FOR UPDATE")) {
+                    ps.setInt(1, projectId);
+                    try (ResultSet rs = ps.executeQuery()) {
+                        if (rs.next()) {
+                            stored = new int[]{rs.getInt(1), rs.getInt(2), rs.getInt(3), rs.getInt(4), rs.getInt(5)};
+                        }
+                    }
+                }
+
+                int[] actual = new int[5];
+                try (PreparedStatement ps = conn.prepareStatement(
+                        "SELECT COUNT(*), " +
+                        "COALESCE(SUM(status = 'DONE'), 0), COALESCE(SUM(status = 'IN_PROGRESS'), 0), " +
+                        "COALESCE(SUM(status = 'TODO'), 0), COALESCE(SUM(status = 'REVIEW'), 0) " +
+                        "FROM tasks WHERE project_id = ?")) {
+                    ps.setInt(1, projectId);
+                    try (ResultSet rs = ps.executeQuery()) {
+                        if (rs.next()) {
+                            for (int i = 0; i < 5; i++) actual[i] = rs.getInt(i + 1);
+                        }
+                    }
+                }
+
+                boolean drifted = stored == null ? actual[0] > 0 : !Arrays.equals(stored, actual);
+                if (drifted) {
+                    try (PreparedStatement ps = conn.prepareStatement(
+                            "INSERT INTO project_task_stats (project_id, total, done, in_progress, todo, review) " +
+                            "VALUES (?, ?, ?, ?, ?, ?) AS d " +
+                            "ON DUPLICATE KEY UPDATE total = d.total, done = d.done, " +
+                            "in_progress = d.in_progress, todo = d.todo, review = d.review")) {
+                        ps.setInt(1, projectId);
+                        for (int i = 0; i < 5; i++) ps.setInt(i + 2, actual[i]);
+                        ps.executeUpdate();
+                    }
+                }
+                conn.commit();
+                return drifted;
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
+        }
+    }
+
+    /** Reconcile every project, one short transaction each. Returns the number of rows corrected. */
+    public int reconcileAll() throws SQLException {
+        List<Integer> projectIds = new ArrayList<>();
+        try (Connection conn = db(); PreparedStatement ps = conn.prepareStatement("SELECT project_id FROM projects");
+             ResultSet rs = ps.executeQuery()) {
+            while (rs.next()) {
+                projectIds.add(rs.getInt(1));
+            }
+        }
+        int corrected = 0;
+        for (int projectId : projectIds) {
+            if (reconcile(projectId)) corrected++;
+        }
+        return corrected;
+    }
+
+    // ──── Helpers ────
+    private Connection db() throws SQLException {
+        return DatabaseConfig.getInstance().getConnection();
+    }
+
+    private Map<String, Integer> toMap(int total, int done, int inProgress, int todo, int review) {
+        Map<String, Integer> stats = new LinkedHashMap<>();
+        stats.put("total", total);
+        stats.put("done", done);
+        stats.put("inProgress", inProgress);
+        stats.put("todo", todo);
+        stats.put("review", review);
+        return stats;
+    }
+}
@@ -0,0 +1,221 @@
+package com.spark.platform.services;
+
+import com.spark.platform.config.DatabaseConfig;
+
+import java.sql.*;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Service layer for the teacher dashboard: every classroom → project with completion
+ * and velocity, built from three grouped queries instead of per-project calls.
+ *
+ * Results are streamed (Connector/J row-by-row cursor) so a large institution never
+ * materializes the whole result set in the driver, and cached per teacher for a short TTL
+ * so switching tabs doesn't re-run the aggregation.
+ */
+public class TeacherDashboardService {
+
+    /** How long a dashboard stays cached. Task moves show up on the next load after this. */
+    private static final long CACHE_TTL_MILLIS = 30_000;
+    /** Velocity window: tasks finished in the last N days, reported per week. */
+    private static final int VELOCITY_DAYS = 14;
+    private static final int ALL_CLASSROOMS = -1;
+
+    private static final Map<Integer, CachedDashboard> CACHE = new ConcurrentHashMap<>();
+
+    /**
+     * Dashboard for a teacher (scoped to their courses), or for everything when teacherId is null.
+     * Served from cache when younger than CACHE_TTL_MILLIS.
+     */
+    public List<ClassroomSummary> loadDashboard(Integer teacherId) throws SQLException {
+        int key = teacherId != null ? teacherId : ALL_CLASSROOMS;
+        CachedDashboard cached = CACHE.get(key);
+        if (cached != null && System.currentTimeMillis() - cached.loadedAt < CACHE_TTL_MILLIS) {
+            return cached.classrooms;
+        }
+        List<ClassroomSummary> fresh = Collections.unmodifiableList(query(teacherId));
+        CACHE.put(key, new CachedDashboard(fresh, System.currentTimeMillis()));
+        return fresh;
+    }
+
+    /** Drop cached dashboards (all teachers), e.g. after a refresh click. */
+    public static void invalidate() {
+        CACHE.clear();
+    }
+
+    // ──── Queries ────
+    private List<ClassroomSummary> query(Integer teacherId) throws SQLException {
+        Map<Integer, ClassroomSummary> classrooms = new LinkedHashMap<>();
+        Map<Integer, ProjectSummary> projects = new HashMap<>();
+        String scope = teacherId != null
+                ? "JOIN teacher_courses tc ON tc.course_id = p.course_id AND tc.teacher_id = ? "
+                : "";
+
+        try (Connection conn = db()) {
+            // 1) One row per project, with its classroom, summary counts and member count.
+            String projectSql =
+                    "SELECT c.classroom_id, c.name, p.project_id, p.title, p.status, p.end_date, " +
+                    "COALESCE(s.total, 0), COALESCE(s.done, 0), COALESCE(s.in_progress, 0), COALESCE(s.review, 0), " +
+                    "(SELECT COUNT(*) FROM project_members pm WHERE pm.project_id = p.project_id) " +
+                    "FROM projects p " +
+                    "JOIN classrooms c ON c.classroom_id = p.classroom_id " +
+                    scope +
+                    "LEFT JOIN project_task_stats s ON s.project_id = p.project_id " +
+                    "WHERE c.status = 'ACTIVE' " +
+                    "ORDER BY c.name, c.classroom_id, p.title";
+            try (PreparedStatement ps = streaming(conn, projectSql)) {
+                if (teacherId != null) ps.setInt(1, teacherId);
+                try (ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) {
+                        int classroomId = rs.getInt(1);
+                        ClassroomSummary c = classrooms.get(classroomId);
+                        if (c == null) {
+                            c = new ClassroomSummary(classroomId, rs.getString(2));
+                            classrooms.put(classroomId, c);
+                        }
+                        ProjectSummary p = new ProjectSummary();
+                        p.projectId = rs.getInt(3);
+                        p.title = rs.getString(4);
+                        p.status = rs.getString(5);
+                        java.sql.Date end = rs.getDate(6);
+                        p.endDate = end != null ? end.toLocalDate() : null;
+                        p.totalTasks = rs.getInt(7);
+                        p.doneTasks = rs.getInt(8);
+                        p.inProgressTasks = rs.getInt(9);
+                        p.reviewTasks = rs.getInt(10);
+                        p.members = rs.getInt(11);
+                        c.projects.add(p);
+                        projects.put(p.projectId, p);
+                    }
+                }
+            }
+            if (classrooms.isEmpty()) return new ArrayList<>();
+
+            // 2) Recently finished tasks per project (velocity). updated_at of a DONE task is
+            //    taken as its completion time.
+            String velocitySql =
+                    "SELECT t.project_id, COUNT(*) FROM tasks t " +
+                    "JOIN projects p ON p.project_id = t.project_id " +
+                    scope +
+                    "WHERE t.status = 'DONE' AND t.updated_at >= ? " +
+                    "GROUP BY t.project_id";
+            try (PreparedStatement ps = streaming(conn, velocitySql)) {
+                int i = 1;
+                if (teacherId != null) ps.setInt(i++, teacherId);
+                ps.setTimestamp(i, Timestamp.valueOf(LocalDate.now().minusDays(VELOCITY_DAYS).atStartOfDay()));
+                try (ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) {
+                        ProjectSummary p = projects.get(rs.getInt(1));
+                        if (p != null) p.doneLastWeeks = rs.getInt(2);
+                    }
+                }
+            }
+
+            // 3) Active students per classroom (covered by idx_users_classroom_type_status).
+            String studentSql =
+                    "SELECT classroom_id, COUNT(*) FROM users " +
+                    "WHERE user_type = 'STUDENT' AND status = 'ACTIVE' AND classroom_id IS NOT NULL " +
+                    "GROUP BY classroom_id";
+            try (PreparedStatement ps = streaming(conn, studentSql); ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    ClassroomSummary c = classrooms.get(rs.getInt(1));
+                    if (c != null) c.students = rs.getInt(2);
+                }
+            }
+        }
+        return new ArrayList<>(classrooms.values());
+    }
+
+    /**
+     * Forward-only, read-only with fetch size MIN_VALUE: Connector/J streams rows one at a
+     * time instead of buffering the whole result. The result must be fully read (or closed)
+     * before the next statement on the same connection, which the sequential queries above do.
+     */
+    private PreparedStatement streaming(Connection conn, String sql) throws SQLException {
+        PreparedStatement ps = conn.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+        ps.setFetchSize(Integer.MIN_VALUE);
+        return ps;
+    }
+
+    private Connection db() throws SQLException {
+        return DatabaseConfig.getInstance().getConnection();
+    }
+
+    // ──── Result types ────
+
+    public static class ClassroomSummary {
+        private final int classroomId;
+        private final String name;
+        private int students;
+        private final List<ProjectSummary> projects = new ArrayList<>();
+
+        ClassroomSummary(int classroomId, String name) {
+            this.classroomId = classroomId;
+            this.name = name;
+        }
+
+        public int getClassroomId() { return classroomId; }
+        public String getName() { return name; }
+        public int getStudents() { return students; }
+        public List<ProjectSummary> getProjects() { return projects; }
+
+        public int getTotalTasks() {
+            return projects.stream().mapToInt(ProjectSummary::getTotalTasks).sum();
+        }
+
+        public int getDoneTasks() {
+            return projects.stream().mapToInt(ProjectSummary::getDoneTasks).sum();
+        }
+
+        /** Share of all tasks in the classroom that are done, 0..1. */
+        public double getCompletion() {
+            int total = getTotalTasks();
+            return total == 0 ? 0 : (double) getDoneTasks() / total;
+        }
+    }
+
+    public static class ProjectSummary {
+        private int projectId;
+        private String title;
+        private String status;
+        private LocalDate endDate;
+        private int members;
+        private int totalTasks;
+        private int doneTasks;
+        private int inProgressTasks;
+        private int reviewTasks;
+        private int doneLastWeeks;
+
+        public int getProjectId() { return projectId; }
+        public String getTitle() { return title; }
+        public String getStatus() { return status; }
+        public LocalDate getEndDate() { return endDate; }
+        public int getMembers() { return members; }
+        public int getTotalTasks() { return totalTasks; }
+        public int getDoneTasks() { return doneTasks; }
+        public int getInProgressTasks() { return inProgressTasks; }
+        public int getReviewTasks() { return reviewTasks; }
+
+        /** Done / total, 0..1. */
+        public double getCompletion() {
+            return totalTasks == 0 ? 0 : (double) doneTasks / totalTasks;
+        }
+
+        /** Tasks finished per week over the velocity window. */
+        public double getVelocityPerWeek() {
+            return doneLastWeeks * 7.0 / VELOCITY_DAYS;
+        }
+    }
+
+    private static final class CachedDashboard {
+        final List<ClassroomSummary> classrooms;
+        final long loadedAt;
+
+        CachedDashboard(List<ClassroomSummary> classrooms, long loadedAt) {
+            this.classrooms = classrooms;
+            this.loadedAt = loadedAt;
+        }
+    }
+}
@@ -18,16 +18,12 @@ import java.util.Map;
  */
 public class TeacherProjectService {
 
+    private final TaskStatsService taskStats = new TaskStatsService();
+
     // ──── Classrooms ────
 
     /**
-     * Get all active classrooms.
-     * TODO: HARDCODED — returns ALL classrooms. Should filter by teacher's courses:
-     *   SELECT DISTINCT c.* FROM classrooms c
-     *   JOIN users u ON u.classroom_id = c.classroom_id
-     *   JOIN student_courses sc ON sc.student_id = u.user_id
-     *   JOIN teacher_courses tc ON tc.course_id = sc.course_id
-     *   WHERE tc.teacher_id = ? AND c.status = 'ACTIVE'
+     * Get all active classrooms (administrators; teachers use {@link #findClassroomsForTeacher}).
      */
     public List<Classroom> findAllClassrooms() throws SQLException {
         List<Classroom> list = new ArrayList<>();
@@ -41,7 +37,33 @@ public class TeacherProjectService {
         return list;
     }
 
-    /** Count students in a classroom. */
+    /**
+     * Active classrooms with at least one student enrolled in one of the teacher's courses.
+     * EXISTS stops at the first matching student instead of joining every enrolment and
+     * de-duplicating; it probes teacher_courses (PK teacher_id, course_id), student_courses
+     * (KEY course_id) and users (PK), so no table is scanned in full.
+     */
+    public List<Classroom> findClassroomsForTeacher(int teacherId) throws SQLException {
+        List<Classroom> list = new ArrayList<>();
+        String sql = "SELECT c.* FROM classrooms c " +
+                     "WHERE c.status = 'ACTIVE' AND EXISTS (" +
+                     "  SELECT 1 FROM teacher_courses tc " +
+                     "  JOIN student_courses sc ON sc.course_id = tc.course_id " +
+                     "  JOIN users u ON u.user_id = sc.student_id " +
+                     "  WHERE tc.teacher_id = ? AND u.classroom_id = c.classroom_id) " +
+                     "ORDER BY c.name";
+        try (Connection conn = db(); PreparedStatement ps = conn.prepareStatement(sql)) {
+            ps.setInt(1, teacherId);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    list.add(mapClassroom(rs));
+                }
+            }
+        }
+        return list;
+    }
+
+    /** Count students in a classroom (covered by idx_users_classroom_type_status). */
     public int countStudents(int classroomId) throws SQLException {
         String sql = "SELECT COUNT(*) FROM users WHERE classroom_id = ? AND user_type = 'STUDENT' AND status = 'ACTIVE'";
         try (Connection conn = db(); PreparedStatement ps = conn.prepareStatement(sql)) {
@@ -52,11 +74,7 @@ public class TeacherProjectService {
         }
     }
 
-    /**
-     * Count projects in a classroom.
-     * TODO: HARDCODED — counts ALL projects in classroom. Should filter by teacher's courses:
-     *   WHERE classroom_id = ? AND course_id IN (SELECT course_id FROM teacher_courses WHERE teacher_id = ?)
-     */
+    /** Count all projects in a classroom (administrators). */
     public int countProjectsInClassroom(int classroomId) throws SQLException {
         String sql = "SELECT COUNT(*) FROM projects WHERE classroom_id = ?";
         try (Connection conn = db(); PreparedStatement ps = conn.prepareStatement(sql)) {
@@ -67,13 +85,26 @@ public class TeacherProjectService {
         }
     }
 
-    // ──── Projects per Classroom ────
-
     /**
-     * Get all projects belonging to the given classroom.
-     * TODO: HARDCODED — returns ALL projects in classroom. Should filter by teacher's courses:
-     *   WHERE classroom_id = ? AND course_id IN (SELECT course_id FROM teacher_courses WHERE teacher_id = ?)
+     * Count projects in a classroom that belong to one of the teacher's courses.
+     * Answered from idx_projects_classroom_course alone (covering index).
      */
+    public int countProjectsInClassroom(int classroomId, int teacherId) throws SQLException {
+        String sql = "SELECT COUNT(*) FROM projects p " +
+                     "JOIN teacher_courses tc ON tc.course_id = p.course_id AND tc.teacher_id = ? " +
+                     "WHERE p.classroom_id = ?";
+        try (Connection conn = db(); PreparedStatement ps = conn.prepareStatement(sql)) {
+            ps.setInt(1, teacherId);
+            ps.setInt(2, classroomId);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next() ? rs.getInt(1) : 0;
+            }
+        }
+    }
+
+    // ──── Projects per Classroom ────
+
+    /** Get all projects belonging to the given classroom (administrators). */
     public List<Project> findProjectsByClassroom(int classroomId) throws SQLException {
         List<Project> list = new ArrayList<>();
         String sql = "SELECT * FROM projects WHERE classroom_id = ? ORDER BY title";
@@ -88,6 +119,27 @@ public class TeacherProjectService {
         return list;
     }
 
+    /**
+     * Projects in the classroom that belong to one of the teacher's courses.
+     * The (classroom_id, course_id) index narrows to the teacher's rows before touching the table.
+     */
+    public List<Project> findProjectsByClassroom(int classroomId, int teacherId) throws SQLException {
+        List<Project> list = new ArrayList<>();
+        String sql = "SELECT p.* FROM projects p " +
+                     "JOIN teacher_courses tc ON tc.course_id = p.course_id AND tc.teacher_id = ? " +
+                     "WHERE p.classroom_id = ? ORDER BY p.title";
+        try (Connection conn = db(); PreparedStatement ps = conn.prepareStatement(sql)) {
+            ps.setInt(1, teacherId);
+            ps.setInt(2, classroomId);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    list.add(mapProject(rs));
+                }
+            }
+        }
+        return list;
+    }
+
     /** Count members in a project. */
     public int countMembers(int projectId) throws SQLException {
         String sql = "SELECT COUNT(*) FROM project_members WHERE project_id = ?";
@@ -217,27 +269,8 @@ public class TeacherProjectService {
 
     /** Get task completion stats for a project: {total, done, inProgress, todo, review}. */
     public Map<String, Integer> getTaskStats(int projectId) throws SQLException {
-        Map<String, Integer> stats = new LinkedHashMap<>();
-        String sql = "SELECT " +
-                     "COUNT(*) as total, " +
-                     "SUM(CASE WHEN status = 'DONE' THEN 1 ELSE 0 END) as done, " +
-                     "SUM(CASE WHEN status = 'IN_PROGRESS' THEN 1 ELSE 0 END) as in_progress, " +
-                     "SUM(CASE WHEN status = 'TODO' THEN 1 ELSE 0 END) as todo, " +
-                     "SUM(CASE WHEN status = 'REVIEW' THEN 1 ELSE 0 END) as review " +
-                     "FROM tasks WHERE project_id = ?";
-        try (Connection conn = db(); PreparedStatement ps = conn.prepareStatement(sql)) {
-            ps.setInt(1, projectId);
-            try (ResultSet rs = ps.executeQuery()) {
-                if (rs.next()) {
-                    stats.put("total", rs.getInt("total"));
-                    stats.put("done", rs.getInt("done"));
-                    stats.put("inProgress", rs.getInt("in_progress"));
-                    stats.put("todo", rs.getInt("todo"));
-                    stats.put("review", rs.getInt("review"));
-                }
-            }
-        }
-        return stats;
+        // Served from the project_task_stats summary row instead of scanning the project's tasks.
+        return taskStats.getStats(projectId);
     }
 
     // ──── Helpers ────
@@ -0,0 +1,25 @@
+package com.spark.platform.services;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * Turns an uploaded file into page texts for MaterialExtractionPool. One implementation
+ * per family of formats; the pool asks each in turn whether it supports a file name.
+ */
+public interface TextExtractor {
+
+    boolean supports(String fileName);
+
+    /** The text of every page, in order; an empty page is an empty string. */
+    List<String> extractPages(Path file) throws IOException;
+
+    static boolean hasExtension(String fileName, String... extensions) {
+        String lower = fileName.toLowerCase();
+        for (String ext : extensions) {
+            if (lower.endsWith("." + ext)) return true;
+        }
+        return false;
+    }
+}
@@ -0,0 +1,58 @@
+package com.spark.platform.tools;
+
+import com.spark.platform.services.CommitIngestService;
+
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Imports git history from local clones into the commits table (see CommitIngestService).
+ *   mvn -q compile exec:java -Dexec.mainClass=com.spark.platform.tools.CommitIngester \
+ *       -Dexec.args="--project=7 --repo=/srv/clones/team7"
+ * --repo is remembered, so later runs need only --project (or --all for every project
+ * imported before) and read just the commits since the previous run. --full re-reads the
+ * whole history; commits already imported are skipped either way.
+ */
+public class CommitIngester {
+
+    public static void main(String[] args) throws Exception {
+        Integer projectId = null;
+        Path repo = null;
+        boolean all = false, full = false;
+        for (String arg : args) {
+            if (arg.startsWith("--project=")) projectId = Integer.valueOf(arg.substring("--project=".length()));
+            else if (arg.startsWith("--repo=")) repo = Path.of(arg.substring("--repo=".length()));
+            else if (arg.equals("--all")) all = true;
+            else if (arg.equals("--full")) full = true;
+            else throw new IllegalArgumentException("Unknown option: " + arg);
+        }
+
+        CommitIngestService service = new CommitIngestService();
+        Map<Integer, Path> repos = new LinkedHashMap<>();
+        if (all) {
+            repos.putAll(service.findSyncedRepos());
+        } else if (projectId != null) {
+            Path path = repo != null ? repo : service.findRepoPath(projectId);
+            if (path == null) throw new IllegalArgumentException("No local clone known for project " + projectId + "; pass --repo=<path>");
+            repos.put(projectId, path);
+        } else {
+            throw new IllegalArgumentException("Pass --project=<id> [--repo=<path>] or --all");
+        }
+
+        int scanned = 0, inserted = 0;
+        long millis = 0;
+        for (Map.Entry<Integer, Path> e : repos.entrySet()) {
+            CommitIngestService.Result r = service.ingest(e.getKey(), e.getValue(), full);
+            System.out.printf("Project %d (%s): %d commit(s) read, %d new, %d linked to tasks, %d ms%n",
+                    e.getKey(), e.getValue(), r.getScanned(), r.getInserted(), r.getLinked(), r.getMillis());
+            scanned += r.getScanned();
+            inserted += r.getInserted();
+            millis += r.getMillis();
+        }
+        if (repos.size() > 1) {
+            System.out.printf("Total: %d read, %d new in %d ms (%.0f commits/s)%n",
+                    scanned, inserted, millis, millis > 0 ? scanned * 1000.0 / millis : 0);
+        }
+    }
+}
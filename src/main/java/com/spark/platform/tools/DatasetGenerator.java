@@ -0,0 +1,488 @@
+package com.spark.platform.tools;
+
+import com.spark.platform.config.DatabaseConfig;
+import com.spark.platform.utils.PasswordUtils;
+
+import java.sql.*;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.*;
+
+/**
+ * Synthetic dataset generator for load and benchmark runs.
+ *
+ * Populates classrooms, courses, users, projects, project_members, sprints,
+ * tasks, commits, notifications and chat sessions/messages at a configurable
+ * scale. Rows get explicit IDs starting after the current MAX(id) of each
+ * table, so the generator can run against a seeded database and never needs
+ * generated keys back. All randomness comes from one seeded {@link Random},
+ * so the same arguments always produce the same dataset.
+ *
+ * Run with:
+ *   mvn -q compile exec:java -Dexec.mainClass=com.spark.platform.tools.DatasetGenerator \
+ *       -Dexec.args="--students=50000 --tasks=2000000 --seed=42"
+ */
+public class DatasetGenerator {
+
+    // ──── Scale (overridable with --name=value) ────
+    private long seed = 42;
+    private int batchSize = 1000;
+    private int classrooms = 40;
+    private int courses = 20;
+    private int teachers = 60;
+    private int students = 1200;
+    private int projectsPerClassroom = 8;
+    private int membersPerProject = 5;
+    private int sprintsPerProject = 4;
+    private int tasks = 20_000;
+    private int commits = 20_000;
+    private int notifications = 20_000;
+    private int chatSessions = 2_000;
+    private int chatMessages = 40_000;
+
+    private static final String[] TASK_STATUSES = {"TODO", "IN_PROGRESS", "REVIEW", "DONE"};
+    private static final String[] PRIORITIES = {"LOW", "MEDIUM", "HIGH", "CRITICAL"};
+    private static final String[] TEMPLATES = {"PI_DEV", "PI_IOT", "STANDARD", "CUSTOM"};
+    private static final String[] MEMBER_ROLES = {"SCRUM_MASTER", "DEVELOPER", "TESTER", "PO", "MEMBER"};
+    private static final String[] NOTIFICATION_TYPES = {"IN_APP", "IN_APP", "IN_APP", "EMAIL", "SMS"};
+    private static final String[] VERBS = {"Implement", "Fix", "Refactor", "Test", "Document", "Review", "Design"};
+    private static final String[] NOUNS = {"login form", "task board", "sprint API", "grade engine",
+            "job feed", "scheduler", "chat view", "PDF parser", "notification badge", "mind map"};
+
+    /** All generated rows share a fixed start date so runs are reproducible. */
+    private static final LocalDate BASE_DATE = LocalDate.of(2026, 1, 5);
+
+    private final DatabaseConfig db = DatabaseConfig.getInstance();
+    private Random rnd;
+
+    // ──── Generated ID layout (filled in as tables are written) ────
+    private int classroomBase, courseBase, userBase, projectBase, sprintBase, taskBase;
+    private int[] teacherIds;
+    private int[][] studentsByClassroom;
+    private int[] projectClassroom;
+    private int[][] projectMembers;
+    private int[] taskProject;
+
+    public static void main(String[] args) throws SQLException {
+        DatasetGenerator gen = new DatasetGenerator();
+        gen.parseArgs(args);
+        gen.run();
+    }
+
+    private void parseArgs(String[] args) {
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Expected --name=value, got: " + arg);
+            }
+            String key = arg.substring(2, arg.indexOf('='));
+            String value = arg.substring(arg.indexOf('=') + 1);
+            switch (key) {
+                case "seed":                 seed = Long.parseLong(value); break;
+                case "batch":                batchSize = Integer.parseInt(value); break;
+                case "classrooms":           classrooms = Integer.parseInt(value); break;
+                case "courses":              courses = Integer.parseInt(value); break;
+                case "teachers":             teachers = Integer.parseInt(value); break;
+                case "students":             students = Integer.parseInt(value); break;
+                case "projectsPerClassroom": projectsPerClassroom = Integer.parseInt(value); break;
+                case "membersPerProject":    membersPerProject = Integer.parseInt(value); break;
+                case "sprintsPerProject":    sprintsPerProject = Integer.parseInt(value); break;
+                case "tasks":                tasks = Integer.parseInt(value); break;
+                case "commits":              commits = Integer.parseInt(value); break;
+                case "notifications":        notifications = Integer.parseInt(value); break;
+                case "chatSessions":         chatSessions = Integer.parseInt(value); break;
+                case "chatMessages":         chatMessages = Integer.parseInt(value); break;
+                default: throw new IllegalArgumentException("Unknown option: --" + key);
+            }
+        }
+        if (classrooms < 1 || courses < 1 || teachers < 1 || students < classrooms || sprintsPerProject < 1) {
+            throw new IllegalArgumentException(
+                "Need at least 1 classroom, course, teacher and sprint per project, and one student per classroom");
+        }
+    }
+
+    public void run() throws SQLException {
+        rnd = new Random(seed);
+        long start = System.nanoTime();
+        System.out.println("Generating dataset (seed=" + seed + ", batch=" + batchSize + ")");
+
+        try (Connection conn = db.getConnection()) {
+            conn.setAutoCommit(false);
+            try {
+                readBaseIds(conn);
+                generateClassrooms(conn);
+                generateCourses(conn);
+                generateUsers(conn);
+                generateCourseAssignments(conn);
+                generateProjects(conn);
+                generateSprints(conn);
+                generateTasks(conn);
+                generateTaskHistory(conn);
+                generateCommits(conn);
+                generateNotifications(conn);
+                generateChat(conn);
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
+        }
+        System.out.printf("Done in %.1f s%n", (System.nanoTime() - start) / 1e9);
+    }
+
+    // ──── ID layout ────
+    private void readBaseIds(Connection conn) throws SQLException {
+        classroomBase = maxId(conn, "classrooms", "classroom_id") + 1;
+        courseBase = maxId(conn, "courses", "course_id") + 1;
+        userBase = maxId(conn, "users", "user_id") + 1;
+        projectBase = maxId(conn, "projects", "project_id") + 1;
+        sprintBase = maxId(conn, "sprints", "sprint_id") + 1;
+        taskBase = maxId(conn, "tasks", "task_id") + 1;
+    }
+
+    private int maxId(Connection conn, String table, String column) throws SQLException {
+        try (Statement st = conn.createStatement();
+             ResultSet rs = st.executeQuery("SELECT COALESCE(MAX(" + column + "), 0) FROM " + table)) {
+            return rs.next() ? rs.getInt(1) : 0;
+        }
+    }
+
+    // ──── Academic structure ────
+    private void generateClassrooms(Connection conn) throws SQLException {
+        try (MultiRowInsert ins = new MultiRowInsert(conn, "classrooms",
+                "classroom_id, name, capacity, status")) {
+            for (int i = 0; i < classrooms; i++) {
+                ins.add(classroomBase + i, "GEN-" + (char) ('A' + i % 26) + (i / 26 + 1),
+                        Math.max(30, students / classrooms + 5), "ACTIVE");
+            }
+        }
+    }
+
+    private void generateCourses(Connection conn) throws SQLException {
+        try (MultiRowInsert ins = new MultiRowInsert(conn, "courses",
+                "course_id, title, code, total_hours, semester, status")) {
+            for (int i = 0; i < courses; i++) {
+                ins.add(courseBase + i, "Generated Course " + (i + 1), "GEN" + (100 + i),
+                        21 + rnd.nextInt(4) * 7, 1 + rnd.nextInt(2), "ACTIVE");
+            }
+        }
+    }
+
+    private void generateUsers(Connection conn) throws SQLException {
+        // One BCrypt hash shared by every generated account — hashing per row would dominate the run.
+        String password = PasswordUtils.hash("password123");
+
+        teacherIds = new int[teachers];
+        int[] classroomSizes = new int[classrooms];
+        for (int s = 0; s < students; s++) classroomSizes[s % classrooms]++;
+        studentsByClassroom = new int[classrooms][];
+        for (int c = 0; c < classrooms; c++) studentsByClassroom[c] = new int[classroomSizes[c]];
+
+        try (MultiRowInsert ins = new MultiRowInsert(conn, "users",
+                "user_id, name, email, password, user_type, classroom_id, status, created_at")) {
+            int id = userBase;
+            for (int t = 0; t < teachers; t++, id++) {
+                teacherIds[t] = id;
+                ins.add(id, "Teacher " + id, "teacher." + id + "@gen.spark.local", password,
+                        "TEACHER", null, "ACTIVE", randomTimestamp(30));
+            }
+            int[] filled = new int[classrooms];
+            for (int s = 0; s < students; s++, id++) {
+                int c = s % classrooms;
+                studentsByClassroom[c][filled[c]++] = id;
+                // ~2% inactive so status filters have something to exclude
+                String status = rnd.nextInt(50) == 0 ? "INACTIVE" : "ACTIVE";
+                ins.add(id, "Student " + id, "student." + id + "@gen.spark.local", password,
+                        "STUDENT", classroomBase + c, status, randomTimestamp(30));
+            }
+        }
+    }
+
+    private void generateCourseAssignments(Connection conn) throws SQLException {
+        try (MultiRowInsert ins = new MultiRowInsert(conn, "teacher_courses", "teacher_id, course_id")) {
+            for (int i = 0; i < teachers; i++) {
+                int first = i % courses;
+                ins.add(teacherIds[i], courseBase + first);
+                if (courses > 1 && rnd.nextBoolean()) {
+                    ins.add(teacherIds[i], courseBase + (first + 1 + rnd.nextInt(courses - 1)) % courses);
+                }
+            }
+        }
+        // Each classroom follows a fixed block of courses, like a real timetable.
+        int perClassroom = Math.min(courses, 5);
+        try (MultiRowInsert ins = new MultiRowInsert(conn, "student_courses", "student_id, course_id")) {
+            for (int c = 0; c < classrooms; c++) {
+                for (int studentId : studentsByClassroom[c]) {
+                    for (int k = 0; k < perClassroom; k++) {
+                        ins.add(studentId, courseBase + (c + k) % courses);
+                    }
+                }
+            }
+        }
+    }
+
+    // ──── Projects ────
+    private void generateProjects(Connection conn) throws SQLException {
+        int projectCount = classrooms * projectsPerClassroom;
+        projectClassroom = new int[projectCount];
+        projectMembers = new int[projectCount][];
+
+        try (MultiRowInsert ins = new MultiRowInsert(conn, "projects",
+                "project_id, title, description, template_type, start_date, end_date, status, classroom_id, course_id")) {
+            for (int p = 0; p < projectCount; p++) {
+                int c = p / projectsPerClassroom;
+                projectClassroom[p] = c;
+                LocalDate startDate = BASE_DATE.plusDays(rnd.nextInt(14));
+                ins.add(projectBase + p, "Generated Project " + (p + 1), "Synthetic project for load testing",
+                        TEMPLATES[rnd.nextInt(TEMPLATES.length)], java.sql.Date.valueOf(startDate),
+                        java.sql.Date.valueOf(startDate.plusWeeks(2L * sprintsPerProject)),
+                        "ACTIVE", classroomBase + c, courseBase + (c + rnd.nextInt(Math.min(courses, 5))) % courses);
+            }
+        }
+
+        try (MultiRowInsert ins = new MultiRowInsert(conn, "project_members", "project_id, user_id, role_in_project")) {
+            for (int p = 0; p < projectCount; p++) {
+                int[] pool = studentsByClassroom[projectClassroom[p]];
+                int[] members = sample(pool, Math.min(membersPerProject, pool.length));
+                projectMembers[p] = members;
+                for (int m = 0; m < members.length; m++) {
+                    String role = m == 0 ? "SCRUM_MASTER" : MEMBER_ROLES[1 + rnd.nextInt(MEMBER_ROLES.length - 1)];
+                    ins.add(projectBase + p, members[m], role);
+                }
+            }
+        }
+    }
+
+    private void generateSprints(Connection conn) throws SQLException {
+        try (MultiRowInsert ins = new MultiRowInsert(conn, "sprints",
+                "sprint_id, project_id, sprint_number, title, start_date, end_date, goal, status")) {
+            int activeSprint = Math.min(sprintsPerProject - 1, sprintsPerProject / 2);
+            for (int p = 0; p < projectMembers.length; p++) {
+                for (int s = 0; s < sprintsPerProject; s++) {
+                    LocalDate startDate = BASE_DATE.plusWeeks(2L * s);
+                    String status = s < activeSprint ? "COMPLETED" : s == activeSprint ? "ACTIVE" : "PLANNED";
+                    ins.add(sprintBase + p * sprintsPerProject + s, projectBase + p, s + 1, "Sprint " + (s + 1),
+                            java.sql.Date.valueOf(startDate), java.sql.Date.valueOf(startDate.plusDays(13)),
+                            null, status);
+                }
+            }
+        }
+    }
+
+    private void generateTasks(Connection conn) throws SQLException {
+        taskProject = new int[tasks];
+        try (MultiRowInsert ins = new MultiRowInsert(conn, "tasks",
+                "task_id, project_id, sprint_id, title, description, assigned_to, column_name, priority, " +
+                "estimated_hours, status, created_at")) {
+            for (int t = 0; t < tasks; t++) {
+                int p = rnd.nextInt(projectMembers.length);
+                taskProject[t] = p;
+                // ~20% of tasks sit in the backlog (no sprint)
+                Integer sprintId = rnd.nextInt(5) == 0 ? null : sprintBase + p * sprintsPerProject + rnd.nextInt(sprintsPerProject);
+                int[] members = projectMembers[p];
+                Integer assignee = members.length == 0 || rnd.nextInt(4) == 0 ? null : members[rnd.nextInt(members.length)];
+                String status = TASK_STATUSES[rnd.nextInt(TASK_STATUSES.length)];
+                Float hours = rnd.nextInt(10) == 0 ? null : (float) (1 + rnd.nextInt(16));
+                ins.add(taskBase + t, projectBase + p, sprintId, randomTitle(), null, assignee,
+                        status, PRIORITIES[rnd.nextInt(PRIORITIES.length)], hours, status, randomTimestamp(120));
+            }
+        }
+    }
+
+    /**
+     * task_status_history for the generated tasks, same shape as the V4 backfill: a TODO row at
+     * creation and, for tasks past TODO, their current status a deterministic 0-71 h later.
+     */
+    private void generateTaskHistory(Connection conn) throws SQLException {
+        String created = "INSERT INTO task_status_history " +
+                         "(task_id, project_id, sprint_id, old_status, status, estimated_hours, changed_at) " +
+                         "SELECT task_id, project_id, sprint_id, NULL, 'TODO', estimated_hours, created_at " +
+                         "FROM tasks WHERE task_id >= ? ORDER BY task_id";
+        String moved = "INSERT INTO task_status_history " +
+                       "(task_id, project_id, sprint_id, old_status, status, estimated_hours, changed_at) " +
+                       "SELECT task_id, project_id, sprint_id, 'TODO', status, estimated_hours, " +
+                       "created_at + INTERVAL (task_id * 7919 % 72) HOUR " +
+                       "FROM tasks WHERE task_id >= ? AND status <> 'TODO' ORDER BY task_id";
+        long start = System.nanoTime();
+        int rows = 0;
+        for (String sql : new String[]{created, moved}) {
+            try (PreparedStatement ps = conn.prepareStatement(sql)) {
+                ps.setInt(1, taskBase);
+                rows += ps.executeUpdate();
+            }
+        }
+        conn.commit();
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.out.printf("  %-16s %,10d rows  %8.1f s  %,10.0f rows/s%n",
+                "task_history", rows, seconds, seconds > 0 ? rows / seconds : 0);
+    }
+
+    private void generateCommits(Connection conn) throws SQLException {
+        int commitBase = maxId(conn, "commits", "commit_id") + 1;
+        try (MultiRowInsert ins = new MultiRowInsert(conn, "commits",
+                "commit_id, project_id, task_id, user_id, commit_hash, author, message, additions, deletions, committed_at")) {
+            for (int i = 0; i < commits; i++) {
+                Integer taskId = null;
+                int p;
+                if (tasks > 0 && rnd.nextInt(10) < 7) {
+                    int t = rnd.nextInt(tasks);
+                    taskId = taskBase + t;
+                    p = taskProject[t];
+                } else {
+                    p = rnd.nextInt(projectMembers.length);
+                }
+                int[] members = projectMembers[p];
+                Integer author = members.length == 0 ? null : members[rnd.nextInt(members.length)];
+                String message = (taskId != null ? "TASK-" + taskId + " " : "") + randomTitle();
+                ins.add(commitBase + i, projectBase + p, taskId, author, randomHash(),
+                        author != null ? "Student " + author : "unknown", message,
+                        rnd.nextInt(400), rnd.nextInt(200), Timestamp.valueOf(randomDateTime(120)));
+            }
+        }
+    }
+
+    // ──── Notifications & chat ────
+    private void generateNotifications(Connection conn) throws SQLException {
+        int base = maxId(conn, "notifications", "notification_id") + 1;
+        int userCount = teachers + students;
+        try (MultiRowInsert ins = new MultiRowInsert(conn, "notifications",
+                "notification_id, user_id, title, message, type, is_read, created_at")) {
+            for (int i = 0; i < notifications; i++) {
+                ins.add(base + i, userBase + rnd.nextInt(userCount), "Reminder", "Generated notification " + (i + 1),
+                        NOTIFICATION_TYPES[rnd.nextInt(NOTIFICATION_TYPES.length)], rnd.nextInt(3) == 0 ? 0 : 1,
+                        randomTimestamp(120));
+            }
+        }
+    }
+
+    private void generateChat(Connection conn) throws SQLException {
+        if (chatSessions == 0) return;
+        int sessionBase = maxId(conn, "chat_sessions", "session_id") + 1;
+        int messageBase = maxId(conn, "chat_messages", "message_id") + 1;
+
+        try (MultiRowInsert ins = new MultiRowInsert(conn, "chat_sessions", "session_id, user_id, title, created_at")) {
+            for (int i = 0; i < chatSessions; i++) {
+                int[] pool = studentsByClassroom[rnd.nextInt(classrooms)];
+                ins.add(sessionBase + i, pool[rnd.nextInt(pool.length)], "Tutoring session " + (i + 1),
+                        randomTimestamp(120));
+            }
+        }
+
+        // Messages are written session by session so each conversation is contiguous, like real usage.
+        try (MultiRowInsert ins = new MultiRowInsert(conn, "chat_messages",
+                "message_id, session_id, role, content, created_at")) {
+            int id = messageBase;
+            for (int s = 0; s < chatSessions; s++) {
+                int count = chatMessages / chatSessions + (s < chatMessages % chatSessions ? 1 : 0);
+                LocalDateTime at = randomDateTime(120);
+                for (int m = 0; m < count; m++, id++) {
+                    at = at.plusSeconds(5 + rnd.nextInt(90));
+                    boolean user = m % 2 == 0;
+                    ins.add(id, sessionBase + s, user ? "USER" : "AI",
+                            user ? "How do I " + randomTitle().toLowerCase() + "?" : "Here is an explanation of " + NOUNS[rnd.nextInt(NOUNS.length)] + ".",
+                            Timestamp.valueOf(at));
+                }
+            }
+        }
+    }
+
+    // ──── Random helpers ────
+    private Timestamp randomTimestamp(int days) {
+        return Timestamp.valueOf(randomDateTime(days));
+    }
+
+    private LocalDateTime randomDateTime(int days) {
+        return BASE_DATE.atStartOfDay().plusSeconds((long) rnd.nextInt(days) * 86_400 + rnd.nextInt(86_400));
+    }
+
+    private String randomTitle() {
+        return VERBS[rnd.nextInt(VERBS.length)] + " " + NOUNS[rnd.nextInt(NOUNS.length)];
+    }
+
+    private String randomHash() {
+        return String.format("%016x%016x%08x", rnd.nextLong(), rnd.nextLong(), rnd.nextInt());
+    }
+
+    /** Partial Fisher–Yates: k distinct elements of pool. */
+    private int[] sample(int[] pool, int k) {
+        int[] copy = pool.clone();
+        for (int i = 0; i < k; i++) {
+            int j = i + rnd.nextInt(copy.length - i);
+            int tmp = copy[i]; copy[i] = copy[j]; copy[j] = tmp;
+        }
+        return Arrays.copyOf(copy, k);
+    }
+
+    /**
+     * Buffers rows and writes them as multi-row INSERT statements
+     * (one round trip per batch, independent of rewriteBatchedStatements).
+     * Commits after every flush so huge runs do not build one giant transaction.
+     */
+    private class MultiRowInsert implements AutoCloseable {
+        private final Connection conn;
+        private final String table;
+        private final String columns;
+        private final int columnCount;
+        private final int rowsPerStatement;
+        private final List<Object[]> buffer = new ArrayList<>();
+        private PreparedStatement fullBatch;
+        private long written;
+        private final long startNanos = System.nanoTime();
+
+        MultiRowInsert(Connection conn, String table, String columns) {
+            this.conn = conn;
+            this.table = table;
+            this.columns = columns;
+            this.columnCount = columns.split(",").length;
+            // MySQL caps a statement at 65535 placeholders
+            this.rowsPerStatement = Math.max(1, Math.min(batchSize, 65_535 / columnCount));
+        }
+
+        void add(Object... values) throws SQLException {
+            buffer.add(values);
+            if (buffer.size() >= rowsPerStatement) flush();
+        }
+
+        private void flush() throws SQLException {
+            if (buffer.isEmpty()) return;
+            PreparedStatement ps;
+            if (buffer.size() == rowsPerStatement) {
+                if (fullBatch == null) fullBatch = conn.prepareStatement(buildSql(rowsPerStatement));
+                ps = fullBatch;
+            } else {
+                ps = conn.prepareStatement(buildSql(buffer.size()));
+            }
+            try {
+                int index = 1;
+                for (Object[] row : buffer) {
+                    for (Object value : row) {
+                        ps.setObject(index++, value);
+                    }
+                }
+                ps.executeUpdate();
+            } finally {
+                if (ps != fullBatch) ps.close();
+            }
+            conn.commit();
+            written += buffer.size();
+            buffer.clear();
+        }
+
+        private String buildSql(int rows) {
+            String placeholders = "(" + String.join(", ", Collections.nCopies(columnCount, "?")) + ")";
+            return "INSERT INTO " + table + " (" + columns + ") VALUES " +
+                   String.join(", ", Collections.nCopies(rows, placeholders));
+        }
+
+        @Override
+        public void close() throws SQLException {
+            try {
+                flush();
+            } finally {
+                if (fullBatch != null) fullBatch.close();
+            }
+            double seconds = (System.nanoTime() - startNanos) / 1e9;
+            System.out.printf("  %-16s %,10d rows  %8.1f s  %,10.0f rows/s%n",
+                    table, written, seconds, seconds > 0 ? written / seconds : 0);
+        }
+    }
+}
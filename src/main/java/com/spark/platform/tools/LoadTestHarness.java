@@ -0,0 +1,289 @@
+package com.spark.platform.tools;
+
+import com.spark.platform.models.Classroom;
+import com.spark.platform.models.Project;
+import com.spark.platform.models.Sprint;
+import com.spark.platform.models.Task;
+import com.spark.platform.services.SprintService;
+import com.spark.platform.services.StudentProjectService;
+import com.spark.platform.services.TaskService;
+import com.spark.platform.services.TeacherProjectService;
+import com.spark.platform.utils.LatencyHistogram;
+
+import java.sql.SQLException;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+/**
+ * Headless load driver for the service layer.
+ *
+ * Each simulated client replays the same calls the JavaFX controllers make:
+ * students open a board, filter it, drag cards and create tasks; teachers walk
+ * the classroom → project → detail drill-down. Per-operation throughput,
+ * p50/p95/p99 latency and error rates are printed periodically and at the end.
+ *
+ * Run with (after seeding data, e.g. with DatasetGenerator):
+ *   mvn -q compile exec:java -Dexec.mainClass=com.spark.platform.tools.LoadTestHarness \
+ *       -Dexec.args="--clients=200 --duration=60 --teacherRatio=0.2"
+ */
+public class LoadTestHarness {
+
+    // ──── Options ────
+    private int clients = 50;
+    private int durationSeconds = 60;
+    private int warmupSeconds = 5;
+    private int reportSeconds = 10;
+    private int thinkMillis = 100;
+    private double teacherRatio = 0.2;
+    private boolean readOnly = false;
+    private long seed = 42;
+
+    private static final String[] COLUMNS = {"TODO", "IN_PROGRESS", "REVIEW", "DONE"};
+    private static final String[] PRIORITIES = {"LOW", "MEDIUM", "HIGH", "CRITICAL"};
+
+    // ──── Services (stateless, shared across clients like the controllers would) ────
+    private final TaskService taskService = new TaskService();
+    private final SprintService sprintService = new SprintService();
+    private final StudentProjectService studentService = new StudentProjectService();
+    private final TeacherProjectService teacherService = new TeacherProjectService();
+
+    // ──── Run state ────
+    private final Map<String, OperationStats> stats = new ConcurrentSkipListMap<>();
+    private final Set<Integer> createdTaskIds = ConcurrentHashMap.newKeySet();
+    private final AtomicBoolean running = new AtomicBoolean(true);
+    private List<Integer> projectIds = new ArrayList<>();
+    private volatile long measureStartNanos;
+
+    public static void main(String[] args) throws Exception {
+        LoadTestHarness harness = new LoadTestHarness();
+        harness.parseArgs(args);
+        harness.run();
+    }
+
+    private void parseArgs(String[] args) {
+        for (String arg : args) {
+            if (arg.equals("--readOnly")) { readOnly = true; continue; }
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Expected --name=value, got: " + arg);
+            }
+            String key = arg.substring(2, arg.indexOf('='));
+            String value = arg.substring(arg.indexOf('=') + 1);
+            switch (key) {
+                case "clients":      clients = Integer.parseInt(value); break;
+                case "duration":     durationSeconds = Integer.parseInt(value); break;
+                case "warmup":       warmupSeconds = Integer.parseInt(value); break;
+                case "report":       reportSeconds = Integer.parseInt(value); break;
+                case "think":        thinkMillis = Integer.parseInt(value); break;
+                case "teacherRatio": teacherRatio = Double.parseDouble(value); break;
+                case "seed":         seed = Long.parseLong(value); break;
+                default: throw new IllegalArgumentException("Unknown option: --" + key);
+            }
+        }
+    }
+
+    public void run() throws Exception {
+        projectIds = discoverProjects();
+        if (projectIds.isEmpty()) {
+            System.err.println("No projects found — seed the database first (see DatasetGenerator).");
+            return;
+        }
+        System.out.printf("Load test: %d clients, %ds (+%ds warmup), %d projects, think=%dms, readOnly=%s%n",
+                clients, durationSeconds, warmupSeconds, projectIds.size(), thinkMillis, readOnly);
+
+        // One platform thread per simulated client: each client blocks on JDBC just like a UI session would.
+        ExecutorService pool = Executors.newFixedThreadPool(clients, r -> {
+            Thread t = new Thread(r, "load-client");
+            t.setDaemon(true);
+            return t;
+        });
+        ScheduledExecutorService reporter = Executors.newSingleThreadScheduledExecutor();
+
+        for (int i = 0; i < clients; i++) {
+            Random rnd = new Random(seed + i);
+            boolean teacher = rnd.nextDouble() < teacherRatio;
+            pool.submit(() -> clientLoop(rnd, teacher));
+        }
+
+        Thread.sleep(TimeUnit.SECONDS.toMillis(warmupSeconds));
+        stats.values().forEach(OperationStats::reset);
+        measureStartNanos = System.nanoTime();
+        reporter.scheduleAtFixedRate(() -> printReport("interim"), reportSeconds, reportSeconds, TimeUnit.SECONDS);
+
+        Thread.sleep(TimeUnit.SECONDS.toMillis(durationSeconds));
+        running.set(false);
+        reporter.shutdownNow();
+        pool.shutdown();
+        if (!pool.awaitTermination(30, TimeUnit.SECONDS)) {
+            System.err.println("Some clients did not stop within 30s");
+        }
+        printReport("final");
+        cleanup();
+    }
+
+    private List<Integer> discoverProjects() throws SQLException {
+        List<Integer> ids = new ArrayList<>();
+        for (Classroom c : teacherService.findAllClassrooms()) {
+            for (Project p : teacherService.findProjectsByClassroom(c.getClassroomId())) {
+                ids.add(p.getProjectId());
+            }
+        }
+        return ids;
+    }
+
+    // ──── Client scripts ────
+    private void clientLoop(Random rnd, boolean teacher) {
+        while (running.get()) {
+            try {
+                if (teacher) teacherSession(rnd);
+                else studentSession(rnd);
+            } catch (Exception e) {
+                // Already counted against the failing operation; keep the client alive.
+            }
+        }
+    }
+
+    /** Mirrors StudentProjectsController → ProjectBoardController. */
+    private void studentSession(Random rnd) throws Exception {
+        int projectId = projectIds.get(rnd.nextInt(projectIds.size()));
+
+        timed("board.loadProject", () -> studentService.findProjectById(projectId));
+        timed("board.countMembers", () -> studentService.countMembers(projectId));
+        List<Sprint> sprints = timed("board.loadSprints", () -> sprintService.findByProject(projectId));
+        Integer sprintId = sprints.isEmpty() ? null : sprints.stream()
+                .filter(s -> "ACTIVE".equals(s.getStatus())).findFirst().orElse(sprints.get(0)).getSprintId();
+        List<Task> tasks = timed("board.loadTasks", () -> taskService.findByProjectAndSprint(projectId, sprintId));
+        think(rnd);
+
+        // Client-side filtering, as the board does on every keystroke
+        String sample = tasks.isEmpty() ? "" : tasks.get(rnd.nextInt(tasks.size())).getTitle();
+        String needle = sample == null || sample.isEmpty() ? "" : sample.substring(0, 1).toLowerCase();
+        timed("board.filter", () -> tasks.stream()
+                .filter(t -> t.getTitle() != null && t.getTitle().toLowerCase().contains(needle))
+                .collect(Collectors.toList()));
+        think(rnd);
+
+        if (!readOnly && !tasks.isEmpty()) {
+            for (int i = 0, moves = 1 + rnd.nextInt(3); i < moves; i++) {
+                Task t = tasks.get(rnd.nextInt(tasks.size()));
+                String column = COLUMNS[rnd.nextInt(COLUMNS.length)];
+                timed("board.dragCard", () -> { taskService.updateStatus(t.getTaskId(), column, column); return null; });
+                think(rnd);
+            }
+        }
+
+        if (!readOnly && sprintId != null && rnd.nextInt(4) == 0) {
+            Task task = new Task();
+            task.setProjectId(projectId);
+            task.setSprintId(sprintId);
+            task.setTitle("[load] task " + rnd.nextInt(1_000_000));
+            task.setColumnName("TODO");
+            task.setStatus("TODO");
+            task.setPriority(PRIORITIES[rnd.nextInt(PRIORITIES.length)]);
+            task.setEstimatedHours((float) (1 + rnd.nextInt(8)));
+            Task created = timed("board.createTask", () -> taskService.create(task));
+            createdTaskIds.add(created.getTaskId());
+            think(rnd);
+        }
+
+        if (rnd.nextInt(3) == 0) {
+            timed("board.loadBacklog", () -> taskService.findBacklog(projectId));
+            think(rnd);
+        }
+    }
+
+    /** Mirrors TeacherProjectsController's three drill-down levels (including its per-row counts). */
+    private void teacherSession(Random rnd) throws Exception {
+        List<Classroom> classrooms = timed("teacher.listClassrooms", teacherService::findAllClassrooms);
+        for (Classroom c : classrooms) {
+            timed("teacher.countStudents", () -> teacherService.countStudents(c.getClassroomId()));
+            timed("teacher.countProjects", () -> teacherService.countProjectsInClassroom(c.getClassroomId()));
+        }
+        if (classrooms.isEmpty()) return;
+        think(rnd);
+
+        Classroom classroom = classrooms.get(rnd.nextInt(classrooms.size()));
+        List<Project> projects = timed("teacher.listProjects",
+                () -> teacherService.findProjectsByClassroom(classroom.getClassroomId()));
+        for (Project p : projects) {
+            timed("teacher.countMembers", () -> teacherService.countMembers(p.getProjectId()));
+        }
+        if (projects.isEmpty()) return;
+        think(rnd);
+
+        Project project = projects.get(rnd.nextInt(projects.size()));
+        timed("teacher.projectMembers", () -> teacherService.findProjectMembers(project.getProjectId()));
+        timed("teacher.taskStats", () -> teacherService.getTaskStats(project.getProjectId()));
+        think(rnd);
+    }
+
+    private void think(Random rnd) throws InterruptedException {
+        if (thinkMillis > 0) Thread.sleep(thinkMillis / 2 + rnd.nextInt(thinkMillis));
+    }
+
+    // ──── Measurement ────
+    private <T> T timed(String operation, Callable<T> call) throws Exception {
+        OperationStats s = stats.computeIfAbsent(operation, k -> new OperationStats());
+        long start = System.nanoTime();
+        try {
+            T result = call.call();
+            s.latency.record(System.nanoTime() - start);
+            return result;
+        } catch (Exception e) {
+            s.errors.increment();
+            s.lastError = e.getClass().getSimpleName() + ": " + e.getMessage();
+            throw e;
+        }
+    }
+
+    private void printReport(String label) {
+        double elapsed = Math.max(1e-9, (System.nanoTime() - measureStartNanos) / 1e9);
+        System.out.printf("%n── %s report after %.0fs ──%n", label, elapsed);
+        System.out.printf("%-24s %9s %8s %7s %9s %9s %9s %9s%n",
+                "operation", "ok", "errors", "err%", "ops/s", "p50 ms", "p95 ms", "p99 ms");
+        long totalOk = 0, totalErr = 0;
+        for (Map.Entry<String, OperationStats> e : stats.entrySet()) {
+            OperationStats s = e.getValue();
+            long ok = s.latency.getCount();
+            long err = s.errors.sum();
+            totalOk += ok;
+            totalErr += err;
+            System.out.printf("%-24s %9d %8d %6.2f%% %9.1f %9.1f %9.1f %9.1f%n",
+                    e.getKey(), ok, err, ok + err == 0 ? 0 : 100.0 * err / (ok + err), ok / elapsed,
+                    s.latency.getPercentileMillis(50), s.latency.getPercentileMillis(95),
+                    s.latency.getPercentileMillis(99));
+        }
+        System.out.printf("%-24s %9d %8d %24.1f ops/s%n", "TOTAL", totalOk, totalErr, totalOk / elapsed);
+        stats.forEach((op, s) -> {
+            if (s.lastError != null) System.out.println("  last error in " + op + ": " + s.lastError);
+        });
+    }
+
+    /** Removes tasks created during the run so repeated runs measure the same dataset. */
+    private void cleanup() {
+        int removed = 0;
+        for (Integer id : createdTaskIds) {
+            try {
+                taskService.delete(id);
+                removed++;
+            } catch (SQLException e) {
+                System.err.println("Failed to delete load-test task " + id + ": " + e.getMessage());
+            }
+        }
+        if (removed > 0) System.out.println("Cleaned up " + removed + " load-test tasks");
+    }
+
+    private static class OperationStats {
+        final LatencyHistogram latency = new LatencyHistogram();
+        final LongAdder errors = new LongAdder();
+        volatile String lastError;
+
+        void reset() {
+            latency.reset();
+            errors.reset();
+            lastError = null;
+        }
+    }
+}
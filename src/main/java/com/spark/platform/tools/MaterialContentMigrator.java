@@ -0,0 +1,42 @@
+package com.spark.platform.tools;
+
+import com.spark.platform.services.MaterialService;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Moves large material bodies out of materials.content into the file store
+ * (materials.storeDir), largest first, one row at a time so no long transaction is held.
+ *   mvn -q compile exec:java -Dexec.mainClass=com.spark.platform.tools.MaterialContentMigrator \
+ *       -Dexec.args="--min-kb=64 --limit=1000"
+ * Safe to re-run: rows already moved have NULL content and are skipped.
+ */
+public class MaterialContentMigrator {
+
+    public static void main(String[] args) throws Exception {
+        long minKb = 64;
+        int limit = Integer.MAX_VALUE;
+        for (String arg : args) {
+            if (arg.startsWith("--min-kb=")) minKb = Long.parseLong(arg.substring("--min-kb=".length()));
+            else if (arg.startsWith("--limit=")) limit = Integer.parseInt(arg.substring("--limit=".length()));
+            else throw new IllegalArgumentException("Unknown option: " + arg);
+        }
+
+        MaterialService service = new MaterialService();
+        long start = System.nanoTime();
+        int moved = 0, skipped = 0;
+        while (moved + skipped < limit) {
+            List<Integer> batch = service.findInlineContentLargerThan(minKb * 1024, Math.min(100, limit - moved - skipped));
+            if (batch.isEmpty()) break;
+            int before = moved;
+            for (int id : batch) {
+                if (service.moveContentToStore(id)) moved++;
+                else skipped++;
+            }
+            if (moved == before) break; // every row in the batch changed under us; try again later
+        }
+        System.out.printf("Moved %d material bod%s to the file store in %d ms (%d skipped)%n",
+                moved, moved == 1 ? "y" : "ies", TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start), skipped);
+    }
+}
@@ -0,0 +1,57 @@
+package com.spark.platform.tools;
+
+import com.spark.platform.services.DerivationScheduler;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Generates quizzes, flashcards and mind maps from materials through DerivationScheduler
+ * (materials.deriveWorkers threads) and waits for them.
+ *   mvn -q compile exec:java -Dexec.mainClass=com.spark.platform.tools.MaterialDeriver \
+ *       -Dexec.args="--materials=12,15 --kinds=QUIZ,FLASHCARD --priority=7"
+ * Results already generated for the same text and generator version are reused.
+ * --resume also finishes jobs an earlier run left queued, or running past the claim lease.
+ */
+public class MaterialDeriver {
+
+    public static void main(String[] args) throws Exception {
+        List<Integer> materialIds = new ArrayList<>();
+        String[] kinds = {"QUIZ", "FLASHCARD", "MIND_MAP"};
+        int priority = DerivationScheduler.DEFAULT_PRIORITY;
+        boolean resume = false;
+        for (String arg : args) {
+            if (arg.startsWith("--materials=")) {
+                for (String id : arg.substring("--materials=".length()).split(",")) materialIds.add(Integer.valueOf(id.trim()));
+            } else if (arg.startsWith("--kinds=")) kinds = arg.substring("--kinds=".length()).toUpperCase().split(",");
+            else if (arg.startsWith("--priority=")) priority = Integer.parseInt(arg.substring("--priority=".length()));
+            else if (arg.equals("--resume")) resume = true;
+            else throw new IllegalArgumentException("Unknown option: " + arg);
+        }
+
+        DerivationScheduler scheduler = DerivationScheduler.shared();
+        long start = System.nanoTime();
+        if (resume) System.out.printf("Resumed %d unfinished job(s)%n", scheduler.resumeUnfinished());
+
+        List<CompletableFuture<Integer>> results = new ArrayList<>();
+        List<String> labels = new ArrayList<>();
+        for (int materialId : materialIds) {
+            for (String kind : kinds) {
+                results.add(scheduler.request(materialId, kind.trim(), priority, null));
+                labels.add(kind.trim() + " of material " + materialId);
+            }
+        }
+        for (int i = 0; i < results.size(); i++) {
+            try {
+                System.out.printf("%s → material %d%n", labels.get(i), results.get(i).get());
+            } catch (Exception e) {
+                System.out.printf("%s failed: %s%n", labels.get(i), e.getCause() != null ? e.getCause().getMessage() : e.getMessage());
+            }
+        }
+        while (scheduler.getQueuedCount() > 0) Thread.sleep(200); // resumed jobs nobody waits on
+        scheduler.stop(TimeUnit.MINUTES.toMillis(1));
+        System.out.printf("Done in %d ms: %s%n", TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start), scheduler.summary());
+    }
+}
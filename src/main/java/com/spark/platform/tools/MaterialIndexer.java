@@ -0,0 +1,49 @@
+package com.spark.platform.tools;
+
+import com.spark.platform.config.DatabaseConfig;
+import com.spark.platform.services.MaterialSearchIndex;
+import com.spark.platform.services.MaterialService;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Builds or refreshes the Spark AI material index (<search.indexDir>/materials.idx) outside
+ * the app, and runs a test query against it.
+ *   mvn -q compile exec:java -Dexec.mainClass=com.spark.platform.tools.MaterialIndexer \
+ *       -Dexec.args="--rebuild --query='binary search tree'"
+ * Without --rebuild only materials whose content changed are re-indexed.
+ */
+public class MaterialIndexer {
+
+    public static void main(String[] args) throws Exception {
+        boolean rebuild = false;
+        String query = null;
+        for (String arg : args) {
+            if (arg.equals("--rebuild")) rebuild = true;
+            else if (arg.startsWith("--query=")) query = arg.substring("--query=".length()).replace("'", "");
+            else throw new IllegalArgumentException("Unknown option: " + arg);
+        }
+
+        Path file = Path.of(DatabaseConfig.getInstance().getSearchIndexDir(), "materials.idx");
+        if (rebuild) Files.deleteIfExists(file);
+        MaterialSearchIndex index = new MaterialSearchIndex(file);
+
+        long start = System.nanoTime();
+        index.load();
+        int changed = index.sync(new MaterialService());
+        System.out.printf("Index synced in %d ms — %d material(s) re-indexed or removed, %d indexed, %d bytes%n",
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start), changed, index.getMaterialCount(),
+                Files.exists(file) ? Files.size(file) : 0);
+
+        if (query != null) {
+            start = System.nanoTime();
+            var hits = index.search(query, null, 10);
+            System.out.printf("%d hit(s) in %.2f ms%n", hits.size(), (System.nanoTime() - start) / 1e6);
+            for (MaterialSearchIndex.Hit h : hits) {
+                System.out.printf("  %6.2f  #%d %s, p. %d%n", h.getScore(), h.getMaterialId(), h.getTitle(), h.getPage());
+            }
+        }
+    }
+}
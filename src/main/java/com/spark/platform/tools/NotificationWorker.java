@@ -0,0 +1,58 @@
+package com.spark.platform.tools;
+
+import com.spark.platform.services.NotificationDispatcher;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Standalone dispatcher for SMS / e-mail notifications queued in notification_outbox.
+ *
+ * Any number of these can run at once (rows are claimed with SKIP LOCKED). Prints the
+ * sent / retried / dead counters every --report=<seconds>; stop it with Ctrl+C.
+ *   mvn -q compile exec:java -Dexec.mainClass=com.spark.platform.tools.NotificationWorker \
+ *       -Dexec.args="--workers=4 --batch=100 --max-attempts=8"
+ * --requeue-dead=SMS puts that channel's DEAD rows back in the queue and exits.
+ */
+public class NotificationWorker {
+
+    public static void main(String[] args) throws Exception {
+        int workers = 2;
+        int batchSize = 100;
+        int maxAttempts = 8;
+        int reportSeconds = 60;
+        String requeueChannel = null;
+        for (String arg : args) {
+            if (arg.startsWith("--workers=")) workers = Integer.parseInt(arg.substring("--workers=".length()));
+            else if (arg.startsWith("--batch=")) batchSize = Integer.parseInt(arg.substring("--batch=".length()));
+            else if (arg.startsWith("--max-attempts=")) maxAttempts = Integer.parseInt(arg.substring("--max-attempts=".length()));
+            else if (arg.startsWith("--report=")) reportSeconds = Integer.parseInt(arg.substring("--report=".length()));
+            else if (arg.startsWith("--requeue-dead=")) requeueChannel = arg.substring("--requeue-dead=".length());
+            else throw new IllegalArgumentException("Unknown option: " + arg);
+        }
+        if (workers < 1 || batchSize < 1 || maxAttempts < 1) {
+            throw new IllegalArgumentException("--workers, --batch and --max-attempts must be at least 1");
+        }
+
+        NotificationDispatcher dispatcher = NotificationDispatcher.withLocalSinks(workers, batchSize, maxAttempts);
+        if (requeueChannel != null) {
+            System.out.printf("Requeued %d dead %s notification(s)%n",
+                    dispatcher.requeueDead(requeueChannel), requeueChannel);
+            return;
+        }
+
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            try {
+                dispatcher.stop(5000);
+            } catch (InterruptedException ignored) {
+                Thread.currentThread().interrupt();
+            }
+        }));
+        dispatcher.start();
+        System.out.printf("Dispatching with %d worker(s), batches of %d%n", workers, batchSize);
+        while (true) {
+            Thread.sleep(TimeUnit.SECONDS.toMillis(reportSeconds));
+            System.out.printf("sent=%d retried=%d dead=%d%n",
+                    dispatcher.getSentCount(), dispatcher.getRetriedCount(), dispatcher.getDeadCount());
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.spark.platform.tools;
+
+import com.spark.platform.services.TaskEventService;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compacts and expires the task activity log (task_events) project by project.
+ *
+ * Defaults: status changes older than 30 days are reduced to the latest per task, events
+ * older than 180 days are deleted, and each project always keeps its newest 200 events.
+ * Run once, or keep it running with --every=<minutes>:
+ *   mvn -q compile exec:java -Dexec.mainClass=com.spark.platform.tools.TaskEventRetention \
+ *       -Dexec.args="--compact-after=30 --retain=180 --keep=200 --every=1440"
+ */
+public class TaskEventRetention {
+
+    public static void main(String[] args) throws Exception {
+        int compactAfterDays = 30;
+        int retainDays = 180;
+        int keepLatest = 200;
+        int everyMinutes = 0;
+        for (String arg : args) {
+            if (arg.startsWith("--compact-after=")) compactAfterDays = Integer.parseInt(arg.substring("--compact-after=".length()));
+            else if (arg.startsWith("--retain=")) retainDays = Integer.parseInt(arg.substring("--retain=".length()));
+            else if (arg.startsWith("--keep=")) keepLatest = Integer.parseInt(arg.substring("--keep=".length()));
+            else if (arg.startsWith("--every=")) everyMinutes = Integer.parseInt(arg.substring("--every=".length()));
+            else throw new IllegalArgumentException("Unknown option: " + arg);
+        }
+        if (compactAfterDays > retainDays) {
+            throw new IllegalArgumentException("--compact-after must not exceed --retain");
+        }
+
+        TaskEventService service = new TaskEventService();
+        do {
+            long start = System.nanoTime();
+            int removed = service.applyRetentionAll(compactAfterDays, retainDays, keepLatest);
+            System.out.printf("Trimmed task_events in %d ms — %d row(s) removed%n",
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start), removed);
+            if (everyMinutes > 0) Thread.sleep(TimeUnit.MINUTES.toMillis(everyMinutes));
+        } while (everyMinutes > 0);
+    }
+}
@@ -0,0 +1,33 @@
+package com.spark.platform.tools;
+
+import com.spark.platform.services.TaskStatsService;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Recomputes project_task_stats from tasks and repairs any drift (e.g. after manual
+ * edits with triggers disabled, or a restore that skipped the summary table).
+ *
+ * Run once, or keep it running with --every=<minutes>:
+ *   mvn -q compile exec:java -Dexec.mainClass=com.spark.platform.tools.TaskStatsReconciler \
+ *       -Dexec.args="--every=60"
+ */
+public class TaskStatsReconciler {
+
+    public static void main(String[] args) throws Exception {
+        int everyMinutes = 0;
+        for (String arg : args) {
+            if (arg.startsWith("--every=")) everyMinutes = Integer.parseInt(arg.substring("--every=".length()));
+            else throw new IllegalArgumentException("Unknown option: " + arg);
+        }
+
+        TaskStatsService service = new TaskStatsService();
+        do {
+            long start = System.nanoTime();
+            int corrected = service.reconcileAll();
+            System.out.printf("Reconciled project_task_stats in %d ms — %d project(s) corrected%n",
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start), corrected);
+            if (everyMinutes > 0) Thread.sleep(TimeUnit.MINUTES.toMillis(everyMinutes));
+        } while (everyMinutes > 0);
+    }
+}
@@ -2,9 +2,48 @@ package com.spark.platform.utils;
 
 import org.mindrot.jbcrypt.BCrypt;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * BCrypt hashing with a configurable cost and a dedicated, bounded worker pool.
+ *
+ * The cost comes from -Dspark.bcrypt.cost (default 10, clamped to 4..20). Raising it
+ * only affects new hashes; {@link #needsRehash(String)} tells the login flow when a
+ * stored hash should be upgraded.
+ *
+ * Never call {@link #hash} / {@link #verify} on the JavaFX thread — use the async
+ * variants, which run on a pool sized to the CPU count so a login burst queues up
+ * instead of spawning a thread per request.
+ */
 public class PasswordUtils {
 
-    private static final int BCRYPT_ROUNDS = 10;
+    private static final int DEFAULT_ROUNDS = 10;
+    private static final int BCRYPT_ROUNDS = Math.max(4, Math.min(20, Integer.getInteger("spark.bcrypt.cost", DEFAULT_ROUNDS)));
+
+    private static final int POOL_SIZE = Math.max(1, Runtime.getRuntime().availableProcessors());
+    private static final int QUEUE_CAPACITY = 512;
+
+    // Daemon threads so a pending hash never keeps the app from exiting.
+    private static final ExecutorService POOL = new ThreadPoolExecutor(
+            POOL_SIZE, POOL_SIZE, 30, TimeUnit.SECONDS,
+            new ArrayBlockingQueue<>(QUEUE_CAPACITY),
+            new ThreadFactory() {
+                private final AtomicInteger n = new AtomicInteger();
+
+                @Override
+                public Thread newThread(Runnable r) {
+                    Thread t = new Thread(r, "bcrypt-" + n.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                }
+            });
+
+    static {
+        ((ThreadPoolExecutor) POOL).allowCoreThreadTimeOut(true);
+    }
 
     public static String hash(String plainPassword) {
         return BCrypt.hashpw(plainPassword, BCrypt.gensalt(BCRYPT_ROUNDS));
@@ -13,4 +52,95 @@ public class PasswordUtils {
     public static boolean verify(String plainPassword, String hashedPassword) {
         return BCrypt.checkpw(plainPassword, hashedPassword);
     }
-}
\ No newline at end of file
+
+    // ──── Async ────
+
+    /**
+     * Hashes on the bcrypt pool. The future fails with RejectedExecutionException
+     * if more than QUEUE_CAPACITY hashes are already waiting.
+     */
+    public static CompletableFuture<String> hashAsync(String plainPassword) {
+        return submit(() -> hash(plainPassword));
+    }
+
+    /** Verifies on the bcrypt pool; see {@link #hashAsync(String)} for back-pressure. */
+    public static CompletableFuture<Boolean> verifyAsync(String plainPassword, String hashedPassword) {
+        return submit(() -> verify(plainPassword, hashedPassword));
+    }
+
+    /**
+     * Hashes a batch (e.g. a user import) in parallel across all cores and returns
+     * the hashes in input order. Blocks the caller — run it off the UI thread.
+     * The batch is split into one slice per pool thread, so it never floods the queue.
+     */
+    public static List<String> hashAll(List<String> plainPasswords) throws InterruptedException {
+        int size = plainPasswords.size();
+        String[] out = new String[size];
+        int slices = Math.min(POOL_SIZE, size);
+        List<Callable<Void>> work = new ArrayList<>(slices);
+        for (int s = 0; s < slices; s++) {
+            int from = (int) ((long) size * s / slices);
+            int to = (int) ((long) size * (s + 1) / slices);
+            work.add(() -> {
+                for (int i = from; i < to; i++) out[i] = hash(plainPasswords.get(i));
+                return null;
+            });
+        }
+        for (Future<Void> f : POOL.invokeAll(work)) {
+            try {
+                f.get();
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("Bulk hashing failed", e.getCause());
+            }
+        }
+        return List.of(out);
+    }
+
+    /** The bcrypt pool, for callers that chain their own work (e.g. a DB lookup) before verifying. */
+    public static Executor executor() {
+        return POOL;
+    }
+
+    // ──── Cost management ────
+
+    public static int getConfiguredCost() {
+        return BCRYPT_ROUNDS;
+    }
+
+    /** True when the stored hash uses a lower cost than configured (or isn't parseable). */
+    public static boolean needsRehash(String hashedPassword) {
+        return costOf(hashedPassword) < BCRYPT_ROUNDS;
+    }
+
+    /** Cost encoded in a "$2a$10$..." hash, or -1 if the format is unknown. */
+    public static int costOf(String hashedPassword) {
+        if (hashedPassword == null || hashedPassword.length() < 7 || hashedPassword.charAt(0) != '$') return -1;
+        int sep = hashedPassword.indexOf('$', 1);
+        if (sep < 0 || sep + 3 > hashedPassword.length()) return -1;
+        try {
+            return Integer.parseInt(hashedPassword.substring(sep + 1, sep + 3));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * Runs task on the bcrypt pool. Like hashAsync, a full queue fails the returned
+     * future with RejectedExecutionException instead of throwing to the caller.
+     */
+    public static <T> CompletableFuture<T> submit(Callable<T> task) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        try {
+            POOL.execute(() -> {
+                try {
+                    future.complete(task.call());
+                } catch (Throwable t) {
+                    future.completeExceptionally(t);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            future.completeExceptionally(e);
+        }
+        return future;
+    }
+}
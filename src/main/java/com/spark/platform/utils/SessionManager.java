@@ -2,53 +2,134 @@ package com.spark.platform.utils;
 
 import com.spark.platform.models.User;
 
+import java.util.Collection;
+import java.util.Set;
+
 /**
  * Singleton to hold the currently logged-in user.
  * Set after successful login, cleared on logout.
+ *
+ * Thread-safe: the whole session is one immutable snapshot behind a volatile
+ * reference, so background loaders always see a consistent user + roles +
+ * memberships, and reads never lock. Role flags and memberships are resolved
+ * once at login (see AuthService.login) instead of on every check.
  */
 public class SessionManager {
 
-    private static SessionManager instance;
-    private User currentUser;
+    private static final Snapshot LOGGED_OUT = new Snapshot(null, Set.of(), Set.of(), Set.of());
+
+    private volatile Snapshot session = LOGGED_OUT;
 
     private SessionManager() {}
 
+    // Initialization-on-demand holder: lazy and safe without synchronization.
+    private static class Holder {
+        static final SessionManager INSTANCE = new SessionManager();
+    }
+
     public static SessionManager getInstance() {
-        if (instance == null) {
-            instance = new SessionManager();
-        }
-        return instance;
+        return Holder.INSTANCE;
     }
 
+    /** Log in without preloaded memberships (membership checks will all be false except for admins). */
     public void login(User user) {
-        this.currentUser = user;
+        login(user, Set.of(), Set.of(), Set.of());
+    }
+
+    public void login(User user, Collection<Integer> projectIds, Collection<Integer> classroomIds,
+                      Collection<Integer> courseIds) {
+        this.session = new Snapshot(user, Set.copyOf(projectIds), Set.copyOf(classroomIds), Set.copyOf(courseIds));
     }
 
     public void logout() {
-        this.currentUser = null;
+        this.session = LOGGED_OUT;
+    }
+
+    /**
+     * Replace the cached project memberships (e.g. after a teacher adds the user to a project)
+     * without touching the rest of the session.
+     */
+    public void refreshProjects(Collection<Integer> projectIds) {
+        Snapshot s = session;
+        if (s.user != null) {
+            session = new Snapshot(s.user, Set.copyOf(projectIds), s.classroomIds, s.courseIds);
+        }
     }
 
     public User getCurrentUser() {
-        return currentUser;
+        return session.user;
     }
 
     public boolean isLoggedIn() {
-        return currentUser != null;
+        return session.user != null;
     }
 
     public boolean isAdmin() {
-        return isLoggedIn() && "ADMINISTRATOR".equals(currentUser.getUserType());
+        return session.admin;
     }
 
     public boolean isTeacher() {
-        return isLoggedIn() && "TEACHER".equals(currentUser.getUserType());
+        return session.teacher;
     }
 
     public boolean isStudent() {
-        return isLoggedIn() && "STUDENT".equals(currentUser.getUserType());
+        return session.student;
     }
 
     public int getUserId() {
-        return isLoggedIn() ? currentUser.getUserId() : -1;
+        Snapshot s = session;
+        return s.user != null ? s.user.getUserId() : -1;
+    }
+
+    // ──── Cached memberships ────
+
+    /** Projects the user belongs to (students) or supervises through their courses (teachers). */
+    public Set<Integer> getProjectIds() {
+        return session.projectIds;
+    }
+
+    public Set<Integer> getClassroomIds() {
+        return session.classroomIds;
+    }
+
+    public Set<Integer> getCourseIds() {
+        return session.courseIds;
+    }
+
+    /** Authorization check against the login-time snapshot — no database round trip. */
+    public boolean canAccessProject(int projectId) {
+        Snapshot s = session;
+        return s.admin || s.projectIds.contains(projectId);
+    }
+
+    public boolean canAccessClassroom(int classroomId) {
+        Snapshot s = session;
+        return s.admin || s.classroomIds.contains(classroomId);
+    }
+
+    public boolean teachesCourse(int courseId) {
+        Snapshot s = session;
+        return s.teacher && s.courseIds.contains(courseId);
+    }
+
+    private static final class Snapshot {
+        final User user;
+        final boolean admin;
+        final boolean teacher;
+        final boolean student;
+        final Set<Integer> projectIds;
+        final Set<Integer> classroomIds;
+        final Set<Integer> courseIds;
+
+        Snapshot(User user, Set<Integer> projectIds, Set<Integer> classroomIds, Set<Integer> courseIds) {
+            String type = user != null ? user.getUserType() : null;
+            this.user = user;
+            this.admin = "ADMINISTRATOR".equals(type);
+            this.teacher = "TEACHER".equals(type);
+            this.student = "STUDENT".equals(type);
+            this.projectIds = projectIds;
+            this.classroomIds = classroomIds;
+            this.courseIds = courseIds;
+        }
     }
-}
\ No newline at end of file
+}
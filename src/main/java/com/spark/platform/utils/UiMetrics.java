@@ -0,0 +1,186 @@
+package com.spark.platform.utils;
+
+import javafx.animation.AnimationTimer;
+import javafx.scene.Node;
+import javafx.scene.Parent;
+import javafx.scene.Scene;
+import javafx.scene.control.Label;
+import javafx.scene.input.KeyCombination;
+import javafx.scene.layout.StackPane;
+import javafx.stage.Popup;
+import javafx.stage.Window;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Opt-in UI performance instrumentation (run with -Dspark.uiMetrics=true).
+ *
+ * Records frame intervals and the CSS/layout phase of every pulse, timed sections
+ * such as renderBoard or loadIntoOutlet, and node counts per page. When enabled:
+ *   Ctrl/Cmd+Shift+M  toggles a live overlay
+ *   Ctrl/Cmd+Shift+E  exports the current numbers to logs/ui-metrics-*.txt
+ * When disabled every call is a cheap no-op, so call sites can stay in place.
+ */
+public final class UiMetrics {
+
+    private static final boolean ENABLED = Boolean.getBoolean("spark.uiMetrics");
+    private static final long JANK_THRESHOLD_NANOS = 33_000_000L; // missed two 60 Hz frames
+
+    private static final Map<String, LatencyHistogram> SECTIONS = new ConcurrentSkipListMap<>();
+    private static final Map<String, Integer> NODE_COUNTS = new ConcurrentSkipListMap<>();
+    private static final LatencyHistogram FRAME_INTERVAL = new LatencyHistogram();
+    private static final LatencyHistogram PULSE_LAYOUT = new LatencyHistogram();
+    private static final LongAdder JANK_FRAMES = new LongAdder();
+
+    private static Popup overlay;
+    private static Label overlayText;
+
+    private UiMetrics() {}
+
+    public static boolean isEnabled() {
+        return ENABLED;
+    }
+
+    /** Runs the section on the caller's thread and records how long it took. */
+    public static void time(String section, Runnable body) {
+        if (!ENABLED) {
+            body.run();
+            return;
+        }
+        long start = System.nanoTime();
+        try {
+            body.run();
+        } finally {
+            SECTIONS.computeIfAbsent(section, k -> new LatencyHistogram()).record(System.nanoTime() - start);
+        }
+    }
+
+    /** Hooks pulse/frame listeners and the overlay shortcuts into the main scene. No-op when disabled. */
+    public static void install(Scene scene) {
+        if (!ENABLED) return;
+
+        long[] layoutStart = new long[1];
+        scene.addPreLayoutPulseListener(() -> layoutStart[0] = System.nanoTime());
+        scene.addPostLayoutPulseListener(() -> PULSE_LAYOUT.record(System.nanoTime() - layoutStart[0]));
+
+        new AnimationTimer() {
+            private long lastFrame;
+            private long lastRefresh;
+
+            @Override
+            public void handle(long now) {
+                if (lastFrame != 0) {
+                    long interval = now - lastFrame;
+                    FRAME_INTERVAL.record(interval);
+                    if (interval > JANK_THRESHOLD_NANOS) JANK_FRAMES.increment();
+                }
+                lastFrame = now;
+                if (now - lastRefresh > 1_000_000_000L) {
+                    lastRefresh = now;
+                    sampleNodeCounts(scene);
+                    if (overlay != null && overlay.isShowing()) overlayText.setText(report(false));
+                }
+            }
+        }.start();
+
+        scene.getAccelerators().put(KeyCombination.keyCombination("Shortcut+Shift+M"), () -> toggleOverlay(scene));
+        scene.getAccelerators().put(KeyCombination.keyCombination("Shortcut+Shift+E"), () -> {
+            Path file = exportLog();
+            if (file != null) System.out.println("UI metrics exported to " + file.toAbsolutePath());
+        });
+        System.out.println("UI metrics enabled — Ctrl+Shift+M overlay, Ctrl+Shift+E export");
+    }
+
+    // ──── Node counts ────
+    private static void sampleNodeCounts(Scene scene) {
+        Parent root = scene.getRoot();
+        NODE_COUNTS.put("scene (total)", countNodes(root));
+        Node outlet = root.lookup("#contentOutlet");
+        if (outlet instanceof Parent p) {
+            for (Node page : p.getChildrenUnmodifiable()) {
+                String key = page.getStyleClass().isEmpty() ? page.getClass().getSimpleName() : page.getStyleClass().get(0);
+                NODE_COUNTS.put("page " + key, countNodes(page));
+            }
+        }
+    }
+
+    private static int countNodes(Node node) {
+        int count = 1;
+        if (node instanceof Parent p) {
+            for (Node child : p.getChildrenUnmodifiable()) {
+                count += countNodes(child);
+            }
+        }
+        return count;
+    }
+
+    // ──── Overlay & export ────
+    private static void toggleOverlay(Scene scene) {
+        Window window = scene.getWindow();
+        if (window == null) return;
+        if (overlay == null) {
+            overlayText = new Label();
+            overlayText.setStyle("-fx-font-family: monospace; -fx-font-size: 11px; -fx-text-fill: #F8FAFC;");
+            StackPane box = new StackPane(overlayText);
+            box.setStyle("-fx-background-color: rgba(15,23,42,0.85); -fx-padding: 10; -fx-background-radius: 6;");
+            box.setMouseTransparent(true);
+            overlay = new Popup();
+            overlay.getContent().add(box);
+        }
+        if (overlay.isShowing()) {
+            overlay.hide();
+        } else {
+            overlayText.setText(report(false));
+            overlay.show(window, window.getX() + window.getWidth() - 460, window.getY() + 80);
+        }
+    }
+
+    /** Writes the current report to logs/ui-metrics-&lt;timestamp&gt;.txt and returns the file, or null on failure. */
+    public static Path exportLog() {
+        String stamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss"));
+        Path file = Paths.get("logs", "ui-metrics-" + stamp + ".txt");
+        try {
+            Files.createDirectories(file.getParent());
+            Files.writeString(file, report(true), StandardCharsets.UTF_8);
+            return file;
+        } catch (IOException e) {
+            System.err.println("UI metrics export failed: " + e.getMessage());
+            return null;
+        }
+    }
+
+    /** Human-readable snapshot; the verbose form adds mean and max per section. */
+    public static String report(boolean verbose) {
+        StringBuilder sb = new StringBuilder();
+        double p50 = FRAME_INTERVAL.getPercentileMillis(50);
+        sb.append(String.format("frames   ~%.0f fps  p95=%.1fms  p99=%.1fms  jank=%d%n",
+                p50 > 0 ? 1000.0 / p50 : 0, FRAME_INTERVAL.getPercentileMillis(95),
+                FRAME_INTERVAL.getPercentileMillis(99), JANK_FRAMES.sum()));
+        sb.append(String.format("layout   p50=%.1fms  p95=%.1fms  max=%.1fms%n",
+                PULSE_LAYOUT.getPercentileMillis(50), PULSE_LAYOUT.getPercentileMillis(95), PULSE_LAYOUT.getMaxMillis()));
+        SECTIONS.forEach((name, h) -> sb.append(verbose
+                ? String.format("%-22s %s%n", name, h.summary())
+                : String.format("%-22s n=%d  p95=%.1fms  max=%.1fms%n", name, h.getCount(),
+                        h.getPercentileMillis(95), h.getMaxMillis())));
+        NODE_COUNTS.forEach((name, count) -> sb.append(String.format("nodes %-16s %d%n", name, count)));
+        return sb.toString().stripTrailing();
+    }
+
+    /** Clears all recorded numbers (e.g. before reproducing a specific interaction). */
+    public static void reset() {
+        SECTIONS.clear();
+        NODE_COUNTS.clear();
+        FRAME_INTERVAL.reset();
+        PULSE_LAYOUT.reset();
+        JANK_FRAMES.reset();
+    }
+}
@@ -0,0 +1,216 @@
+package com.spark.platform.views;
+
+import com.spark.platform.services.BurndownService.Burndown;
+
+import javafx.geometry.VPos;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.layout.Region;
+import javafx.scene.paint.Color;
+import javafx.scene.text.Font;
+import javafx.scene.text.TextAlignment;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Burndown chart drawn on a single Canvas: ideal line, scope line, daily remaining
+ * points and the per-change step series. No node per point, and the step series is
+ * decimated to one min/max pair per pixel column, so a sprint with thousands of card
+ * moves costs about as much to draw as one with ten. Redraws on resize.
+ */
+public class BurndownChart extends Region {
+
+    private static final double PAD_LEFT = 48, PAD_RIGHT = 16, PAD_TOP = 16, PAD_BOTTOM = 28;
+    private static final long DAY_MILLIS = 24L * 60 * 60 * 1000;
+    private static final DateTimeFormatter DAY_LABEL = DateTimeFormatter.ofPattern("MMM d");
+
+    private static final Color GRID = Color.web("#E5E7EB");
+    private static final Color AXIS_TEXT = Color.web("#6B7280");
+    private static final Color IDEAL = Color.web("#9CA3AF");
+    private static final Color SCOPE = Color.web("#F59E0B");
+    private static final Color REMAINING = Color.web("#3B82F6");
+    private static final Color STEP = Color.web("#93C5FD");
+
+    private final Canvas canvas = new Canvas();
+    private Burndown data;
+
+    public BurndownChart() {
+        getChildren().add(canvas);
+        getStyleClass().add("burndown-chart");
+        setMinHeight(220);
+        setPrefHeight(320);
+    }
+
+    public void setData(Burndown data) {
+        this.data = data;
+        draw();
+    }
+
+    @Override
+    protected void layoutChildren() {
+        double w = snapSizeX(getWidth()), h = snapSizeY(getHeight());
+        if (canvas.getWidth() != w || canvas.getHeight() != h) {
+            canvas.setWidth(w);
+            canvas.setHeight(h);
+            draw();
+        }
+    }
+
+    // ──── Drawing ────
+    private void draw() {
+        GraphicsContext g = canvas.getGraphicsContext2D();
+        double w = canvas.getWidth(), h = canvas.getHeight();
+        g.clearRect(0, 0, w, h);
+        if (data == null || w <= PAD_LEFT + PAD_RIGHT || h <= PAD_TOP + PAD_BOTTOM) return;
+
+        int days = data.getDays();
+        double plotW = w - PAD_LEFT - PAD_RIGHT;
+        double plotH = h - PAD_TOP - PAD_BOTTOM;
+        double maxY = niceMax(maxValue());
+
+        // X is continuous time: day d spans [d, d+1); the daily points sit at the end of their day.
+        long t0 = data.getStartMillis();
+        double xScale = plotW / ((double) days * DAY_MILLIS);
+        double yScale = plotH / maxY;
+
+        drawGrid(g, days, plotW, plotH, maxY);
+
+        // Only plot up to today for a sprint that is still running.
+        int lastDay = (int) Math.min(days - 1, LocalDate.now().toEpochDay() - data.start.toEpochDay());
+
+        // Ideal line
+        g.setStroke(IDEAL);
+        g.setLineWidth(1);
+        g.setLineDashes(6, 4);
+        g.strokeLine(x(0, plotW, days), y(data.idealAt(0), plotH, yScale),
+                x(days, plotW, days), y(0, plotH, yScale));
+        g.setLineDashes((double[]) null);
+
+        if (lastDay < 0) return;
+
+        // Scope (daily)
+        g.setStroke(SCOPE);
+        g.setLineWidth(1.5);
+        g.beginPath();
+        for (int d = 0; d <= lastDay; d++) {
+            double px = x(d + 1, plotW, days), py = y(data.scope[d], plotH, yScale);
+            if (d == 0) g.moveTo(x(0, plotW, days), py);
+            g.lineTo(px, py);
+        }
+        g.stroke();
+
+        // Step series (every change), decimated per pixel column
+        long tEnd = t0 + (long) (lastDay + 1) * DAY_MILLIS;
+        drawSteps(g, t0, tEnd, xScale, plotH, yScale);
+
+        // Remaining (daily), line plus dots
+        g.setStroke(REMAINING);
+        g.setFill(REMAINING);
+        g.setLineWidth(2);
+        g.beginPath();
+        for (int d = 0; d <= lastDay; d++) {
+            double px = x(d + 1, plotW, days), py = y(data.remaining[d], plotH, yScale);
+            if (d == 0) g.moveTo(px, py); else g.lineTo(px, py);
+        }
+        g.stroke();
+        for (int d = 0; d <= lastDay; d++) {
+            g.fillOval(x(d + 1, plotW, days) - 3, y(data.remaining[d], plotH, yScale) - 3, 6, 6);
+        }
+    }
+
+    /**
+     * One vertical segment per pixel column covering the min..max remaining seen in that
+     * column, joined by the last value of each column — visually identical to drawing every
+     * step, with at most ~2 path points per pixel.
+     */
+    private void drawSteps(GraphicsContext g, long t0, long tEnd, double xScale, double plotH, double yScale) {
+        long[] times = data.eventTimes;
+        double[] values = data.eventRemaining;
+        if (times.length == 0) return;
+
+        g.setStroke(STEP);
+        g.setLineWidth(1);
+        g.beginPath();
+
+        double value = 0;
+        int i = 0;
+        // Changes before the sprint started set the opening value.
+        while (i < times.length && times[i] < t0) value = values[i++];
+        g.moveTo(PAD_LEFT, y(value, plotH, yScale));
+
+        while (i < times.length && times[i] <= tEnd) {
+            int column = (int) ((times[i] - t0) * xScale);
+            double px = PAD_LEFT + column;
+            g.lineTo(px, y(value, plotH, yScale)); // hold the previous value up to this column
+            double min = value, max = value;
+            while (i < times.length && times[i] <= tEnd && (int) ((times[i] - t0) * xScale) == column) {
+                value = values[i++];
+                min = Math.min(min, value);
+                max = Math.max(max, value);
+            }
+            if (min != max) {
+                g.lineTo(px, y(min, plotH, yScale));
+                g.lineTo(px, y(max, plotH, yScale));
+            }
+            g.lineTo(px, y(value, plotH, yScale));
+        }
+        g.lineTo(PAD_LEFT + (tEnd - t0) * xScale, y(value, plotH, yScale));
+        g.stroke();
+    }
+
+    private void drawGrid(GraphicsContext g, int days, double plotW, double plotH, double maxY) {
+        g.setFont(Font.font(11));
+        g.setLineWidth(1);
+
+        // Horizontal lines with hour labels
+        g.setTextAlign(TextAlignment.RIGHT);
+        g.setTextBaseline(VPos.CENTER);
+        for (int i = 0; i <= 4; i++) {
+            double v = maxY * i / 4;
+            double py = y(v, plotH, plotH / maxY);
+            g.setStroke(GRID);
+            g.strokeLine(PAD_LEFT, py, PAD_LEFT + plotW, py);
+            g.setFill(AXIS_TEXT);
+            g.fillText(String.format("%.0fh", v), PAD_LEFT - 6, py);
+        }
+
+        // Day labels, thinned out so they never overlap
+        g.setTextAlign(TextAlignment.CENTER);
+        g.setTextBaseline(VPos.TOP);
+        int every = Math.max(1, (int) Math.ceil(days / (plotW / 56)));
+        for (int d = 0; d <= days; d += every) {
+            double px = x(d, plotW, days);
+            g.setStroke(GRID);
+            g.strokeLine(px, PAD_TOP, px, PAD_TOP + plotH);
+            g.setFill(AXIS_TEXT);
+            g.fillText(data.start.plusDays(d).format(DAY_LABEL), px, PAD_TOP + plotH + 6);
+        }
+    }
+
+    // ──── Scales ────
+    private double maxValue() {
+        double max = data.idealAt(0);
+        for (double v : data.scope) max = Math.max(max, v);
+        for (double v : data.eventRemaining) max = Math.max(max, v);
+        return max;
+    }
+
+    /** Round the axis maximum up to 1, 2 or 5 × 10ⁿ so the grid labels are readable. */
+    private static double niceMax(double v) {
+        if (v <= 0) return 10;
+        double magnitude = Math.pow(10, Math.floor(Math.log10(v)));
+        for (double step : new double[]{1, 2, 5, 10}) {
+            if (step * magnitude >= v) return step * magnitude;
+        }
+        return 10 * magnitude;
+    }
+
+    private static double x(double day, double plotW, int days) {
+        return PAD_LEFT + day * plotW / days;
+    }
+
+    private double y(double value, double plotH, double yScale) {
+        return PAD_TOP + plotH - value * yScale;
+    }
+}
@@ -0,0 +1,469 @@
+package com.spark.platform.views;
+
+import com.spark.platform.models.Sprint;
+import com.spark.platform.models.Task;
+
+import javafx.animation.AnimationTimer;
+import javafx.geometry.VPos;
+import javafx.scene.Cursor;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.control.Tooltip;
+import javafx.scene.input.MouseEvent;
+import javafx.scene.input.ScrollEvent;
+import javafx.scene.layout.Region;
+import javafx.scene.paint.Color;
+import javafx.scene.text.Font;
+import javafx.scene.text.FontWeight;
+import javafx.scene.text.TextAlignment;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.*;
+import java.util.function.Consumer;
+
+/**
+ * Sprint / task Gantt chart drawn on one viewport-sized Canvas.
+ *
+ * Rows are a flat list (a header per sprint, then its tasks) with a fixed height, so the
+ * visible rows are found by arithmetic and only those are drawn; bars outside the visible
+ * time range are skipped too. Hit-testing uses the same arithmetic instead of nodes.
+ * Input only updates the scroll/zoom state and marks the chart dirty; an AnimationTimer
+ * redraws at most once per frame, however many mouse events arrive.
+ *
+ * Drag to pan, wheel to scroll (Shift: sideways), Ctrl+wheel to zoom, click a bar to open the task.
+ */
+public class GanttChart extends Region {
+
+    /** Zoom levels, in pixels per day. */
+    public enum Zoom {
+        DAY(36), WEEK(14), MONTH(4);
+
+        final double pxPerDay;
+
+        Zoom(double pxPerDay) {
+            this.pxPerDay = pxPerDay;
+        }
+    }
+
+    private static final double LABEL_WIDTH = 220;
+    private static final double HEADER_HEIGHT = 40;
+    private static final double ROW_HEIGHT = 28;
+    private static final double BAR_INSET = 6;
+    private static final long DAY_MILLIS = 24L * 60 * 60 * 1000;
+    private static final ZoneId ZONE = ZoneId.systemDefault();
+    private static final DateTimeFormatter DAY_LABEL = DateTimeFormatter.ofPattern("d");
+    private static final DateTimeFormatter MONTH_LABEL = DateTimeFormatter.ofPattern("MMM yyyy");
+
+    private static final Color GRID = Color.web("#F3F4F6");
+    private static final Color GRID_STRONG = Color.web("#E5E7EB");
+    private static final Color TEXT = Color.web("#111827");
+    private static final Color MUTED = Color.web("#6B7280");
+    private static final Color SPRINT_ROW = Color.web("#F9FAFB");
+    private static final Color SPRINT_BAR = Color.web("#C7D2FE");
+    private static final Color HOVER = Color.web("#EFF6FF");
+    private static final Color TODAY = Color.web("#EF4444");
+    private static final Map<String, Color> STATUS_COLORS = Map.of(
+            "TODO", Color.web("#9CA3AF"),
+            "IN_PROGRESS", Color.web("#3B82F6"),
+            "REVIEW", Color.web("#F59E0B"),
+            "DONE", Color.web("#10B981"));
+
+    private final Canvas canvas = new Canvas();
+    private final Tooltip tooltip = new Tooltip();
+
+    // Rows, as parallel arrays: start/end in epoch millis, task == null for sprint headers.
+    private int rowCount;
+    private long[] rowStart = new long[0];
+    private long[] rowEnd = new long[0];
+    private String[] rowLabel = new String[0];
+    private Task[] rowTask = new Task[0];
+    private long origin;
+    private long span;
+
+    private Zoom zoom = Zoom.WEEK;
+    private double scrollX, scrollY;
+    private int hoverRow = -1;
+    private double dragX, dragY;
+    private boolean dragged;
+    private boolean dirty = true;
+    private boolean scrollToTodayPending;
+    private Consumer<Task> onTaskClicked;
+
+    private final AnimationTimer redraw = new AnimationTimer() {
+        @Override
+        public void handle(long now) {
+            if (dirty) {
+                dirty = false;
+                draw();
+            }
+        }
+    };
+
+    public GanttChart() {
+        getChildren().add(canvas);
+        getStyleClass().add("gantt-chart");
+        setMinHeight(200);
+        setPrefHeight(420);
+
+        setOnScroll(this::onScroll);
+        setOnMousePressed(e -> { dragX = e.getX(); dragY = e.getY(); dragged = false; });
+        setOnMouseDragged(this::onDrag);
+        setOnMouseMoved(this::onHover);
+        setOnMouseExited(e -> { setHoverRow(-1); tooltip.hide(); });
+        setOnMouseClicked(this::onClick);
+
+        // Only tick while on screen.
+        sceneProperty().addListener((obs, oldScene, scene) -> {
+            if (scene != null) redraw.start(); else redraw.stop();
+        });
+    }
+
+    // ──── Public API ────
+
+    /** Sprints in order, each followed by its tasks. Backlog tasks (no sprint) are not plotted. */
+    public void setData(List<Sprint> sprints, List<Task> tasks) {
+        Map<Integer, List<Task>> bySprint = new HashMap<>();
+        for (Task t : tasks) {
+            if (t.getSprintId() != null) bySprint.computeIfAbsent(t.getSprintId(), k -> new ArrayList<>()).add(t);
+        }
+        List<Sprint> ordered = new ArrayList<>(sprints);
+        ordered.sort(Comparator.comparingInt(Sprint::getSprintNumber));
+
+        int n = ordered.size() + bySprint.values().stream().mapToInt(List::size).sum();
+        rowStart = new long[n];
+        rowEnd = new long[n];
+        rowLabel = new String[n];
+        rowTask = new Task[n];
+        rowCount = 0;
+        long min = Long.MAX_VALUE, max = Long.MIN_VALUE;
+
+        for (Sprint s : ordered) {
+            LocalDate start = s.getStartDate() != null ? s.getStartDate().toLocalDate() : LocalDate.now();
+            LocalDate end = s.getEndDate() != null ? s.getEndDate().toLocalDate() : start.plusDays(13);
+            long sprintStart = millis(start);
+            long sprintEnd = millis(end.plusDays(1));
+            addRow(sprintStart, sprintEnd, "Sprint " + s.getSprintNumber() + " — " + s.getTitle(), null);
+            min = Math.min(min, sprintStart);
+            max = Math.max(max, sprintEnd);
+
+            List<Task> sprintTasks = bySprint.getOrDefault(s.getSprintId(), Collections.emptyList());
+            sprintTasks.sort(Comparator.comparing(Task::getStatus, Comparator.nullsLast(Comparator.naturalOrder()))
+                    .thenComparing(Task::getTaskId));
+            for (Task t : sprintTasks) {
+                long created = t.getCreatedAt() != null ? t.getCreatedAt().getTime() : sprintStart;
+                long taskStart = Math.max(created, sprintStart);
+                // Done tasks end when they were finished; open ones run to the sprint end.
+                long taskEnd = "DONE".equals(t.getStatus()) && t.getUpdatedAt() != null
+                        ? t.getUpdatedAt().getTime() : sprintEnd;
+                taskEnd = Math.max(taskEnd, taskStart + DAY_MILLIS / 4);
+                addRow(taskStart, taskEnd, t.getTitle(), t);
+                max = Math.max(max, taskEnd);
+            }
+        }
+
+        if (rowCount == 0) {
+            min = millis(LocalDate.now().minusDays(7));
+            max = millis(LocalDate.now().plusDays(7));
+        }
+        origin = min - 2 * DAY_MILLIS;
+        span = max - origin + 2 * DAY_MILLIS;
+        hoverRow = -1;
+        scrollY = 0;
+        if (canvas.getWidth() > 0) scrollToToday();
+        else scrollToTodayPending = true; // not laid out yet; do it on first layout
+        markDirty();
+    }
+
+    public Zoom getZoom() {
+        return zoom;
+    }
+
+    /** Change zoom, keeping the date under the middle of the plot in place. */
+    public void setZoom(Zoom zoom) {
+        if (zoom == this.zoom) return;
+        double center = (scrollX + plotWidth() / 2) / this.zoom.pxPerDay;
+        this.zoom = zoom;
+        scrollX = center * zoom.pxPerDay - plotWidth() / 2;
+        clampScroll();
+        markDirty();
+    }
+
+    public void scrollToToday() {
+        scrollX = xOf(System.currentTimeMillis()) - plotWidth() / 3;
+        clampScroll();
+        markDirty();
+    }
+
+    public void setOnTaskClicked(Consumer<Task> handler) {
+        this.onTaskClicked = handler;
+    }
+
+    @Override
+    protected void layoutChildren() {
+        double w = snapSizeX(getWidth()), h = snapSizeY(getHeight());
+        if (canvas.getWidth() != w || canvas.getHeight() != h) {
+            canvas.setWidth(w);
+            canvas.setHeight(h);
+            if (scrollToTodayPending && w > LABEL_WIDTH) {
+                scrollToTodayPending = false;
+                scrollToToday();
+            }
+            clampScroll();
+            markDirty();
+        }
+    }
+
+    // ──── Input ────
+    private void onScroll(ScrollEvent e) {
+        if (e.isControlDown() || e.isShortcutDown()) {
+            Zoom[] levels = Zoom.values();
+            int i = zoom.ordinal() + (e.getDeltaY() > 0 ? -1 : 1); // wheel up zooms in
+            if (i >= 0 && i < levels.length) setZoom(levels[i]);
+        } else if (e.isShiftDown()) {
+            scrollX -= e.getDeltaY() != 0 ? e.getDeltaY() : e.getDeltaX();
+        } else {
+            scrollX -= e.getDeltaX();
+            scrollY -= e.getDeltaY();
+        }
+        clampScroll();
+        markDirty();
+        e.consume(); // keep the surrounding ScrollPane still
+    }
+
+    private void onDrag(MouseEvent e) {
+        scrollX -= e.getX() - dragX;
+        scrollY -= e.getY() - dragY;
+        if (Math.abs(e.getX() - dragX) + Math.abs(e.getY() - dragY) > 0) dragged = true;
+        dragX = e.getX();
+        dragY = e.getY();
+        clampScroll();
+        tooltip.hide();
+        markDirty();
+    }
+
+    private void onHover(MouseEvent e) {
+        int row = hitTest(e.getX(), e.getY());
+        setHoverRow(row);
+        Task t = row >= 0 ? rowTask[row] : null;
+        setCursor(t != null ? Cursor.HAND : Cursor.DEFAULT);
+        if (row < 0) {
+            tooltip.hide();
+            return;
+        }
+        tooltip.setText(tooltipText(row));
+        tooltip.show(this, e.getScreenX() + 14, e.getScreenY() + 14);
+    }
+
+    private void onClick(MouseEvent e) {
+        if (dragged) return;
+        int row = hitTest(e.getX(), e.getY());
+        if (row >= 0 && rowTask[row] != null && onTaskClicked != null) {
+            tooltip.hide();
+            onTaskClicked.accept(rowTask[row]);
+        }
+    }
+
+    /** Row whose bar is under (x, y), or -1. Pure arithmetic — no per-bar nodes. */
+    private int hitTest(double x, double y) {
+        if (y < HEADER_HEIGHT || x < LABEL_WIDTH) return -1;
+        int row = (int) ((y - HEADER_HEIGHT + scrollY) / ROW_HEIGHT);
+        if (row < 0 || row >= rowCount) return -1;
+        double x0 = LABEL_WIDTH + xOf(rowStart[row]) - scrollX;
+        double x1 = LABEL_WIDTH + xOf(rowEnd[row]) - scrollX;
+        return x >= x0 && x <= Math.max(x1, x0 + 3) ? row : -1;
+    }
+
+    private void setHoverRow(int row) {
+        if (row != hoverRow) {
+            hoverRow = row;
+            markDirty();
+        }
+    }
+
+    // ──── Drawing ────
+    private void draw() {
+        GraphicsContext g = canvas.getGraphicsContext2D();
+        double w = canvas.getWidth(), h = canvas.getHeight();
+        g.clearRect(0, 0, w, h);
+        if (w <= LABEL_WIDTH || h <= HEADER_HEIGHT) return;
+
+        // Visible rows and days, from the scroll offsets alone.
+        int firstRow = Math.max(0, (int) (scrollY / ROW_HEIGHT));
+        int lastRow = Math.min(rowCount - 1, (int) ((scrollY + h - HEADER_HEIGHT) / ROW_HEIGHT));
+        long firstDay = (long) Math.floor(scrollX / zoom.pxPerDay);
+        long lastDay = (long) Math.ceil((scrollX + w - LABEL_WIDTH) / zoom.pxPerDay);
+
+        // Body: plot area is clipped to the right of the labels and below the header.
+        g.save();
+        g.beginPath();
+        g.rect(LABEL_WIDTH, HEADER_HEIGHT, w - LABEL_WIDTH, h - HEADER_HEIGHT);
+        g.clip();
+        drawRowBackgrounds(g, firstRow, lastRow, LABEL_WIDTH, w);
+        drawDayLines(g, firstDay, lastDay, HEADER_HEIGHT, h);
+        for (int r = firstRow; r <= lastRow; r++) drawBar(g, r, w);
+        drawToday(g, HEADER_HEIGHT, h);
+        g.restore();
+
+        // Labels column
+        g.save();
+        g.beginPath();
+        g.rect(0, HEADER_HEIGHT, LABEL_WIDTH, h - HEADER_HEIGHT);
+        g.clip();
+        drawRowBackgrounds(g, firstRow, lastRow, 0, LABEL_WIDTH);
+        g.setTextBaseline(VPos.CENTER);
+        g.setTextAlign(TextAlignment.LEFT);
+        for (int r = firstRow; r <= lastRow; r++) {
+            boolean sprint = rowTask[r] == null;
+            g.setFont(sprint ? Font.font(null, FontWeight.BOLD, 12) : Font.font(12));
+            g.setFill(sprint ? TEXT : MUTED);
+            g.fillText(ellipsize(rowLabel[r], sprint ? 30 : 32), sprint ? 12 : 24, rowY(r) + ROW_HEIGHT / 2);
+        }
+        g.restore();
+        g.setStroke(GRID_STRONG);
+        g.strokeLine(LABEL_WIDTH + 0.5, 0, LABEL_WIDTH + 0.5, h);
+
+        drawHeader(g, firstDay, lastDay, w);
+    }
+
+    private void drawRowBackgrounds(GraphicsContext g, int firstRow, int lastRow, double x0, double x1) {
+        for (int r = firstRow; r <= lastRow; r++) {
+            Color fill = r == hoverRow ? HOVER : rowTask[r] == null ? SPRINT_ROW : null;
+            if (fill != null) {
+                g.setFill(fill);
+                g.fillRect(x0, rowY(r), x1 - x0, ROW_HEIGHT);
+            }
+        }
+    }
+
+    private void drawDayLines(GraphicsContext g, long firstDay, long lastDay, double y0, double y1) {
+        g.setLineWidth(1);
+        for (long d = firstDay; d <= lastDay; d++) {
+            LocalDate date = dateOfDay(d);
+            boolean strong = zoom == Zoom.MONTH ? date.getDayOfMonth() == 1 : date.getDayOfWeek().getValue() == 1;
+            if (!strong && zoom != Zoom.DAY) continue;
+            double x = Math.floor(LABEL_WIDTH + d * zoom.pxPerDay - scrollX) + 0.5;
+            g.setStroke(strong ? GRID_STRONG : GRID);
+            g.strokeLine(x, y0, x, y1);
+        }
+    }
+
+    private void drawBar(GraphicsContext g, int r, double w) {
+        double x0 = LABEL_WIDTH + xOf(rowStart[r]) - scrollX;
+        double x1 = LABEL_WIDTH + xOf(rowEnd[r]) - scrollX;
+        if (x1 < LABEL_WIDTH || x0 > w) return; // off screen horizontally
+
+        Task t = rowTask[r];
+        double y = rowY(r);
+        if (t == null) {
+            g.setFill(SPRINT_BAR);
+            g.fillRoundRect(x0, y + BAR_INSET + 4, Math.max(2, x1 - x0), ROW_HEIGHT - 2 * BAR_INSET - 8, 4, 4);
+            return;
+        }
+        g.setFill(STATUS_COLORS.getOrDefault(t.getStatus(), STATUS_COLORS.get("TODO")));
+        g.fillRoundRect(x0, y + BAR_INSET, Math.max(3, x1 - x0), ROW_HEIGHT - 2 * BAR_INSET, 6, 6);
+    }
+
+    private void drawToday(GraphicsContext g, double y0, double y1) {
+        double x = Math.floor(LABEL_WIDTH + xOf(System.currentTimeMillis()) - scrollX) + 0.5;
+        g.setStroke(TODAY);
+        g.setLineWidth(1.5);
+        g.strokeLine(x, y0, x, y1);
+        g.setLineWidth(1);
+    }
+
+    /** Two-line scale: months on top, then days (DAY/WEEK zoom) or nothing (MONTH zoom). */
+    private void drawHeader(GraphicsContext g, long firstDay, long lastDay, double w) {
+        g.setFill(Color.WHITE);
+        g.fillRect(0, 0, w, HEADER_HEIGHT);
+        g.setStroke(GRID_STRONG);
+        g.strokeLine(0, HEADER_HEIGHT - 0.5, w, HEADER_HEIGHT - 0.5);
+
+        g.save();
+        g.beginPath();
+        g.rect(LABEL_WIDTH, 0, w - LABEL_WIDTH, HEADER_HEIGHT);
+        g.clip();
+        g.setFont(Font.font(11));
+        g.setTextBaseline(VPos.CENTER);
+        g.setTextAlign(TextAlignment.LEFT);
+        g.setFill(TEXT);
+        for (long d = firstDay; d <= lastDay; d++) {
+            LocalDate date = dateOfDay(d);
+            if (date.getDayOfMonth() == 1 || d == firstDay) {
+                double x = LABEL_WIDTH + Math.max(d * zoom.pxPerDay - scrollX, 0);
+                g.fillText(date.format(MONTH_LABEL), x + 6, 12);
+            }
+        }
+        g.setTextAlign(TextAlignment.CENTER);
+        g.setFill(MUTED);
+        for (long d = firstDay; d <= lastDay; d++) {
+            LocalDate date = dateOfDay(d);
+            boolean label = zoom == Zoom.DAY || (zoom == Zoom.WEEK && date.getDayOfWeek().getValue() == 1);
+            if (!label) continue;
+            double x = LABEL_WIDTH + d * zoom.pxPerDay - scrollX;
+            g.fillText(date.format(DAY_LABEL), zoom == Zoom.DAY ? x + zoom.pxPerDay / 2 : x, 29);
+        }
+        g.restore();
+
+        g.setTextAlign(TextAlignment.LEFT);
+        g.setFill(MUTED);
+        g.fillText(zoom.name().charAt(0) + zoom.name().substring(1).toLowerCase() + " view", 12, HEADER_HEIGHT / 2);
+    }
+
+    // ──── Geometry ────
+    private double xOf(long millis) {
+        return (millis - origin) * zoom.pxPerDay / DAY_MILLIS;
+    }
+
+    private double rowY(int row) {
+        return HEADER_HEIGHT + row * ROW_HEIGHT - scrollY;
+    }
+
+    private double plotWidth() {
+        return Math.max(0, canvas.getWidth() - LABEL_WIDTH);
+    }
+
+    private LocalDate dateOfDay(long day) {
+        return Instant.ofEpochMilli(origin + day * DAY_MILLIS).atZone(ZONE).toLocalDate();
+    }
+
+    private void clampScroll() {
+        double maxX = Math.max(0, span * zoom.pxPerDay / DAY_MILLIS - plotWidth());
+        double maxY = Math.max(0, rowCount * ROW_HEIGHT - (canvas.getHeight() - HEADER_HEIGHT));
+        scrollX = Math.max(0, Math.min(scrollX, maxX));
+        scrollY = Math.max(0, Math.min(scrollY, maxY));
+    }
+
+    private void markDirty() {
+        dirty = true;
+    }
+
+    // ──── Helpers ────
+    private void addRow(long start, long end, String label, Task task) {
+        rowStart[rowCount] = start;
+        rowEnd[rowCount] = end;
+        rowLabel[rowCount] = label != null ? label : "";
+        rowTask[rowCount] = task;
+        rowCount++;
+    }
+
+    private String tooltipText(int row) {
+        DateTimeFormatter f = DateTimeFormatter.ofPattern("MMM d");
+        String range = Instant.ofEpochMilli(rowStart[row]).atZone(ZONE).toLocalDate().format(f) + " – " +
+                Instant.ofEpochMilli(rowEnd[row] - 1).atZone(ZONE).toLocalDate().format(f);
+        Task t = rowTask[row];
+        if (t == null) return rowLabel[row] + "\n" + range;
+        return t.getTitle() + "\n" + t.getStatus() + " · " + range +
+                (t.getEstimatedHours() != null ? " · " + t.getEstimatedHours() + "h" : "");
+    }
+
+    private static long millis(LocalDate date) {
+        return date.atStartOfDay(ZONE).toInstant().toEpochMilli();
+    }
+
+    private static String ellipsize(String s, int max) {
+        return s.length() <= max ? s : s.substring(0, max - 1) + "…";
+    }
+}
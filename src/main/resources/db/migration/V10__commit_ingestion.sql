@@ -0,0 +1,24 @@
+-- ═══════════════════════════════════════════════════════
+-- V10 — Git commit ingestion
+-- CommitIngestService imports a project's history from a local clone with
+-- multi-row INSERT IGNORE, so commits are unique per project: re-running an
+-- import (or importing a rewritten history) never duplicates a row.
+-- project_repo_sync remembers the clone path and the newest imported hash;
+-- the next run only reads commits after it.
+-- ═══════════════════════════════════════════════════════
+
+-- Drop duplicate hashes (keeping the first row) so the unique key can be built.
+DELETE c1 FROM commits c1
+JOIN commits c2 ON c2.project_id = c1.project_id AND c2.commit_hash = c1.commit_hash AND c2.commit_id < c1.commit_id;
+
+ALTER TABLE commits ADD UNIQUE KEY uq_commits_project_hash (project_id, commit_hash);
+
+CREATE TABLE project_repo_sync (
+  project_id int NOT NULL,
+  repo_path varchar(500) NOT NULL,
+  last_hash varchar(100) DEFAULT NULL,
+  commits_imported int NOT NULL DEFAULT 0,
+  last_synced_at timestamp(3) NULL DEFAULT NULL,
+  PRIMARY KEY (project_id),
+  CONSTRAINT project_repo_sync_ibfk_1 FOREIGN KEY (project_id) REFERENCES projects (project_id) ON DELETE CASCADE
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_0900_ai_ci;
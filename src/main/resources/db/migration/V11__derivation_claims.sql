@@ -0,0 +1,8 @@
+-- ═══════════════════════════════════════════════════════
+-- V11 — Derivation job claims
+-- A worker claims a job by switching its row from QUEUED to RUNNING and
+-- stamping claimed_at; a RUNNING row whose claim is older than the scheduler's
+-- lease belonged to a process that stopped and may be queued again.
+-- ═══════════════════════════════════════════════════════
+
+ALTER TABLE material_derivations ADD COLUMN claimed_at timestamp(3) NULL DEFAULT NULL AFTER created_at;
@@ -0,0 +1,9 @@
+-- ═══════════════════════════════════════════════════════
+-- V12 — Keyset paging of chat history
+-- ChatService.findPage reads a session newest-first on message_id. V2 replaced
+-- the session key with (session_id, created_at), which carries the primary key
+-- after created_at, so it cannot serve `message_id < ? ORDER BY message_id DESC`.
+-- This key makes a page an index range scan of `limit` rows.
+-- ═══════════════════════════════════════════════════════
+
+ALTER TABLE chat_messages ADD INDEX idx_chat_msg_session_id (session_id, message_id);
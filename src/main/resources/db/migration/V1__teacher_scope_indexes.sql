@@ -0,0 +1,37 @@
+-- ═══════════════════════════════════════════════════════
+-- V1 — Composite indexes for teacher-scoped classroom/project queries
+-- (TeacherProjectService.findClassroomsForTeacher / countProjectsInClassroom /
+--  findProjectsByClassroom with a teacherId)
+-- ═══════════════════════════════════════════════════════
+
+-- projects(classroom_id, course_id) replaces the single-column classroom key:
+--   WHERE p.classroom_id = ? AND course IN teacher's courses  → ref on both columns,
+--   COUNT(*) is "Using index" (no row lookups). The FK on classroom_id keeps using
+--   the new index's left prefix, so the old key can go in the same statement.
+ALTER TABLE projects
+    ADD INDEX idx_projects_classroom_course (classroom_id, course_id),
+    DROP INDEX fk_projects_classroom;
+
+-- users(classroom_id, user_type, status) replaces idx_users_classroom:
+--   countStudents filters on all three columns → covering ref, no table access.
+ALTER TABLE users
+    ADD INDEX idx_users_classroom_type_status (classroom_id, user_type, status),
+    DROP INDEX idx_users_classroom;
+
+-- Plans these indexes are meant to give (re-check with EXPLAIN on a DatasetGenerator-seeded DB):
+--
+--   EXPLAIN SELECT COUNT(*) FROM projects p
+--     JOIN teacher_courses tc ON tc.course_id = p.course_id AND tc.teacher_id = ?
+--     WHERE p.classroom_id = ?;
+--   tc  ref  PRIMARY                           key_len=4  Using index
+--   p   ref  idx_projects_classroom_course     key_len=10 Using index
+--
+--   EXPLAIN SELECT COUNT(*) FROM users
+--     WHERE classroom_id = ? AND user_type = 'STUDENT' AND status = 'ACTIVE';
+--   users ref idx_users_classroom_type_status  Using index
+--
+--   EXPLAIN SELECT c.* FROM classrooms c WHERE c.status = 'ACTIVE' AND EXISTS (...);
+--   c   ALL   (classrooms is tiny)             Using where; Using filesort
+--   tc  ref   PRIMARY                          Using index
+--   sc  ref   course_id                        Using index
+--   u   eq_ref PRIMARY                         Using where
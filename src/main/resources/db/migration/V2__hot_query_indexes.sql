@@ -0,0 +1,29 @@
+-- ═══════════════════════════════════════════════════════
+-- V2 — Composite indexes for the board, backlog, notification and chat queries
+-- ═══════════════════════════════════════════════════════
+
+-- tasks(project_id, sprint_id, created_at) serves both board queries in TaskService:
+--   WHERE project_id = ? AND sprint_id = ?      ORDER BY created_at DESC  (sprint board)
+--   WHERE project_id = ? AND sprint_id IS NULL  ORDER BY created_at DESC  (backlog)
+-- MySQL treats "IS NULL" as a ref lookup on a nullable key part, so the backlog reads
+-- the NULL range of the same index backwards — no functional index or filesort needed.
+-- The single-column project key is its left prefix and goes away (the FK uses the new one);
+-- idx_tasks_sprint stays for the sprint_id FK.
+ALTER TABLE tasks
+    ADD INDEX idx_tasks_project_sprint_created (project_id, sprint_id, created_at),
+    DROP INDEX idx_tasks_project;
+
+-- notifications(user_id, is_read, created_at): unread badge counts and the newest-first
+-- inbox for one user. Replaces the user key (left prefix) and the low-selectivity is_read key.
+ALTER TABLE notifications
+    ADD INDEX idx_notifications_user_read_created (user_id, is_read, created_at),
+    DROP INDEX idx_notifications_user,
+    DROP INDEX idx_notifications_read;
+
+-- chat_messages(session_id, created_at): a conversation in order without a filesort.
+ALTER TABLE chat_messages
+    ADD INDEX idx_chat_msg_session_created (session_id, created_at),
+    DROP INDEX idx_chat_msg_session;
+
+-- Partitioning was considered for tasks/notifications/chat_messages and left out:
+-- InnoDB does not support foreign keys on partitioned tables, and all three are FK children.
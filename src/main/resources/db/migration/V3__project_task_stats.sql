@@ -0,0 +1,90 @@
+-- ═══════════════════════════════════════════════════════
+-- V3 — Materialized per-project task counts
+-- One row per project, kept in step with tasks by triggers so every writer
+-- (TaskService, DatasetGenerator, manual SQL) is covered, inside the same
+-- transaction as the task change. TeacherProjectService.getTaskStats reads it;
+-- TaskStatsService.reconcile repairs drift.
+-- ═══════════════════════════════════════════════════════
+
+CREATE TABLE project_task_stats (
+  project_id int NOT NULL,
+  total int NOT NULL DEFAULT 0,
+  todo int NOT NULL DEFAULT 0,
+  in_progress int NOT NULL DEFAULT 0,
+  review int NOT NULL DEFAULT 0,
+  done int NOT NULL DEFAULT 0,
+  updated_at timestamp NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+  PRIMARY KEY (project_id),
+  CONSTRAINT project_task_stats_ibfk_1 FOREIGN KEY (project_id) REFERENCES projects (project_id) ON DELETE CASCADE
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_0900_ai_ci;
+
+-- Backfill from the current tasks.
+INSERT INTO project_task_stats (project_id, total, todo, in_progress, review, done)
+SELECT project_id,
+       COUNT(*),
+       SUM(status = 'TODO'),
+       SUM(status = 'IN_PROGRESS'),
+       SUM(status = 'REVIEW'),
+       SUM(status = 'DONE')
+FROM tasks
+GROUP BY project_id;
+
+DELIMITER $$
+
+CREATE TRIGGER trg_tasks_stats_insert AFTER INSERT ON tasks FOR EACH ROW
+BEGIN
+  INSERT INTO project_task_stats (project_id, total, todo, in_progress, review, done)
+  VALUES (NEW.project_id, 1, NEW.status = 'TODO', NEW.status = 'IN_PROGRESS',
+          NEW.status = 'REVIEW', NEW.status = 'DONE') AS d
+  ON DUPLICATE KEY UPDATE
+    total = project_task_stats.total + d.total,
+    todo = project_task_stats.todo + d.todo,
+    in_progress = project_task_stats.in_progress + d.in_progress,
+    review = project_task_stats.review + d.review,
+    done = project_task_stats.done + d.done;
+END$$
+
+-- Title/description edits don't touch the stats row, so they don't contend on its lock.
+CREATE TRIGGER trg_tasks_stats_update AFTER UPDATE ON tasks FOR EACH ROW
+BEGIN
+  IF NEW.project_id <> OLD.project_id THEN
+    UPDATE project_task_stats
+       SET total = total - 1,
+           todo = todo - (OLD.status = 'TODO'),
+           in_progress = in_progress - (OLD.status = 'IN_PROGRESS'),
+           review = review - (OLD.status = 'REVIEW'),
+           done = done - (OLD.status = 'DONE')
+     WHERE project_id = OLD.project_id;
+    INSERT INTO project_task_stats (project_id, total, todo, in_progress, review, done)
+    VALUES (NEW.project_id, 1, NEW.status = 'TODO', NEW.status = 'IN_PROGRESS',
+            NEW.status = 'REVIEW', NEW.status = 'DONE') AS d
+    ON DUPLICATE KEY UPDATE
+      total = project_task_stats.total + d.total,
+      todo = project_task_stats.todo + d.todo,
+      in_progress = project_task_stats.in_progress + d.in_progress,
+      review = project_task_stats.review + d.review,
+      done = project_task_stats.done + d.done;
+  ELSEIF NEW.status <> OLD.status THEN
+    UPDATE project_task_stats
+       SET todo = todo - (OLD.status = 'TODO') + (NEW.status = 'TODO'),
+           in_progress = in_progress - (OLD.status = 'IN_PROGRESS') + (NEW.status = 'IN_PROGRESS'),
+           review = review - (OLD.status = 'REVIEW') + (NEW.status = 'REVIEW'),
+           done = done - (OLD.status = 'DONE') + (NEW.status = 'DONE')
+     WHERE project_id = NEW.project_id;
+  END IF;
+END$$
+
+-- Deleting a whole project cascades to tasks without firing this (FK cascades skip
+-- triggers), but the stats row goes with the project through its own FK.
+CREATE TRIGGER trg_tasks_stats_delete AFTER DELETE ON tasks FOR EACH ROW
+BEGIN
+  UPDATE project_task_stats
+     SET total = total - 1,
+         todo = todo - (OLD.status = 'TODO'),
+         in_progress = in_progress - (OLD.status = 'IN_PROGRESS'),
+         review = review - (OLD.status = 'REVIEW'),
+         done = done - (OLD.status = 'DONE')
+   WHERE project_id = OLD.project_id;
+END$$
+
+DELIMITER ;
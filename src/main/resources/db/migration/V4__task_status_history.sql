@@ -0,0 +1,37 @@
+-- ═══════════════════════════════════════════════════════
+-- V4 — Append-only task history for burndown / velocity
+-- One row per change to a task's sprint, status or estimate, holding the task's
+-- state AFTER the change. Written by TaskService in the same transaction as the
+-- task write; read incrementally (history_id > last seen) by BurndownService.
+-- No FK on task_id: history outlives deleted tasks (they burn down as 'DELETED').
+-- ═══════════════════════════════════════════════════════
+
+CREATE TABLE task_status_history (
+  history_id bigint NOT NULL AUTO_INCREMENT,
+  task_id int NOT NULL,
+  project_id int NOT NULL,
+  sprint_id int DEFAULT NULL,
+  old_status varchar(50) DEFAULT NULL,
+  status varchar(50) NOT NULL,
+  estimated_hours float DEFAULT NULL,
+  changed_at timestamp(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3),
+  PRIMARY KEY (history_id),
+  KEY idx_tsh_sprint_task (sprint_id, task_id),
+  KEY idx_tsh_task (task_id, history_id),
+  KEY idx_tsh_project (project_id, history_id),
+  CONSTRAINT task_status_history_ibfk_1 FOREIGN KEY (project_id) REFERENCES projects (project_id) ON DELETE CASCADE
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_0900_ai_ci;
+
+-- Backfill: every existing task starts as TODO at created_at; tasks already past TODO
+-- get a second row with their current status at updated_at (the best timestamp we have).
+INSERT INTO task_status_history (task_id, project_id, sprint_id, old_status, status, estimated_hours, changed_at)
+SELECT task_id, project_id, sprint_id, NULL, 'TODO', estimated_hours, COALESCE(created_at, CURRENT_TIMESTAMP)
+FROM tasks
+ORDER BY created_at, task_id;
+
+INSERT INTO task_status_history (task_id, project_id, sprint_id, old_status, status, estimated_hours, changed_at)
+SELECT task_id, project_id, sprint_id, 'TODO', status, estimated_hours,
+       GREATEST(COALESCE(updated_at, created_at, CURRENT_TIMESTAMP), COALESCE(created_at, CURRENT_TIMESTAMP))
+FROM tasks
+WHERE status <> 'TODO'
+ORDER BY updated_at, task_id;
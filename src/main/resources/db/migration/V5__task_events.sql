@@ -0,0 +1,23 @@
+-- ═══════════════════════════════════════════════════════
+-- V5 — Append-only task activity log
+-- Who did what to which task, for the Activity tab. Written in batches by
+-- TaskEventService after each TaskService write commits; read newest-first
+-- with keyset paging on (project_id, event_id). Task title is copied in so the
+-- feed still reads well after the task is deleted (hence no FK on task_id).
+-- Old rows are compacted/expired per project by tools.TaskEventRetention.
+-- ═══════════════════════════════════════════════════════
+
+CREATE TABLE task_events (
+  event_id bigint NOT NULL AUTO_INCREMENT,
+  project_id int NOT NULL,
+  task_id int NOT NULL,
+  task_title varchar(200) DEFAULT NULL,
+  actor_id int DEFAULT NULL,
+  event_type varchar(32) NOT NULL,
+  detail varchar(500) DEFAULT NULL,
+  created_at timestamp(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3),
+  PRIMARY KEY (event_id),
+  KEY idx_task_events_project (project_id, event_id),
+  KEY idx_task_events_task (task_id, event_id),
+  CONSTRAINT task_events_ibfk_1 FOREIGN KEY (project_id) REFERENCES projects (project_id) ON DELETE CASCADE
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_0900_ai_ci;
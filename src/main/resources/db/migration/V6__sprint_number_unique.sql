@@ -0,0 +1,27 @@
+-- ═══════════════════════════════════════════════════════
+-- V6 — One sprint number per project
+-- SprintService allocates numbers under a lock on the project row; this key is
+-- the backstop for any writer that doesn't (manual SQL, imports).
+-- ═══════════════════════════════════════════════════════
+
+-- Earlier concurrent creates could have produced duplicates. Keep the oldest
+-- sprint on its number and move the others past the project's current maximum.
+UPDATE sprints s
+JOIN (
+  SELECT d.sprint_id,
+         m.max_number + ROW_NUMBER() OVER (PARTITION BY d.project_id ORDER BY d.sprint_id) AS new_number
+  FROM (
+    SELECT sprint_id, project_id,
+           ROW_NUMBER() OVER (PARTITION BY project_id, sprint_number ORDER BY sprint_id) AS rn
+    FROM sprints
+  ) d
+  JOIN (SELECT project_id, MAX(sprint_number) AS max_number FROM sprints GROUP BY project_id) m
+    ON m.project_id = d.project_id
+  WHERE d.rn > 1
+) dup ON dup.sprint_id = s.sprint_id
+SET s.sprint_number = dup.new_number;
+
+-- The unique key leads with project_id, so it also serves the FK and findByProject.
+ALTER TABLE sprints
+  ADD UNIQUE KEY uq_sprints_project_number (project_id, sprint_number),
+  DROP KEY project_id;
@@ -0,0 +1,27 @@
+-- ═══════════════════════════════════════════════════════
+-- V7 — Outbox for SMS / e-mail notification delivery
+-- NotificationService writes one row per notification to deliver, in the same
+-- transaction as the notification itself; NotificationDispatcher workers claim
+-- PENDING rows per channel (FOR UPDATE SKIP LOCKED), send them in batches and
+-- mark them SENT, or back to PENDING with a later next_attempt_at, or DEAD once
+-- max attempts are used up. SENDING rows whose worker died are reclaimed after
+-- a timeout.
+-- ═══════════════════════════════════════════════════════
+
+CREATE TABLE notification_outbox (
+  outbox_id bigint NOT NULL AUTO_INCREMENT,
+  notification_id int NOT NULL,
+  channel varchar(16) NOT NULL,
+  status enum('PENDING','SENDING','SENT','DEAD') NOT NULL DEFAULT 'PENDING',
+  attempts int NOT NULL DEFAULT 0,
+  next_attempt_at timestamp(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3),
+  locked_by varchar(64) DEFAULT NULL,
+  locked_at timestamp(3) NULL DEFAULT NULL,
+  last_error varchar(500) DEFAULT NULL,
+  created_at timestamp(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3),
+  sent_at timestamp(3) NULL DEFAULT NULL,
+  PRIMARY KEY (outbox_id),
+  KEY idx_outbox_claim (status, channel, next_attempt_at),
+  KEY idx_outbox_notification (notification_id),
+  CONSTRAINT notification_outbox_ibfk_1 FOREIGN KEY (notification_id) REFERENCES notifications (notification_id) ON DELETE CASCADE
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_0900_ai_ci;
@@ -0,0 +1,27 @@
+-- ═══════════════════════════════════════════════════════
+-- V8 — Resumable material uploads
+-- One row per upload. MaterialUploadService appends checksummed chunks to
+-- <materials.uploadDir>/<upload_id>.part and advances received_bytes only after
+-- a chunk is on disk, so a client that reconnects resumes at received_bytes.
+-- On completion the file's SHA-256 is checked and text extraction is queued;
+-- the material's status goes UPLOADING → PROCESSING → ACTIVE (or FAILED).
+-- ═══════════════════════════════════════════════════════
+
+CREATE TABLE material_uploads (
+  upload_id char(36) NOT NULL,
+  material_id int NOT NULL,
+  uploaded_by int DEFAULT NULL,
+  file_name varchar(255) NOT NULL,
+  total_bytes bigint NOT NULL,
+  received_bytes bigint NOT NULL DEFAULT 0,
+  sha256 char(64) DEFAULT NULL,
+  status enum('UPLOADING','COMPLETE','FAILED') NOT NULL DEFAULT 'UPLOADING',
+  error varchar(500) DEFAULT NULL,
+  created_at timestamp(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3),
+  updated_at timestamp(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3) ON UPDATE CURRENT_TIMESTAMP(3),
+  PRIMARY KEY (upload_id),
+  KEY idx_uploads_material (material_id),
+  KEY idx_uploads_user_status (uploaded_by, status),
+  CONSTRAINT material_uploads_ibfk_1 FOREIGN KEY (material_id) REFERENCES materials (material_id) ON DELETE CASCADE,
+  CONSTRAINT material_uploads_ibfk_2 FOREIGN KEY (uploaded_by) REFERENCES users (user_id) ON DELETE SET NULL
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_0900_ai_ci;
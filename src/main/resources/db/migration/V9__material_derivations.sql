@@ -0,0 +1,29 @@
+-- ═══════════════════════════════════════════════════════
+-- V9 — Derived material jobs (quiz, flashcards, mind map)
+-- One row per (source material, kind, generator version, source content hash):
+-- the unique key both merges identical requests and serves as the result cache,
+-- since a DONE row points at the generated child material. New source text or a
+-- new generator version gives a new key, so stale results are never reused.
+-- DerivationScheduler claims QUEUED rows in priority order.
+-- ═══════════════════════════════════════════════════════
+
+CREATE TABLE material_derivations (
+  derivation_id bigint NOT NULL AUTO_INCREMENT,
+  parent_id int NOT NULL,
+  kind enum('QUIZ','FLASHCARD','MIND_MAP') NOT NULL,
+  generator_version int NOT NULL,
+  content_hash char(64) NOT NULL,
+  priority tinyint NOT NULL DEFAULT 5,
+  status enum('QUEUED','RUNNING','DONE','FAILED') NOT NULL DEFAULT 'QUEUED',
+  result_id int DEFAULT NULL,
+  requested_by int DEFAULT NULL,
+  error varchar(500) DEFAULT NULL,
+  created_at timestamp(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3),
+  finished_at timestamp(3) NULL DEFAULT NULL,
+  PRIMARY KEY (derivation_id),
+  UNIQUE KEY uq_derivations_key (parent_id, kind, generator_version, content_hash),
+  KEY idx_derivations_status (status, priority, derivation_id),
+  CONSTRAINT material_derivations_ibfk_1 FOREIGN KEY (parent_id) REFERENCES materials (material_id) ON DELETE CASCADE,
+  CONSTRAINT material_derivations_ibfk_2 FOREIGN KEY (result_id) REFERENCES materials (material_id) ON DELETE SET NULL,
+  CONSTRAINT material_derivations_ibfk_3 FOREIGN KEY (requested_by) REFERENCES users (user_id) ON DELETE SET NULL
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_0900_ai_ci;